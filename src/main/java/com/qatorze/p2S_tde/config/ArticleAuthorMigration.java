@@ -0,0 +1,65 @@
+package com.qatorze.p2S_tde.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.qatorze.p2S_tde.models.Article;
+
+/**
+ * Migration au démarrage de l'auteur normalisé des articles et des compteurs d'articles par auteur.
+ *
+ * Les articles créés avant l'ajout de la colonne "author_key" reçoivent leur auteur normalisé, par lots. Si des
+ * articles ont été complétés, ou si la table "author_article_counts" est vide alors que des articles existent,
+ * les compteurs sont recalculés entièrement. Sur une base à jour, la migration ne fait que deux requêtes.
+ */
+@Component
+public class ArticleAuthorMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleAuthorMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int backfilled = 0;
+        List<Map<String, Object>> batch;
+        do {
+            batch = jdbcTemplate.queryForList(
+                    "SELECT ID, author FROM articles WHERE author_key IS NULL ORDER BY ID LIMIT " + BATCH_SIZE);
+            List<Object[]> updates = batch.stream()
+                    .map(row -> new Object[] { Article.authorKeyOf((String) row.get("author")), row.get("ID") })
+                    .toList();
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE articles SET author_key = ? WHERE ID = ?", updates);
+            }
+            backfilled += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        Integer counters = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM author_article_counts", Integer.class);
+        if (backfilled == 0 && counters != null && counters > 0) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM author_article_counts");
+            jdbcTemplate.update("INSERT INTO author_article_counts (author_key, article_count) "
+                              + "SELECT author_key, COUNT(*) FROM articles GROUP BY author_key");
+        });
+        logger.info("Auteur normalisé renseigné pour {} articles, compteurs d'articles par auteur recalculés", backfilled);
+    }
+}
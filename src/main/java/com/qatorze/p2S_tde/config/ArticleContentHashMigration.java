@@ -0,0 +1,62 @@
+package com.qatorze.p2S_tde.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.utils.TextCompressor;
+
+/**
+ * Migration au démarrage de l'empreinte du contenu des articles.
+ *
+ * Les articles enregistrés avant l'ajout de la colonne "content_hash" reçoivent l'empreinte de leur contenu, par
+ * lots, pour que leur rendu HTML soit servi depuis le cache sans charger le contenu. Elle s'exécute après
+ * {@link ArticleContentMigration}, qui déplace les anciens contenus dans "article_bodies". Sur une base à jour,
+ * la migration ne fait qu'une requête.
+ */
+@Component
+@Order(2)
+public class ArticleContentHashMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleContentHashMigration.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int migrated = 0;
+        List<Map<String, Object>> batch;
+        do {
+            batch = jdbcTemplate.queryForList(
+                    "SELECT a.ID, b.compressed_content, b.original_length FROM articles a "
+                  + "JOIN article_bodies b ON b.id = a.body_id WHERE a.content_hash IS NULL ORDER BY a.ID LIMIT " + BATCH_SIZE);
+            List<Object[]> updates = batch.stream()
+                    .map(row -> {
+                        String content = TextCompressor.decompress((byte[]) row.get("compressed_content"),
+                                                                   ((Number) row.get("original_length")).intValue());
+                        return new Object[] { Article.contentHashOf(content), row.get("ID") };
+                    })
+                    .toList();
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE articles SET content_hash = ? WHERE ID = ?", updates);
+            }
+            migrated += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        if (migrated > 0) {
+            logger.info("Empreinte du contenu calculée pour {} articles", migrated);
+        }
+    }
+}
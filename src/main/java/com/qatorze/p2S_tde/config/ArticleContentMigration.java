@@ -0,0 +1,89 @@
+package com.qatorze.p2S_tde.config;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.utils.TextCompressor;
+
+/**
+ * Migration au démarrage du contenu des articles vers la table compressée "article_bodies".
+ *
+ * Les bases créées avant l'introduction de {@link com.qatorze.p2S_tde.models.ArticleBody} contiennent une colonne
+ * "content" (TEXT NOT NULL) dans la table "articles", que {@code ddl-auto=update} ne supprime pas. Tant qu'elle
+ * existe, les contenus sont compressés et déplacés par lots, l'extrait est calculé, puis la colonne est supprimée
+ * (ce qui permet à nouveau d'insérer des articles). Sans colonne "content", la migration ne fait rien.
+ */
+@Component
+@Order(1)
+public class ArticleContentMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleContentMigration.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns "
+              + "WHERE table_schema = DATABASE() AND table_name = 'articles' AND column_name = 'content'",
+                Integer.class);
+        if (legacyColumns == null || legacyColumns == 0) {
+            return;
+        }
+
+        int migrated = 0;
+        List<Map<String, Object>> batch;
+        do {
+            batch = jdbcTemplate.queryForList(
+                    "SELECT ID, content FROM articles WHERE body_id IS NULL ORDER BY ID LIMIT " + BATCH_SIZE);
+            List<Map<String, Object>> rows = batch;
+            transactionTemplate.executeWithoutResult(status -> rows.forEach(this::migrate));
+            migrated += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        jdbcTemplate.execute("ALTER TABLE articles DROP COLUMN content");
+        logger.info("Contenu de {} articles compressé dans article_bodies, colonne articles.content supprimée", migrated);
+    }
+
+    private void migrate(Map<String, Object> row) {
+        long articleId = ((Number) row.get("ID")).longValue();
+        String content = row.get("content") == null ? "" : row.get("content").toString();
+        byte[] compressed = TextCompressor.compress(content);
+        int originalLength = content.getBytes(StandardCharsets.UTF_8).length;
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO article_bodies (compressed_content, original_length) VALUES (?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setBytes(1, compressed);
+            statement.setInt(2, originalLength);
+            return statement;
+        }, keyHolder);
+
+        jdbcTemplate.update("UPDATE articles SET body_id = ?, excerpt = ? WHERE ID = ?",
+                keyHolder.getKey().longValue(), Article.excerptOf(content), articleId);
+    }
+}
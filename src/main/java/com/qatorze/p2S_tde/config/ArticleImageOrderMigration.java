@@ -0,0 +1,61 @@
+package com.qatorze.p2S_tde.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migration au démarrage de la position des images des articles (colonne "image_order" de "article_images").
+ *
+ * Les bases créées avant l'ajout de la colonne ont des images sans position : {@code ddl-auto=update} ajoute la
+ * colonne, vide ou à 0 pour les lignes existantes. Les images de chaque article concerné (positions manquantes ou
+ * en double) sont renumérotées 0, 1, 2… dans l'ordre où elles ont été enregistrées. Sur une base à jour, la
+ * migration ne fait qu'une requête.
+ */
+@Component
+@Order(3)
+public class ArticleImageOrderMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleImageOrderMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // COUNT(DISTINCT) ignore les positions vides : toute position vide ou en double rend les comptes différents.
+        List<Long> articleIds = jdbcTemplate.queryForList(
+                "SELECT article_id FROM article_images GROUP BY article_id "
+              + "HAVING COUNT(DISTINCT image_order) <> COUNT(*)", Long.class);
+        if (articleIds.isEmpty()) {
+            return;
+        }
+
+        for (Long articleId : articleIds) {
+            transactionTemplate.executeWithoutResult(status -> renumber(articleId));
+        }
+        logger.info("Position des images renseignée pour {} articles", articleIds.size());
+    }
+
+    private void renumber(Long articleId) {
+        // Sans clé primaire, InnoDB garde les lignes dans l'ordre d'insertion.
+        List<String> imageUrls = jdbcTemplate.queryForList(
+                "SELECT image_url FROM article_images WHERE article_id = ?", String.class, articleId);
+        jdbcTemplate.update("DELETE FROM article_images WHERE article_id = ?", articleId);
+        for (int position = 0; position < imageUrls.size(); position++) {
+            jdbcTemplate.update("INSERT INTO article_images (article_id, image_url, image_order) VALUES (?, ?, ?)",
+                                articleId, imageUrls.get(position), position);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.qatorze.p2S_tde.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Encodeur BCrypt dont le coût est choisi au démarrage selon la machine.
+ *
+ * {@link #calibrate(long, int, int, boolean)} mesure le temps d'un hachage à un coût de référence et en déduit le coût le
+ * plus élevé dont le hachage reste sous la durée visée (chaque point de coût double la durée). Le coût est écrit
+ * dans chaque hachage ("$2a$12$…"), donc les anciens hachages restent vérifiables ; {@link #upgradeEncoding(String)}
+ * signale ceux dont le coût est plus bas, pour qu'ils soient recalculés à la prochaine connexion réussie.
+ *
+ * Le coût calibré varie d'une machine à l'autre (et d'un démarrage à l'autre) : sans abaissement explicitement
+ * autorisé, un hachage plus coûteux n'est jamais recalculé à un coût plus bas, sinon des nœuds plus lents
+ * affaibliraient les hachages écrits par les plus rapides.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    // Coût de la mesure : assez élevé pour être mesurable, assez bas pour ne pas retarder le démarrage.
+    private static final int REFERENCE_STRENGTH = 8;
+    private static final int MEASUREMENTS = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+    private final int strength;
+    private final boolean allowDowngrade;
+
+    private CalibratedBCryptPasswordEncoder(int strength, boolean allowDowngrade) {
+        super(strength);
+        this.strength = strength;
+        this.allowDowngrade = allowDowngrade;
+    }
+
+    /**
+     * Mesure la machine et crée l'encodeur au coût le plus élevé sous la durée visée.
+     *
+     * @param targetMillis La durée visée d'un hachage, en millisecondes.
+     * @param minStrength  Le coût minimal, même si la machine est lente (sécurité).
+     * @param maxStrength    Le coût maximal.
+     * @param allowDowngrade Recalculer aussi les hachages plus coûteux que le coût calibré (après une baisse
+     *                       volontaire de la cible).
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(long targetMillis, int minStrength, int maxStrength,
+                                                            boolean allowDowngrade) {
+        BCryptPasswordEncoder reference = new BCryptPasswordEncoder(REFERENCE_STRENGTH);
+        reference.encode(SAMPLE_PASSWORD); // Préchauffage (compilation JIT).
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            long start = System.nanoTime();
+            reference.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double referenceMillis = best / 1e6;
+        int strength = REFERENCE_STRENGTH;
+        while (strength < maxStrength && referenceMillis * Math.pow(2, strength + 1 - REFERENCE_STRENGTH) <= targetMillis) {
+            strength++;
+        }
+        while (strength > REFERENCE_STRENGTH && referenceMillis * Math.pow(2, strength - REFERENCE_STRENGTH) > targetMillis) {
+            strength--;
+        }
+        strength = Math.max(minStrength, Math.min(maxStrength, strength));
+        logger.info("Coût BCrypt calibré : {} (environ {} ms par hachage, cible {} ms)", strength,
+                    Math.round(referenceMillis * Math.pow(2, strength - REFERENCE_STRENGTH)), targetMillis);
+        return new CalibratedBCryptPasswordEncoder(strength, allowDowngrade);
+    }
+
+    /**
+     * @return Le coût des nouveaux hachages.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Indique si un hachage doit être recalculé : son coût est plus bas que le coût calibré, ou plus haut si
+     * l'abaissement est autorisé (le coût calibré n'est jamais sous le coût minimal).
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int encodedStrength = strengthOf(encodedPassword);
+        if (encodedStrength < 0) {
+            return false; // Pas un hachage BCrypt reconnu : laissé tel quel.
+        }
+        return encodedStrength < strength || (allowDowngrade && encodedStrength > strength);
+    }
+
+    /**
+     * Lit le coût d'un hachage BCrypt ("$2a$10$…"), ou -1 s'il n'est pas lisible.
+     */
+    private static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.qatorze.p2S_tde.config;
 
 import java.io.IOException; 
-
-
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.qatorze.p2S_tde.dtos.UserResponseDTO;
 import com.qatorze.p2S_tde.services.JwtService;
 
@@ -16,9 +20,19 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+/**
+ * Filtre d'authentification des requêtes portant un token JWT.
+ *
+ * En un seul passage, il vérifie le token JWT (en-tête Authorization) puis le token CSRF (en-tête X-CSRF-Token),
+ * avec les vérificateurs préconstruits de {@link JwtService}, et place l'utilisateur dans le contexte de sécurité
+ * de Spring avec l'autorité ROLE_&lt;rôle&gt;, pour que les règles de {@link SecurityConfig} (hasRole, authenticated)
+ * s'appliquent sans autre traitement.
+ */
 @Component
 public class JwtCsrfFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     @Autowired
     private JwtService jwtService;
 
@@ -26,27 +40,31 @@ public class JwtCsrfFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String jwtToken = request.getHeader("Authorization");
-        String csrfToken = request.getHeader("X-CSRF-Token");
-
-        try {
-            if (jwtToken != null && jwtToken.startsWith("Bearer ")) {
-                jwtToken = jwtToken.substring(7); // Rimuove "Bearer " dall'inizio
-
-                // Validazione del token JWT e ottenimento dei dati utente
-                UserResponseDTO user = jwtService.validateTokenAndGetUser(jwtToken);
-
-                // Validazione del token CSRF
-                if (csrfToken != null && jwtService.validateCsrfToken(csrfToken)) {
-                    // Propaga i dettagli dell'utente al contesto di sicurezza
-                    request.setAttribute("user", user);
-                } else {
-                    response.sendError(HttpServletResponse.SC_FORBIDDEN, "CSRF Token is invalid or missing.");
-                    return;
-                }
+
+        if (jwtToken != null && jwtToken.startsWith(BEARER_PREFIX)) {
+            // Validazione del token JWT e ottenimento dei dati utente
+            UserResponseDTO user;
+            try {
+                user = jwtService.validateTokenAndGetUser(jwtToken.substring(BEARER_PREFIX.length()));
+            } catch (JWTVerificationException ex) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token.");
+                return;
             }
-        } catch (Exception ex) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token.");
-            return;
+
+            // Validazione del token CSRF
+            String csrfToken = request.getHeader("X-CSRF-Token");
+            if (csrfToken == null || !jwtService.validateCsrfToken(csrfToken)) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "CSRF Token is invalid or missing.");
+                return;
+            }
+
+            // Propaga i dettagli dell'utente al contesto di sicurezza
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            SecurityContextHolder.setContext(context);
+            request.setAttribute("user", user);
         }
 
         // Procedi con la catena dei filtri
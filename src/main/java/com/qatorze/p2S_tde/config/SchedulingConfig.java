@@ -0,0 +1,13 @@
+package com.qatorze.p2S_tde.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active l'exécution des tâches planifiées ({@code @Scheduled}) de l'application,
+ * utilisées par les traitements de fond (détection de doublons, agrégations, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
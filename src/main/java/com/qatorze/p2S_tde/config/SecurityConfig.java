@@ -1,5 +1,6 @@
 package com.qatorze.p2S_tde.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -15,6 +16,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import com.qatorze.p2S_tde.services.AuthService;
 import com.qatorze.p2S_tde.services.JwtService;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -40,8 +42,12 @@ public class SecurityConfig {
     }
     
     @Bean // Rend l'objet disponible dans le contest de l'application, permettant aux autres composants de l'injecter ou' necessaire, par exemple dans les service d'authentification
-    BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    BCryptPasswordEncoder passwordEncoder(@Value("${auth.bcrypt.target-ms:100}") long targetMillis,
+                                          @Value("${auth.bcrypt.min-strength:10}") int minStrength,
+                                          @Value("${auth.bcrypt.max-strength:14}") int maxStrength,
+                                          @Value("${auth.bcrypt.allow-downgrade:false}") boolean allowDowngrade) {
+        // Coût choisi au démarrage selon la vitesse de la machine (voir CalibratedBCryptPasswordEncoder).
+        return CalibratedBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength, allowDowngrade);
     }
 
     /**
@@ -68,12 +74,17 @@ public class SecurityConfig {
         http
             .csrf(csrf -> csrf.disable()) // "Désactive CSRF pour les APIs stateless, car pas necessaire dans le cas des applications basées sur JWT car il n'existe pas de session coté server.
             .authorizeHttpRequests((requests) -> requests
+            		.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Fin d'une réponse écrite en flux (export CSV) : la requête d'origine a déjà été autorisée.
+            		.requestMatchers(HttpMethod.POST, "/api/properties/*/bookings").authenticated() // Réserver : la réservation appartient à l'utilisateur du token.
+            		.requestMatchers(HttpMethod.DELETE, "/api/properties/bookings/*").authenticated() // Annuler : auteur de la réservation ou administrateur (vérifié par le service).
             		 // Permetti l'accesso pubblico a tutti gli endpoint delle proprietà
                     .requestMatchers(HttpMethod.GET, "/api/properties/**").permitAll()  // Permette l'accesso pubblico a tutti i GET per /api/properties/**
                     .requestMatchers(HttpMethod.POST, "/api/properties/**").permitAll() // Permette l'accesso pubblico a tutti i POST per /api/properties/**
                     .requestMatchers(HttpMethod.PUT, "/api/properties/**").permitAll()  // Permette l'accesso pubblico a tutti i PUT per /api/properties/**
                     .requestMatchers(HttpMethod.DELETE, "/api/properties/**").permitAll() // Permette l'accesso pubblico a tutti i DELETE per /api/properties/**
 
+            		.requestMatchers(HttpMethod.GET, "/sitemap.xml", "/sitemaps/**", "/feeds/**").permitAll() // Sitemap et flux Atom publics, pour les robots et lecteurs de flux.
+            		.requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll() // Clés publiques de vérification des tokens JWT.
             		.requestMatchers("/api/auth/**").permitAll() // Endpoint public, comme login e register, accéssibles sans authentication, donc sans token.
             		.requestMatchers("/api/password-reset/request").permitAll()
             		.requestMatchers("/api/password-reset/reset").permitAll()
@@ -0,0 +1,57 @@
+package com.qatorze.p2S_tde.dtos;
+
+import java.util.List;
+
+/**
+ * DTO utilisé pour renvoyer une page de la liste des articles, du plus récent au plus ancien.
+ * Pour obtenir la page suivante, le client renvoie {@code nextCursor} comme paramètre {@code cursor}.
+ */
+public class ArticlePageDTO {
+
+    private List<ArticleSummaryDTO> items; // Les articles de la page.
+    private Long nextCursor; // Curseur de la page suivante, ou null s'il n'y en a pas.
+    private Long totalCount; // Nombre total d'articles de la liste, ou null s'il n'est pas calculé.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public ArticlePageDTO() {
+        super();
+    }
+
+    /**
+     * Constructeur avec paramètres.
+     * @param items Les articles de la page.
+     * @param nextCursor Curseur de la page suivante, ou null s'il n'y en a pas.
+     */
+    public ArticlePageDTO(List<ArticleSummaryDTO> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters et setters
+
+    public List<ArticleSummaryDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ArticleSummaryDTO> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(Long totalCount) {
+        this.totalCount = totalCount;
+    }
+}
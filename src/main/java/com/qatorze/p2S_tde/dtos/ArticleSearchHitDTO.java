@@ -0,0 +1,92 @@
+package com.qatorze.p2S_tde.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO utilisé pour renvoyer un article trouvé par la recherche plein texte.
+ * L'extrait contient les termes recherchés entourés de balises {@code <mark>} ; le reste du texte est échappé.
+ */
+public class ArticleSearchHitDTO {
+
+    private Long id; // Identifiant unique de l'article.
+    private String title; // Titre de l'article.
+    private String author; // Auteur de l'article.
+    private LocalDateTime creationDate; // Date de création de l'article.
+    private double score; // Score de pertinence (BM25).
+    private String snippet; // Extrait HTML du contenu avec les termes surlignés.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public ArticleSearchHitDTO() {
+        super();
+    }
+
+    /**
+     * Constructeur avec paramètres.
+     * @param id Identifiant unique de l'article.
+     * @param title Titre de l'article.
+     * @param author Auteur de l'article.
+     * @param creationDate Date de création de l'article.
+     * @param score Score de pertinence.
+     * @param snippet Extrait HTML du contenu avec les termes surlignés.
+     */
+    public ArticleSearchHitDTO(Long id, String title, String author, LocalDateTime creationDate, double score, String snippet) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.creationDate = creationDate;
+        this.score = score;
+        this.snippet = snippet;
+    }
+
+    // Getters et setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+}
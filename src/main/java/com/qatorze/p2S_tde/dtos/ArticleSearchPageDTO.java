@@ -0,0 +1,70 @@
+package com.qatorze.p2S_tde.dtos;
+
+import java.util.List;
+
+/**
+ * DTO utilisé pour renvoyer une page de résultats de la recherche plein texte dans les articles,
+ * du plus pertinent au moins pertinent.
+ */
+public class ArticleSearchPageDTO {
+
+    private List<ArticleSearchHitDTO> items; // Les articles trouvés sur cette page.
+    private int page; // Numéro de la page (à partir de 0).
+    private int size; // Nombre maximal d'articles par page.
+    private long totalHits; // Nombre total d'articles correspondant à la recherche.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public ArticleSearchPageDTO() {
+        super();
+    }
+
+    /**
+     * Constructeur avec paramètres.
+     * @param items Les articles trouvés sur cette page.
+     * @param page Numéro de la page (à partir de 0).
+     * @param size Nombre maximal d'articles par page.
+     * @param totalHits Nombre total d'articles correspondant à la recherche.
+     */
+    public ArticleSearchPageDTO(List<ArticleSearchHitDTO> items, int page, int size, long totalHits) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalHits = totalHits;
+    }
+
+    // Getters et setters
+
+    public List<ArticleSearchHitDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ArticleSearchHitDTO> items) {
+        this.items = items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+}
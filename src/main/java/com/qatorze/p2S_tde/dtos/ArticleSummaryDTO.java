@@ -0,0 +1,91 @@
+package com.qatorze.p2S_tde.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO utilisé pour la liste des articles (page d'accueil du blog).
+ * Il ne contient qu'un extrait du contenu et la première image : le contenu complet
+ * n'est renvoyé que par la consultation d'un article.
+ */
+public class ArticleSummaryDTO {
+
+    private Long id; // Identifiant unique de l'article.
+    private String title; // Titre de l'article.
+    private String author; // Auteur de l'article.
+    private LocalDateTime creationDate; // Date de création de l'article.
+    private String firstImageUrl; // URL de la première image de l'article, ou null.
+    private String excerpt; // Début du contenu de l'article.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public ArticleSummaryDTO() {
+        super();
+    }
+
+    /**
+     * Constructeur utilisé par la projection JPQL (la première image est renseignée ensuite).
+     * @param id Identifiant unique de l'article.
+     * @param title Titre de l'article.
+     * @param author Auteur de l'article.
+     * @param creationDate Date de création de l'article.
+     * @param excerpt Début du contenu de l'article.
+     */
+    public ArticleSummaryDTO(Long id, String title, String author, LocalDateTime creationDate, String excerpt) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.creationDate = creationDate;
+        this.excerpt = excerpt;
+    }
+
+    // Getters et setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public String getFirstImageUrl() {
+        return firstImageUrl;
+    }
+
+    public void setFirstImageUrl(String firstImageUrl) {
+        this.firstImageUrl = firstImageUrl;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+}
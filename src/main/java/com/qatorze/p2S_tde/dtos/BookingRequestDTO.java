@@ -0,0 +1,43 @@
+package com.qatorze.p2S_tde.dtos;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO utilisé pour demander la réservation d'une propriété en location.
+ * La date de départ est exclue de la période réservée.
+ */
+public class BookingRequestDTO {
+
+    @NotNull(message = "La date d'arrivée ne peut pas etre vide")
+    private LocalDate startDate; // Date d'arrivée (incluse).
+
+    @NotNull(message = "La date de départ ne peut pas etre vide")
+    private LocalDate endDate; // Date de départ (exclue).
+
+    public BookingRequestDTO() {} // Constructeur par défaut.
+
+    // Constructeur avec paramètres.
+    public BookingRequestDTO(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters et setters.
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+}
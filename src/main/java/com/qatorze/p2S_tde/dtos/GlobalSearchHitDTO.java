@@ -0,0 +1,79 @@
+package com.qatorze.p2S_tde.dtos;
+
+/**
+ * DTO utilisé pour renvoyer un résultat de la recherche globale de la console d'administration
+ * (propriété, article ou utilisateur).
+ */
+public class GlobalSearchHitDTO {
+
+    private String type; // Type de résultat : "property", "article" ou "user".
+    private Long id; // ID de l'entité trouvée.
+    private String title; // Libellé principal (titre, ou nom de l'utilisateur).
+    private String subtitle; // Libellé secondaire (localisation, auteur ou e-mail).
+    private double score; // Score de pertinence, entre 0 et 1, comparable entre les types.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public GlobalSearchHitDTO() {
+        super();
+    }
+
+    /**
+     * Constructeur avec paramètres.
+     * @param type Type de résultat : "property", "article" ou "user".
+     * @param id ID de l'entité trouvée.
+     * @param title Libellé principal.
+     * @param subtitle Libellé secondaire.
+     * @param score Score de pertinence, entre 0 et 1.
+     */
+    public GlobalSearchHitDTO(String type, Long id, String title, String subtitle, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.score = score;
+    }
+
+    // Getters et setters
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSubtitle() {
+        return subtitle;
+    }
+
+    public void setSubtitle(String subtitle) {
+        this.subtitle = subtitle;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
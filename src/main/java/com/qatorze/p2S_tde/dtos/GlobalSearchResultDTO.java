@@ -0,0 +1,48 @@
+package com.qatorze.p2S_tde.dtos;
+
+import java.util.List;
+
+/**
+ * DTO utilisé pour renvoyer les résultats de la recherche globale de la console d'administration,
+ * tous types confondus, du plus pertinent au moins pertinent.
+ */
+public class GlobalSearchResultDTO {
+
+    private List<GlobalSearchHitDTO> hits; // Les résultats fusionnés.
+    private List<String> incompleteTypes; // Types dont l'index n'a pas répondu à temps ou n'est pas encore chargé.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public GlobalSearchResultDTO() {
+        super();
+    }
+
+    /**
+     * Constructeur avec paramètres.
+     * @param hits Les résultats fusionnés.
+     * @param incompleteTypes Types dont les résultats sont absents ou partiels (vide si la réponse est complète).
+     */
+    public GlobalSearchResultDTO(List<GlobalSearchHitDTO> hits, List<String> incompleteTypes) {
+        this.hits = hits;
+        this.incompleteTypes = incompleteTypes;
+    }
+
+    // Getters et setters
+
+    public List<GlobalSearchHitDTO> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<GlobalSearchHitDTO> hits) {
+        this.hits = hits;
+    }
+
+    public List<String> getIncompleteTypes() {
+        return incompleteTypes;
+    }
+
+    public void setIncompleteTypes(List<String> incompleteTypes) {
+        this.incompleteTypes = incompleteTypes;
+    }
+}
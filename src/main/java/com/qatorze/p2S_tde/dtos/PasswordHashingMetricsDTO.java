@@ -0,0 +1,98 @@
+package com.qatorze.p2S_tde.dtos;
+
+/**
+ * DTO utilisé pour renvoyer les métriques de l'exécuteur dédié au hachage des mots de passe (BCrypt).
+ */
+public class PasswordHashingMetricsDTO {
+
+    private int threads; // Nombre de threads de hachage.
+    private int queueCapacity; // Capacité de la file d'attente.
+    private int queued; // Tâches en attente.
+    private int active; // Tâches en cours d'exécution.
+    private long completed; // Tâches terminées depuis le démarrage.
+    private long rejected; // Tâches refusées (file pleine, réponse 429) depuis le démarrage.
+    private double averageQueueMillis; // Temps moyen passé dans la file, en millisecondes.
+    private double maxQueueMillis; // Temps maximal passé dans la file, en millisecondes.
+    private double averageRunMillis; // Durée moyenne d'exécution d'une tâche, en millisecondes.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public PasswordHashingMetricsDTO() {
+        super();
+    }
+
+    // Getters et setters
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public void setActive(int active) {
+        this.active = active;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public double getAverageQueueMillis() {
+        return averageQueueMillis;
+    }
+
+    public void setAverageQueueMillis(double averageQueueMillis) {
+        this.averageQueueMillis = averageQueueMillis;
+    }
+
+    public double getMaxQueueMillis() {
+        return maxQueueMillis;
+    }
+
+    public void setMaxQueueMillis(double maxQueueMillis) {
+        this.maxQueueMillis = maxQueueMillis;
+    }
+
+    public double getAverageRunMillis() {
+        return averageRunMillis;
+    }
+
+    public void setAverageRunMillis(double averageRunMillis) {
+        this.averageRunMillis = averageRunMillis;
+    }
+}
@@ -0,0 +1,47 @@
+package com.qatorze.p2S_tde.dtos;
+
+import com.qatorze.p2S_tde.models.Property;
+
+/**
+ * DTO utilisé pour renvoyer une propriété accompagnée de son nombre de consultations sur une période.
+ */
+public class PropertyViewsDTO {
+
+    private Property property; // La propriété consultée.
+    private long views; // Nombre de consultations sur la période.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public PropertyViewsDTO() {
+        super();
+    }
+
+    /**
+     * Constructeur avec paramètres.
+     * @param property La propriété consultée.
+     * @param views Nombre de consultations sur la période.
+     */
+    public PropertyViewsDTO(Property property, long views) {
+        this.property = property;
+        this.views = views;
+    }
+
+    // Getters et setters
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public void setProperty(Property property) {
+        this.property = property;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
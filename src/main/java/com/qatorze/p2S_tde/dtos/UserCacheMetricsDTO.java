@@ -0,0 +1,71 @@
+package com.qatorze.p2S_tde.dtos;
+
+/**
+ * DTO utilisé pour renvoyer les métriques du cache des utilisateurs.
+ */
+public class UserCacheMetricsDTO {
+
+    private long hits; // Lectures servies par le cache depuis le démarrage.
+    private long misses; // Lectures faites en base depuis le démarrage.
+    private double hitRatio; // Part des lectures servies par le cache (entre 0 et 1).
+    private int size; // Utilisateurs actuellement en cache.
+    private int maxEntries; // Nombre maximal d'utilisateurs en cache.
+    private long ttlSeconds; // Durée de vie d'une entrée, en secondes.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public UserCacheMetricsDTO() {
+        super();
+    }
+
+    // Getters et setters
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
@@ -0,0 +1,80 @@
+package com.qatorze.p2S_tde.dtos;
+
+import java.util.List;
+
+/**
+ * DTO utilisé pour renvoyer une page de la liste des utilisateurs de la console d'administration.
+ */
+public class UserPageDTO {
+
+    private List<UserResponseDTO> items; // Les utilisateurs de la page.
+    private int page; // Numéro de la page (à partir de 0).
+    private int size; // Taille de la page.
+    private long totalElements; // Nombre total d'utilisateurs.
+    private int totalPages; // Nombre total de pages.
+
+    /**
+     * Constructeur par défaut.
+     */
+    public UserPageDTO() {
+        super();
+    }
+
+    /**
+     * Constructeur avec paramètres.
+     * @param items Les utilisateurs de la page.
+     * @param page Numéro de la page (à partir de 0).
+     * @param size Taille de la page.
+     * @param totalElements Nombre total d'utilisateurs.
+     * @param totalPages Nombre total de pages.
+     */
+    public UserPageDTO(List<UserResponseDTO> items, int page, int size, long totalElements, int totalPages) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    // Getters et setters
+
+    public List<UserResponseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UserResponseDTO> items) {
+        this.items = items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+}
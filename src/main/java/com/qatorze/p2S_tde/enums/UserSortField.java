@@ -0,0 +1,22 @@
+package com.qatorze.p2S_tde.enums;
+
+/**
+ * Colonnes autorisées pour trier la liste des utilisateurs de la console d'administration.
+ */
+public enum UserSortField {
+    ID("id"),
+    SURNAME("surname"),
+    NAME("name"),
+    ROLE("role"),
+    EMAIL("email");
+
+    private final String property; // Attribut correspondant de l'entité User.
+
+    UserSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+}
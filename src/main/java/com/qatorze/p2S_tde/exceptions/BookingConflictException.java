@@ -0,0 +1,22 @@
+package com.qatorze.p2S_tde.exceptions;
+
+import java.time.LocalDate;
+
+/**
+ * Exception levée lorsqu'une réservation chevauche une réservation existante de la même propriété.
+ */
+public class BookingConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L; // Requis pour la sérialisation.
+
+    /**
+     * Constructeur avec un message personnalisé contenant la propriété et la période demandée.
+     * 
+     * @param propertyId L'ID de la propriété.
+     * @param startDate La date d'arrivée demandée.
+     * @param endDate La date de départ demandée.
+     */
+    public BookingConflictException(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        super("La propriété " + propertyId + " n'est pas disponible du " + startDate + " au " + endDate + ".");
+    }
+}
@@ -0,0 +1,19 @@
+package com.qatorze.p2S_tde.exceptions;
+
+/**
+ * Exception levée lorsqu'une demande de réservation est invalide (dates manquantes ou incohérentes, date
+ * d'arrivée passée, propriété qui n'est pas en location).
+ */
+public class InvalidBookingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L; // Requis pour la sérialisation.
+
+    /**
+     * Constructeur avec un message personnalisé.
+     * 
+     * @param message Le message décrivant l'erreur.
+     */
+    public InvalidBookingException(String message) {
+        super(message);
+    }
+}
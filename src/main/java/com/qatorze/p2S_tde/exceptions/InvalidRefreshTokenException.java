@@ -0,0 +1,16 @@
+package com.qatorze.p2S_tde.exceptions;
+
+/**
+ * Exception levée lorsque le token de rafraîchissement est absent, inconnu, expiré ou déjà utilisé.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L; // Requis pour la sérialisation.
+
+    /**
+     * Constructeur par défaut avec un message d'erreur prédéfini.
+     */
+    public InvalidRefreshTokenException() {
+        super("Invalid or expired refresh token.");
+    }
+}
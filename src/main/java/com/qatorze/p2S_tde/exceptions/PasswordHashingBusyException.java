@@ -0,0 +1,17 @@
+package com.qatorze.p2S_tde.exceptions;
+
+/**
+ * Exception levée lorsque l'exécuteur de hachage des mots de passe est saturé : la requête est refusée
+ * immédiatement (429) plutôt que d'attendre et d'occuper un thread de requête.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L; // Requis pour la sérialisation.
+
+    /**
+     * Constructeur par défaut avec un message d'erreur prédéfini.
+     */
+    public PasswordHashingBusyException() {
+        super("Too many authentication requests, please retry shortly.");
+    }
+}
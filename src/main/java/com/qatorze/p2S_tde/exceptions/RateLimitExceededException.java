@@ -0,0 +1,26 @@
+package com.qatorze.p2S_tde.exceptions;
+
+/**
+ * Exception levée lorsqu'une adresse IP ou un e-mail a dépassé le nombre de tentatives autorisé
+ * (connexion, enregistrement, réinitialisation du mot de passe).
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L; // Requis pour la sérialisation.
+
+    private final long retryAfterSeconds; // Délai avant la prochaine tentative autorisée.
+
+    /**
+     * Constructeur avec le délai avant la prochaine tentative autorisée.
+     * 
+     * @param retryAfterSeconds Le délai, en secondes (au moins 1).
+     */
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many attempts, please retry in " + retryAfterSeconds + " seconds.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
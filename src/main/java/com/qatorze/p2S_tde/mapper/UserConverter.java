@@ -9,6 +9,7 @@ import com.qatorze.p2S_tde.dtos.LoginRequestDTO;
 import com.qatorze.p2S_tde.dtos.RegisterRequestDTO;
 import com.qatorze.p2S_tde.dtos.UserRequestDTO;
 import com.qatorze.p2S_tde.models.User;
+import com.qatorze.p2S_tde.services.UserCache;
 import com.qatorze.p2S_tde.utils.EmailMasking;
 
 /**
@@ -39,6 +40,24 @@ public class UserConverter {
         );
     }
 
+    /**
+     * Convertit un utilisateur servi par le cache (`UserCache`) en `UserResponseDTO`, comme
+     * {@link #convertUserToUserResponseDTO(User)}.
+     *
+     * @param user La copie en cache de l'utilisateur.
+     * @return Un objet `UserResponseDTO` contenant les données nécessaires pour le frontend.
+     */
+    public UserResponseDTO convertCachedUserToUserResponseDTO(UserCache.CachedUser user) {
+        return new UserResponseDTO(
+            user.id(),
+            user.surname(),
+            user.name(),
+            user.role(),
+            EmailMasking.maskEmail(user.email()),
+            user.imagePath()
+        );
+    }
+
     /**
      * Convertit un objet `LoginRequestDTO` en une entité `User`.
      * Utile pour les tentatives de connexion, où seules l'email et le mot de passe sont requis.
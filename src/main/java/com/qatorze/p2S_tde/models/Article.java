@@ -1,7 +1,14 @@
 package com.qatorze.p2S_tde.models;
 
+import com.qatorze.p2S_tde.utils.TextNormalizer;
+
 import jakarta.persistence.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 
 /**
@@ -9,9 +16,14 @@ import java.util.List;
  * Cette entité est mappée à la table "articles" dans la base de données.
  */
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = @Index(name = "idx_article_author_key", columnList = "author_key, ID"))
 public class Article {
 
+    /**
+     * Nombre maximal de caractères de l'extrait, avant les points de suspension
+     */
+    public static final int EXCERPT_MAX_LENGTH = 200;
+
     /**
      * L'identifiant unique de l'article
      */
@@ -27,17 +39,31 @@ public class Article {
     private String title;
 
     /**
-     * Le contenu de l'article
+     * Le contenu de l'article, compressé dans une table séparée et chargé à la demande
      */
-    @Column(name = "content", columnDefinition = "TEXT", nullable = false)
-    private String content;
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "body_id")
+    private ArticleBody body;
 
     /**
-     * Les URL des images associées à l'article
+     * Le début du contenu de l'article, affiché dans les listes d'articles
+     */
+    @Column(name = "excerpt", length = EXCERPT_MAX_LENGTH + 1)
+    private String excerpt;
+
+    /**
+     * L'empreinte SHA-256 (hexadécimale) du contenu, qui identifie sa révision (clé du cache du rendu HTML)
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * Les URL des images associées à l'article, dans l'ordre choisi par l'auteur (la première sert de vignette)
      */
     @ElementCollection
     @CollectionTable(name = "article_images", joinColumns = @JoinColumn(name = "article_id"))
     @Column(name = "image_url", length = 255, nullable = false)
+    @OrderColumn(name = "image_order")
     private List<String> imageUrls;
 
     /**
@@ -46,12 +72,25 @@ public class Article {
     @Column(name = "creation_date", nullable = false, updatable = false)
     private LocalDateTime creationDate;
 
+    /**
+     * La date de la dernière création ou modification de l'article (vide pour les articles plus anciens que la
+     * colonne), qui permet de savoir si une sauvegarde de l'index de recherche est à jour
+     */
+    @Column(name = "modification_date")
+    private LocalDateTime modificationDate;
+
     /**
      * L'auteur de l'article
      */
     @Column(name = "author", length = 50, nullable = false)
     private String author;
 
+    /**
+     * L'auteur normalisé (minuscules, sans accents), indexé pour lister les articles d'un auteur
+     */
+    @Column(name = "author_key", length = 50)
+    private String authorKey;
+
     /**
      * Constructeur sans paramètres
      */
@@ -68,10 +107,10 @@ public class Article {
      */
     public Article(String title, String content, List<String> imageUrls, LocalDateTime creationDate, String author) {
         this.title = title;
-        this.content = content;
+        setContent(content);
         this.imageUrls = imageUrls;
         this.creationDate = creationDate;
-        this.author = author;
+        setAuthor(author);
     }
 
     /**
@@ -87,10 +126,10 @@ public class Article {
     public Article(Long id, String title, String content, List<String> imageUrls, LocalDateTime creationDate, String author) {
         this.id = id;
         this.title = title;
-        this.content = content;
+        setContent(content);
         this.imageUrls = imageUrls;
         this.creationDate = creationDate;
-        this.author = author;
+        setAuthor(author);
     }
 
     /**
@@ -135,16 +174,66 @@ public class Article {
      * @return Le contenu de l'article
      */
     public String getContent() {
-        return content;
+        return body == null ? null : body.getContent();
     }
 
     /**
-     * Définit le contenu de l'article
+     * Définit le contenu de l'article (compressé) et met à jour son extrait
      * 
      * @param content Le contenu de l'article
      */
     public void setContent(String content) {
-        this.content = content;
+        if (content == null) {
+            this.body = null;
+            this.excerpt = null;
+            this.contentHash = null;
+            return;
+        }
+        if (body == null) {
+            body = new ArticleBody(content);
+        } else {
+            body.setContent(content);
+        }
+        this.excerpt = excerptOf(content);
+        this.contentHash = contentHashOf(content);
+    }
+
+    /**
+     * Retourne le début du contenu de l'article
+     * 
+     * @return L'extrait de l'article
+     */
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    /**
+     * Coupe un contenu au dernier espace avant {@value #EXCERPT_MAX_LENGTH} caractères
+     * 
+     * @param content Le contenu de l'article
+     * @return L'extrait, suivi de "…" s'il est tronqué
+     */
+    public static String excerptOf(String content) {
+        if (content.length() <= EXCERPT_MAX_LENGTH) {
+            return content;
+        }
+        int end = content.lastIndexOf(' ', EXCERPT_MAX_LENGTH);
+        return content.substring(0, end > 0 ? end : EXCERPT_MAX_LENGTH).strip() + "…";
+    }
+
+    /**
+     * Calcule l'empreinte d'un contenu
+     * 
+     * @param content Le contenu de l'article
+     * @return L'empreinte SHA-256 du contenu (UTF-8), en hexadécimal
+     */
+    public static String contentHashOf(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible.", e);
+        }
     }
 
     /**
@@ -183,6 +272,24 @@ public class Article {
         this.creationDate = creationDate;
     }
 
+    /**
+     * Retourne la date de dernière modification de l'article
+     * 
+     * @return La date de dernière modification, ou null si l'article n'a pas été modifié depuis l'ajout de la colonne
+     */
+    public LocalDateTime getModificationDate() {
+        return modificationDate;
+    }
+
+    /**
+     * Définit la date de dernière modification de l'article
+     * 
+     * @param modificationDate La date de dernière modification
+     */
+    public void setModificationDate(LocalDateTime modificationDate) {
+        this.modificationDate = modificationDate;
+    }
+
     /**
      * Retourne l'auteur de l'article
      * 
@@ -199,6 +306,17 @@ public class Article {
      */
     public void setAuthor(String author) {
         this.author = author;
+        this.authorKey = authorKeyOf(author);
+    }
+
+    /**
+     * Normalise un nom d'auteur pour la recherche par auteur
+     * 
+     * @param author Le nom de l'auteur
+     * @return Le nom normalisé, ou null si l'auteur est null
+     */
+    public static String authorKeyOf(String author) {
+        return author == null ? null : TextNormalizer.normalize(author);
     }
 
     /**
@@ -213,8 +331,8 @@ public class Article {
 		builder.append(id);
 		builder.append(", title=");
 		builder.append(title);
-		builder.append(", content=");
-		builder.append(content);
+		builder.append(", excerpt=");
+		builder.append(excerpt);
 		builder.append(", imageUrls=");
 		builder.append(imageUrls);
 		builder.append(", creationDate=");
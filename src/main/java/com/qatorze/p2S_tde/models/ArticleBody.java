@@ -0,0 +1,73 @@
+package com.qatorze.p2S_tde.models;
+
+import com.qatorze.p2S_tde.utils.TextCompressor;
+
+import jakarta.persistence.*;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Représente le contenu d'un article, stocké compressé (Deflate) dans une table séparée.
+ * Il est chargé à la demande par {@link Article} et décompressé seulement lorsqu'il est lu :
+ * les listes et recherches d'articles ne transfèrent ni ne décompressent jamais les contenus.
+ *
+ * Cette entité est mappée à la table "article_bodies" dans la base de données.
+ */
+@Entity
+@Table(name = "article_bodies")
+public class ArticleBody {
+
+    // L'identifiant unique du contenu
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    // Le contenu compressé
+    @Lob
+    @Column(name = "compressed_content", columnDefinition = "LONGBLOB", nullable = false)
+    private byte[] compressedContent;
+
+    // La taille du contenu décompressé, en octets (UTF-8)
+    @Column(name = "original_length", nullable = false)
+    private Integer originalLength;
+
+    // Le contenu décompressé, gardé après la première lecture
+    @Transient
+    private String content;
+
+    // Constructeur sans paramètres
+    public ArticleBody() {}
+
+    // Constructeur à partir du contenu en clair
+    public ArticleBody(String content) {
+        setContent(content);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Retourne le contenu décompressé (la décompression n'a lieu qu'une fois).
+     *
+     * @return Le contenu de l'article
+     */
+    public String getContent() {
+        if (content == null && compressedContent != null) {
+            content = TextCompressor.decompress(compressedContent, originalLength);
+        }
+        return content;
+    }
+
+    /**
+     * Remplace le contenu et le compresse.
+     *
+     * @param content Le nouveau contenu (non null)
+     */
+    public void setContent(String content) {
+        this.content = content;
+        this.compressedContent = TextCompressor.compress(content);
+        this.originalLength = content.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
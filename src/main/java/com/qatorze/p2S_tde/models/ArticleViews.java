@@ -0,0 +1,45 @@
+package com.qatorze.p2S_tde.models;
+
+import jakarta.persistence.*;
+
+/**
+ * Représente le nombre de lectures d'un article.
+ * Le compteur est gardé hors de la table "articles" : son incrémentation par lots ne verrouille pas la ligne
+ * de l'article et ne modifie pas sa réponse JSON (mise en cache).
+ *
+ * Cette entité est mappée à la table "article_views" dans la base de données.
+ */
+@Entity
+@Table(name = "article_views")
+public class ArticleViews {
+
+    // L'identifiant de l'article lu
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    // Le nombre de lectures de l'article
+    @Column(name = "views", nullable = false)
+    private Long views;
+
+    // Constructeur sans paramètres
+    public ArticleViews() {}
+
+    // Getters et setters pour chaque attribut
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(Long articleId) {
+        this.articleId = articleId;
+    }
+
+    public Long getViews() {
+        return views;
+    }
+
+    public void setViews(Long views) {
+        this.views = views;
+    }
+}
@@ -0,0 +1,45 @@
+package com.qatorze.p2S_tde.models;
+
+import jakarta.persistence.*;
+
+/**
+ * Représente le nombre d'articles publiés par un auteur.
+ * Le compteur est tenu à jour à chaque création, suppression ou changement d'auteur d'un article,
+ * ce qui évite de compter les articles de l'auteur à chaque consultation de sa liste.
+ *
+ * Cette entité est mappée à la table "author_article_counts" dans la base de données.
+ */
+@Entity
+@Table(name = "author_article_counts")
+public class AuthorArticleCount {
+
+    // L'auteur normalisé (voir Article.authorKeyOf)
+    @Id
+    @Column(name = "author_key", length = 50)
+    private String authorKey;
+
+    // Le nombre d'articles de l'auteur
+    @Column(name = "article_count", nullable = false)
+    private Long articleCount;
+
+    // Constructeur sans paramètres
+    public AuthorArticleCount() {}
+
+    // Getters et setters pour chaque attribut
+
+    public String getAuthorKey() {
+        return authorKey;
+    }
+
+    public void setAuthorKey(String authorKey) {
+        this.authorKey = authorKey;
+    }
+
+    public Long getArticleCount() {
+        return articleCount;
+    }
+
+    public void setArticleCount(Long articleCount) {
+        this.articleCount = articleCount;
+    }
+}
@@ -0,0 +1,122 @@
+package com.qatorze.p2S_tde.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Représente une réservation d'une propriété en location sur une période donnée.
+ * La période est semi-ouverte : la date de début est incluse, la date de fin (jour du départ) est exclue,
+ * ce qui permet d'enchaîner deux réservations le même jour.
+ *
+ * Cette entité est mappée à la table "property_bookings" dans la base de données.
+ */
+@Entity
+@Table(name = "property_bookings", indexes = @Index(name = "idx_booking_property", columnList = "property_id"))
+public class Booking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id; // Identifiant unique de la réservation
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId; // ID de la propriété réservée
+
+    @JsonIgnore // Le calendrier d'une propriété est public, l'identité de ceux qui l'ont réservée ne l'est pas.
+    @Column(name = "user_id", nullable = true)
+    private Long userId; // ID de l'utilisateur qui a réservé (null pour les réservations antérieures à ce champ)
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate; // Date d'arrivée (incluse)
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate; // Date de départ (exclue)
+
+    @Column(name = "creation_date", nullable = false, updatable = false)
+    private LocalDateTime creationDate; // Date d'enregistrement de la réservation
+
+    // Constructeur par défaut
+    public Booking() {}
+
+    // Constructeur pour initialiser une nouvelle réservation
+    public Booking(Long propertyId, Long userId, LocalDate startDate, LocalDate endDate, LocalDateTime creationDate) {
+        this.propertyId = propertyId;
+        this.userId = userId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.creationDate = creationDate;
+    }
+
+    // Getters et setters pour chaque attribut
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Booking [id=");
+        builder.append(id);
+        builder.append(", propertyId=");
+        builder.append(propertyId);
+        builder.append(", userId=");
+        builder.append(userId);
+        builder.append(", startDate=");
+        builder.append(startDate);
+        builder.append(", endDate=");
+        builder.append(endDate);
+        builder.append(", creationDate=");
+        builder.append(creationDate);
+        builder.append("]");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.qatorze.p2S_tde.models;
+
+import jakarta.persistence.*;
+
+/**
+ * Représente une paire de clés ECDSA P-256 (ES256) servant à signer et vérifier les tokens JWT
+ * (voir {@link com.qatorze.p2S_tde.services.JwtKeyRing}).
+ *
+ * Les tokens portent l'identifiant de la clé (en-tête kid). La clé la plus récente signe ; les clés remplacées
+ * restent utilisables pour la vérification jusqu'à l'expiration des tokens qu'elles ont signés, puis sont
+ * supprimées. Les clés sont en base pour être partagées par tous les nœuds qui émettent des tokens ; la clé privée
+ * y est chiffrée (AES-256-GCM) avec une clé de chiffrement que seuls ces nœuds détiennent (jwt.keys.encryption-key,
+ * fournie par l'environnement). Les nœuds qui ne font que vérifier ne lisent que les clés publiques.
+ *
+ * Cette entité est mappée à la table "jwt_signing_keys" dans la base de données.
+ */
+@Entity
+@Table(name = "jwt_signing_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_jwt_signing_key_kid", columnNames = "kid"))
+public class JwtSigningKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id; // Identifiant unique de la clé
+
+    @Column(name = "kid", nullable = false, length = 32)
+    private String kid; // Identifiant de la clé, dans l'en-tête des tokens
+
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey; // Clé publique X.509, en Base64
+
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey; // Clé privée PKCS#8 chiffrée : "v1:" suivi du vecteur d'initialisation et du chiffré, en Base64
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt; // Heure de création, en millisecondes depuis l'époque
+
+    // Constructeur par défaut
+    public JwtSigningKey() {}
+
+    public JwtSigningKey(String kid, String publicKey, String privateKey, Long createdAt) {
+        this.kid = kid;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.createdAt = createdAt;
+    }
+
+    // Getters et setters pour chaque attribut
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
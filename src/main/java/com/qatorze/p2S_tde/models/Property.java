@@ -69,6 +69,8 @@ public class Property {
     @Column(name = "registration_date", nullable = false) // Colonne 'registration_date' dans la table
     private LocalDateTime registrationDate; // Date d'enregistrement de la propriété
 
+    @Column(name = "duplicate_of", nullable = true) // Colonne 'duplicate_of' dans la table
+    private Long duplicateOf; // ID de l'annonce d'origine si cette propriété a été détectée comme doublon
     
     /**
      * Liste des URLs des images associées à la propriété.
@@ -244,6 +246,14 @@ public class Property {
         this.registrationDate = registrationDate;
     }
 
+    public Long getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(Long duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
+
     public List<String> getImageUrls() {
         return imageUrls;
     }
@@ -281,6 +291,8 @@ public class Property {
         builder.append(rooms);
         builder.append(", registrationDate=");
         builder.append(registrationDate);
+        builder.append(", duplicateOf=");
+        builder.append(duplicateOf);
         builder.append(", imageUrls=");
         builder.append(imageUrls);
         builder.append("]");
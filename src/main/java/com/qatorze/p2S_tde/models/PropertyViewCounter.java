@@ -0,0 +1,68 @@
+package com.qatorze.p2S_tde.models;
+
+import jakarta.persistence.*;
+
+/**
+ * Représente le nombre de consultations d'une propriété pendant une heure donnée.
+ * Les compteurs sont alimentés par lots à partir du journal des consultations
+ * (voir {@link com.qatorze.p2S_tde.utils.ViewEventLog}).
+ *
+ * Cette entité est mappée à la table "property_view_counters" dans la base de données.
+ */
+@Entity
+@Table(name = "property_view_counters",
+       uniqueConstraints = @UniqueConstraint(name = "uk_view_counter_property_hour", columnNames = { "property_id", "hour_bucket" }),
+       indexes = @Index(name = "idx_view_counter_hour", columnList = "hour_bucket"))
+public class PropertyViewCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id; // Identifiant unique du compteur
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId; // ID de la propriété consultée
+
+    @Column(name = "hour_bucket", nullable = false)
+    private Long hourBucket; // Heure de consultation, en heures depuis l'époque (UTC)
+
+    @Column(name = "views", nullable = false)
+    private Long views; // Nombre de consultations pendant cette heure
+
+    // Constructeur par défaut
+    public PropertyViewCounter() {}
+
+    // Getters et setters pour chaque attribut
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public Long getHourBucket() {
+        return hourBucket;
+    }
+
+    public void setHourBucket(Long hourBucket) {
+        this.hourBucket = hourBucket;
+    }
+
+    public Long getViews() {
+        return views;
+    }
+
+    public void setViews(Long views) {
+        this.views = views;
+    }
+}
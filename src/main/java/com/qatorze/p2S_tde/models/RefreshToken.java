@@ -0,0 +1,117 @@
+package com.qatorze.p2S_tde.models;
+
+import jakarta.persistence.*;
+
+/**
+ * Représente un token de rafraîchissement, échangé contre un nouveau token d'accès
+ * (voir {@link com.qatorze.p2S_tde.services.RefreshTokenService}).
+ *
+ * Seule l'empreinte SHA-256 du token est stockée. Chaque token ne sert qu'une fois : il est remplacé par un
+ * nouveau token de la même famille (une famille par connexion). Un token déjà utilisé qui est présenté à nouveau
+ * signale un vol probable, et toute la famille est supprimée. Une famille a une durée de vie absolue, comptée
+ * depuis la connexion : au-delà, plus aucun de ses tokens n'est échangé.
+ *
+ * Cette entité est mappée à la table "refresh_tokens" dans la base de données.
+ */
+@Entity
+@Table(name = "refresh_tokens",
+       uniqueConstraints = @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = "token_hash"),
+       indexes = {
+           @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+           @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+           @Index(name = "idx_refresh_token_expires", columnList = "expires_at")
+       })
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id; // Identifiant unique du token
+
+    @Column(name = "token_hash", nullable = false, length = 43)
+    private String tokenHash; // Empreinte SHA-256 du token (Base64 URL)
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId; // Famille du token : tous les tokens issus d'une même connexion
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // ID de l'utilisateur
+
+    @Column(name = "family_created_at", nullable = false)
+    private Long familyCreatedAt; // Heure de création de la famille (connexion), en millisecondes depuis l'époque
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt; // Heure d'expiration, en millisecondes depuis l'époque
+
+    @Column(name = "used", nullable = false)
+    private boolean used; // Indique si le token a déjà été échangé
+
+    // Constructeur par défaut
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, String familyId, Long userId, Long familyCreatedAt, Long expiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.familyCreatedAt = familyCreatedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters et setters pour chaque attribut
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getFamilyCreatedAt() {
+        return familyCreatedAt;
+    }
+
+    public void setFamilyCreatedAt(Long familyCreatedAt) {
+        this.familyCreatedAt = familyCreatedAt;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+
+    public void setUsed(boolean used) {
+        this.used = used;
+    }
+}
@@ -0,0 +1,80 @@
+package com.qatorze.p2S_tde.models;
+
+import jakarta.persistence.*;
+
+/**
+ * Représente une révocation de tokens d'accès JWT, vérifiée à chaque requête
+ * (voir {@link com.qatorze.p2S_tde.services.TokenRevocationService}).
+ *
+ * La clé désigne soit un token précis (son identifiant jti, par exemple à la déconnexion), soit tous les tokens
+ * d'un utilisateur émis jusqu'à la révocation ("user:<id>", par exemple après un changement de rôle). Une ligne
+ * peut être supprimée dès que tous les tokens qu'elle révoque ont expiré.
+ *
+ * Cette entité est mappée à la table "revoked_tokens" dans la base de données.
+ */
+@Entity
+@Table(name = "revoked_tokens",
+       indexes = {
+           @Index(name = "idx_revoked_token_key", columnList = "token_key"),
+           @Index(name = "idx_revoked_token_expires", columnList = "expires_at"),
+           @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at")
+       })
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id; // Identifiant unique de la révocation
+
+    @Column(name = "token_key", nullable = false, length = 64)
+    private String tokenKey; // jti du token, ou "user:<id>" pour tous les tokens d'un utilisateur
+
+    @Column(name = "revoked_at", nullable = false)
+    private Long revokedAt; // Heure de la révocation, en millisecondes depuis l'époque
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt; // Heure à partir de laquelle les tokens révoqués ont tous expiré, en millisecondes
+
+    // Constructeur par défaut
+    public RevokedToken() {}
+
+    public RevokedToken(String tokenKey, Long revokedAt, Long expiresAt) {
+        this.tokenKey = tokenKey;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters et setters pour chaque attribut
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenKey() {
+        return tokenKey;
+    }
+
+    public void setTokenKey(String tokenKey) {
+        this.tokenKey = tokenKey;
+    }
+
+    public Long getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Long revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
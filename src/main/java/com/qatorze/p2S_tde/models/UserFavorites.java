@@ -0,0 +1,81 @@
+package com.qatorze.p2S_tde.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Représente les propriétés favorites d'un utilisateur.
+ * Les IDs des propriétés sont stockés sous forme de bitmap compressé sérialisé
+ * (voir {@link com.qatorze.p2S_tde.utils.CompressedBitmap}) : une seule ligne par utilisateur.
+ * Le bitmap étant réécrit en entier à chaque modification, la ligne est versionnée : une écriture faite à partir
+ * d'une version périmée échoue au lieu d'effacer une modification concurrente.
+ *
+ * Cette entité est mappée à la table "user_favorites" dans la base de données.
+ */
+@Entity
+@Table(name = "user_favorites")
+public class UserFavorites {
+
+    // L'identifiant de l'utilisateur propriétaire des favoris
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Le bitmap compressé des IDs des propriétés favorites
+    @Lob
+    @Column(name = "bitmap", nullable = false)
+    private byte[] bitmap;
+
+    // Date de la dernière modification des favoris
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Version de la ligne (verrouillage optimiste), incrémentée à chaque modification
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Constructeur sans paramètres
+    public UserFavorites() {}
+
+    // Constructeur avec tous les champs
+    public UserFavorites(Long userId, byte[] bitmap, LocalDateTime updatedAt) {
+        this.userId = userId;
+        this.bitmap = bitmap;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters et setters pour chaque attribut
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public byte[] getBitmap() {
+        return bitmap;
+    }
+
+    public void setBitmap(byte[] bitmap) {
+        this.bitmap = bitmap;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
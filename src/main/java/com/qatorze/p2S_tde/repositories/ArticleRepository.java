@@ -1,10 +1,17 @@
 package com.qatorze.p2S_tde.repositories;
 
+import com.qatorze.p2S_tde.dtos.ArticleSummaryDTO;
 import com.qatorze.p2S_tde.models.Article;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -21,18 +28,122 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
      */
     Optional<Article> findByTitleIgnoreCase(String title);
     
-    /**
-     * Rechercher un article par son auteur.
-     * 
-     * @param auteur L'auteur de l'article
-     * @return Un article correspondant à l'auteur.
-     */
-    Optional<Article> findByAuthorIgnoreCase(String author);
     
     /**
      * Compte le nombre total d'articles dans la base de données.
      * @return le nombre total d'articles.
      */
     long count();
-    
+
+    /**
+     * Récupère l'empreinte du contenu d'un article, sans charger le contenu.
+     *
+     * @param id L'ID de l'article
+     * @return L'empreinte, ou vide si l'article n'existe pas ou n'a pas encore d'empreinte
+     */
+    @Query("SELECT a.contentHash FROM Article a WHERE a.id = :id")
+    Optional<String> findContentHashById(@Param("id") Long id);
+
+    /**
+     * Récupère une page de résumés d'articles, du plus récent au plus ancien (ordre des IDs décroissants).
+     * Seul l'extrait est lu : le contenu compressé n'est ni chargé ni décompressé.
+     *
+     * @param cursor L'ID du dernier article de la page précédente, ou null pour la première page
+     * @param pageable Le nombre d'articles à lire
+     * @return Les résumés des articles, sans image
+     */
+    @Query("SELECT new com.qatorze.p2S_tde.dtos.ArticleSummaryDTO(a.id, a.title, a.author, a.creationDate, a.excerpt) "
+         + "FROM Article a WHERE (:cursor IS NULL OR a.id < :cursor) ORDER BY a.id DESC")
+    List<ArticleSummaryDTO> findSummaries(@Param("cursor") Long cursor, Pageable pageable);
+
+    /**
+     * Récupère une page de résumés des articles d'un auteur, du plus récent au plus ancien.
+     * La recherche utilise l'index sur (author_key, ID).
+     *
+     * @param authorKey L'auteur normalisé (voir {@link Article#authorKeyOf(String)})
+     * @param cursor L'ID du dernier article de la page précédente, ou null pour la première page
+     * @param pageable Le nombre d'articles à lire
+     * @return Les résumés des articles de l'auteur, sans image
+     */
+    @Query("SELECT new com.qatorze.p2S_tde.dtos.ArticleSummaryDTO(a.id, a.title, a.author, a.creationDate, a.excerpt) "
+         + "FROM Article a WHERE a.authorKey = :authorKey AND (:cursor IS NULL OR a.id < :cursor) ORDER BY a.id DESC")
+    List<ArticleSummaryDTO> findSummariesByAuthorKey(@Param("authorKey") String authorKey, @Param("cursor") Long cursor,
+                                                     Pageable pageable);
+
+    /**
+     * Récupère les résumés d'un ensemble d'articles, dans un ordre quelconque.
+     *
+     * @param ids Les IDs des articles
+     * @return Les résumés des articles trouvés, sans image
+     */
+    @Query("SELECT new com.qatorze.p2S_tde.dtos.ArticleSummaryDTO(a.id, a.title, a.author, a.creationDate, a.excerpt) "
+         + "FROM Article a WHERE a.id IN :ids")
+    List<ArticleSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Récupère des articles avec leur contenu, par ordre d'ID croissant, à partir d'un ID donné.
+     * Utilisé hors requête HTTP (reconstruction d'index), où le contenu ne peut pas être chargé à la demande.
+     *
+     * @param afterId L'ID du dernier article déjà lu (0 pour commencer)
+     * @param pageable Le nombre d'articles à lire
+     * @return Les articles suivants, contenu chargé
+     */
+    @Query("SELECT a FROM Article a LEFT JOIN FETCH a.body WHERE a.id > :afterId ORDER BY a.id")
+    List<Article> findWithBodyAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Récupère des articles avec leur contenu.
+     *
+     * @param ids Les IDs des articles
+     * @return Les articles trouvés, contenu chargé
+     */
+    @Query("SELECT a FROM Article a LEFT JOIN FETCH a.body WHERE a.id IN :ids")
+    List<Article> findWithBodyByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Récupère la première image (la plus petite position) de chaque article d'un ensemble.
+     *
+     * @param ids Les IDs des articles
+     * @return Des paires [ID de l'article, URL de sa première image], une par article qui a des images
+     */
+    @Query("SELECT a.id, i FROM Article a JOIN a.imageUrls i WHERE a.id IN :ids AND index(i) = "
+         + "(SELECT MIN(index(j)) FROM Article b JOIN b.imageUrls j WHERE b.id = a.id)")
+    List<Object[]> findFirstImageUrlsByArticleIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Récupère les IDs des articles d'un intervalle d'IDs, par ordre croissant (génération du sitemap).
+     *
+     * @param fromId Le premier ID de l'intervalle (inclus)
+     * @param toId Le dernier ID de l'intervalle (inclus)
+     * @return Les IDs existants de l'intervalle
+     */
+    @Query("SELECT a.id FROM Article a WHERE a.id BETWEEN :fromId AND :toId ORDER BY a.id")
+    List<Long> findIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Récupère le plus grand ID d'article.
+     *
+     * @return Le plus grand ID, ou null s'il n'y a aucun article
+     */
+    @Query("SELECT MAX(a.id) FROM Article a")
+    Long findMaxId();
+
+    /**
+     * Récupère la date de la dernière création ou modification d'un article.
+     *
+     * @return La date la plus récente, ou null s'il n'y en a aucune
+     */
+    @Query("SELECT MAX(a.modificationDate) FROM Article a")
+    LocalDateTime findMaxModificationDate();
+
+    /**
+     * Récupère les champs de recherche des articles suivants, par ordre d'ID croissant
+     * (chargement de l'index de recherche de la console d'administration).
+     *
+     * @param afterId L'ID du dernier article déjà lu (0 pour commencer)
+     * @param pageable Le nombre d'articles à lire
+     * @return Des lignes [ID, titre, auteur]
+     */
+    @Query("SELECT a.id, a.title, a.author FROM Article a WHERE a.id > :afterId ORDER BY a.id")
+    List<Object[]> findSearchFieldsAfterId(@Param("afterId") Long afterId, Pageable pageable);
 }
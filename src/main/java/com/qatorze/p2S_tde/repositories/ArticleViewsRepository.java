@@ -0,0 +1,10 @@
+package com.qatorze.p2S_tde.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.qatorze.p2S_tde.models.ArticleViews;
+
+@Repository
+public interface ArticleViewsRepository extends JpaRepository<ArticleViews, Long> {
+}
@@ -0,0 +1,27 @@
+package com.qatorze.p2S_tde.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.qatorze.p2S_tde.models.AuthorArticleCount;
+
+@Repository
+public interface AuthorArticleCountRepository extends JpaRepository<AuthorArticleCount, String> {
+
+    /**
+     * Ajoute (ou retire, si delta est négatif) des articles au compteur d'un auteur, en une seule requête
+     * atomique qui crée le compteur s'il n'existe pas encore.
+     *
+     * @param authorKey L'auteur normalisé
+     * @param delta Le nombre d'articles à ajouter
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO author_article_counts (author_key, article_count) VALUES (:authorKey, GREATEST(:delta, 0)) "
+                 + "ON DUPLICATE KEY UPDATE article_count = GREATEST(article_count + :delta, 0)", nativeQuery = true)
+    void addToCount(@Param("authorKey") String authorKey, @Param("delta") long delta);
+}
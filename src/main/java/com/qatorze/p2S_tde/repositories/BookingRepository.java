@@ -0,0 +1,40 @@
+package com.qatorze.p2S_tde.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.qatorze.p2S_tde.models.Booking;
+
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    /**
+     * Trouve toutes les réservations qui ne sont pas encore terminées à une date donnée.
+     * Utilisé au démarrage pour charger les calendriers en mémoire.
+     *
+     * @param date La date de référence (généralement aujourd'hui)
+     * @return Liste des réservations dont la date de départ est postérieure à cette date
+     */
+    List<Booking> findByEndDateAfter(LocalDate date);
+
+    /**
+     * Trouve les réservations en cours ou à venir d'une propriété, triées par date d'arrivée.
+     *
+     * @param propertyId ID de la propriété
+     * @param date       La date de référence (généralement aujourd'hui)
+     * @return Liste des réservations de la propriété
+     */
+    List<Booking> findByPropertyIdAndEndDateAfterOrderByStartDate(Long propertyId, LocalDate date);
+
+    /**
+     * Supprime toutes les réservations d'une propriété.
+     *
+     * @param propertyId ID de la propriété
+     */
+    @Transactional
+    void deleteByPropertyId(Long propertyId);
+}
@@ -0,0 +1,25 @@
+package com.qatorze.p2S_tde.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.qatorze.p2S_tde.models.JwtSigningKey;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, Long> {
+
+    /**
+     * @return Toutes les clés, de la plus ancienne à la plus récente.
+     */
+    List<JwtSigningKey> findAllByOrderByCreatedAtAsc();
+
+    /**
+     * Clés publiques seules, pour les nœuds en vérification seule (la clé privée chiffrée n'est pas lue).
+     * @return Des lignes [kid, clé publique, heure de création], de la plus ancienne à la plus récente.
+     */
+    @Query("SELECT k.kid, k.publicKey, k.createdAt FROM JwtSigningKey k ORDER BY k.createdAt")
+    List<Object[]> findPublicKeys();
+}
@@ -2,8 +2,13 @@ package com.qatorze.p2S_tde.repositories;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.qatorze.p2S_tde.enums.PropertyCategory;
 import com.qatorze.p2S_tde.enums.PropertyType;
@@ -90,9 +95,61 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
      */
     List<Property> findByCategoryAndLocationContainingIgnoreCase(PropertyCategory category, String location);
     
+    /**
+     * Marque une propriété comme doublon d'une autre (ou retire le marquage si {@code originalId} est null).
+     *
+     * @param id         ID de la propriété à marquer
+     * @param originalId ID de l'annonce d'origine, ou null
+     * @return le nombre de lignes mises à jour
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Property p SET p.duplicateOf = :originalId WHERE p.id = :id")
+    int updateDuplicateOf(@Param("id") Long id, @Param("originalId") Long originalId);
+
+    /**
+     * Retire le marquage de doublon de toutes les propriétés qui pointent vers une annonce d'origine.
+     * Utilisé lors de la suppression de l'annonce d'origine.
+     *
+     * @param originalId ID de l'annonce d'origine
+     * @return le nombre de lignes mises à jour
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Property p SET p.duplicateOf = NULL WHERE p.duplicateOf = :originalId")
+    int clearDuplicatesOf(@Param("originalId") Long originalId);
+
     /**
      * Compte le nombre total de propriétés dans la base de données.
      * @return le nombre total de propriétés.
      */
     long count();
+
+    /**
+     * Récupère les IDs des propriétés d'un intervalle d'IDs, par ordre croissant (génération du sitemap).
+     *
+     * @param fromId Le premier ID de l'intervalle (inclus)
+     * @param toId Le dernier ID de l'intervalle (inclus)
+     * @return les IDs existants de l'intervalle
+     */
+    @Query("SELECT p.id FROM Property p WHERE p.id BETWEEN :fromId AND :toId ORDER BY p.id")
+    List<Long> findIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Récupère le plus grand ID de propriété.
+     * @return le plus grand ID, ou null s'il n'y a aucune propriété.
+     */
+    @Query("SELECT MAX(p.id) FROM Property p")
+    Long findMaxId();
+
+    /**
+     * Récupère les champs de recherche des propriétés suivantes, par ordre d'ID croissant
+     * (chargement de l'index de recherche de la console d'administration).
+     *
+     * @param afterId L'ID de la dernière propriété déjà lue (0 pour commencer)
+     * @param pageable Le nombre de propriétés à lire
+     * @return des lignes [ID, titre, localisation]
+     */
+    @Query("SELECT p.id, p.title, p.location FROM Property p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchFieldsAfterId(@Param("afterId") Long afterId, Pageable pageable);
 }
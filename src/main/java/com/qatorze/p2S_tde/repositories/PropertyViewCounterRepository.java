@@ -0,0 +1,44 @@
+package com.qatorze.p2S_tde.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.qatorze.p2S_tde.models.PropertyViewCounter;
+
+@Repository
+public interface PropertyViewCounterRepository extends JpaRepository<PropertyViewCounter, Long> {
+
+    /**
+     * Calcule le nombre total de consultations d'une propriété.
+     *
+     * @param propertyId ID de la propriété
+     * @return Le nombre de consultations (0 si aucune)
+     */
+    @Query("SELECT COALESCE(SUM(c.views), 0) FROM PropertyViewCounter c WHERE c.propertyId = :propertyId")
+    long sumViewsByPropertyId(@Param("propertyId") Long propertyId);
+
+    /**
+     * Trouve les propriétés les plus consultées depuis une heure donnée.
+     *
+     * @param fromHour L'heure de début, en heures depuis l'époque
+     * @param pageable Le nombre de résultats souhaités
+     * @return Des paires [ID de la propriété, nombre de consultations], par nombre décroissant
+     */
+    @Query("SELECT c.propertyId, SUM(c.views) FROM PropertyViewCounter c WHERE c.hourBucket >= :fromHour "
+         + "GROUP BY c.propertyId ORDER BY SUM(c.views) DESC")
+    List<Object[]> findMostViewedSince(@Param("fromHour") Long fromHour, Pageable pageable);
+
+    /**
+     * Supprime les compteurs d'une propriété.
+     *
+     * @param propertyId ID de la propriété
+     */
+    @Transactional
+    void deleteByPropertyId(Long propertyId);
+}
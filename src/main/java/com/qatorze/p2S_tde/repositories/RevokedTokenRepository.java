@@ -0,0 +1,62 @@
+package com.qatorze.p2S_tde.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.qatorze.p2S_tde.models.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /**
+     * Indique si une clé a été révoquée.
+     *
+     * @param tokenKey Le jti du token
+     * @return true si une révocation de cette clé existe
+     */
+    boolean existsByTokenKey(String tokenKey);
+
+    /**
+     * Indique si une clé a été révoquée à partir d'une heure donnée.
+     *
+     * @param tokenKey Le jti du token, ou "user:<id>"
+     * @param from     L'heure à partir de laquelle une révocation compte, en millisecondes
+     * @return true si une révocation de cette clé est postérieure (ou égale) à cette heure
+     */
+    boolean existsByTokenKeyAndRevokedAtGreaterThanEqual(String tokenKey, Long from);
+
+    /**
+     * Trouve les révocations enregistrées depuis une heure donnée (en particulier celles des autres nœuds).
+     *
+     * @param since L'heure de début, en millisecondes
+     * @return Les révocations enregistrées depuis cette heure
+     */
+    @Query("SELECT r FROM RevokedToken r WHERE r.revokedAt >= :since")
+    List<RevokedToken> findRevokedSince(@Param("since") Long since);
+
+    /**
+     * Trouve les clés des révocations encore utiles.
+     *
+     * @param now L'heure actuelle, en millisecondes
+     * @return Les clés dont les tokens révoqués n'ont pas tous expiré
+     */
+    @Query("SELECT r.tokenKey FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveKeys(@Param("now") Long now);
+
+    /**
+     * Supprime les révocations dont tous les tokens ont expiré.
+     *
+     * @param now L'heure actuelle, en millisecondes
+     * @return Le nombre de révocations supprimées
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+}
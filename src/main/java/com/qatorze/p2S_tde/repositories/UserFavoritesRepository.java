@@ -0,0 +1,13 @@
+package com.qatorze.p2S_tde.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.qatorze.p2S_tde.models.UserFavorites;
+
+/**
+ * Repository pour accéder aux favoris des utilisateurs (une ligne par utilisateur).
+ */
+@Repository
+public interface UserFavoritesRepository extends JpaRepository<UserFavorites, Long> {
+}
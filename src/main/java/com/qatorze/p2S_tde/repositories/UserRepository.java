@@ -1,9 +1,15 @@
 package com.qatorze.p2S_tde.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.qatorze.p2S_tde.dtos.UserResponseDTO;
 import com.qatorze.p2S_tde.models.User;
 
 /**
@@ -23,6 +29,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return un Optional contenant l'utilisateur trouvé, ou vide si aucun utilisateur n'est trouvé.
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Vérifie si un utilisateur a déjà cette adresse email.
+     * @param email l'adresse email.
+     * @return true si l'adresse est déjà utilisée.
+     */
+    boolean existsByEmail(String email);
     
     /**
      * Recherche un utilisateur par son nom.
@@ -36,4 +49,45 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return le nombre total d'utilisateurs.
      */
     long count();
-}
\ No newline at end of file
+
+    /**
+     * Récupère les champs de recherche des utilisateurs suivants, par ordre d'ID croissant
+     * (chargement de l'index de recherche de la console d'administration).
+     * @param afterId l'ID du dernier utilisateur déjà lu (0 pour commencer).
+     * @param pageable le nombre d'utilisateurs à lire.
+     * @return des lignes [ID, nom, prénom, email].
+     */
+    @Query("SELECT u.id, u.surname, u.name, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findSearchFieldsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Récupère les emails des utilisateurs suivants, par ordre d'ID croissant
+     * (chargement du filtre des emails enregistrés).
+     * @param afterId l'ID du dernier utilisateur déjà lu (0 pour commencer).
+     * @param pageable le nombre d'utilisateurs à lire.
+     * @return des lignes [ID, email].
+     */
+    @Query("SELECT u.id, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findEmailsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Récupère une page d'utilisateurs, en ne lisant que les colonnes de {@link UserResponseDTO}
+     * (ni mot de passe ni historique des mots de passe).
+     * @param pageable la page, sa taille et le tri.
+     * @return la page d'utilisateurs, avec le nombre total d'utilisateurs.
+     */
+    @Query(value = "SELECT new com.qatorze.p2S_tde.dtos.UserResponseDTO(u.id, u.surname, u.name, u.role, u.email, u.imagePath) FROM User u",
+           countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserResponseDTO> findResponses(Pageable pageable);
+
+    /**
+     * Récupère les utilisateurs suivants, par ordre d'ID croissant, en ne lisant que les colonnes de
+     * {@link UserResponseDTO} (export de la liste des utilisateurs).
+     * @param afterId l'ID du dernier utilisateur déjà lu (0 pour commencer).
+     * @param pageable le nombre d'utilisateurs à lire.
+     * @return les utilisateurs suivants.
+     */
+    @Query("SELECT new com.qatorze.p2S_tde.dtos.UserResponseDTO(u.id, u.surname, u.name, u.role, u.email, u.imagePath) "
+         + "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponseDTO> findResponsesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,103 @@
+package com.qatorze.p2S_tde.restcontroller;
+
+import java.nio.charset.StandardCharsets;
+
+import com.qatorze.p2S_tde.dtos.GlobalSearchResultDTO;
+import com.qatorze.p2S_tde.dtos.PasswordHashingMetricsDTO;
+import com.qatorze.p2S_tde.dtos.UserCacheMetricsDTO;
+import com.qatorze.p2S_tde.dtos.UserPageDTO;
+import com.qatorze.p2S_tde.enums.UserSortField;
+import com.qatorze.p2S_tde.services.GlobalSearchService;
+import com.qatorze.p2S_tde.services.PasswordHashingService;
+import com.qatorze.p2S_tde.services.UserCache;
+import com.qatorze.p2S_tde.services.UserService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Contrôleur REST de la console d'administration.
+ * Les endpoints sous /api/admin sont réservés aux administrateurs (voir SecurityConfig).
+ */
+@Tag(name = "Admin", description = "Endpoint pour la console d'administration")
+@RestController
+@RequestMapping("/api/admin")
+public class AdminRestController {
+
+    @Autowired
+    private GlobalSearchService globalSearchService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Endpoint pour rechercher à la fois dans les propriétés, les articles et les utilisateurs.
+     * @param q Le texte recherché ; chaque mot peut être le début d'un mot ("dup" trouve "Dupont").
+     * @param limit Le nombre maximal de résultats (100 au plus).
+     * @return Les résultats triés par pertinence, et les types qui n'ont pas pu être recherchés entièrement à temps.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<GlobalSearchResultDTO> search(@RequestParam String q,
+                                                        @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(globalSearchService.search(q, limit));
+    }
+
+    /**
+     * Endpoint pour lister les utilisateurs, page par page.
+     * @param page Le numéro de la page (0 par défaut).
+     * @param size Le nombre d'utilisateurs par page (20 par défaut, 100 au maximum).
+     * @param sort La colonne de tri : ID, SURNAME, NAME, ROLE ou EMAIL (toute autre valeur est refusée, 400).
+     * @param direction Le sens du tri : ASC ou DESC.
+     * @return La page d'utilisateurs et le nombre total d'utilisateurs et de pages.
+     */
+    @GetMapping("/users")
+    public ResponseEntity<UserPageDTO> getUsers(@RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestParam(defaultValue = "ID") UserSortField sort,
+                                                @RequestParam(defaultValue = "ASC") Sort.Direction direction) {
+        return ResponseEntity.ok(userService.getUserPage(page, size, sort, direction));
+    }
+
+    /**
+     * Endpoint pour exporter tous les utilisateurs au format CSV.
+     * Le fichier est écrit au fur et à mesure de la lecture, sans être construit en mémoire.
+     * @return Le fichier CSV, en téléchargement.
+     */
+    @GetMapping(value = "/users/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = userService::exportUsersCsv;
+        return ResponseEntity.ok()
+                             .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"")
+                             .body(body);
+    }
+
+    /**
+     * Endpoint pour consulter les métriques de l'exécuteur de hachage des mots de passe.
+     * @return Le nombre de threads, l'occupation de la file, les refus (429) et les temps d'attente et d'exécution.
+     */
+    @GetMapping("/metrics/password-hashing")
+    public ResponseEntity<PasswordHashingMetricsDTO> getPasswordHashingMetrics() {
+        return ResponseEntity.ok(passwordHashingService.getMetrics());
+    }
+
+    /**
+     * Endpoint pour consulter les métriques du cache des utilisateurs.
+     * @return Les lectures servies par le cache et celles faites en base, et l'occupation du cache.
+     */
+    @GetMapping("/metrics/user-cache")
+    public ResponseEntity<UserCacheMetricsDTO> getUserCacheMetrics() {
+        return ResponseEntity.ok(userCache.getMetrics());
+    }
+}
@@ -1,12 +1,22 @@
 package com.qatorze.p2S_tde.restcontroller;
 
+import com.qatorze.p2S_tde.dtos.ArticlePageDTO;
+import com.qatorze.p2S_tde.dtos.ArticleSearchPageDTO;
+import com.qatorze.p2S_tde.dtos.ArticleSummaryDTO;
 import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.services.ArticleHtmlCache;
+import com.qatorze.p2S_tde.services.ArticleResponseCache;
 import com.qatorze.p2S_tde.services.ArticleService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,24 +32,117 @@ public class ArticleRestController {
     private ArticleService articleService;
 
     /**
-     * Récupérer tous les articles.
+     * Récupérer une page de la liste des articles, du plus récent au plus ancien.
+     * Chaque article est résumé (extrait et première image) ; le contenu complet est servi par /{id}.
      * 
-     * @return Liste des articles
+     * @param cursor Le curseur {@code nextCursor} de la page précédente (absent pour la première page)
+     * @param size Le nombre d'articles par page (20 par défaut, 100 au maximum)
+     * @return La page d'articles et le curseur de la page suivante
      */
     @GetMapping
-    public ResponseEntity<List<Article>> getAllArticles() {
-        return ResponseEntity.ok(articleService.getAllArticles());
+    public ResponseEntity<ArticlePageDTO> getArticles(@RequestParam(required = false) Long cursor,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(articleService.getArticleSummaries(cursor, size));
     }
 
     /**
      * Récupérer un article par son ID.
+     * La réponse est servie depuis un cache de réponses pré-sérialisées, compressée en gzip si le client l'accepte.
+     * Si l'en-tête If-None-Match correspond à la version actuelle, une réponse 304 sans corps est renvoyée.
      * 
      * @param id L'identifiant de l'article
-     * @return L'article correspondant
+     * @param ifNoneMatch L'ETag de la version déjà connue du client, optionnel
+     * @param acceptEncoding Les encodages acceptés par le client, optionnel
+     * @return L'article correspondant, en JSON
+     */
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getArticleById(@PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ArticleResponseCache.CachedResponse response = articleService.getArticleResponse(id);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (response.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.etag()).cacheControl(cacheControl).build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(response.etag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzip());
+        }
+        return builder.body(response.json());
+    }
+
+    /**
+     * Récupérer le contenu d'un article rendu en HTML assaini (Markdown converti côté serveur).
+     * Le rendu est calculé une fois par révision du contenu ; si l'en-tête If-None-Match correspond à la révision
+     * actuelle, une réponse 304 sans corps est renvoyée.
+     * 
+     * @param id L'identifiant de l'article
+     * @param ifNoneMatch L'ETag de la révision déjà connue du client, optionnel
+     * @return Le HTML du contenu de l'article
+     */
+    @GetMapping(value = "/{id}/html", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<byte[]> getArticleHtml(@PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ArticleHtmlCache.RenderedHtml html = articleService.getArticleHtml(id);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (html.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(html.etag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(html.etag())
+                .cacheControl(cacheControl)
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                // Défense en profondeur : le HTML est déjà assaini, aucun script ni style externe n'est autorisé.
+                .header("Content-Security-Policy", "default-src 'none'; img-src 'self' https: http:")
+                .header("X-Content-Type-Options", "nosniff")
+                .body(html.html());
+    }
+
+    /**
+     * Récupérer une page des articles d'un auteur, du plus récent au plus ancien.
+     * 
+     * @param author Le nom de l'auteur (sans tenir compte de la casse ni des accents)
+     * @param cursor Le curseur {@code nextCursor} de la page précédente (absent pour la première page)
+     * @param size Le nombre d'articles par page (20 par défaut, 100 au maximum)
+     * @return La page d'articles, le curseur de la page suivante et le nombre total d'articles de l'auteur
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<Article> getArticleById(@PathVariable Long id) {
-        return ResponseEntity.ok(articleService.getArticleById(id));
+    @GetMapping("/author/{author}")
+    public ResponseEntity<ArticlePageDTO> getArticlesByAuthor(@PathVariable String author,
+                                                              @RequestParam(required = false) Long cursor,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(articleService.getArticlesByAuthor(author, cursor, size));
+    }
+
+    /**
+     * Récupérer le nombre de lectures d'un article.
+     * 
+     * @param id L'identifiant de l'article
+     * @return Le nombre de lectures
+     */
+    @GetMapping("/{id}/views")
+    public ResponseEntity<Long> getArticleViews(@PathVariable Long id) {
+        return ResponseEntity.ok(articleService.getArticleViews(id));
+    }
+
+    /**
+     * Récupérer les articles similaires à un article (bloc « à lire aussi »).
+     * Les recommandations sont précalculées par similarité TF-IDF.
+     * 
+     * @param id L'identifiant de l'article consulté
+     * @param size Le nombre maximal d'articles recommandés (5 par défaut)
+     * @return Les résumés des articles recommandés, du plus similaire au moins similaire
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ArticleSummaryDTO>> getRelatedArticles(@PathVariable Long id,
+                                                                      @RequestParam(defaultValue = "5") int size) {
+        return ResponseEntity.ok(articleService.getRelatedArticles(id, size));
     }
 
     /**
@@ -83,8 +186,23 @@ public class ArticleRestController {
      * @param title Le titre de l'article
      * @return L'article correspondant
      */
-    @GetMapping("/search")
+    @GetMapping(value = "/search", params = "title")
     public ResponseEntity<Optional<Article>> getArticleByTitle(@RequestParam String title) {
         return ResponseEntity.ok(articleService.getArticleByTitle(title));
     }
+
+    /**
+     * Rechercher des articles en texte intégral dans le titre et le contenu.
+     * 
+     * @param q La recherche en texte libre
+     * @param page Le numéro de la page (0 par défaut)
+     * @param size Le nombre d'articles par page (10 par défaut, 100 au maximum)
+     * @return Les articles trouvés, du plus pertinent au moins pertinent, avec un extrait surligné
+     */
+    @GetMapping(value = "/search", params = "q")
+    public ResponseEntity<ArticleSearchPageDTO> searchArticles(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(articleService.searchArticles(q, page, size));
+    }
 }
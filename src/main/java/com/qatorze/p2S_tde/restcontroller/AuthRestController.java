@@ -11,11 +11,18 @@ import com.qatorze.p2S_tde.dtos.ChangePasswordRequestDTO;
 import com.qatorze.p2S_tde.dtos.LoginRequestDTO;
 import com.qatorze.p2S_tde.dtos.RegisterRequestDTO;
 import com.qatorze.p2S_tde.dtos.UserResponseDTO;
+import com.qatorze.p2S_tde.exceptions.PasswordHashingBusyException;
+import com.qatorze.p2S_tde.services.AuthCookieService;
+import com.qatorze.p2S_tde.services.AuthRateLimiter;
 import com.qatorze.p2S_tde.services.AuthService;
 import com.qatorze.p2S_tde.services.JwtService;
+import com.qatorze.p2S_tde.services.RefreshTokenService;
+import com.qatorze.p2S_tde.services.RegisteredEmailFilter;
+import com.qatorze.p2S_tde.services.RefreshTokenService.IssuedRefreshToken;
+import com.qatorze.p2S_tde.services.UserService;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Tag(name = "Auth", description = "Endpoint pour la gestion de l'authentification")
@@ -29,11 +36,29 @@ public class AuthRestController {
     @Autowired
     private JwtService jwtService; // Injection du service de gestion des JWT.
 
+    @Autowired
+    private RefreshTokenService refreshTokenService; // Tokens de rafraîchissement des tokens d'accès.
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter; // Limite les tentatives par adresse IP et par e-mail.
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter; // E-mails déjà enregistrés (vérification en direct).
+
+    @Autowired
+    private AuthCookieService authCookieService; // Cookies de session (tokens d'accès, CSRF et de rafraîchissement).
+
     /**
      * Endpoint pour connecter un utilisateur.
      */
     @PostMapping("/login")
-    public ResponseEntity<UserResponseDTO> login(@RequestBody LoginRequestDTO loginRequestDTO, HttpServletResponse response) {
+    public ResponseEntity<UserResponseDTO> login(@RequestBody LoginRequestDTO loginRequestDTO, HttpServletRequest request, HttpServletResponse response) {
+        // Refuse les rafales (429) avant tout calcul BCrypt.
+        authRateLimiter.check(AuthRateLimiter.LOGIN, request.getRemoteAddr(), loginRequestDTO.getEmail());
+
         // Appelle le service pour authentifier l'utilisateur.
         UserResponseDTO userResponse = authService.login(loginRequestDTO.getEmail(), loginRequestDTO.getPassword());
         
@@ -42,12 +67,15 @@ public class AuthRestController {
         System.out.println("JWT Token généré : " + token); // Log du token JWT
 
         // Stocke le token dans un cookie HttpOnly
-        setTokenInCookie(response, token);
+        authCookieService.setTokenInCookie(response, token);
 
         // Génère et stocke un token CSRF séparé
         String csrfToken = jwtService.generateCsrfToken();
         System.out.println("CSRF Token généré : " + csrfToken); // Log du token CSRF
-        setCsrfTokenInCookie(response, csrfToken);
+        authCookieService.setCsrfTokenInCookie(response, csrfToken);
+
+        // Génère un token de rafraîchissement pour renouveler le token d'accès, de courte durée.
+        authCookieService.setRefreshTokenInCookie(response, refreshTokenService.issue(userResponse.getId()));
         
         return ResponseEntity.ok(userResponse);
     }
@@ -56,7 +84,10 @@ public class AuthRestController {
      * Endpoint pour enregistrer un nouvel utilisateur.
      */
     @PostMapping("/register")
-    public ResponseEntity<UserResponseDTO> register(@RequestBody RegisterRequestDTO registerRequestDTO, HttpServletResponse response) {
+    public ResponseEntity<UserResponseDTO> register(@RequestBody RegisterRequestDTO registerRequestDTO, HttpServletRequest request, HttpServletResponse response) {
+        // Refuse les rafales (429) avant tout calcul BCrypt.
+        authRateLimiter.check(AuthRateLimiter.REGISTER, request.getRemoteAddr(), registerRequestDTO.getEmail());
+
         // Appelle le service pour créer un nouvel utilisateur.
         UserResponseDTO newUserDTO = authService.register(registerRequestDTO);
         
@@ -65,23 +96,82 @@ public class AuthRestController {
         System.out.println("JWT Token généré pour l'enregistrement : " + token); // Log du token JWT
 
         // Stocke le token dans un cookie HttpOnly
-        setTokenInCookie(response, token);
+        authCookieService.setTokenInCookie(response, token);
 
         // Génère et stocke un token CSRF séparé
         String csrfToken = jwtService.generateCsrfToken();
         System.out.println("CSRF Token généré pour l'enregistrement : " + csrfToken); // Log du token CSRF
-        setCsrfTokenInCookie(response, csrfToken);
+        authCookieService.setCsrfTokenInCookie(response, csrfToken);
+
+        // Génère un token de rafraîchissement pour renouveler le token d'accès, de courte durée.
+        authCookieService.setRefreshTokenInCookie(response, refreshTokenService.issue(newUserDTO.getId()));
         
         return ResponseEntity.ok(newUserDTO);
     }
 
+    /**
+     * Endpoint pour vérifier, pendant la saisie du formulaire d'enregistrement, si un e-mail est encore libre.
+     * La plupart des e-mails libres sont confirmés sans requête ; l'enregistrement reste seul à faire foi.
+     */
+    @GetMapping("/email-available")
+    public ResponseEntity<Map<String, Object>> isEmailAvailable(@RequestParam String email, HttpServletRequest request) {
+        // Limité par adresse IP seulement : c'est la source qui énumère les e-mails, pas l'e-mail visé.
+        authRateLimiter.check(AuthRateLimiter.EMAIL_CHECK, request.getRemoteAddr(), null);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("available", registeredEmailFilter.isAvailable(email));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint pour renouveler le token d'accès avec le token de rafraîchissement (cookie HttpOnly).
+     * Le token de rafraîchissement est remplacé à chaque appel ; les informations de l'utilisateur (dont le rôle)
+     * sont relues, donc à jour.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<UserResponseDTO> refresh(
+            @CookieValue(name = AuthCookieService.REFRESH_TOKEN_COOKIE, required = false) String refreshToken,
+            HttpServletResponse response) {
+        IssuedRefreshToken rotated = refreshTokenService.rotate(refreshToken);
+        UserResponseDTO userResponse = userService.getUserById(rotated.userId());
+
+        authCookieService.startSession(response, userResponse, rotated);
+
+        return ResponseEntity.ok(userResponse);
+    }
+
+    /**
+     * Endpoint pour déconnecter l'utilisateur : révoque son token d'accès et son token de rafraîchissement,
+     * et efface les cookies.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(name = "Authorization", required = false) String authorization,
+            @CookieValue(name = AuthCookieService.ACCESS_TOKEN_COOKIE, required = false) String accessTokenCookie,
+            @CookieValue(name = AuthCookieService.REFRESH_TOKEN_COOKIE, required = false) String refreshToken,
+            HttpServletResponse response) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : accessTokenCookie;
+        if (accessToken != null) {
+            jwtService.revokeAccessToken(accessToken);
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+
+        authCookieService.clearSession(response);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Endpoint pour changer le mot de passe de l'utilisateur.
+     * Toutes les sessions de l'utilisateur sont révoquées ; celle de l'appelant est rouverte avec de nouveaux tokens.
      */
     @PostMapping("/password-change")
     public ResponseEntity<Map<String, Object>> changePassword(
             @RequestBody ChangePasswordRequestDTO changePasswordRequestDTO,
-            @RequestHeader("X-CSRF-TOKEN") String csrfToken) {
+            @RequestHeader("X-CSRF-TOKEN") String csrfToken,
+            HttpServletResponse httpResponse) {
         Map<String, Object> response = new HashMap<>();
 
         try {
@@ -92,63 +182,20 @@ public class AuthRestController {
             }
 
             // Cambia la password tramite il servizio
-            authService.changePassword(
+            UserResponseDTO user = authService.changePassword(
                     changePasswordRequestDTO.getEmail(),
                     changePasswordRequestDTO.getOldPassword(),
                     changePasswordRequestDTO.getNewPassword()
             );
+            authCookieService.startSession(httpResponse, user, refreshTokenService.issue(user.getId()));
 
             response.put("message", "Password changed successfully");
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e; // Réponse 429 (GlobalExceptionHandler) : le client doit réessayer, pas corriger sa demande.
         } catch (Exception e) {
             response.put("error", e.getMessage());
             return ResponseEntity.badRequest().body(response);
         }
     }
-
-
-    /**
-     * Définit un cookie pour le token JWT.
-     */
-    private void setTokenInCookie(HttpServletResponse response, String token) {
-        Cookie cookie = new Cookie("p2s_tde_jw_token", token);
-        cookie.setHttpOnly(true);  // Rendere il cookie non accessibile tramite JavaScript (protezione contro XSS).
-        cookie.setSecure(true);    // passare poi a true - Solo su HTTPS (utile in produzione).
-        cookie.setPath("/");       // Il cookie è disponibile su tutto il dominio.
-        cookie.setMaxAge(24 * 60 * 60); // Durata di 24 ore.
-
-        // Aggiungi manualmente l'intestazione Set-Cookie
-        response.addHeader("Set-Cookie", String.format(
-        		"%s=%s; Max-Age=%d; Path=%s; HttpOnly; Secure; SameSite=Strict",
-        		//"%s=%s; Max-Age=%d; Path=%s; HttpOnly; SameSite=Strict",
-                cookie.getName(),
-                cookie.getValue(),
-                cookie.getMaxAge(),
-                cookie.getPath()
-         ));
-    }
-
-    /**
-     * Définit un cookie pour le token CSRF.
-     */
-    private void setCsrfTokenInCookie(HttpServletResponse response, String csrfToken) {
-        Cookie csrfCookie = new Cookie("p2s_tde_csrf_token", csrfToken);
-
-        // Imposta i parametri per il cookie.
-        csrfCookie.setHttpOnly(false);  // Il token CSRF non deve essere HttpOnly (perché deve essere inviato dal client). Doit être accessible via JavaScript
-        csrfCookie.setSecure(false);     // passare poi a true - Solo su HTTPS (utile in produzione).
-        csrfCookie.setPath("/");        // Imposta il percorso del cookie (disponibile per tutta l'app).
-        csrfCookie.setMaxAge(24 * 60 * 60); // Durata di 24 ore.
-
-        // Aggiungi manualmente l'intestazione Set-Cookie
-        response.addHeader("Set-Cookie", String.format(
-        		//"%s=%s; Max-Age=%d; Path=%s; Secure; SameSite=Strict",
-                "%s=%s; Max-Age=%d; Path=%s; SameSite=Lax",
-                csrfCookie.getName(),
-                csrfCookie.getValue(),
-                csrfCookie.getMaxAge(),
-                csrfCookie.getPath()
-            ));
-    }
-
 }
@@ -0,0 +1,37 @@
+package com.qatorze.p2S_tde.restcontroller;
+
+import com.qatorze.p2S_tde.services.JwtKeyRing;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contrôleur qui publie les clés publiques de vérification des tokens JWT (JWKS), pour que d'autres processus
+ * puissent vérifier les tokens sans secret partagé ni appel à l'émetteur.
+ */
+@Tag(name = "JWKS", description = "Clés publiques de vérification des tokens JWT")
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    /**
+     * Récupérer les clés publiques de vérification, identifiées par leur kid.
+     * 
+     * @return Le JWKS (RFC 7517)
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        // Cache court : une nouvelle clé ne signe qu'après le délai d'activation du trousseau.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(jwtKeyRing.publicJwks());
+    }
+}
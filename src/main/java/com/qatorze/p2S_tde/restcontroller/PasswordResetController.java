@@ -2,6 +2,8 @@ package com.qatorze.p2S_tde.restcontroller;
 
 import com.qatorze.p2S_tde.dtos.PasswordResetRequestDTO;
 import com.qatorze.p2S_tde.dtos.PasswordResetDTO;
+import com.qatorze.p2S_tde.exceptions.PasswordHashingBusyException;
+import com.qatorze.p2S_tde.services.AuthRateLimiter;
 import com.qatorze.p2S_tde.services.PasswordResetService;
 
 import java.util.HashMap;
@@ -11,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 
 @Tag(name = "Password Reset", description = "Endpoints pour la réinitialisation et la modification du mot de passe")
@@ -21,13 +24,20 @@ public class PasswordResetController {
     @Autowired
     private PasswordResetService passwordResetService;
 
+    @Autowired
+    private AuthRateLimiter authRateLimiter; // Limite les demandes par adresse IP et par e-mail.
+
     
     /**
      * Point de terminaison pour demander la réinitialisation du mot de passe.
      * Reçoit un email et envoie un email avec le lien pour la réinitialisation.
      */
     @PostMapping("/request")
-    public ResponseEntity<Map<String, String>> requestPasswordReset(@RequestBody PasswordResetRequestDTO request) {
+    public ResponseEntity<Map<String, String>> requestPasswordReset(@RequestBody PasswordResetRequestDTO request,
+                                                                    HttpServletRequest httpRequest) {
+        // Hors du try : le dépassement doit donner une réponse 429, pas 400. Évite d'envoyer des e-mails en rafale.
+        authRateLimiter.check(AuthRateLimiter.PASSWORD_RESET, httpRequest.getRemoteAddr(), request.getEmail());
+
         try {
             passwordResetService.initiatePasswordReset(request);
             
@@ -58,6 +68,8 @@ public class PasswordResetController {
             Map<String, String> response = new HashMap<>();
             response.put("message", "Mot de passe réinitialisé avec succès");
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e; // Réponse 429 (GlobalExceptionHandler) : le client doit réessayer, pas corriger sa demande.
         } catch (Exception e) {
         	 // In caso di errore, restituisci il messaggio di errore come JSON
             Map<String, String> response = new HashMap<>();
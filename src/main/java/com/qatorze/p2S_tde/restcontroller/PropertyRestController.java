@@ -1,14 +1,23 @@
 package com.qatorze.p2S_tde.restcontroller;
 
+import com.qatorze.p2S_tde.dtos.BookingRequestDTO;
+import com.qatorze.p2S_tde.dtos.PropertyViewsDTO;
+import com.qatorze.p2S_tde.models.Booking;
 import com.qatorze.p2S_tde.models.Property;
+import com.qatorze.p2S_tde.services.AvailabilityService;
 import com.qatorze.p2S_tde.services.PropertyService;
+import com.qatorze.p2S_tde.services.PropertyViewService;
+import com.qatorze.p2S_tde.services.TrendingService;
 import com.qatorze.p2S_tde.enums.PropertyCategory;
 import com.qatorze.p2S_tde.enums.PropertyType;
+import com.qatorze.p2S_tde.utils.CurrentUser;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -21,6 +30,15 @@ public class PropertyRestController {
     @Autowired
     private PropertyService propertyService;
 
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private PropertyViewService propertyViewService;
+
+    @Autowired
+    private TrendingService trendingService;
+
     /**
      * Endpoint pour créer une nouvelle propriété.
      * 
@@ -61,10 +79,48 @@ public class PropertyRestController {
     public ResponseEntity<Property> getPropertyById(@PathVariable Long id) {
         // Récupère la propriété par son ID.
         Property property = propertyService.getPropertyById(id);
+        // Enregistre la consultation (sans écriture en base sur le chemin de la requête).
+        propertyViewService.recordView(id);
+        trendingService.recordView(id);
         // Retourne la propriété trouvée dans la réponse.
         return ResponseEntity.ok(property);
     }
 
+    /**
+     * Endpoint pour récupérer le nombre de consultations d'une propriété.
+     * Les consultations sont agrégées périodiquement : les plus récentes peuvent ne pas encore être comptées.
+     * 
+     * @param id L'ID de la propriété.
+     * @return Le nombre total de consultations.
+     */
+    @GetMapping("find/{id}/views")
+    public ResponseEntity<Long> getPropertyViews(@PathVariable Long id) {
+        return ResponseEntity.ok(propertyViewService.getViewCount(id));
+    }
+
+    /**
+     * Endpoint pour récupérer les propriétés les plus consultées au cours des sept derniers jours.
+     * 
+     * @param limit Le nombre maximal de propriétés à renvoyer (10 par défaut, 100 au maximum).
+     * @return Les propriétés avec leur nombre de consultations, par nombre décroissant.
+     */
+    @GetMapping("/most-viewed")
+    public ResponseEntity<List<PropertyViewsDTO>> getMostViewedProperties(@RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(propertyViewService.getMostViewedThisWeek(boundedLimit));
+    }
+
+    /**
+     * Endpoint pour récupérer les annonces quasi identiques à une propriété (doublons probables).
+     * 
+     * @param id L'ID de la propriété.
+     * @return La liste des propriétés similaires.
+     */
+    @GetMapping("find/{id}/duplicates")
+    public ResponseEntity<List<Property>> getSimilarProperties(@PathVariable Long id) {
+        return ResponseEntity.ok(propertyService.getSimilarProperties(id));
+    }
+
     /**
      * Endpoint pour supprimer une propriété par son ID.
      * 
@@ -81,19 +137,89 @@ public class PropertyRestController {
 
     /**
      * Récupère les propriétés en fonction de plusieurs critères : types, catégorie et localisation.
+     * Pour les locations, une période de disponibilité peut être ajoutée (dates au format ISO, ex. 2025-07-01).
      * 
      * @param types Liste des types de propriétés (peut être vide ou null).
      * @param category La catégorie de la propriété (non null).
      * @param location Partie de la localisation (ville ou pays).
+     * @param availableFrom Date d'arrivée souhaitée (incluse), optionnelle.
+     * @param availableTo Date de départ souhaitée (exclue), optionnelle.
+     * @param favoritesOnly Ne garder que les favoris de l'utilisateur authentifié (401 si la requête est anonyme).
      * @return Liste de propriétés qui correspondent aux critères de recherche.
      */
     @GetMapping("/filter")
     public ResponseEntity<List<Property>> getPropertiesByFilter(
             @RequestParam(required = false) List<PropertyType> types,
             @RequestParam PropertyCategory category,
-            @RequestParam(required = false) String location) {
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableTo,
+            @RequestParam(defaultValue = "false") boolean favoritesOnly) {
+        // Les favoris sont ceux de l'utilisateur du token, jamais ceux d'un ID choisi par le client.
+        Long favoritesOf = favoritesOnly ? CurrentUser.require().getId() : null;
+        trendingService.recordSearch(types, category, location);
         // Appelle le service pour récupérer les propriétés filtrées.
-        List<Property> properties = propertyService.getPropertiesByFilter(types, category, location);
+        List<Property> properties = propertyService.getPropertiesByFilter(types, category, location, availableFrom, availableTo, favoritesOf);
         return ResponseEntity.ok(properties); // Retourne la liste des propriétés.
     }
+
+    /**
+     * Endpoint pour récupérer les propriétés tendance (les plus consultées récemment).
+     * 
+     * @param limit Le nombre maximal de propriétés à renvoyer (10 par défaut, 100 au maximum).
+     * @return Liste des propriétés tendance.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<Property>> getTrendingProperties(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(propertyService.getTrendingProperties(Math.max(1, Math.min(limit, 100))));
+    }
+
+    /**
+     * Endpoint pour récupérer les localisations les plus recherchées récemment.
+     * 
+     * @param limit Le nombre maximal de localisations à renvoyer (10 par défaut, 100 au maximum).
+     * @return Liste des localisations, de la plus recherchée à la moins recherchée.
+     */
+    @GetMapping("/top-locations")
+    public ResponseEntity<List<String>> getTopLocations(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingService.getTopLocations(Math.max(1, Math.min(limit, 100))));
+    }
+
+    /**
+     * Endpoint pour réserver une propriété en location sur une période, au nom de l'utilisateur authentifié.
+     * 
+     * @param id L'ID de la propriété à réserver.
+     * @param bookingRequestDTO Les dates d'arrivée (incluse) et de départ (exclue).
+     * @return La réservation enregistrée.
+     * @throws com.qatorze.p2S_tde.exceptions.BookingConflictException Si la période est déjà réservée (409).
+     */
+    @PostMapping("/{id}/bookings")
+    public ResponseEntity<Booking> bookProperty(@PathVariable Long id, @RequestBody BookingRequestDTO bookingRequestDTO) {
+        Booking booking = availabilityService.book(id, CurrentUser.require().getId(),
+                                                   bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate());
+        return ResponseEntity.ok(booking);
+    }
+
+    /**
+     * Endpoint pour récupérer les réservations en cours et à venir d'une propriété.
+     * 
+     * @param id L'ID de la propriété.
+     * @return La liste des réservations triées par date d'arrivée.
+     */
+    @GetMapping("/{id}/bookings")
+    public ResponseEntity<List<Booking>> getBookings(@PathVariable Long id) {
+        return ResponseEntity.ok(availabilityService.getBookings(id));
+    }
+
+    /**
+     * Endpoint pour annuler une réservation ; réservé à l'utilisateur qui l'a faite et aux administrateurs (403 sinon).
+     * 
+     * @param bookingId L'ID de la réservation à annuler.
+     * @return Un message de confirmation.
+     */
+    @DeleteMapping("/bookings/{bookingId}")
+    public ResponseEntity<String> cancelBooking(@PathVariable Long bookingId) {
+        availabilityService.cancel(bookingId);
+        return ResponseEntity.ok("Réservation annulée avec succès.");
+    }
 }
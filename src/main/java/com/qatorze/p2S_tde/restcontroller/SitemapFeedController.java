@@ -0,0 +1,78 @@
+package com.qatorze.p2S_tde.restcontroller;
+
+import com.qatorze.p2S_tde.services.SitemapFeedService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contrôleur qui sert le sitemap et le flux Atom des articles, générés sur disque par {@link SitemapFeedService}.
+ * Les fichiers sont envoyés tels quels, sans accès à la base de données ; les requêtes conditionnelles
+ * (If-None-Match, If-Modified-Since) reçoivent une réponse 304 si le fichier n'a pas changé.
+ */
+@Tag(name = "Sitemap et flux", description = "Fichiers publics pour les robots d'indexation et les lecteurs de flux")
+@RestController
+public class SitemapFeedController {
+
+    @Autowired
+    private SitemapFeedService sitemapFeedService;
+
+    /**
+     * Récupérer l'index du sitemap.
+     * 
+     * @return La liste des fichiers du sitemap
+     */
+    @GetMapping("/" + SitemapFeedService.SITEMAP_INDEX)
+    public ResponseEntity<Resource> getSitemapIndex(WebRequest request) {
+        return serve(SitemapFeedService.SITEMAP_INDEX, request);
+    }
+
+    /**
+     * Récupérer un fichier du sitemap (au plus 50 000 URL).
+     * 
+     * @param name Le nom du fichier, par exemple "properties-0.xml"
+     * @return Le fichier du sitemap
+     */
+    @GetMapping("/" + SitemapFeedService.SITEMAP_DIRECTORY + "/{name:.+}")
+    public ResponseEntity<Resource> getSitemapShard(@PathVariable String name, WebRequest request) {
+        return serve(SitemapFeedService.SITEMAP_DIRECTORY + "/" + name, request);
+    }
+
+    /**
+     * Récupérer le flux Atom des derniers articles.
+     * 
+     * @return Le flux Atom
+     */
+    @GetMapping("/" + SitemapFeedService.ARTICLES_FEED)
+    public ResponseEntity<Resource> getArticlesFeed(WebRequest request) {
+        return serve(SitemapFeedService.ARTICLES_FEED, request);
+    }
+
+    private ResponseEntity<Resource> serve(String relativePath, WebRequest request) {
+        SitemapFeedService.StaticFile file = sitemapFeedService.find(relativePath).orElse(null);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        CacheControl cacheControl = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+        if (request.checkNotModified(file.etag(), file.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(file.etag())
+                .lastModified(file.lastModified())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(file.contentType() + ";charset=UTF-8"))
+                .body(new FileSystemResource(file.path()));
+    }
+}
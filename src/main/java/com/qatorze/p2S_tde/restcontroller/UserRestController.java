@@ -3,12 +3,20 @@ package com.qatorze.p2S_tde.restcontroller;
 import com.qatorze.p2S_tde.dtos.UserResponseDTO;
 import com.qatorze.p2S_tde.dtos.UserUpdateByAdminDTO;
 import com.qatorze.p2S_tde.dtos.UserUpdateBySelfDTO;
+import com.qatorze.p2S_tde.models.Property;
+import com.qatorze.p2S_tde.services.AuthCookieService;
+import com.qatorze.p2S_tde.services.FavoriteService;
+import com.qatorze.p2S_tde.services.RefreshTokenService;
 import com.qatorze.p2S_tde.services.UserService;
+import com.qatorze.p2S_tde.utils.CurrentUser;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Contrôleur REST pour gérer les utilisateurs.
  * Fournit des endpoints pour mettre à jour, rechercher et supprimer des utilisateurs.
@@ -21,6 +29,15 @@ public class UserRestController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private AuthCookieService authCookieService;
+
     /**
      * Endpoint pour mettre à jour un utilisateur par un administrateur.
      * @param userUpdateDTO Un objet DTO contenant les données de mise à jour de l'utilisateur.
@@ -34,12 +51,19 @@ public class UserRestController {
 
     /**
      * Endpoint pour mettre à jour les informations d'un utilisateur par lui-même.
+     * Le mot de passe changé révoque toutes les sessions de l'utilisateur ; celle de l'appelant est rouverte.
      * @param userUpdateDTO Un objet DTO contenant les données de mise à jour de l'utilisateur.
      * @return Un objet `UserResponseDTO` contenant les informations mises à jour de l'utilisateur.
      */
     @PutMapping("/update/self")
-    public ResponseEntity<UserResponseDTO> updateUserBySelf(@RequestBody UserUpdateBySelfDTO userUpdateDTO) {
+    public ResponseEntity<UserResponseDTO> updateUserBySelf(@RequestBody UserUpdateBySelfDTO userUpdateDTO,
+                                                            HttpServletResponse response) {
         UserResponseDTO updatedUserDTO = userService.updateUserBySelf(userUpdateDTO);
+        UserResponseDTO caller = CurrentUser.get();
+        if (caller != null && caller.getId().equals(updatedUserDTO.getId())) {
+            authCookieService.startSession(response, updatedUserDTO,
+                                           refreshTokenService.issue(updatedUserDTO.getId()));
+        }
         return ResponseEntity.ok(updatedUserDTO); // Renvoie un statut 200 OK avec l'utilisateur mis à jour.
     }
 
@@ -86,6 +110,44 @@ public class UserRestController {
         userService.deleteUser(id); // Appelle le service pour supprimer l'utilisateur.
         return ResponseEntity.noContent().build(); // Renvoie un statut 204 No Content.
     }
-    
-   
+
+    /**
+     * Endpoint pour récupérer les propriétés favorites d'un utilisateur.
+     * Réservé à l'utilisateur lui-même et aux administrateurs (403 sinon).
+     * @param id L'identifiant de l'utilisateur.
+     * @return La liste des propriétés favorites de l'utilisateur.
+     */
+    @GetMapping("/{id}/favorites")
+    public ResponseEntity<List<Property>> getFavorites(@PathVariable Long id) {
+        CurrentUser.requireSelfOrAdmin(id); // Seul l'utilisateur lui-même ou un administrateur.
+        return ResponseEntity.ok(favoriteService.getFavoriteProperties(id));
+    }
+
+    /**
+     * Endpoint pour ajouter une propriété aux favoris d'un utilisateur.
+     * Réservé à l'utilisateur lui-même et aux administrateurs (403 sinon).
+     * @param id L'identifiant de l'utilisateur.
+     * @param propertyId L'identifiant de la propriété.
+     * @return Une réponse HTTP 204 No Content.
+     */
+    @PutMapping("/{id}/favorites/{propertyId}")
+    public ResponseEntity<Void> addFavorite(@PathVariable Long id, @PathVariable Long propertyId) {
+        CurrentUser.requireSelfOrAdmin(id); // Seul l'utilisateur lui-même ou un administrateur.
+        favoriteService.addFavorite(id, propertyId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint pour retirer une propriété des favoris d'un utilisateur.
+     * Réservé à l'utilisateur lui-même et aux administrateurs (403 sinon).
+     * @param id L'identifiant de l'utilisateur.
+     * @param propertyId L'identifiant de la propriété.
+     * @return Une réponse HTTP 204 No Content.
+     */
+    @DeleteMapping("/{id}/favorites/{propertyId}")
+    public ResponseEntity<Void> removeFavorite(@PathVariable Long id, @PathVariable Long propertyId) {
+        CurrentUser.requireSelfOrAdmin(id); // Seul l'utilisateur lui-même ou un administrateur.
+        favoriteService.removeFavorite(id, propertyId);
+        return ResponseEntity.noContent().build();
+    }
 }
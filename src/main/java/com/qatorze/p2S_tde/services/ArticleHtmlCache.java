@@ -0,0 +1,218 @@
+package com.qatorze.p2S_tde.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.utils.MarkdownRenderer;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache du rendu HTML des articles.
+ *
+ * Le contenu Markdown d'un article est converti en HTML assaini par {@link MarkdownRenderer} une seule fois par
+ * révision : le rendu est rangé sous l'empreinte SHA-256 du contenu (et la version du rendu), en mémoire (LRU) et
+ * sur disque, un fichier par rendu. Une entrée n'est jamais invalidée : modifier un article change son empreinte,
+ * et l'ancien rendu finit par être évincé. Le cache sur disque survit aux redémarrages ; quand il dépasse sa
+ * taille maximale, les fichiers les moins récemment lus sont supprimés.
+ */
+@Service
+public class ArticleHtmlCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleHtmlCache.class);
+
+    private static final String EXTENSION = ".html";
+
+    /**
+     * Rendu HTML d'un article prêt à être envoyé.
+     *
+     * @param html Le HTML assaini, en UTF-8.
+     * @param etag L'ETag fort (entre guillemets), dérivé de l'empreinte du contenu.
+     */
+    public record RenderedHtml(byte[] html, String etag) {
+
+        /**
+         * Indique si l'en-tête If-None-Match du client désigne cette version.
+         */
+        public boolean matches(String ifNoneMatch) {
+            return ArticleResponseCache.etagMatches(ifNoneMatch, etag);
+        }
+    }
+
+    @Value("${articles.html.cache-dir:data/article-html}")
+    private String cacheDir;
+
+    @Value("${articles.html.memory-max-entries:500}")
+    private int memoryMaxEntries;
+
+    @Value("${articles.html.disk-max-bytes:104857600}")
+    private long diskMaxBytes;
+
+    private Path directory;
+    private Map<String, RenderedHtml> memory;
+    private final AtomicLong diskUsage = new AtomicLong();
+
+    @PostConstruct
+    public void initCache() {
+        memory = Collections.synchronizedMap(new LinkedHashMap<>(128, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RenderedHtml> eldest) {
+                return size() > memoryMaxEntries;
+            }
+        });
+
+        directory = Paths.get(cacheDir);
+        try {
+            Files.createDirectories(directory);
+            diskUsage.set(measureDisk());
+        } catch (IOException e) {
+            logger.warn("Cache disque du rendu HTML des articles indisponible ({}), seul le cache mémoire sera utilisé",
+                        directory, e);
+        }
+    }
+
+    /**
+     * Récupère le rendu d'un contenu déjà rendu, depuis la mémoire ou le disque.
+     *
+     * @param contentHash L'empreinte du contenu (voir {@link Article#contentHashOf(String)}).
+     * @return Le rendu, ou null s'il n'est pas en cache.
+     */
+    public RenderedHtml get(String contentHash) {
+        String key = keyOf(contentHash);
+        RenderedHtml cached = memory.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Path file = directory.resolve(key + EXTENSION);
+        try {
+            byte[] html = Files.readAllBytes(file);
+            // La date de modification sert d'heure de dernière lecture pour l'éviction.
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            RenderedHtml rendered = new RenderedHtml(html, etagOf(key));
+            memory.put(key, rendered);
+            return rendered;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Lecture impossible du rendu HTML en cache {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Récupère le rendu d'un contenu, en le calculant et en le mettant en cache s'il est absent.
+     *
+     * @param content Le contenu Markdown de l'article.
+     * @return Le rendu HTML assaini.
+     */
+    public RenderedHtml render(String content) {
+        String contentHash = Article.contentHashOf(content);
+        RenderedHtml cached = get(contentHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        String key = keyOf(contentHash);
+        RenderedHtml rendered = new RenderedHtml(MarkdownRenderer.render(content).getBytes(StandardCharsets.UTF_8),
+                                                 etagOf(key));
+        memory.put(key, rendered);
+        write(key, rendered.html());
+        return rendered;
+    }
+
+    private void write(String key, byte[] html) {
+        Path file = directory.resolve(key + EXTENSION);
+        Path temporary = directory.resolve(key + ".tmp");
+        try {
+            Files.write(temporary, html);
+            long previousSize = Files.exists(file) ? Files.size(file) : 0;
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskUsage.addAndGet(html.length - previousSize) > diskMaxBytes) {
+                evict();
+            }
+        } catch (IOException e) {
+            logger.warn("Écriture impossible du rendu HTML en cache {}", file, e);
+        }
+    }
+
+    /**
+     * Supprime les rendus les moins récemment lus jusqu'à redescendre à 90 % de la taille maximale.
+     */
+    private synchronized void evict() throws IOException {
+        List<Path> files = new ArrayList<>();
+        Map<Path, FileTime> lastRead = new LinkedHashMap<>();
+        long usage = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : stream) {
+                files.add(file);
+                lastRead.put(file, Files.getLastModifiedTime(file));
+                usage += Files.size(file);
+            }
+        }
+        if (usage <= diskMaxBytes) {
+            diskUsage.set(usage);
+            return;
+        }
+
+        files.sort(Comparator.comparing(lastRead::get));
+        long target = diskMaxBytes / 10 * 9;
+        int deleted = 0;
+        for (Path file : files) {
+            if (usage <= target) {
+                break;
+            }
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                usage -= size;
+                deleted++;
+            }
+        }
+        diskUsage.set(usage);
+        logger.info("Cache disque du rendu HTML des articles : {} rendus supprimés, {} octets utilisés", deleted, usage);
+    }
+
+    private long measureDisk() throws IOException {
+        long usage = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(file); // Écriture interrompue par un arrêt.
+                } else if (file.getFileName().toString().endsWith(EXTENSION)) {
+                    usage += Files.size(file);
+                }
+            }
+        }
+        return usage;
+    }
+
+    private static String keyOf(String contentHash) {
+        return contentHash + "-v" + MarkdownRenderer.VERSION;
+    }
+
+    private static String etagOf(String key) {
+        return "\"" + key + "\"";
+    }
+}
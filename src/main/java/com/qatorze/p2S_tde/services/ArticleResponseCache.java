@@ -0,0 +1,156 @@
+package com.qatorze.p2S_tde.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache des réponses JSON des articles, déjà sérialisées et compressées.
+ *
+ * Pour chaque article consulté, le cache garde les octets JSON (produits par l'{@link ObjectMapper} de Spring,
+ * donc identiques à la réponse habituelle), leur version compressée en gzip et un ETag calculé sur le contenu
+ * (SHA-256). Un article en cache est servi sans requête en base ni sérialisation, et un client qui possède déjà
+ * la bonne version reçoit une réponse 304 sans corps.
+ *
+ * Les entrées sont invalidées par {@link ArticleService} à chaque modification ou suppression. Un compteur de
+ * génération empêche de mettre en cache une réponse lue avant une invalidation concurrente.
+ */
+@Service
+public class ArticleResponseCache {
+
+    /**
+     * Réponse d'un article prête à être envoyée.
+     *
+     * @param json Le corps JSON non compressé.
+     * @param gzip Le même corps compressé en gzip.
+     * @param etag L'ETag fort (entre guillemets) calculé sur le corps JSON.
+     */
+    public record CachedResponse(byte[] json, byte[] gzip, String etag) {
+
+        /**
+         * Indique si l'en-tête If-None-Match du client désigne cette version.
+         */
+        public boolean matches(String ifNoneMatch) {
+            return etagMatches(ifNoneMatch, etag);
+        }
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${articles.cache.max-entries:1000}")
+    private int maxEntries;
+
+    private Map<Long, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void initCache() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Récupère la réponse d'un article depuis le cache, ou la construit à partir de l'article chargé.
+     *
+     * @param id     L'ID de l'article.
+     * @param loader Charge l'article depuis la base de données (appelé seulement en cas d'absence du cache).
+     * @return La réponse prête à être envoyée.
+     */
+    public CachedResponse get(Long id, Supplier<Object> loader) {
+        CachedResponse cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long generationBefore = generation.get();
+        CachedResponse response = build(loader.get());
+        if (generation.get() == generationBefore) {
+            cache.put(id, response);
+        }
+        return response;
+    }
+
+    /**
+     * Retire un article du cache (appelé après sa modification ou sa suppression).
+     *
+     * @param id L'ID de l'article.
+     */
+    public void invalidate(Long id) {
+        generation.incrementAndGet();
+        cache.remove(id);
+    }
+
+    /**
+     * Indique si un en-tête If-None-Match désigne un ETag donné.
+     *
+     * @param ifNoneMatch L'en-tête If-None-Match du client (peut être null).
+     * @param etag        L'ETag de la version actuelle, entre guillemets.
+     */
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2); // Comparaison faible, comme le prévoit If-None-Match.
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CachedResponse build(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(json, gzip(json), etagOf(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Impossible de sérialiser la réponse de l'article.", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 3 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String etagOf(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible.", e);
+        }
+    }
+}
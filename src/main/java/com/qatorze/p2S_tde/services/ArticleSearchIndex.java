@@ -0,0 +1,424 @@
+package com.qatorze.p2S_tde.services;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.repositories.ArticleRepository;
+import com.qatorze.p2S_tde.utils.FrenchAnalyzer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Index de recherche plein texte des articles, en mémoire.
+ *
+ * Le titre et le contenu sont analysés par {@link FrenchAnalyzer} ; un index inversé associe chaque terme aux
+ * articles qui le contiennent avec sa fréquence, les occurrences du titre comptant {@value #TITLE_BOOST} fois.
+ * Les résultats sont classés par BM25. L'index est mis à jour à chaque création, modification ou suppression
+ * d'article, protégé par un verrou lecture/écriture (recherches concurrentes, écritures exclusives).
+ *
+ * L'index est sauvegardé périodiquement et à l'arrêt dans un fichier, rechargé au démarrage. Il est reconstruit
+ * depuis la base de données si ce fichier est absent ou illisible, ou s'il ne correspond plus à la table : nombre
+ * d'articles, plus grand ID ou date de dernière modification différents (écritures faites après la dernière
+ * sauvegarde, perdues par un arrêt brutal, ou faites par un autre nœud).
+ */
+@Service
+public class ArticleSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleSearchIndex.class);
+
+    private static final float TITLE_BOOST = 3.0f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_PAGE_SIZE = 200;
+    private static final byte FILE_VERSION = 2;
+    private static final long NO_MODIFICATION_DATE = -1;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Value("${articles.search.index-file:data/article-search.idx}")
+    private String indexFile;
+
+    /**
+     * Article trouvé et son score de pertinence.
+     */
+    public record Hit(long articleId, double score) {}
+
+    /**
+     * Page de résultats d'une recherche.
+     *
+     * @param terms     Les termes analysés de la requête (pour surligner les extraits).
+     * @param hits      Les articles de la page, du plus pertinent au moins pertinent.
+     * @param totalHits Le nombre total d'articles trouvés.
+     */
+    public record SearchResult(Set<String> terms, List<Hit> hits, long totalHits) {}
+
+    /**
+     * Termes d'un article et leurs fréquences (titre pondéré), avec la longueur pondérée du document et la date de
+     * modification de l'article indexé (en millisecondes UTC, {@value #NO_MODIFICATION_DATE} si elle est inconnue).
+     */
+    private record Document(float length, Map<String, Float> frequencies, long modifiedAt) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Index inversé : terme -> (ID de l'article -> fréquence pondérée).
+    private Map<String, Map<Long, Float>> postings = new HashMap<>();
+    // Index direct, nécessaire pour retirer un article et pour la sauvegarde.
+    private Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    private volatile boolean dirty;
+    private volatile boolean rebuilding;
+    // Articles modifiés pendant un chargement ou une reconstruction, à réappliquer sur le nouvel index.
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Charge l'index depuis son fichier, ou le reconstruit en arrière-plan, une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        // Avant le démarrage du thread : les écritures faites pendant le chargement sont réappliquées ensuite.
+        touchedDuringRebuild.clear();
+        rebuilding = true;
+        Thread loader = new Thread(() -> {
+            try {
+                Map<Long, Document> loaded = load();
+                if (loaded != null && isUpToDate(loaded)) {
+                    install(loaded);
+                    logger.info("Index de recherche des articles chargé ({} articles)", loaded.size());
+                    return;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Impossible de vérifier l'index de recherche des articles sauvegardé, il sera reconstruit", e);
+            }
+            rebuild();
+        }, "article-search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Indexe (ou réindexe) un article.
+     */
+    public void index(Article article) {
+        Document document = analyze(article);
+        // Noté avant l'écriture : une reconstruction en cours peut remplacer l'index juste après.
+        if (rebuilding) {
+            touchedDuringRebuild.add(article.getId());
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(article.getId());
+            addDocument(article.getId(), document);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un article de l'index.
+     */
+    public void remove(Long articleId) {
+        if (rebuilding) {
+            touchedDuringRebuild.add(articleId);
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(articleId);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche les articles correspondant à une requête (au moins un terme commun), classés par BM25.
+     *
+     * @param query  La requête en texte libre.
+     * @param offset L'indice du premier résultat à renvoyer.
+     * @param limit  Le nombre maximal de résultats à renvoyer.
+     * @return La page de résultats et le nombre total d'articles trouvés.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(FrenchAnalyzer.analyze(query));
+        if (terms.isEmpty()) {
+            return new SearchResult(terms, List.of(), 0);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1 : totalLength / documentCount;
+            for (String term : terms) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((articleId, frequency) -> {
+                    double length = documents.get(articleId).length();
+                    double score = idf * frequency * (K1 + 1)
+                                 / (frequency + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(articleId, score, Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((articleId, score) -> hits.add(new Hit(articleId, score)));
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::articleId, Comparator.reverseOrder()));
+
+        int from = Math.min(offset, hits.size());
+        int to = Math.min(from + limit, hits.size());
+        return new SearchResult(terms, new ArrayList<>(hits.subList(from, to)), hits.size());
+    }
+
+    /**
+     * Reconstruit tout l'index depuis la base de données, sans bloquer les recherches pendant la lecture.
+     */
+    public void rebuild() {
+        rebuilding = true;
+        touchedDuringRebuild.clear();
+        try {
+            Map<String, Map<Long, Float>> newPostings = new HashMap<>();
+            Map<Long, Document> newDocuments = new HashMap<>();
+            double newTotalLength = 0;
+
+            List<Article> page = articleRepository.findWithBodyAfterId(0L, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            while (!page.isEmpty()) {
+                for (Article article : page) {
+                    Document document = analyze(article);
+                    newDocuments.put(article.getId(), document);
+                    newTotalLength += document.length();
+                    document.frequencies().forEach((term, frequency) ->
+                            newPostings.computeIfAbsent(term, t -> new HashMap<>()).put(article.getId(), frequency));
+                }
+                Long lastId = page.get(page.size() - 1).getId();
+                page = articleRepository.findWithBodyAfterId(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            }
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                documents = newDocuments;
+                totalLength = newTotalLength;
+                rebuilding = false;
+                replayTouched();
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Index de recherche des articles reconstruit ({} articles)", newDocuments.size());
+        } catch (RuntimeException e) {
+            logger.error("Échec de la reconstruction de l'index de recherche des articles", e);
+        } finally {
+            rebuilding = false;
+        }
+        persist();
+    }
+
+    /**
+     * Sauvegarde l'index s'il a été modifié depuis la dernière sauvegarde.
+     */
+    @Scheduled(fixedDelayString = "${articles.search.persist-interval-ms:300000}")
+    public void persist() {
+        if (!dirty) {
+            return;
+        }
+        Path path = Paths.get(indexFile);
+        lock.readLock().lock();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeByte(FILE_VERSION);
+                out.writeInt(documents.size());
+                for (Map.Entry<Long, Document> entry : documents.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    out.writeFloat(entry.getValue().length());
+                    out.writeLong(entry.getValue().modifiedAt());
+                    out.writeInt(entry.getValue().frequencies().size());
+                    for (Map.Entry<String, Float> term : entry.getValue().frequencies().entrySet()) {
+                        out.writeUTF(term.getKey());
+                        out.writeFloat(term.getValue());
+                    }
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            dirty = false;
+        } catch (IOException e) {
+            logger.warn("Impossible de sauvegarder l'index de recherche des articles dans {}", path, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sauvegarde l'index à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void persistOnShutdown() {
+        persist();
+    }
+
+    /**
+     * Lit l'index sauvegardé dans son fichier, sans le mettre en place.
+     *
+     * @return Les documents lus, ou null si le fichier est absent, d'une autre version ou illisible.
+     */
+    private Map<Long, Document> load() {
+        Path path = Paths.get(indexFile);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readByte() != FILE_VERSION) {
+                return null;
+            }
+            int documentCount = in.readInt();
+            Map<Long, Document> loaded = new HashMap<>(documentCount * 2);
+            for (int i = 0; i < documentCount; i++) {
+                long articleId = in.readLong();
+                float length = in.readFloat();
+                long modifiedAt = in.readLong();
+                int termCount = in.readInt();
+                Map<String, Float> frequencies = new HashMap<>(termCount * 2);
+                for (int j = 0; j < termCount; j++) {
+                    frequencies.put(in.readUTF(), in.readFloat());
+                }
+                loaded.put(articleId, new Document(length, frequencies, modifiedAt));
+            }
+            return loaded;
+        } catch (IOException e) {
+            logger.warn("Index de recherche des articles illisible, il sera reconstruit : {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Indique si un index sauvegardé correspond encore à la table : même nombre d'articles, même plus grand ID
+     * (une suppression suivie d'une création change l'ID) et même date de dernière modification.
+     */
+    private boolean isUpToDate(Map<Long, Document> loaded) {
+        long maxId = loaded.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+        long maxModifiedAt = loaded.values().stream().mapToLong(Document::modifiedAt).max()
+                                   .orElse(NO_MODIFICATION_DATE);
+        Long tableMaxId = articleRepository.findMaxId();
+        return loaded.size() == articleRepository.count()
+               && maxId == (tableMaxId == null ? 0 : tableMaxId)
+               && maxModifiedAt == toMillis(articleRepository.findMaxModificationDate());
+    }
+
+    /**
+     * Met en place un index chargé depuis son fichier, puis réapplique les écritures faites pendant le chargement.
+     */
+    private void install(Map<Long, Document> loaded) {
+        lock.writeLock().lock();
+        try {
+            postings = new HashMap<>();
+            documents = new HashMap<>();
+            totalLength = 0;
+            loaded.forEach(this::addDocument);
+            rebuilding = false;
+            replayTouched();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Document analyze(Article article) {
+        Map<String, Float> frequencies = new HashMap<>();
+        List<String> titleTerms = FrenchAnalyzer.analyze(article.getTitle());
+        List<String> contentTerms = FrenchAnalyzer.analyze(article.getContent());
+        for (String term : titleTerms) {
+            frequencies.merge(term, TITLE_BOOST, Float::sum);
+        }
+        for (String term : contentTerms) {
+            frequencies.merge(term, 1f, Float::sum);
+        }
+        return new Document(titleTerms.size() * TITLE_BOOST + contentTerms.size(), frequencies,
+                            toMillis(article.getModificationDate()));
+    }
+
+    private static long toMillis(LocalDateTime date) {
+        return date == null ? NO_MODIFICATION_DATE : date.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // Les trois méthodes suivantes doivent être appelées sous le verrou d'écriture.
+
+    /**
+     * Réapplique les écritures faites pendant un chargement ou une reconstruction, qui peuvent manquer dans le
+     * nouvel index : les articles concernés sont relus en base.
+     */
+    private void replayTouched() {
+        for (Long articleId : touchedDuringRebuild) {
+            removeDocument(articleId);
+        }
+        if (!touchedDuringRebuild.isEmpty()) {
+            for (Article article : articleRepository.findWithBodyByIdIn(touchedDuringRebuild)) {
+                addDocument(article.getId(), analyze(article));
+            }
+        }
+        touchedDuringRebuild.clear();
+    }
+
+    private void addDocument(Long articleId, Document document) {
+        documents.put(articleId, document);
+        totalLength += document.length();
+        document.frequencies().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(articleId, frequency));
+    }
+
+    private void removeDocument(Long articleId) {
+        Document document = documents.remove(articleId);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length();
+        for (String term : document.frequencies().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(articleId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,32 @@
 package com.qatorze.p2S_tde.services;
 
+import com.qatorze.p2S_tde.dtos.ArticlePageDTO;
+import com.qatorze.p2S_tde.dtos.ArticleSearchHitDTO;
+import com.qatorze.p2S_tde.dtos.ArticleSearchPageDTO;
+import com.qatorze.p2S_tde.dtos.ArticleSummaryDTO;
 import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.models.AuthorArticleCount;
 import com.qatorze.p2S_tde.repositories.ArticleRepository;
+import com.qatorze.p2S_tde.repositories.AuthorArticleCountRepository;
+import com.qatorze.p2S_tde.utils.SnippetHighlighter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service pour gérer la logique métier des articles.
@@ -14,16 +34,125 @@ import java.util.Optional;
 @Service
 public class ArticleService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int SNIPPET_WORDS = 30;
+
     @Autowired
     private ArticleRepository articleRepository;
 
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
+
+    @Autowired
+    private ArticleResponseCache articleResponseCache;
+
+    @Autowired
+    private ArticleHtmlCache articleHtmlCache;
+
+    @Autowired
+    private ArticleViewCounterService articleViewCounterService;
+
+    @Autowired
+    private AuthorArticleCountRepository authorArticleCountRepository;
+
+    @Autowired
+    private RelatedArticlesService relatedArticlesService;
+
+    @Autowired
+    private SitemapFeedService sitemapFeedService;
+
+    @Autowired
+    private GlobalSearchService globalSearchService;
+
+    /**
+     * Récupérer une page de résumés d'articles, du plus récent au plus ancien.
+     * 
+     * @param cursor Le curseur renvoyé par la page précédente, ou null pour la première page
+     * @param size Le nombre d'articles souhaité (borné entre 1 et {@value #MAX_PAGE_SIZE})
+     * @return La page d'articles et le curseur de la page suivante
+     */
+    public ArticlePageDTO getArticleSummaries(Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Un article de plus est lu pour savoir s'il existe une page suivante.
+        return toPage(articleRepository.findSummaries(cursor, PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
     /**
-     * Récupérer tous les articles.
+     * Récupérer les articles similaires à un article, du plus similaire au moins similaire.
+     * Les recommandations sont précalculées : seuls les résumés des articles recommandés sont lus.
      * 
-     * @return La liste des articles
+     * @param id L'identifiant de l'article consulté
+     * @param size Le nombre maximal d'articles recommandés
+     * @return Les résumés des articles recommandés, éventuellement vide
+     * @throws IllegalArgumentException Si l'article n'est pas trouvé
      */
-    public List<Article> getAllArticles() {
-        return articleRepository.findAll();
+    public List<ArticleSummaryDTO> getRelatedArticles(Long id, int size) {
+        List<Long> ids = relatedArticlesService.getRelated(id).stream()
+                                               .limit(Math.max(0, size))
+                                               .map(RelatedArticlesService.Neighbour::articleId)
+                                               .toList();
+        if (ids.isEmpty()) {
+            if (!articleRepository.existsById(id)) {
+                throw new IllegalArgumentException("Article avec l'ID " + id + " introuvable.");
+            }
+            return List.of();
+        }
+
+        Map<Long, ArticleSummaryDTO> byId = articleRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ArticleSummaryDTO::getId, Function.identity()));
+        List<ArticleSummaryDTO> related = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        fillFirstImages(related);
+        return related;
+    }
+
+    /**
+     * Récupérer une page des articles d'un auteur, du plus récent au plus ancien.
+     * L'auteur est comparé sans tenir compte de la casse ni des accents.
+     * 
+     * @param author Le nom de l'auteur
+     * @param cursor Le curseur renvoyé par la page précédente, ou null pour la première page
+     * @param size Le nombre d'articles souhaité (borné entre 1 et {@value #MAX_PAGE_SIZE})
+     * @return La page d'articles, le curseur de la page suivante et le nombre total d'articles de l'auteur
+     */
+    public ArticlePageDTO getArticlesByAuthor(String author, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String authorKey = Article.authorKeyOf(author);
+        ArticlePageDTO page = toPage(
+                articleRepository.findSummariesByAuthorKey(authorKey, cursor, PageRequest.of(0, pageSize + 1)), pageSize);
+        page.setTotalCount(authorArticleCountRepository.findById(authorKey)
+                                                       .map(AuthorArticleCount::getArticleCount)
+                                                       .orElse(0L));
+        return page;
+    }
+
+    /**
+     * Construit une page à partir de résumés lus avec un élément de plus que la taille de la page,
+     * et renseigne la première image de chaque article.
+     */
+    private ArticlePageDTO toPage(List<ArticleSummaryDTO> summaries, int pageSize) {
+        Long nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            nextCursor = summaries.get(pageSize - 1).getId();
+        }
+
+        fillFirstImages(summaries);
+        return new ArticlePageDTO(summaries, nextCursor);
+    }
+
+    /**
+     * Renseigne la première image de chaque article résumé, en une seule requête.
+     */
+    private void fillFirstImages(List<ArticleSummaryDTO> summaries) {
+        Map<Long, ArticleSummaryDTO> byId = new HashMap<>();
+        for (ArticleSummaryDTO summary : summaries) {
+            byId.put(summary.getId(), summary);
+        }
+        if (!byId.isEmpty()) {
+            for (Object[] row : articleRepository.findFirstImageUrlsByArticleIds(byId.keySet())) {
+                byId.get((Long) row[0]).setFirstImageUrl((String) row[1]);
+            }
+        }
     }
 
     /**
@@ -38,14 +167,70 @@ public class ArticleService {
                 .orElseThrow(() -> new IllegalArgumentException("Article avec l'ID " + id + " introuvable."));
     }
 
+    /**
+     * Récupérer la réponse JSON d'un article, depuis le cache des réponses si possible,
+     * et compter une lecture de l'article.
+     * 
+     * @param id L'identifiant de l'article
+     * @return La réponse sérialisée, compressée et son ETag
+     * @throws IllegalArgumentException Si l'article n'est pas trouvé
+     */
+    public ArticleResponseCache.CachedResponse getArticleResponse(Long id) {
+        ArticleResponseCache.CachedResponse response = articleResponseCache.get(id, () -> getArticleById(id));
+        articleViewCounterService.increment(id);
+        return response;
+    }
+
+    /**
+     * Récupérer le rendu HTML assaini du contenu d'un article.
+     * Le rendu est calculé une fois par révision du contenu, puis servi depuis le cache (mémoire ou disque)
+     * sans charger le contenu.
+     * 
+     * @param id L'identifiant de l'article
+     * @return Le HTML et son ETag
+     * @throws IllegalArgumentException Si l'article n'est pas trouvé
+     */
+    public ArticleHtmlCache.RenderedHtml getArticleHtml(Long id) {
+        Optional<String> contentHash = articleRepository.findContentHashById(id);
+        if (contentHash.isPresent()) {
+            ArticleHtmlCache.RenderedHtml cached = articleHtmlCache.get(contentHash.get());
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Article article = articleRepository.findWithBodyByIdIn(List.of(id)).stream().findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Article avec l'ID " + id + " introuvable."));
+        return articleHtmlCache.render(article.getContent() == null ? "" : article.getContent());
+    }
+
+    /**
+     * Récupérer le nombre de lectures d'un article.
+     * 
+     * @param id L'identifiant de l'article
+     * @return Le nombre de lectures
+     */
+    public long getArticleViews(Long id) {
+        return articleViewCounterService.getViews(id);
+    }
+
     /**
      * Ajouter un nouvel article.
      * 
      * @param article L'article à ajouter
      * @return L'article ajouté
      */
+    @Transactional
     public Article createArticle(Article article) {
-        return articleRepository.save(article);
+        article.setModificationDate(now());
+        Article savedArticle = articleRepository.save(article);
+        authorArticleCountRepository.addToCount(Article.authorKeyOf(savedArticle.getAuthor()), 1);
+        afterCommit(() -> {
+            articleSearchIndex.index(savedArticle);
+            relatedArticlesService.update(savedArticle);
+            sitemapFeedService.articleChanged(savedArticle.getId());
+            globalSearchService.indexArticle(savedArticle);
+        });
+        return savedArticle;
     }
 
     /**
@@ -56,16 +241,32 @@ public class ArticleService {
      * @return L'article mis à jour
      * @throws IllegalArgumentException Si l'article à mettre à jour n'est pas trouvé
      */
+    @Transactional
     public Article updateArticle(Long id, Article updatedArticle) {
         Article existingArticle = articleRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Article avec l'ID " + id + " introuvable."));
 
+        String previousAuthorKey = Article.authorKeyOf(existingArticle.getAuthor());
         existingArticle.setTitle(updatedArticle.getTitle());
         existingArticle.setContent(updatedArticle.getContent());
         existingArticle.setImageUrls(updatedArticle.getImageUrls());
         existingArticle.setAuthor(updatedArticle.getAuthor());
+        existingArticle.setModificationDate(now());
 
-        return articleRepository.save(existingArticle);
+        Article savedArticle = articleRepository.save(existingArticle);
+        String authorKey = Article.authorKeyOf(savedArticle.getAuthor());
+        if (!authorKey.equals(previousAuthorKey)) {
+            authorArticleCountRepository.addToCount(previousAuthorKey, -1);
+            authorArticleCountRepository.addToCount(authorKey, 1);
+        }
+        afterCommit(() -> {
+            articleResponseCache.invalidate(id);
+            articleSearchIndex.index(savedArticle);
+            relatedArticlesService.update(savedArticle);
+            sitemapFeedService.articleChanged(savedArticle.getId());
+            globalSearchService.indexArticle(savedArticle);
+        });
+        return savedArticle;
     }
 
     /**
@@ -74,11 +275,45 @@ public class ArticleService {
      * @param id L'identifiant de l'article à supprimer
      * @throws IllegalArgumentException Si l'article à supprimer n'est pas trouvé
      */
+    @Transactional
     public void deleteArticle(Long id) {
-        if (!articleRepository.existsById(id)) {
-            throw new IllegalArgumentException("Article avec l'ID " + id + " introuvable.");
+        Article article = articleRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Article avec l'ID " + id + " introuvable."));
+        articleRepository.delete(article);
+        authorArticleCountRepository.addToCount(Article.authorKeyOf(article.getAuthor()), -1);
+        afterCommit(() -> {
+            articleResponseCache.invalidate(id);
+            articleSearchIndex.remove(id);
+            relatedArticlesService.remove(id);
+            sitemapFeedService.articleChanged(id);
+            globalSearchService.removeArticle(id);
+            articleViewCounterService.remove(id);
+        });
+    }
+
+    /**
+     * Heure de modification d'un article, à la milliseconde : la valeur relue en base est exactement celle-ci
+     * (comparée à la sauvegarde de l'index de recherche).
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Exécute une mise à jour des index en mémoire après le commit de la transaction en cours (tout de suite hors
+     * transaction) : un rollback ne laisse pas les index décrire un article qui n'est pas en base.
+     */
+    private static void afterCommit(Runnable indexUpdate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexUpdate.run();
+            return;
         }
-        articleRepository.deleteById(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexUpdate.run();
+            }
+        });
     }
 
     /**
@@ -90,4 +325,35 @@ public class ArticleService {
     public Optional<Article> getArticleByTitle(String title) {
         return articleRepository.findByTitleIgnoreCase(title);
     }
+
+    /**
+     * Rechercher des articles en texte intégral (titre et contenu), du plus pertinent au moins pertinent.
+     * 
+     * @param query La recherche en texte libre
+     * @param page Le numéro de la page (à partir de 0)
+     * @param size Le nombre d'articles par page (borné entre 1 et {@value #MAX_PAGE_SIZE})
+     * @return La page de résultats, avec un extrait surligné de chaque article
+     */
+    public ArticleSearchPageDTO searchArticles(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        // Calculé en long : une page très lointaine donne un décalage au-delà des résultats, pas un entier négatif.
+        int offset = (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE);
+        ArticleSearchIndex.SearchResult result = articleSearchIndex.search(query, offset, pageSize);
+
+        List<Long> ids = result.hits().stream().map(ArticleSearchIndex.Hit::articleId).toList();
+        Map<Long, Article> articles = ids.isEmpty() ? Map.of() : articleRepository.findWithBodyByIdIn(ids).stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+
+        List<ArticleSearchHitDTO> items = new ArrayList<>();
+        for (ArticleSearchIndex.Hit hit : result.hits()) {
+            Article article = articles.get(hit.articleId());
+            if (article != null) {
+                String snippet = SnippetHighlighter.highlight(article.getContent(), result.terms(), SNIPPET_WORDS);
+                items.add(new ArticleSearchHitDTO(article.getId(), article.getTitle(), article.getAuthor(),
+                                                  article.getCreationDate(), hit.score(), snippet));
+            }
+        }
+        return new ArticleSearchPageDTO(items, pageNumber, pageSize, result.totalHits());
+    }
 }
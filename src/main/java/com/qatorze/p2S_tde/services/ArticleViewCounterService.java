@@ -0,0 +1,167 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.models.ArticleViews;
+import com.qatorze.p2S_tde.repositories.ArticleViewsRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service qui compte les lectures des articles.
+ *
+ * Chaque lecture incrémente un {@link LongAdder} en mémoire (compteur réparti sur plusieurs cellules, sans
+ * contention entre threads), sans écriture en base de données. Périodiquement, les lectures accumulées depuis
+ * la dernière écriture sont ajoutées à la table "article_views" par une seule requête groupée. Une dernière
+ * écriture est faite à l'arrêt de l'application.
+ *
+ * Les compteurs ne sont jamais remis à zéro (ce qui pourrait perdre une incrémentation concurrente) : le service
+ * retient la valeur déjà écrite et n'écrit que la différence. Si l'écriture échoue, elle est retentée à la
+ * prochaine exécution.
+ *
+ * Les IDs des articles supprimés sont retenus : une lecture en cours au moment de la suppression ne recrée pas
+ * de compteur écrit en base, ce qui y laisserait une ligne orpheline. Les IDs d'articles ne sont jamais
+ * réutilisés, et seuls ceux supprimés depuis le démarrage sont retenus.
+ */
+@Service
+public class ArticleViewCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleViewCounterService.class);
+
+    // Nombre maximal d'articles par requête groupée.
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    @Autowired
+    private ArticleViewsRepository articleViewsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Compteur en mémoire d'un article et valeur déjà écrite en base (modifiée uniquement par l'écriture).
+     */
+    private static final class Counter {
+        final LongAdder views = new LongAdder();
+        long flushed;
+    }
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> deletedArticles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Enregistre une lecture d'article.
+     *
+     * @param articleId L'ID de l'article lu.
+     */
+    public void increment(Long articleId) {
+        if (deletedArticles.contains(articleId)) {
+            return;
+        }
+        counters.computeIfAbsent(articleId, id -> new Counter()).views.increment();
+    }
+
+    /**
+     * Récupère le nombre de lectures d'un article, y compris celles pas encore écrites en base.
+     *
+     * @param articleId L'ID de l'article.
+     * @return Le nombre de lectures.
+     */
+    public long getViews(Long articleId) {
+        long persisted = articleViewsRepository.findById(articleId).map(ArticleViews::getViews).orElse(0L);
+        Counter counter = counters.get(articleId);
+        if (counter == null) {
+            return persisted;
+        }
+        synchronized (this) {
+            return persisted + counter.views.sum() - counter.flushed;
+        }
+    }
+
+    /**
+     * Oublie le compteur d'un article supprimé et ignore ses lectures ultérieures.
+     *
+     * @param articleId L'ID de l'article supprimé.
+     */
+    public synchronized void remove(Long articleId) {
+        deletedArticles.add(articleId);
+        counters.remove(articleId);
+        articleViewsRepository.findById(articleId).ifPresent(articleViewsRepository::delete);
+    }
+
+    /**
+     * Ajoute en base les lectures accumulées depuis la dernière écriture.
+     */
+    @Scheduled(fixedDelayString = "${articles.views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        List<Counter> flushedCounters = new ArrayList<>();
+        counters.forEach((articleId, counter) -> {
+            if (deletedArticles.contains(articleId)) {
+                // Compteur recréé par une lecture concurrente de la suppression : jamais écrit.
+                counters.remove(articleId);
+                return;
+            }
+            long delta = counter.views.sum() - counter.flushed;
+            if (delta > 0) {
+                ids.add(articleId);
+                deltas.add(delta);
+                flushedCounters.add(counter);
+            }
+        });
+
+        for (int from = 0; from < ids.size(); from += FLUSH_CHUNK_SIZE) {
+            int to = Math.min(from + FLUSH_CHUNK_SIZE, ids.size());
+            try {
+                jdbcTemplate.update(buildUpsert(to - from), upsertArguments(ids, deltas, from, to));
+            } catch (RuntimeException e) {
+                logger.error("Échec de l'écriture des lectures de {} articles, nouvel essai au prochain passage", to - from, e);
+                continue;
+            }
+            for (int i = from; i < to; i++) {
+                flushedCounters.get(i).flushed += deltas.get(i);
+            }
+        }
+    }
+
+    /**
+     * Écrit les dernières lectures à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Construit une requête qui ajoute les lectures de plusieurs articles en une fois :
+     * INSERT ... VALUES (?, ?), (?, ?) ... ON DUPLICATE KEY UPDATE views = views + VALUES(views).
+     */
+    private static String buildUpsert(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO article_views (article_id, views) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        return sql.append(" ON DUPLICATE KEY UPDATE views = views + VALUES(views)").toString();
+    }
+
+    private static Object[] upsertArguments(List<Long> ids, List<Long> deltas, int from, int to) {
+        Object[] arguments = new Object[(to - from) * 2];
+        for (int i = from; i < to; i++) {
+            arguments[(i - from) * 2] = ids.get(i);
+            arguments[(i - from) * 2 + 1] = deltas.get(i);
+        }
+        return arguments;
+    }
+}
@@ -0,0 +1,120 @@
+package com.qatorze.p2S_tde.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.dtos.UserResponseDTO;
+import com.qatorze.p2S_tde.services.RefreshTokenService.IssuedRefreshToken;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Écrit les cookies de session : token d'accès JWT (HttpOnly), token CSRF (lisible par le front-end) et token
+ * de rafraîchissement (HttpOnly, envoyé uniquement aux endpoints d'authentification).
+ */
+@Service
+public class AuthCookieService {
+
+    public static final String ACCESS_TOKEN_COOKIE = "p2s_tde_jw_token";
+    public static final String REFRESH_TOKEN_COOKIE = "p2s_tde_refresh_token";
+    public static final String CSRF_TOKEN_COOKIE = "p2s_tde_csrf_token";
+
+    private static final String REFRESH_TOKEN_PATH = "/api/auth";
+
+    @Autowired
+    private JwtService jwtService;
+
+    /**
+     * Ouvre une session : nouveau token d'accès, nouveau token CSRF et token de rafraîchissement donné.
+     *
+     * @param response     La réponse HTTP.
+     * @param user         L'utilisateur de la session.
+     * @param refreshToken Le token de rafraîchissement de la session.
+     */
+    public void startSession(HttpServletResponse response, UserResponseDTO user, IssuedRefreshToken refreshToken) {
+        setTokenInCookie(response, jwtService.generateToken(user));
+        setCsrfTokenInCookie(response, jwtService.generateCsrfToken());
+        setRefreshTokenInCookie(response, refreshToken);
+    }
+
+    /**
+     * Efface les cookies de session (à la déconnexion).
+     */
+    public void clearSession(HttpServletResponse response) {
+        clearCookie(response, ACCESS_TOKEN_COOKIE, "/", true);
+        clearCookie(response, REFRESH_TOKEN_COOKIE, REFRESH_TOKEN_PATH, true);
+        clearCookie(response, CSRF_TOKEN_COOKIE, "/", false);
+    }
+
+    /**
+     * Définit un cookie pour le token JWT.
+     */
+    public void setTokenInCookie(HttpServletResponse response, String token) {
+        Cookie cookie = new Cookie(ACCESS_TOKEN_COOKIE, token);
+        cookie.setHttpOnly(true);  // Rendere il cookie non accessibile tramite JavaScript (protezione contro XSS).
+        cookie.setSecure(true);    // passare poi a true - Solo su HTTPS (utile in produzione).
+        cookie.setPath("/");       // Il cookie è disponibile su tutto il dominio.
+        cookie.setMaxAge((int) jwtService.getAccessTokenTtlSeconds()); // Durée de vie du token d'accès.
+
+        // Aggiungi manualmente l'intestazione Set-Cookie
+        response.addHeader("Set-Cookie", String.format(
+        		"%s=%s; Max-Age=%d; Path=%s; HttpOnly; Secure; SameSite=Strict",
+        		//"%s=%s; Max-Age=%d; Path=%s; HttpOnly; SameSite=Strict",
+                cookie.getName(),
+                cookie.getValue(),
+                cookie.getMaxAge(),
+                cookie.getPath()
+         ));
+    }
+
+    /**
+     * Définit un cookie pour le token CSRF.
+     */
+    public void setCsrfTokenInCookie(HttpServletResponse response, String csrfToken) {
+        Cookie csrfCookie = new Cookie(CSRF_TOKEN_COOKIE, csrfToken);
+
+        // Imposta i parametri per il cookie.
+        csrfCookie.setHttpOnly(false);  // Il token CSRF non deve essere HttpOnly (perché deve essere inviato dal client). Doit être accessible via JavaScript
+        csrfCookie.setSecure(false);     // passare poi a true - Solo su HTTPS (utile in produzione).
+        csrfCookie.setPath("/");        // Imposta il percorso del cookie (disponibile per tutta l'app).
+        csrfCookie.setMaxAge(24 * 60 * 60); // Durata di 24 ore.
+
+        // Aggiungi manualmente l'intestazione Set-Cookie
+        response.addHeader("Set-Cookie", String.format(
+        		//"%s=%s; Max-Age=%d; Path=%s; Secure; SameSite=Strict",
+                "%s=%s; Max-Age=%d; Path=%s; SameSite=Lax",
+                csrfCookie.getName(),
+                csrfCookie.getValue(),
+                csrfCookie.getMaxAge(),
+                csrfCookie.getPath()
+            ));
+    }
+
+    /**
+     * Définit un cookie pour le token de rafraîchissement, qui expire avec le token (au plus tard à la limite
+     * de durée de sa famille).
+     */
+    public void setRefreshTokenInCookie(HttpServletResponse response, IssuedRefreshToken refreshToken) {
+        long maxAgeSeconds = Math.max(0, (refreshToken.expiresAtMillis() - System.currentTimeMillis()) / 1000);
+        response.addHeader("Set-Cookie", String.format(
+                "%s=%s; Max-Age=%d; Path=%s; HttpOnly; Secure; SameSite=Strict",
+                REFRESH_TOKEN_COOKIE,
+                refreshToken.token(),
+                maxAgeSeconds,
+                REFRESH_TOKEN_PATH
+            ));
+    }
+
+    /**
+     * Efface un cookie (même nom et même chemin, durée de vie nulle).
+     */
+    private void clearCookie(HttpServletResponse response, String name, String path, boolean httpOnly) {
+        response.addHeader("Set-Cookie", String.format(
+                "%s=; Max-Age=0; Path=%s;%s Secure; SameSite=Strict",
+                name,
+                path,
+                httpOnly ? " HttpOnly;" : ""
+            ));
+    }
+}
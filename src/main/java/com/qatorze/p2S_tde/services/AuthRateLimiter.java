@@ -0,0 +1,81 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.exceptions.RateLimitExceededException;
+import com.qatorze.p2S_tde.utils.TokenBucketLimiter;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Limitation du débit des endpoints coûteux d'authentification : connexion et enregistrement (BCrypt),
+ * demande de réinitialisation du mot de passe (envoi d'un e-mail).
+ *
+ * Chaque tentative prend un jeton dans le seau de l'adresse IP, puis dans celui de l'e-mail visé : une rafale
+ * depuis une seule adresse est freinée par le premier, une attaque distribuée sur un même compte par le second.
+ * Les seaux sont séparés par action. Les seaux inactifs sont supprimés périodiquement.
+ */
+@Service
+public class AuthRateLimiter {
+
+    public static final String LOGIN = "login";
+    public static final String REGISTER = "register";
+    public static final String PASSWORD_RESET = "password-reset";
+    public static final String EMAIL_CHECK = "email-check";
+
+    @Value("${auth.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${auth.rate-limit.ip.refill-per-minute:10}")
+    private int ipRefillPerMinute;
+
+    @Value("${auth.rate-limit.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${auth.rate-limit.email.refill-per-minute:2}")
+    private int emailRefillPerMinute;
+
+    private TokenBucketLimiter ipLimiter;
+    private TokenBucketLimiter emailLimiter;
+
+    @PostConstruct
+    public void init() {
+        ipLimiter = new TokenBucketLimiter(ipCapacity, TimeUnit.MINUTES.toNanos(1) / ipRefillPerMinute);
+        emailLimiter = new TokenBucketLimiter(emailCapacity, TimeUnit.MINUTES.toNanos(1) / emailRefillPerMinute);
+    }
+
+    /**
+     * Compte une tentative et la refuse si l'adresse IP ou l'e-mail a épuisé ses jetons.
+     *
+     * @param action    L'action tentée ({@link #LOGIN}, {@link #REGISTER}, {@link #PASSWORD_RESET},
+     *                  {@link #EMAIL_CHECK}).
+     * @param ipAddress L'adresse IP du client.
+     * @param email     L'e-mail visé (peut être null).
+     * @throws RateLimitExceededException Si la tentative dépasse la limite.
+     */
+    public void check(String action, String ipAddress, String email) {
+        long now = System.nanoTime();
+        long wait = ipLimiter.tryAcquire(action + "|" + ipAddress, now);
+        if (wait == 0 && email != null && !email.isBlank()) {
+            wait = emailLimiter.tryAcquire(action + "|" + email.trim().toLowerCase(Locale.ROOT), now);
+        }
+        if (wait > 0) {
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999)));
+        }
+    }
+
+    /**
+     * Supprime les seaux pleins, qui ne limitent plus rien.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        ipLimiter.evictIdle(now);
+        emailLimiter.evictIdle(now);
+    }
+}
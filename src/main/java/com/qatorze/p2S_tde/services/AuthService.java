@@ -2,8 +2,9 @@ package com.qatorze.p2S_tde.services;
 
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import com.qatorze.p2S_tde.dtos.RegisterRequestDTO;
@@ -26,32 +27,57 @@ public class AuthService {
     private UserConverter userConverter; // Conversion des objets entre les DTO et les modèles.
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder; // Encodage des mots de passe pour la sécurité.
+    private PasswordHashingService passwordHashingService; // Encodage des mots de passe (BCrypt), sur un exécuteur dédié.
     
     
     @Autowired
     private PasswordValidatorService passwordValidatorService; // Iniezione del servizio di validazione
 
+    @Autowired
+    private GlobalSearchService globalSearchService; // Mise à jour de la recherche globale de l'administration.
+
+    @Autowired
+    private UserCache userCache; // Lecture des utilisateurs sans aller en base à chaque connexion.
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter; // E-mails déjà enregistrés, sans requête pour les e-mails libres.
+
+    @Autowired
+    private RefreshTokenService refreshTokenService; // Tokens de rafraîchissement, révoqués au changement de mot de passe.
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService; // Révocation des tokens d'accès déjà émis.
+
 	
     /**
      * Authentifie un utilisateur à partir de son email et mot de passe.
      */
 	public UserResponseDTO login(String loginEmail, String loginPassword) {
 		
-		Optional<User> optUser = userRepository.findByEmail(loginEmail);
+		Optional<UserCache.CachedUser> optUser = userCache.findByEmail(loginEmail);
 		// Si aucun utilisateur n'est trouvé, lance une exception.
 		if (optUser.isEmpty()) {
 			throw new InvalidCredentialsException(); 
 		}
-		User user = optUser.get();
+		UserCache.CachedUser user = optUser.get();
 		
 		// Vérifie si le mot de passe fourni correspond au mot de passe encodé en base.
-	    if (!passwordEncoder.matches(loginPassword, user.getPassword())) {
+	    if (!passwordHashingService.matches(loginPassword, user.passwordHash())) {
 	        throw new InvalidCredentialsException();
 	    } 
+
+	    // Recalcule le hachage s'il a été fait avec un autre coût BCrypt que celui calibré pour cette machine.
+	    if (passwordHashingService.upgradeEncoding(user.passwordHash())) {
+	        String rehashedPassword = passwordHashingService.encode(loginPassword);
+	        userRepository.findById(user.id()).ifPresent(entity -> {
+	            entity.setPassword(rehashedPassword);
+	            userRepository.save(entity);
+	        });
+	        userCache.invalidate(user.id());
+	    }
 	    
 	    // Convertit l'utilisateur en DTO pour répondre au front-end.
-	    UserResponseDTO userResponse = userConverter.convertUserToUserResponseDTO(user);
+	    UserResponseDTO userResponse = userConverter.convertCachedUserToUserResponseDTO(user);
 	    
 	  
 	   
@@ -63,9 +89,8 @@ public class AuthService {
      */
 	@Transactional
 	public UserResponseDTO register(RegisterRequestDTO registerRequestDTO) {
-		// Vérifie si l'email est déjà utilisé.
-		Optional<User> optUser = userRepository.findByEmail(registerRequestDTO.getEmail());
-        if (optUser.isPresent()) {
+		// Écarte, avant le hachage, un email certainement déjà utilisé ; un email inconnu du filtre ne coûte aucune requête.
+		if (!registeredEmailFilter.isAvailable(registerRequestDTO.getEmail())) {
             throw new UserEmailAlreadyInUseException();
         }  
         
@@ -73,11 +98,23 @@ public class AuthService {
         User newUser = userConverter.convertRegisterRequestDTO_ToUser(registerRequestDTO);
         
         // Encode le mot de passe avant de le sauvegarder.
-        newUser.setPassword(passwordEncoder.encode(newUser.getPassword()));
+        newUser.setPassword(passwordHashingService.encode(newUser.getPassword()));
         newUser.setRole("user"); // Définit un rôle par défaut "user" car à ce stade on a le Model User et non plus le RegisterRequestDTO
 
-        // Sauvegarde le nouvel utilisateur dans la base de données.
-        User savedUser = userRepository.save(newUser);
+        // Sauvegarde le nouvel utilisateur dans la base de données : c'est la contrainte d'unicité de l'email qui
+        // tranche entre deux enregistrements simultanés, sans vérification préalable.
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(newUser);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                throw new UserEmailAlreadyInUseException();
+            }
+            throw e;
+        }
+        registeredEmailFilter.add(savedUser.getEmail());
+        globalSearchService.indexUser(savedUser);
        
         // Convertit l'utilisateur sauvegardé en DTO pour la réponse.
         UserResponseDTO userResponse = userConverter.convertUserToUserResponseDTO(savedUser);
@@ -87,22 +124,32 @@ public class AuthService {
 	    return userResponse;
     }
 	
-	public void changePassword(String email, String oldPassword, String newPassword) {
+	/**
+	 * Change le mot de passe d'un utilisateur et révoque toutes ses sessions (tokens de rafraîchissement et tokens
+	 * d'accès déjà émis, sur tous les nœuds) : un token volé ne survit pas au changement de mot de passe.
+	 *
+	 * @return L'utilisateur, pour rouvrir la session de l'appelant avec de nouveaux tokens.
+	 */
+	public UserResponseDTO changePassword(String email, String oldPassword, String newPassword) {
 	    User user = userRepository.findByEmail(email)
 	            .orElseThrow(() -> new RuntimeException("L'email inserée n'est pas associée à ce compte."));
 
 	    // Verifica che la vecchia password sia corretta
-	    if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+	    if (!passwordHashingService.matches(oldPassword, user.getPassword())) {
 	        throw new RuntimeException("Le mot de passe courant est incorrecte.");
 	    }
 
 	    passwordValidatorService.validateNewPassword(newPassword, user);
 
-	    String hashedNewPassword = passwordEncoder.encode(newPassword);
+	    String hashedNewPassword = passwordHashingService.encode(newPassword);
 	    user.addPasswordToHistory(hashedNewPassword);
 	    // Aggiorna la password con la nuova se la nuova password non fa parte delle ultime 5
 	    user.setPassword(hashedNewPassword);
-	    userRepository.save(user);
+	    User savedUser = userRepository.save(user);
+	    userCache.invalidate(savedUser.getId());
+	    refreshTokenService.revokeUser(savedUser.getId());
+	    tokenRevocationService.revokeUser(savedUser.getId());
+	    return userConverter.convertUserToUserResponseDTO(savedUser);
 	}
 	
 }
@@ -0,0 +1,192 @@
+package com.qatorze.p2S_tde.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.enums.PropertyCategory;
+import com.qatorze.p2S_tde.exceptions.BookingConflictException;
+import com.qatorze.p2S_tde.exceptions.InvalidBookingException;
+import com.qatorze.p2S_tde.models.Booking;
+import com.qatorze.p2S_tde.models.Property;
+import com.qatorze.p2S_tde.repositories.BookingRepository;
+import com.qatorze.p2S_tde.repositories.PropertyRepository;
+import com.qatorze.p2S_tde.utils.CurrentUser;
+import com.qatorze.p2S_tde.utils.IntervalTree;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service qui gère le calendrier de disponibilité des propriétés en location ({@link PropertyCategory#LOUER}).
+ *
+ * Les réservations en cours et à venir de chaque propriété sont gardées en mémoire dans un arbre
+ * d'intervalles, reflet de la table "property_bookings". Les recherches "disponible entre D1 et D2"
+ * sont ainsi résolues sans jointure sur la base de données.
+ *
+ * Les réservations d'une même propriété sont sérialisées par un verrou sur son calendrier : la vérification
+ * du chevauchement, l'écriture en base et la mise à jour de l'arbre sont faites atomiquement, ce qui
+ * empêche deux réservations concurrentes de se chevaucher (dans une instance unique de l'application).
+ */
+@Service
+public class AvailabilityService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    // Calendrier (arbre d'intervalles en jours depuis l'époque) par ID de propriété.
+    private final Map<Long, IntervalTree> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * Charge en mémoire les réservations non terminées au démarrage de l'application.
+     */
+    @PostConstruct
+    public void loadCalendars() {
+        for (Booking booking : bookingRepository.findByEndDateAfter(LocalDate.now())) {
+            IntervalTree calendar = calendarOf(booking.getPropertyId());
+            synchronized (calendar) {
+                calendar.insert(booking.getStartDate().toEpochDay(), booking.getEndDate().toEpochDay(), booking.getId());
+            }
+        }
+    }
+
+    /**
+     * Réserve une propriété en location sur une période.
+     *
+     * @param propertyId L'ID de la propriété.
+     * @param userId     L'ID de l'utilisateur qui réserve.
+     * @param startDate  La date d'arrivée (incluse).
+     * @param endDate    La date de départ (exclue).
+     * @return La réservation enregistrée.
+     * @throws InvalidBookingException Si la période est invalide ou si la propriété n'est pas en location.
+     * @throws IllegalArgumentException Si la propriété n'existe pas.
+     * @throws BookingConflictException Si la période chevauche une réservation existante.
+     */
+    public Booking book(Long propertyId, Long userId, LocalDate startDate, LocalDate endDate) {
+        validatePeriod(startDate, endDate);
+        if (startDate.isBefore(LocalDate.now())) {
+            throw new InvalidBookingException("La date d'arrivée ne peut pas être dans le passé.");
+        }
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new IllegalArgumentException("Propriété non trouvée pour l'ID: " + propertyId));
+        if (property.getCategory() != PropertyCategory.LOUER) {
+            throw new InvalidBookingException("Seules les propriétés en location peuvent être réservées.");
+        }
+
+        IntervalTree calendar = calendarOf(propertyId);
+        synchronized (calendar) {
+            if (calendar.overlaps(startDate.toEpochDay(), endDate.toEpochDay())) {
+                throw new BookingConflictException(propertyId, startDate, endDate);
+            }
+            Booking saved = bookingRepository.save(new Booking(propertyId, userId, startDate, endDate, LocalDateTime.now()));
+            calendar.insert(startDate.toEpochDay(), endDate.toEpochDay(), saved.getId());
+            return saved;
+        }
+    }
+
+    /**
+     * Annule une réservation, à la demande de l'utilisateur qui l'a faite ou d'un administrateur.
+     *
+     * @param bookingId L'ID de la réservation.
+     * @throws IllegalArgumentException Si la réservation n'existe pas.
+     * @throws org.springframework.security.access.AccessDeniedException Si l'utilisateur authentifié n'est ni
+     *         l'auteur de la réservation ni un administrateur.
+     */
+    public void cancel(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Réservation non trouvée pour l'ID: " + bookingId));
+        CurrentUser.requireSelfOrAdmin(booking.getUserId());
+        IntervalTree calendar = calendarOf(booking.getPropertyId());
+        synchronized (calendar) {
+            bookingRepository.delete(booking);
+            calendar.remove(booking.getStartDate().toEpochDay(), booking.getId());
+        }
+    }
+
+    /**
+     * Récupère les réservations en cours et à venir d'une propriété.
+     *
+     * @param propertyId L'ID de la propriété.
+     * @return La liste des réservations triées par date d'arrivée.
+     */
+    public List<Booking> getBookings(Long propertyId) {
+        return bookingRepository.findByPropertyIdAndEndDateAfterOrderByStartDate(propertyId, LocalDate.now());
+    }
+
+    /**
+     * Indique si une propriété est libre sur toute la période [startDate, endDate[.
+     */
+    public boolean isAvailable(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        IntervalTree calendar = calendars.get(propertyId);
+        if (calendar == null) {
+            return true;
+        }
+        synchronized (calendar) {
+            return !calendar.overlaps(startDate.toEpochDay(), endDate.toEpochDay());
+        }
+    }
+
+    /**
+     * Filtre une liste de propriétés pour ne garder que celles disponibles sur la période.
+     *
+     * @param properties Les propriétés à filtrer (résultat d'une recherche).
+     * @param startDate  La date d'arrivée (incluse).
+     * @param endDate    La date de départ (exclue).
+     * @return Les propriétés disponibles sur toute la période.
+     * @throws InvalidBookingException Si la période est invalide.
+     */
+    public List<Property> filterAvailable(List<Property> properties, LocalDate startDate, LocalDate endDate) {
+        validatePeriod(startDate, endDate);
+        return properties.stream()
+                         .filter(property -> isAvailable(property.getId(), startDate, endDate))
+                         .toList();
+    }
+
+    /**
+     * Supprime les réservations d'une propriété (appelé lors de la suppression de la propriété).
+     *
+     * @param propertyId L'ID de la propriété supprimée.
+     */
+    public void removeProperty(Long propertyId) {
+        IntervalTree calendar = calendarOf(propertyId);
+        synchronized (calendar) {
+            bookingRepository.deleteByPropertyId(propertyId);
+            calendars.remove(propertyId);
+        }
+    }
+
+    /**
+     * Retire chaque nuit des calendriers en mémoire les réservations terminées.
+     * Les réservations restent en base de données pour l'historique.
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void pruneFinishedBookings() {
+        long today = LocalDate.now().toEpochDay();
+        calendars.forEach((propertyId, calendar) -> {
+            synchronized (calendar) {
+                calendar.removeEndingBefore(today);
+            }
+        });
+    }
+
+    private IntervalTree calendarOf(Long propertyId) {
+        return calendars.computeIfAbsent(propertyId, id -> new IntervalTree());
+    }
+
+    private static void validatePeriod(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new InvalidBookingException("Les dates d'arrivée et de départ sont obligatoires.");
+        }
+        if (!endDate.isAfter(startDate)) {
+            throw new InvalidBookingException("La date de départ doit être postérieure à la date d'arrivée.");
+        }
+    }
+}
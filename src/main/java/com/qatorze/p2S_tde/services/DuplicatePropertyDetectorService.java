@@ -0,0 +1,279 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.models.Property;
+import com.qatorze.p2S_tde.repositories.PropertyRepository;
+import com.qatorze.p2S_tde.utils.MinHash;
+
+/**
+ * Service de détection des annonces quasi-dupliquées (mêmes biens republiés avec de légères modifications).
+ *
+ * Chaque propriété est résumée par une signature MinHash calculée sur le titre, la description et la
+ * localisation. Les signatures sont rangées dans un index LSH (par bandes) en mémoire : seules les annonces
+ * qui partagent au moins une bande sont comparées, ce qui évite une comparaison de toutes les paires.
+ *
+ * Règle de marquage : une annonce est un doublon de l'annonce similaire la plus ancienne (plus petit ID)
+ * publiée avant elle. Le marquage est fait à l'insertion et, pour le catalogue existant, par un
+ * traitement par lots parallèle exécuté au démarrage puis chaque nuit.
+ */
+@Service
+public class DuplicatePropertyDetectorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicatePropertyDetectorService.class);
+
+    private static final int BATCH_PAGE_SIZE = 500;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Value("${properties.duplicates.similarity-threshold:0.7}")
+    private double similarityThreshold;
+
+    private final MinHash minHash = new MinHash(16, 8);
+
+    // Index utilisé pour les requêtes, remplacé atomiquement à la fin de chaque traitement par lots.
+    private volatile LshIndex index = new LshIndex();
+
+    // Index en cours de reconstruction : reçoit aussi les mises à jour faites pendant le traitement par lots.
+    private volatile LshIndex pendingIndex;
+
+    private final AtomicBoolean batchRunning = new AtomicBoolean(false);
+
+    /**
+     * Recherche l'annonce d'origine dont la propriété donnée serait un doublon.
+     *
+     * @param property La propriété à vérifier (son ID peut être null s'il s'agit d'une création).
+     * @return L'ID de l'annonce d'origine, ou null si aucun doublon n'est détecté.
+     */
+    public Long findOriginalOf(Property property) {
+        return index.findOriginal(property.getId(), minHash.signature(textOf(property)));
+    }
+
+    /**
+     * Récupère les IDs des annonces similaires à une propriété indexée.
+     *
+     * @param id L'ID de la propriété.
+     * @return La liste triée des IDs des annonces similaires (vide si aucune).
+     */
+    public List<Long> findSimilarPropertyIds(Long id) {
+        return index.findSimilar(id);
+    }
+
+    /**
+     * Ajoute ou met à jour la signature d'une propriété dans l'index.
+     *
+     * @param property La propriété enregistrée (avec son ID).
+     */
+    public void index(Property property) {
+        int[] signature = minHash.signature(textOf(property));
+        index.add(property.getId(), signature);
+        LshIndex pending = pendingIndex;
+        if (pending != null) {
+            pending.add(property.getId(), signature);
+        }
+    }
+
+    /**
+     * Retire une propriété de l'index.
+     *
+     * @param id L'ID de la propriété supprimée.
+     */
+    public void remove(Long id) {
+        index.remove(id);
+        LshIndex pending = pendingIndex;
+        if (pending != null) {
+            pending.remove(id);
+        }
+    }
+
+    /**
+     * Construit l'index et marque les doublons du catalogue existant au démarrage,
+     * dans un thread dédié pour ne pas retarder la disponibilité de l'application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAtStartup() {
+        Thread thread = new Thread(this::runBatchDetection, "duplicate-detector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Traitement par lots : recalcule toutes les signatures en parallèle, reconstruit l'index LSH,
+     * puis met à jour le marquage des doublons qui ont changé.
+     */
+    @Scheduled(cron = "${properties.duplicates.batch-cron:0 0 3 * * *}")
+    public void runBatchDetection() {
+        if (!batchRunning.compareAndSet(false, true)) {
+            return; // Un traitement est déjà en cours.
+        }
+        try {
+            LshIndex fresh = new LshIndex();
+            pendingIndex = fresh;
+            Map<Long, Long> currentFlags = new ConcurrentHashMap<>();
+
+            // Étape 1 : calcul des signatures page par page, chaque page en parallèle.
+            Page<Property> page;
+            int pageNumber = 0;
+            do {
+                page = propertyRepository.findAll(PageRequest.of(pageNumber++, BATCH_PAGE_SIZE, Sort.by("id")));
+                page.getContent().parallelStream().forEach(property -> {
+                    fresh.add(property.getId(), minHash.signature(textOf(property)));
+                    if (property.getDuplicateOf() != null) {
+                        currentFlags.put(property.getId(), property.getDuplicateOf());
+                    }
+                });
+            } while (page.hasNext());
+
+            // Étape 2 : recherche des doublons via les bandes LSH, en parallèle.
+            Map<Long, Long> detectedFlags = new ConcurrentHashMap<>();
+            fresh.ids().parallelStream().forEach(id -> {
+                Long original = fresh.findOriginal(id, fresh.signatureOf(id));
+                if (original != null) {
+                    detectedFlags.put(id, original);
+                }
+            });
+
+            // Étape 3 : mise à jour uniquement des marquages qui ont changé.
+            AtomicInteger updated = new AtomicInteger();
+            fresh.ids().forEach(id -> {
+                Long detected = detectedFlags.get(id);
+                if (!Objects.equals(detected, currentFlags.get(id))) {
+                    updated.addAndGet(propertyRepository.updateDuplicateOf(id, detected));
+                }
+            });
+
+            index = fresh;
+            logger.info("Détection de doublons terminée : {} annonces indexées, {} doublons, {} marquages mis à jour.",
+                    fresh.ids().size(), detectedFlags.size(), updated.get());
+        } catch (RuntimeException e) {
+            logger.error("Échec de la détection de doublons par lots.", e);
+        } finally {
+            pendingIndex = null;
+            batchRunning.set(false);
+        }
+    }
+
+    /**
+     * Construit le texte comparé : titre, description et localisation.
+     */
+    private static String textOf(Property property) {
+        StringBuilder builder = new StringBuilder();
+        for (String part : new String[] { property.getTitle(), property.getDescription(), property.getLocation() }) {
+            if (part != null) {
+                builder.append(part).append(' ');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Index LSH en mémoire : signatures par ID et ensembles d'IDs par clé de bande.
+     */
+    private final class LshIndex {
+
+        private final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+        Set<Long> ids() {
+            return signatures.keySet();
+        }
+
+        int[] signatureOf(Long id) {
+            return signatures.get(id);
+        }
+
+        void add(Long id, int[] signature) {
+            remove(id);
+            if (id == null || signature == null) {
+                return;
+            }
+            signatures.put(id, signature);
+            for (int band = 0; band < minHash.getBands(); band++) {
+                buckets.computeIfAbsent(minHash.bandKey(signature, band), key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            if (id == null) {
+                return;
+            }
+            int[] signature = signatures.remove(id);
+            if (signature == null) {
+                return;
+            }
+            for (int band = 0; band < minHash.getBands(); band++) {
+                buckets.computeIfPresent(minHash.bandKey(signature, band), (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        /**
+         * Retourne l'annonce similaire la plus ancienne publiée avant {@code id} (ou n'importe laquelle si id est null).
+         */
+        Long findOriginal(Long id, int[] signature) {
+            Long original = null;
+            for (Long candidate : candidates(id, signature)) {
+                if ((id == null || candidate < id) && (original == null || candidate < original)) {
+                    original = candidate;
+                }
+            }
+            return original;
+        }
+
+        List<Long> findSimilar(Long id) {
+            List<Long> similar = new ArrayList<>(candidates(id, signatures.get(id)));
+            similar.sort(null);
+            return similar;
+        }
+
+        /**
+         * Parcourt les bandes de la signature et retient les candidats dont la similarité estimée dépasse le seuil.
+         */
+        private Set<Long> candidates(Long id, int[] signature) {
+            Set<Long> similar = new HashSet<>();
+            if (signature == null) {
+                return similar;
+            }
+            Set<Long> seen = new HashSet<>();
+            for (int band = 0; band < minHash.getBands(); band++) {
+                Set<Long> bucket = buckets.get(minHash.bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Long candidate : bucket) {
+                    if (candidate.equals(id) || !seen.add(candidate)) {
+                        continue;
+                    }
+                    int[] other = signatures.get(candidate);
+                    if (other != null && MinHash.similarity(signature, other) >= similarityThreshold) {
+                        similar.add(candidate);
+                    }
+                }
+            }
+            return similar;
+        }
+    }
+}
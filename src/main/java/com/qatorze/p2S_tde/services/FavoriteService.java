@@ -0,0 +1,224 @@
+package com.qatorze.p2S_tde.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.exceptions.UserByIdNotFoundException;
+import com.qatorze.p2S_tde.models.Property;
+import com.qatorze.p2S_tde.models.UserFavorites;
+import com.qatorze.p2S_tde.repositories.PropertyRepository;
+import com.qatorze.p2S_tde.repositories.UserFavoritesRepository;
+import com.qatorze.p2S_tde.repositories.UserRepository;
+import com.qatorze.p2S_tde.utils.CompressedBitmap;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service qui gère les propriétés favorites des utilisateurs.
+ *
+ * Les favoris de chaque utilisateur sont un bitmap compressé d'IDs de propriétés, persisté dans une seule
+ * ligne de la table "user_favorites" et gardé en mémoire (cache LRU borné). Filtrer un résultat de recherche
+ * sur "mes favoris" revient à une intersection (AND) de bitmaps, sans requête sur une table de jointure.
+ *
+ * Un bitmap en cache n'est jamais modifié. Une écriture relit la ligne en base, modifie une copie et l'enregistre
+ * avec la version lue (verrouillage optimiste) : si un autre thread ou un autre nœud a modifié la ligne entre-temps,
+ * l'écriture est refaite à partir de la nouvelle version. Le cache ne garde que la version la plus récente écrite
+ * par ce nœud.
+ */
+@Service
+public class FavoriteService {
+
+    @Autowired
+    private UserFavoritesRepository userFavoritesRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    @Value("${favorites.cache.max-users:10000}")
+    private int maxCachedUsers;
+
+    /**
+     * Bitmap des favoris d'un utilisateur (jamais modifié) et version de la ligne lue (-1 si l'utilisateur n'a
+     * pas encore de favoris).
+     */
+    private record CachedFavorites(CompressedBitmap bitmap, long version) {}
+
+    // Cache LRU des bitmaps par ID d'utilisateur.
+    private Map<Long, CachedFavorites> cache;
+
+    @PostConstruct
+    public void initCache() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedFavorites> eldest) {
+                return size() > maxCachedUsers;
+            }
+        });
+    }
+
+    /**
+     * Ajoute une propriété aux favoris d'un utilisateur.
+     *
+     * @param userId     L'ID de l'utilisateur.
+     * @param propertyId L'ID de la propriété.
+     * @throws UserByIdNotFoundException Si l'utilisateur n'existe pas.
+     * @throws IllegalArgumentException  Si la propriété n'existe pas.
+     */
+    public void addFavorite(Long userId, Long propertyId) {
+        if (!propertyRepository.existsById(propertyId)) {
+            throw new IllegalArgumentException("Propriété non trouvée pour l'ID: " + propertyId);
+        }
+        update(userId, favorites -> {
+            if (favorites.contains(propertyId)) {
+                return false;
+            }
+            favorites.add(propertyId);
+            return true;
+        });
+    }
+
+    /**
+     * Retire une propriété des favoris d'un utilisateur.
+     *
+     * @param userId     L'ID de l'utilisateur.
+     * @param propertyId L'ID de la propriété.
+     */
+    public void removeFavorite(Long userId, Long propertyId) {
+        update(userId, favorites -> {
+            if (!favorites.contains(propertyId)) {
+                return false;
+            }
+            favorites.remove(propertyId);
+            return true;
+        });
+    }
+
+    /**
+     * Récupère les propriétés favorites d'un utilisateur.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @return La liste des propriétés favorites encore existantes.
+     */
+    public List<Property> getFavoriteProperties(Long userId) {
+        List<Long> ids = new ArrayList<>();
+        favoritesOf(userId).forEach(ids::add);
+        return propertyRepository.findAllById(ids);
+    }
+
+    /**
+     * Restreint un résultat de recherche aux favoris d'un utilisateur (intersection de bitmaps).
+     *
+     * @param userId     L'ID de l'utilisateur.
+     * @param properties Le résultat de la recherche.
+     * @return Les propriétés du résultat qui font partie des favoris, dans le même ordre.
+     */
+    public List<Property> filterToFavorites(Long userId, List<Property> properties) {
+        CompressedBitmap results = new CompressedBitmap();
+        for (Property property : properties) {
+            results.add(property.getId());
+        }
+        CompressedBitmap intersection = results.and(favoritesOf(userId));
+        return properties.stream()
+                         .filter(property -> intersection.contains(property.getId()))
+                         .toList();
+    }
+
+    /**
+     * Supprime les favoris d'un utilisateur (appelé lors de la suppression de l'utilisateur).
+     *
+     * @param userId L'ID de l'utilisateur supprimé.
+     */
+    public void removeUser(Long userId) {
+        cache.remove(userId);
+        if (userFavoritesRepository.existsById(userId)) {
+            userFavoritesRepository.deleteById(userId);
+        }
+    }
+
+    /**
+     * Récupère le bitmap des favoris depuis le cache, ou le charge depuis la base de données.
+     * Le bitmap renvoyé ne doit pas être modifié.
+     */
+    private CompressedBitmap favoritesOf(Long userId) {
+        CachedFavorites cached = cache.get(userId);
+        if (cached != null) {
+            return cached.bitmap();
+        }
+        CachedFavorites loaded = load(userId);
+        // En cas de chargement concurrent, la version la plus récente est conservée.
+        return cache.merge(userId, loaded, FavoriteService::newest).bitmap();
+    }
+
+    /**
+     * Modifie les favoris d'un utilisateur : relit la ligne, applique la modification à une copie et l'enregistre
+     * si la ligne n'a pas changé entre-temps ; sinon, recommence avec la ligne à jour.
+     *
+     * @param modification Modifie le bitmap ; renvoie false s'il n'y a rien à enregistrer.
+     */
+    private void update(Long userId, Predicate<CompressedBitmap> modification) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<UserFavorites> row = userFavoritesRepository.findById(userId);
+            CachedFavorites current = row.map(FavoriteService::toCached).orElseGet(() -> emptyFavorites(userId));
+            CompressedBitmap favorites = current.bitmap();
+            if (!modification.test(favorites)) {
+                cache.merge(userId, current, FavoriteService::newest);
+                return;
+            }
+
+            // Sans ligne, la version est nulle : l'enregistrement est une insertion, qui échoue si une autre
+            // écriture a créé la ligne entre-temps.
+            UserFavorites updated = row.orElseGet(() -> new UserFavorites(userId, null, null));
+            updated.setBitmap(favorites.serialize());
+            updated.setUpdatedAt(LocalDateTime.now());
+            try {
+                UserFavorites saved = userFavoritesRepository.saveAndFlush(updated);
+                cache.merge(userId, new CachedFavorites(favorites, saved.getVersion()), FavoriteService::newest);
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private CachedFavorites load(Long userId) {
+        return userFavoritesRepository.findById(userId)
+                .map(FavoriteService::toCached)
+                .orElseGet(() -> emptyFavorites(userId));
+    }
+
+    private CachedFavorites emptyFavorites(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserByIdNotFoundException(userId);
+        }
+        return new CachedFavorites(new CompressedBitmap(), -1);
+    }
+
+    private static CachedFavorites toCached(UserFavorites row) {
+        return new CachedFavorites(CompressedBitmap.deserialize(row.getBitmap()), row.getVersion());
+    }
+
+    private static CachedFavorites newest(CachedFavorites cached, CachedFavorites candidate) {
+        return candidate.version() > cached.version() ? candidate : cached;
+    }
+}
@@ -0,0 +1,263 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.dtos.GlobalSearchHitDTO;
+import com.qatorze.p2S_tde.dtos.GlobalSearchResultDTO;
+import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.models.Property;
+import com.qatorze.p2S_tde.models.User;
+import com.qatorze.p2S_tde.repositories.ArticleRepository;
+import com.qatorze.p2S_tde.repositories.PropertyRepository;
+import com.qatorze.p2S_tde.repositories.UserRepository;
+import com.qatorze.p2S_tde.utils.InMemoryTextIndex;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Recherche globale de la console d'administration : propriétés (titre, localisation), articles (titre, auteur)
+ * et utilisateurs (nom, prénom, e-mail), dans une seule zone de recherche.
+ *
+ * Chaque type a son index en mémoire ({@link InMemoryTextIndex}), chargé au démarrage et tenu à jour par
+ * {@link PropertyService}, {@link ArticleService}, {@link UserService} et {@link AuthService}. Une recherche
+ * interroge les trois index en parallèle avec un budget de temps commun : les résultats des index qui ont répondu
+ * à temps sont fusionnés par score (comparable d'un index à l'autre), et les types manquants sont signalés
+ * plutôt que d'attendre.
+ */
+@Service
+public class GlobalSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalSearchService.class);
+
+    public static final String PROPERTY = "property";
+    public static final String ARTICLE = "article";
+    public static final String USER = "user";
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${admin.search.timeout-ms:150}")
+    private long timeoutMs;
+
+    @Value("${admin.search.threads:3}")
+    private int threads;
+
+    /**
+     * Ce qui est affiché pour un résultat, gardé dans l'index pour ne pas relire la base.
+     */
+    private record Display(String title, String subtitle) {}
+
+    // Index par type, dans l'ordre d'affichage des types incomplets.
+    private final Map<String, InMemoryTextIndex<Display>> indexes = new LinkedHashMap<>();
+    private final InMemoryTextIndex<Display> properties = new InMemoryTextIndex<>(1.0f, 0.8f); // titre, localisation
+    private final InMemoryTextIndex<Display> articles = new InMemoryTextIndex<>(1.0f, 0.6f); // titre, auteur
+    private final InMemoryTextIndex<Display> users = new InMemoryTextIndex<>(1.0f, 0.9f, 1.0f); // nom, prénom, e-mail
+
+    private final Set<String> loadedTypes = ConcurrentHashMap.newKeySet();
+    // Entités modifiées pendant le chargement ("type:id") : la ligne lue au chargement peut être plus ancienne.
+    private final Set<String> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        indexes.put(PROPERTY, properties);
+        indexes.put(ARTICLE, articles);
+        indexes.put(USER, users);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // File bornée : si les recherches s'accumulent, les suivantes sont refusées au lieu d'attendre.
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "global-search-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Charge les trois index en arrière-plan une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        // Avant le démarrage du thread : une écriture faite entre-temps doit déjà être notée comme concurrente.
+        loading = true;
+        Thread loader = new Thread(() -> {
+            try {
+                load(PROPERTY, properties, propertyRepository::findSearchFieldsAfterId,
+                     row -> new Display((String) row[1], (String) row[2]), row -> new String[] { (String) row[1], (String) row[2] });
+                load(ARTICLE, articles, articleRepository::findSearchFieldsAfterId,
+                     row -> new Display((String) row[1], (String) row[2]), row -> new String[] { (String) row[1], (String) row[2] });
+                load(USER, users, userRepository::findSearchFieldsAfterId,
+                     row -> new Display(fullName((String) row[2], (String) row[1]), (String) row[3]),
+                     row -> new String[] { (String) row[1], (String) row[2], (String) row[3] });
+            } catch (RuntimeException e) {
+                logger.error("Échec du chargement de la recherche globale", e);
+            } finally {
+                loading = false;
+                touchedDuringLoad.clear();
+            }
+        }, "global-search-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load(String type, InMemoryTextIndex<Display> index, BiFunction<Long, Pageable, List<Object[]>> query,
+                      Function<Object[], Display> display, Function<Object[], String[]> fields) {
+        List<Object[]> page = query.apply(0L, PageRequest.of(0, LOAD_PAGE_SIZE));
+        while (!page.isEmpty()) {
+            for (Object[] row : page) {
+                long id = (Long) row[0];
+                if (!touchedDuringLoad.contains(type + ":" + id)) {
+                    index.put(id, display.apply(row), fields.apply(row));
+                }
+            }
+            Long lastId = (Long) page.get(page.size() - 1)[0];
+            page = query.apply(lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+        }
+        loadedTypes.add(type);
+        logger.info("Recherche globale : {} entrées de type {} chargées", index.size(), type);
+    }
+
+    // Mises à jour appelées par les services après chaque écriture.
+
+    public void indexProperty(Property property) {
+        touch(PROPERTY, property.getId());
+        properties.put(property.getId(), new Display(property.getTitle(), property.getLocation()),
+                       property.getTitle(), property.getLocation());
+    }
+
+    public void removeProperty(Long propertyId) {
+        touch(PROPERTY, propertyId);
+        properties.remove(propertyId);
+    }
+
+    public void indexArticle(Article article) {
+        touch(ARTICLE, article.getId());
+        articles.put(article.getId(), new Display(article.getTitle(), article.getAuthor()),
+                     article.getTitle(), article.getAuthor());
+    }
+
+    public void removeArticle(Long articleId) {
+        touch(ARTICLE, articleId);
+        articles.remove(articleId);
+    }
+
+    public void indexUser(User user) {
+        touch(USER, user.getId());
+        users.put(user.getId(), new Display(fullName(user.getName(), user.getSurname()), user.getEmail()),
+                  user.getSurname(), user.getName(), user.getEmail());
+    }
+
+    public void removeUser(Long userId) {
+        touch(USER, userId);
+        users.remove(userId);
+    }
+
+    private void touch(String type, Long id) {
+        if (loading) {
+            touchedDuringLoad.add(type + ":" + id);
+        }
+    }
+
+    /**
+     * Recherche dans les trois index en parallèle, dans la limite du budget de temps.
+     *
+     * @param query La recherche en texte libre.
+     * @param limit Le nombre maximal de résultats (borné à {@value #MAX_LIMIT}).
+     * @return Les résultats fusionnés par score, et les types dont les résultats manquent ou sont partiels.
+     */
+    public GlobalSearchResultDTO search(String query, int limit) {
+        int maxHits = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Map<String, CompletableFuture<List<GlobalSearchHitDTO>>> futures = new LinkedHashMap<>();
+        indexes.forEach((type, index) -> futures.put(type, searchAsync(type, index, query, maxHits)));
+
+        List<GlobalSearchHitDTO> hits = new ArrayList<>();
+        List<String> incompleteTypes = new ArrayList<>();
+        futures.forEach((type, future) -> {
+            // Chaque future se termine au plus tard à la fin du budget (commun, car lancés ensemble).
+            List<GlobalSearchHitDTO> typeHits = future.join();
+            if (typeHits == null) {
+                incompleteTypes.add(type);
+            } else {
+                hits.addAll(typeHits);
+                if (!loadedTypes.contains(type)) {
+                    incompleteTypes.add(type);
+                }
+            }
+        });
+
+        hits.sort(Comparator.comparingDouble(GlobalSearchHitDTO::getScore).reversed());
+        return new GlobalSearchResultDTO(hits.size() > maxHits ? new ArrayList<>(hits.subList(0, maxHits)) : hits,
+                                         incompleteTypes);
+    }
+
+    /**
+     * Lance la recherche dans un index ; le future vaut null si l'index n'a pas répondu à temps, a échoué,
+     * ou si la recherche n'a pas pu être lancée (trop de recherches en cours).
+     */
+    private CompletableFuture<List<GlobalSearchHitDTO>> searchAsync(String type, InMemoryTextIndex<Display> index,
+                                                                    String query, int limit) {
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> index.search(query, limit).stream()
+                                            .map(hit -> new GlobalSearchHitDTO(type, hit.id(), hit.payload().title(),
+                                                                               hit.payload().subtitle(), hit.score()))
+                                            .toList(), executor)
+                    .completeOnTimeout(null, timeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        logger.warn("Échec de la recherche globale dans l'index {}", type, e);
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static String fullName(String name, String surname) {
+        if (name == null || name.isBlank()) {
+            return surname;
+        }
+        return surname == null || surname.isBlank() ? name : name + " " + surname;
+    }
+}
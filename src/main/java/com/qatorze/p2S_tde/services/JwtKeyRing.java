@@ -0,0 +1,333 @@
+package com.qatorze.p2S_tde.services;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.qatorze.p2S_tde.models.JwtSigningKey;
+import com.qatorze.p2S_tde.repositories.JwtSigningKeyRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Trousseau des clés de signature des tokens JWT (ES256, ECDSA P-256).
+ *
+ * Les clés sont lues depuis la table "jwt_signing_keys" et gardées en mémoire, chacune avec son algorithme et
+ * ses vérificateurs déjà construits. La clé la plus récente signe les nouveaux tokens ; toutes les clés du
+ * trousseau vérifient, ce qui permet de changer de clé sans invalider les tokens en cours.
+ *
+ * Le trousseau est relu périodiquement (pour voir les clés créées par les autres nœuds), une nouvelle clé est
+ * créée quand la plus récente a dépassé l'intervalle de rotation, et une clé remplacée est supprimée quand tous
+ * les tokens qu'elle a pu signer ont expiré. Une nouvelle clé ne signe qu'après un délai d'activation, le temps
+ * que les autres nœuds et les consommateurs du JWKS la connaissent.
+ *
+ * Les clés privées sont chiffrées en base (AES-256-GCM, l'identifiant de la clé en données associées) avec la clé
+ * de chiffrement jwt.keys.encryption-key, que seuls les nœuds émetteurs reçoivent de leur environnement : une copie
+ * de la table ne permet pas de forger de tokens. Un nœud en vérification seule (jwt.keys.verify-only) ne lit que
+ * les clés publiques, ne crée ni ne supprime de clé, et ne peut pas émettre de tokens.
+ */
+@Service
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    // Délai minimal entre deux relectures déclenchées par un kid inconnu.
+    private static final long UNKNOWN_KID_RELOAD_INTERVAL_MS = 5000;
+    private static final int KID_BYTES = 12;
+    private static final String ENCRYPTED_PREFIX = "v1:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    /**
+     * Clé qui signe les nouveaux tokens.
+     *
+     * @param kid       L'identifiant de la clé, à mettre dans l'en-tête des tokens.
+     * @param algorithm L'algorithme ES256 avec la clé privée.
+     */
+    public record SigningKey(String kid, Algorithm algorithm) {}
+
+    /**
+     * Clé du trousseau : {@code verification} n'a que la clé publique ; {@code signing} (null en vérification
+     * seule) a aussi la clé privée.
+     */
+    private record RingKey(String kid, ECPublicKey publicKey, long createdAt, Algorithm verification,
+                           Algorithm signing, Map<String, JWTVerifier> verifiers) {}
+
+    private record Ring(Map<String, RingKey> keys, SigningKey signingKey) {}
+
+    @Autowired
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Value("${jwt.keys.rotation-interval-hours:168}")
+    private long rotationIntervalHours;
+
+    @Value("${jwt.keys.verification-grace-hours:25}")
+    private long verificationGraceHours;
+
+    @Value("${jwt.keys.refresh-interval-ms:60000}")
+    private long refreshIntervalMs;
+
+    @Value("${jwt.keys.verify-only:false}")
+    private boolean verifyOnly;
+
+    @Value("${jwt.keys.encryption-key:}")
+    private String encryptionKey;
+
+    private final SecureRandom random = new SecureRandom();
+    private SecretKey keyEncryptionKey; // null en vérification seule.
+    private volatile Ring ring;
+    private volatile long lastRefresh;
+
+    @PostConstruct
+    public void initRing() {
+        if (!verifyOnly) {
+            byte[] key = encryptionKey.isBlank() ? new byte[0] : Base64.getDecoder().decode(encryptionKey.trim());
+            if (key.length != 32) {
+                throw new IllegalStateException("jwt.keys.encryption-key doit contenir une clé AES-256 (32 octets en "
+                                                + "Base64), ou jwt.keys.verify-only doit être activé.");
+            }
+            keyEncryptionKey = new SecretKeySpec(key, "AES");
+        }
+        refresh();
+    }
+
+    /**
+     * @return La clé qui signe les nouveaux tokens.
+     * @throws IllegalStateException Si le nœud est en vérification seule.
+     */
+    public SigningKey signingKey() {
+        SigningKey signingKey = ring.signingKey();
+        if (signingKey == null) {
+            throw new IllegalStateException("Ce nœud est en vérification seule : il n'émet pas de tokens.");
+        }
+        return signingKey;
+    }
+
+    /**
+     * Retourne le vérificateur d'une clé pour un type de token, construit une seule fois par clé.
+     *
+     * @param kid     L'identifiant de la clé (en-tête kid du token).
+     * @param purpose Le type de token (un vérificateur par type, car les claims exigés diffèrent).
+     * @param builder Construit le vérificateur à partir de l'algorithme de la clé.
+     * @throws JWTVerificationException Si la clé est inconnue (ou a été supprimée).
+     */
+    public JWTVerifier verifier(String kid, String purpose, Function<Algorithm, JWTVerifier> builder) {
+        RingKey key = kid != null ? ring.keys().get(kid) : null;
+        if (key == null && kid != null && System.currentTimeMillis() - lastRefresh > UNKNOWN_KID_RELOAD_INTERVAL_MS) {
+            refresh(); // Clé peut-être créée par un autre nœud depuis la dernière relecture.
+            key = ring.keys().get(kid);
+        }
+        if (key == null) {
+            throw new JWTVerificationException("Clé de signature inconnue.");
+        }
+        Algorithm algorithm = key.verification();
+        return key.verifiers().computeIfAbsent(purpose, p -> builder.apply(algorithm));
+    }
+
+    /**
+     * @return Les clés publiques de vérification au format JWKS (RFC 7517), de la plus récente à la plus ancienne.
+     */
+    public Map<String, Object> publicJwks() {
+        List<Map<String, String>> jwks = new ArrayList<>();
+        for (RingKey key : ring.keys().values()) {
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("kid", key.kid());
+            jwk.put("x", coordinate(key.publicKey().getW().getAffineX()));
+            jwk.put("y", coordinate(key.publicKey().getW().getAffineY()));
+            jwks.add(0, jwk);
+        }
+        return Map.of("keys", jwks);
+    }
+
+    /**
+     * Relit le trousseau depuis la base, crée une clé si la rotation est due et supprime les clés périmées.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.refresh-interval-ms:60000}",
+               initialDelayString = "${jwt.keys.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        if (verifyOnly) {
+            refreshPublicKeys();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<JwtSigningKey> stored = new ArrayList<>(jwtSigningKeyRepository.findAllByOrderByCreatedAtAsc());
+        boolean exposed = false;
+        for (JwtSigningKey key : stored) {
+            if (!key.getPrivateKey().startsWith(ENCRYPTED_PREFIX)) {
+                // Clé privée enregistrée en clair : elle est chiffrée, et remplacée comme si elle avait fuité.
+                key.setPrivateKey(encrypt(key.getKid(), Base64.getDecoder().decode(key.getPrivateKey())));
+                jwtSigningKeyRepository.save(key);
+                exposed = true;
+                logger.warn("Clé de signature des tokens JWT stockée en clair, chiffrée et remplacée : {}", key.getKid());
+            }
+        }
+        if (exposed || stored.isEmpty()
+                || stored.get(stored.size() - 1).getCreatedAt() + rotationIntervalHours * 3600_000 <= now) {
+            stored.add(jwtSigningKeyRepository.save(generate(now)));
+            logger.info("Nouvelle clé de signature des tokens JWT : {}", stored.get(stored.size() - 1).getKid());
+        }
+
+        Ring previous = ring;
+        Map<String, RingKey> keys = new LinkedHashMap<>();
+        for (int i = 0; i < stored.size(); i++) {
+            JwtSigningKey key = stored.get(i);
+            long supersededAt = i + 1 < stored.size() ? stored.get(i + 1).getCreatedAt() : Long.MAX_VALUE;
+            if (supersededAt != Long.MAX_VALUE && supersededAt + verificationGraceHours * 3600_000 <= now) {
+                // Tous les tokens signés par cette clé ont expiré.
+                jwtSigningKeyRepository.deleteById(key.getId());
+                logger.info("Clé de signature des tokens JWT supprimée : {}", key.getKid());
+                continue;
+            }
+            RingKey existing = previous != null ? previous.keys().get(key.getKid()) : null;
+            // Une clé déjà chargée garde ses vérificateurs.
+            keys.put(key.getKid(), existing != null && existing.createdAt() == key.getCreatedAt() ? existing : load(key));
+        }
+
+        // La clé la plus récente signe dès qu'elle a pu être vue par les autres nœuds (ou s'il n'y en a pas d'autre).
+        RingKey signing = null;
+        for (RingKey key : keys.values()) {
+            if (signing == null || key.createdAt() <= now - 2 * refreshIntervalMs) {
+                signing = key;
+            }
+        }
+        ring = new Ring(Collections.unmodifiableMap(keys), new SigningKey(signing.kid(), signing.signing()));
+        lastRefresh = now;
+    }
+
+    /**
+     * Relit les clés publiques seules (vérification seule) : les clés sont créées et supprimées par les nœuds
+     * émetteurs.
+     */
+    private void refreshPublicKeys() {
+        Ring previous = ring;
+        Map<String, RingKey> keys = new LinkedHashMap<>();
+        for (Object[] row : jwtSigningKeyRepository.findPublicKeys()) {
+            String kid = (String) row[0];
+            long createdAt = (Long) row[2];
+            RingKey existing = previous != null ? previous.keys().get(kid) : null;
+            keys.put(kid, existing != null && existing.createdAt() == createdAt
+                    ? existing : loadPublic(kid, (String) row[1], createdAt));
+        }
+        ring = new Ring(Collections.unmodifiableMap(keys), null);
+        lastRefresh = System.currentTimeMillis();
+    }
+
+    private JwtSigningKey generate(long now) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"), random);
+            KeyPair pair = generator.generateKeyPair();
+            byte[] kid = new byte[KID_BYTES];
+            random.nextBytes(kid);
+            String encodedKid = Base64.getUrlEncoder().withoutPadding().encodeToString(kid);
+            return new JwtSigningKey(encodedKid, Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()),
+                                     encrypt(encodedKid, pair.getPrivate().getEncoded()), now);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Impossible de générer une clé ECDSA P-256.", e);
+        }
+    }
+
+    private RingKey load(JwtSigningKey key) {
+        try {
+            ECPublicKey publicKey = decodePublic(key.getPublicKey());
+            ECPrivateKey privateKey = (ECPrivateKey) KeyFactory.getInstance("EC").generatePrivate(
+                    new PKCS8EncodedKeySpec(decrypt(key.getKid(), key.getPrivateKey())));
+            return new RingKey(key.getKid(), publicKey, key.getCreatedAt(), Algorithm.ECDSA256(publicKey, null),
+                               Algorithm.ECDSA256(publicKey, privateKey), new ConcurrentHashMap<>());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Clé de signature illisible : " + key.getKid(), e);
+        }
+    }
+
+    private static RingKey loadPublic(String kid, String encodedPublicKey, long createdAt) {
+        try {
+            ECPublicKey publicKey = decodePublic(encodedPublicKey);
+            return new RingKey(kid, publicKey, createdAt, Algorithm.ECDSA256(publicKey, null), null,
+                               new ConcurrentHashMap<>());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Clé de vérification illisible : " + kid, e);
+        }
+    }
+
+    private static ECPublicKey decodePublic(String encoded) throws GeneralSecurityException {
+        return (ECPublicKey) KeyFactory.getInstance("EC")
+                                       .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+    }
+
+    /**
+     * Chiffre une clé privée ; l'identifiant de la clé, en données associées, empêche d'échanger deux chiffrés.
+     */
+    private String encrypt(String kid, byte[] privateKey) {
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.US_ASCII));
+            byte[] encrypted = cipher.doFinal(privateKey);
+            return ENCRYPTED_PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Impossible de chiffrer la clé de signature " + kid, e);
+        }
+    }
+
+    private byte[] decrypt(String kid, String stored) throws GeneralSecurityException {
+        if (!stored.startsWith(ENCRYPTED_PREFIX)) {
+            throw new GeneralSecurityException("Clé privée non chiffrée.");
+        }
+        byte[] data = Base64.getDecoder().decode(stored.substring(ENCRYPTED_PREFIX.length()));
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.US_ASCII));
+        return cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES);
+    }
+
+    /**
+     * Coordonnée d'un point P-256 en Base64 URL, sur 32 octets exactement (RFC 7518, section 6.2.1.2).
+     */
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] padded = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, padded, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+}
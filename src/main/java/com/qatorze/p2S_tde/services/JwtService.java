@@ -3,65 +3,137 @@ package com.qatorze.p2S_tde.services;
 import java.util.Date;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.auth0.jwt.interfaces.JWTVerifier;
 import com.qatorze.p2S_tde.dtos.UserResponseDTO;
+import com.qatorze.p2S_tde.services.JwtKeyRing.SigningKey;
+import com.qatorze.p2S_tde.services.VerifiedTokenCache.VerifiedToken;
 
+/**
+ * Service d'émission et de vérification des tokens JWT (accès et CSRF).
+ *
+ * Les tokens sont signés en ES256 par la clé courante de {@link JwtKeyRing} et portent son identifiant (kid) ;
+ * n'importe quel processus peut les vérifier avec les clés publiques du JWKS, sans secret partagé.
+ */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret.key}")
-    private String SECRET_KEY;
+    // Type de token (claim "typ") : un token CSRF ne peut pas servir de token d'accès, et inversement,
+    // bien qu'ils soient signés par les mêmes clés.
+    private static final String ACCESS_TOKEN_TYPE = "access";
+    private static final String CSRF_TOKEN_TYPE = "csrf";
 
-    @Value("${csrf.secret.key}")
-    private String CSRF_SECRET_KEY;
+    @Value("${jwt.access-token.ttl-minutes:10}")
+    private long accessTokenTtlMinutes;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing; // Clés ES256 de signature et de vérification.
+
+    /**
+     * Génère un token d'accès de courte durée ; le client le renouvelle avec son token de rafraîchissement.
+     */
     public String generateToken(UserResponseDTO user) {
-        Algorithm algorithm = Algorithm.HMAC256(SECRET_KEY);
+        SigningKey signingKey = jwtKeyRing.signingKey();
         return JWT.create()
+                .withKeyId(signingKey.kid())
+                .withClaim("typ", ACCESS_TOKEN_TYPE)
                 .withSubject(user.getEmail())
+                .withJWTId(UUID.randomUUID().toString()) // Identifie le token pour pouvoir le révoquer.
                 .withIssuedAt(new Date())
-                .withExpiresAt(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // 24 ore
+                .withExpiresAt(new Date(System.currentTimeMillis() + getAccessTokenTtlSeconds() * 1000))
                 .withClaim("id", user.getId())
                 .withClaim("surname", user.getSurname())
                 .withClaim("name", user.getName())
                 .withClaim("role", user.getRole())
                 .withClaim("email", user.getEmail())
                 .withClaim("imagePath", user.getImagePath())
-                .sign(algorithm);
+                .sign(signingKey.algorithm());
     }
 
+    /**
+     * Vérifie un token JWT et retourne son utilisateur ; un token déjà vérifié est servi par le cache.
+     */
     public UserResponseDTO validateTokenAndGetUser(String token) {
-        Algorithm algorithm = Algorithm.HMAC256(SECRET_KEY);
-        JWTVerifier verifier = JWT.require(algorithm).build();
-        DecodedJWT decodedJWT = verifier.verify(token);
+        return verifiedTokenCache.get(token, this::verifyToken);
+    }
+
+    private VerifiedToken verifyToken(String token) {
+        DecodedJWT decodedJWT = verifyAccessToken(token);
 
         Long id = decodedJWT.getClaim("id").asLong();
+        long issuedAt = decodedJWT.getIssuedAt() != null ? decodedJWT.getIssuedAt().getTime() : 0;
+        if (tokenRevocationService.isRevoked(decodedJWT.getId(), id, issuedAt)) {
+            throw new JWTVerificationException("Token révoqué.");
+        }
+
         String surname = decodedJWT.getClaim("surname").asString();
         String name = decodedJWT.getClaim("name").asString();
         String role = decodedJWT.getClaim("role").asString();
         String email = decodedJWT.getClaim("email").asString();
         String imagePath = decodedJWT.getClaim("imagePath").asString();
 
-        return new UserResponseDTO(id, surname, name, role, email, imagePath);
+        // Sans claim exp, le token n'est pas mis en cache.
+        long expiresAt = decodedJWT.getExpiresAt() != null ? decodedJWT.getExpiresAt().getTime() : 0;
+        return new VerifiedToken(new UserResponseDTO(id, surname, name, role, email, imagePath), decodedJWT.getId(),
+                                 expiresAt);
+    }
+
+    /**
+     * Révoque un token d'accès (à la déconnexion) ; un token invalide ou expiré est ignoré.
+     */
+    public void revokeAccessToken(String token) {
+        try {
+            DecodedJWT decodedJWT = verifyAccessToken(token);
+            if (decodedJWT.getId() != null && decodedJWT.getExpiresAt() != null) {
+                tokenRevocationService.revokeToken(decodedJWT.getId(), decodedJWT.getExpiresAt().getTime());
+            }
+        } catch (JWTVerificationException e) {
+            return;
+        }
+        verifiedTokenCache.invalidate(token);
+    }
+
+    /**
+     * Vérifie la signature et les claims d'un token d'accès avec le vérificateur de sa clé (en-tête kid).
+     */
+    private DecodedJWT verifyAccessToken(String token) {
+        DecodedJWT decodedJWT = JWT.decode(token);
+        return jwtKeyRing.verifier(decodedJWT.getKeyId(), ACCESS_TOKEN_TYPE,
+                                   algorithm -> JWT.require(algorithm).withClaim("typ", ACCESS_TOKEN_TYPE).build())
+                         .verify(decodedJWT);
+    }
+
+    /**
+     * @return La durée de vie d'un token d'accès, en secondes.
+     */
+    public long getAccessTokenTtlSeconds() {
+        return accessTokenTtlMinutes * 60;
     }
 
     /**
      * Genera un token CSRF utilizzando un identificativo univoco.
      */
     public String generateCsrfToken() {
-        Algorithm algorithm = Algorithm.HMAC256(CSRF_SECRET_KEY);
+        SigningKey signingKey = jwtKeyRing.signingKey();
         return JWT.create()
+                .withKeyId(signingKey.kid())
+                .withClaim("typ", CSRF_TOKEN_TYPE)
                 .withSubject("CSRF-TOKEN")
                 .withIssuedAt(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // 24 ore
                 .withClaim("csrf", UUID.randomUUID().toString())
-                .sign(algorithm);
+                .sign(signingKey.algorithm());
     }
 
     /**
@@ -69,9 +141,11 @@ public class JwtService {
      */
     public boolean validateCsrfToken(String csrfToken) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(CSRF_SECRET_KEY);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            verifier.verify(csrfToken);
+            DecodedJWT decodedJWT = JWT.decode(csrfToken);
+            jwtKeyRing.verifier(decodedJWT.getKeyId(), CSRF_TOKEN_TYPE,
+                                algorithm -> JWT.require(algorithm).withClaim("typ", CSRF_TOKEN_TYPE)
+                                                .withSubject("CSRF-TOKEN").build())
+                      .verify(decodedJWT);
             return true; // Token valido
         } catch (Exception e) {
             return false; // Token non valido
@@ -0,0 +1,170 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.dtos.PasswordHashingMetricsDTO;
+import com.qatorze.p2S_tde.exceptions.PasswordHashingBusyException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hachage et vérification des mots de passe (BCrypt) sur un exécuteur dédié.
+ *
+ * BCrypt est volontairement coûteux en CPU : exécuté sur les threads de requête, une rafale de connexions
+ * occuperait tous les cœurs au détriment du reste de l'application (catalogue, articles). Toutes les opérations
+ * BCrypt passent donc par un exécuteur dimensionné sur le nombre de cœurs, avec une file bornée ; quand la file
+ * est pleine, la requête est refusée immédiatement ({@link PasswordHashingBusyException}, réponse 429).
+ *
+ * Le temps passé dans la file, le temps d'exécution et les refus sont mesurés ({@link #getMetrics()}).
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Value("${auth.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${auth.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+
+    @PostConstruct
+    public void init() {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hache un mot de passe.
+     *
+     * @throws PasswordHashingBusyException Si l'exécuteur est saturé.
+     */
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Vérifie un mot de passe contre son hachage.
+     *
+     * @throws PasswordHashingBusyException Si l'exécuteur est saturé.
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Vérifie si un mot de passe correspond à l'un des hachages (par exemple l'historique des mots de passe),
+     * en une seule tâche.
+     *
+     * @throws PasswordHashingBusyException Si l'exécuteur est saturé.
+     */
+    public boolean matchesAny(CharSequence rawPassword, Collection<String> encodedPasswords) {
+        // Copie faite sur le thread appelant : la collection peut être liée à la session JPA de la requête.
+        List<String> candidates = List.copyOf(encodedPasswords);
+        if (candidates.isEmpty()) {
+            return false;
+        }
+        return run(() -> candidates.stream().anyMatch(encoded -> passwordEncoder.matches(rawPassword, encoded)));
+    }
+
+    /**
+     * Indique si un hachage a été calculé avec un autre coût que le coût actuel et doit être recalculé
+     * (à faire après une vérification réussie, quand le mot de passe en clair est connu).
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * @return Les métriques de l'exécuteur depuis le démarrage.
+     */
+    public PasswordHashingMetricsDTO getMetrics() {
+        long count = completed.get();
+        PasswordHashingMetricsDTO metrics = new PasswordHashingMetricsDTO();
+        metrics.setThreads(threads);
+        metrics.setQueueCapacity(queueCapacity);
+        metrics.setQueued(executor.getQueue().size());
+        metrics.setActive(executor.getActiveCount());
+        metrics.setCompleted(count);
+        metrics.setRejected(rejected.get());
+        metrics.setAverageQueueMillis(count > 0 ? totalQueueNanos.get() / 1e6 / count : 0);
+        metrics.setMaxQueueMillis(maxQueueNanos.get() / 1e6);
+        metrics.setAverageRunMillis(count > 0 ? totalRunNanos.get() / 1e6 / count : 0);
+        return metrics;
+    }
+
+    private <T> T run(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.get();
+                } finally {
+                    long queueNanos = startedAt - submittedAt;
+                    totalQueueNanos.addAndGet(queueNanos);
+                    maxQueueNanos.accumulate(queueNanos);
+                    totalRunNanos.addAndGet(System.nanoTime() - startedAt);
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHashingBusyException();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hachage du mot de passe interrompu.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Échec du hachage du mot de passe.", e.getCause());
+        }
+    }
+}
@@ -8,7 +8,6 @@ import com.qatorze.p2S_tde.repositories.UserRepository;
 import com.qatorze.p2S_tde.utils.EmailSender;
 import com.qatorze.p2S_tde.utils.TokenGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional;
 
@@ -34,11 +33,20 @@ public class PasswordResetService {
     private TokenGenerator tokenGenerator;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     
     @Autowired
     private PasswordValidatorService passwordValidatorService; // Iniezione del servizio di validazione
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
 
     /**
      * Lance le processus de réinitialisation du mot de passe.
@@ -75,6 +83,8 @@ public class PasswordResetService {
 
     /**
      * Réinitialise le mot de passe en utilisant un token de réinitialisation.
+     * Toutes les sessions de l'utilisateur sont révoquées (tokens de rafraîchissement et tokens d'accès déjà émis) :
+     * il doit se reconnecter avec le nouveau mot de passe.
      *
      * @param passwordResetDTO Objet contenant le token et le nouveau mot de passe.
      * @throws IllegalArgumentException Si le token est invalide ou expiré.
@@ -84,13 +94,16 @@ public class PasswordResetService {
        
         passwordValidatorService.validateNewPassword(passwordResetDTO.getNewPassword(), user);
 
-        String hashedNewPassword = passwordEncoder.encode(passwordResetDTO.getNewPassword());
+        String hashedNewPassword = passwordHashingService.encode(passwordResetDTO.getNewPassword());
         user.addPasswordToHistory(hashedNewPassword);
         user.setPassword(hashedNewPassword);
 
         user.setPasswordResetToken(null);
         user.setPasswordResetTokenCreatedAt(null);
         userRepository.save(user);
+        userCache.invalidate(user.getId());
+        refreshTokenService.revokeUser(user.getId());
+        tokenRevocationService.revokeUser(user.getId());
 
         sendPasswordChangedNotification(user);
     }
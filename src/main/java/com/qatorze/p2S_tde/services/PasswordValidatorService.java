@@ -1,7 +1,6 @@
 package com.qatorze.p2S_tde.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.qatorze.p2S_tde.models.User;
@@ -10,7 +9,7 @@ import com.qatorze.p2S_tde.models.User;
 public class PasswordValidatorService {
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder; // Per confrontare le password codificate
+    private PasswordHashingService passwordHashingService; // Per confrontare le password codificate
 
     /**
      * Valide le nouveau mot de passe de l'utilisateur.
@@ -24,10 +23,9 @@ public class PasswordValidatorService {
             throw new IllegalArgumentException("Le mot de passe doit comporter au moins 8 caractères.");
         }
         // Verifica che la nuova password non sia tra le ultime 5
-        for (String previousPassword : user.getPreviousPasswords()) {
-            if (passwordEncoder.matches(newPassword, previousPassword)) {
-                throw new IllegalArgumentException("Le nouveau mot de passe ne peut pas être identique à l'un des cinq derniers utilisés.");
-            }
+        // (les cinq comparaisons BCrypt sont faites en une seule tâche de l'exécuteur de hachage)
+        if (passwordHashingService.matchesAny(newPassword, user.getPreviousPasswords())) {
+            throw new IllegalArgumentException("Le nouveau mot de passe ne peut pas être identique à l'un des cinq derniers utilisés.");
         }
     }
 }
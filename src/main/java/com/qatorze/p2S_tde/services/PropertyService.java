@@ -1,16 +1,29 @@
 package com.qatorze.p2S_tde.services;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.qatorze.p2S_tde.enums.PropertyCategory;
 import com.qatorze.p2S_tde.enums.PropertyType;
 import com.qatorze.p2S_tde.exceptions.PropertiesNotFoundException;
 import com.qatorze.p2S_tde.models.Property;
 import com.qatorze.p2S_tde.repositories.PropertyRepository;
+import com.qatorze.p2S_tde.services.TrendingService.SearchQuery;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PropertyService {
@@ -18,6 +31,39 @@ public class PropertyService {
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private DuplicatePropertyDetectorService duplicateDetector;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private PropertyViewService propertyViewService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private SitemapFeedService sitemapFeedService;
+
+    @Autowired
+    private GlobalSearchService globalSearchService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${properties.trending.top-k:100}")
+    private int hotSearchCacheSize;
+
+    // Résultats des recherches fréquentes, par clé canonique de recherche.
+    private final Map<String, List<Property>> hotSearchCache = new ConcurrentHashMap<>();
+
+    // Incrémenté à chaque invalidation, pour ne pas mettre en cache un résultat lu avant une modification.
+    private final AtomicLong hotSearchGeneration = new AtomicLong();
+
     /**
      * Crée une nouvelle propriété.
      * 
@@ -28,7 +74,14 @@ public class PropertyService {
     	if (property.getPrice() < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
-        return propertyRepository.save(property);
+        // Marque l'annonce comme doublon si une annonce quasi identique existe déjà.
+        property.setDuplicateOf(duplicateDetector.findOriginalOf(property));
+        Property savedProperty = propertyRepository.save(property);
+        duplicateDetector.index(savedProperty);
+        sitemapFeedService.propertyChanged(savedProperty.getId());
+        globalSearchService.indexProperty(savedProperty);
+        invalidateHotSearches();
+        return savedProperty;
     }
 
     /**
@@ -43,7 +96,13 @@ public class PropertyService {
         if (property.getId() == null || !propertyRepository.existsById(property.getId())) {
             throw new IllegalArgumentException("La propriété avec l'ID fourni n'existe pas.");
         }
-        return propertyRepository.save(property);
+        property.setDuplicateOf(duplicateDetector.findOriginalOf(property));
+        Property savedProperty = propertyRepository.save(property);
+        duplicateDetector.index(savedProperty);
+        sitemapFeedService.propertyChanged(savedProperty.getId());
+        globalSearchService.indexProperty(savedProperty);
+        invalidateHotSearches();
+        return savedProperty;
     }
 
     /**
@@ -72,6 +131,40 @@ public class PropertyService {
             throw new IllegalArgumentException("La propriété avec l'ID fourni n'existe pas.");
         }
         propertyRepository.deleteById(id);
+        availabilityService.removeProperty(id);
+        propertyViewService.removeProperty(id);
+        duplicateDetector.remove(id);
+        // Les doublons de cette annonce seront réévalués au prochain traitement par lots.
+        propertyRepository.clearDuplicatesOf(id);
+        sitemapFeedService.propertyChanged(id);
+        globalSearchService.removeProperty(id);
+        invalidateHotSearches();
+    }
+
+    /**
+     * Récupère les propriétés les plus consultées récemment (tendances).
+     * 
+     * @param limit Le nombre maximal de propriétés.
+     * @return Liste des propriétés tendance, de la plus consultée à la moins consultée.
+     */
+    public List<Property> getTrendingProperties(int limit) {
+        List<Long> ids = trendingService.getTrendingPropertyIds(limit);
+        Map<Long, Property> properties = propertyRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        return ids.stream()
+                  .map(properties::get)
+                  .filter(Objects::nonNull) // Propriété supprimée depuis.
+                  .toList();
+    }
+
+    /**
+     * Récupère les annonces quasi identiques à une propriété.
+     * 
+     * @param id L'ID de la propriété.
+     * @return Liste des propriétés similaires (éventuellement vide).
+     */
+    public List<Property> getSimilarProperties(Long id) {
+        return propertyRepository.findAllById(duplicateDetector.findSimilarPropertyIds(id));
     }
 
     /**
@@ -80,28 +173,131 @@ public class PropertyService {
      * @param types Liste des types de propriétés (peut être vide ou null).
      * @param category La catégorie de la propriété (non null).
      * @param location Partie de la localisation (ville ou pays).
+     * Les annonces marquées comme doublons ne sont pas retournées. Le résultat des recherches
+     * fréquentes (voir {@link TrendingService#isHotQuery}) est servi depuis un cache.
+     * 
      * @return Liste de propriétés qui correspondent aux critères de recherche.
      * @throws PropertiesNotFoundException Si aucune propriété n'est trouvée pour les critères donnés.
      */
     public List<Property> getPropertiesByFilter(List<PropertyType> types, PropertyCategory category, String location) {
+        SearchQuery query = SearchQuery.of(types, category, location);
+        List<Property> properties;
+
+        if (trendingService.isHotQuery(query)) {
+            properties = hotSearchCache.get(query.key());
+            if (properties == null) {
+                properties = loadHotSearch(query);
+            }
+        } else {
+            properties = searchByCriteria(query);
+        }
+
+        if (properties.isEmpty()) {
+            throw new PropertiesNotFoundException("Aucune propriété trouvée pour les critères spécifiés.");
+        }
+
+        return properties;
+    }
+
+    /**
+     * Préchauffe au démarrage le cache avec les recherches les plus fréquentes (rechargées par {@link TrendingService}).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmHotSearches() {
+        for (SearchQuery query : trendingService.getTopQueries(hotSearchCacheSize)) {
+            if (trendingService.isHotQuery(query)) {
+                loadHotSearch(query);
+            }
+        }
+    }
+
+    /**
+     * Exécute une recherche fréquente et met son résultat en cache.
+     * Les images sont chargées dans la transaction, car le résultat est servi hors de la session qui l'a lu.
+     */
+    private List<Property> loadHotSearch(SearchQuery query) {
+        long generation = hotSearchGeneration.get();
+        List<Property> properties = transactionTemplate.execute(status -> {
+            List<Property> result = searchByCriteria(query);
+            result.forEach(property -> Hibernate.initialize(property.getImageUrls()));
+            return result;
+        });
+
+        if (hotSearchCache.size() >= hotSearchCacheSize) {
+            hotSearchCache.keySet().removeIf(key -> !trendingService.isHotQuery(SearchQuery.fromKey(key)));
+        }
+        // Le résultat n'est pas mis en cache si une propriété a été modifiée pendant la recherche.
+        if (hotSearchCache.size() < hotSearchCacheSize && hotSearchGeneration.get() == generation) {
+            hotSearchCache.put(query.key(), properties);
+        }
+        return properties;
+    }
+
+    /**
+     * Vide le cache des recherches fréquentes après une création, modification ou suppression de propriété.
+     */
+    private void invalidateHotSearches() {
+        hotSearchGeneration.incrementAndGet();
+        hotSearchCache.clear();
+    }
+
+    /**
+     * Recherche en base de données les propriétés correspondant aux critères, hors doublons.
+     */
+    private List<Property> searchByCriteria(SearchQuery query) {
+        List<PropertyType> types = query.types();
+        PropertyCategory category = query.category();
+        String location = query.location();
         List<Property> properties;
 
-        if ((types == null || types.isEmpty()) && location != null && !location.isEmpty()) {
+        if (types.isEmpty() && !location.isEmpty()) {
             properties = propertyRepository.findByCategoryAndLocationContainingIgnoreCase(category, location);
-        } else if (types != null && !types.isEmpty() && location != null && !location.isEmpty()) {
+        } else if (!types.isEmpty() && !location.isEmpty()) {
             properties = propertyRepository.findByTypeInAndCategoryAndLocationContainingIgnoreCase(types, category, location);
-        } else if ((types == null || types.isEmpty()) && (location == null || location.isEmpty())) {
-            properties = propertyRepository.findByCategory(category);
-        } else if (types != null && !types.isEmpty() && (location == null || location.isEmpty())) {
+        } else if (!types.isEmpty()) {
             properties = propertyRepository.findByTypeInAndCategory(types, category);
         } else {
             properties = propertyRepository.findByCategory(category);
         }
 
-        if (properties.isEmpty()) {
-            throw new PropertiesNotFoundException("Aucune propriété trouvée pour les critères spécifiés.");
+        return properties.stream()
+                         .filter(property -> property.getDuplicateOf() == null)
+                         .toList();
+    }
+
+    /**
+     * Récupère les propriétés correspondant aux critères de recherche, disponibles sur une période
+     * et éventuellement restreintes aux favoris d'un utilisateur.
+     * Si aucune période n'est fournie, la disponibilité n'est pas vérifiée.
+     * 
+     * @param types Liste des types de propriétés (peut être vide ou null).
+     * @param category La catégorie de la propriété (non null).
+     * @param location Partie de la localisation (ville ou pays).
+     * @param availableFrom Date d'arrivée souhaitée (incluse), ou null.
+     * @param availableTo Date de départ souhaitée (exclue), ou null.
+     * @param favoritesOf ID d'un utilisateur pour ne garder que ses favoris, ou null.
+     * @return Liste de propriétés qui correspondent aux critères et sont libres sur la période.
+     * @throws PropertiesNotFoundException Si aucune propriété n'est trouvée pour les critères donnés.
+     */
+    public List<Property> getPropertiesByFilter(List<PropertyType> types, PropertyCategory category, String location,
+                                                LocalDate availableFrom, LocalDate availableTo, Long favoritesOf) {
+        List<Property> properties = getPropertiesByFilter(types, category, location);
+
+        if (favoritesOf != null) {
+            properties = favoriteService.filterToFavorites(favoritesOf, properties);
+            if (properties.isEmpty()) {
+                throw new PropertiesNotFoundException("Aucune propriété favorite trouvée pour les critères spécifiés.");
+            }
         }
 
+        if (availableFrom == null && availableTo == null) {
+            return properties;
+        }
+
+        properties = availabilityService.filterAvailable(properties, availableFrom, availableTo);
+        if (properties.isEmpty()) {
+            throw new PropertiesNotFoundException("Aucune propriété disponible du " + availableFrom + " au " + availableTo + ".");
+        }
         return properties;
     }
 }
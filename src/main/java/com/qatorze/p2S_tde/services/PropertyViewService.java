@@ -0,0 +1,254 @@
+package com.qatorze.p2S_tde.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.dtos.PropertyViewsDTO;
+import com.qatorze.p2S_tde.models.Property;
+import com.qatorze.p2S_tde.repositories.PropertyRepository;
+import com.qatorze.p2S_tde.repositories.PropertyViewCounterRepository;
+import com.qatorze.p2S_tde.utils.ViewEventLog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service qui comptabilise les consultations des propriétés.
+ *
+ * Une consultation n'écrit rien en base de données sur le chemin de la requête : l'événement est déposé dans une
+ * file bornée, puis un thread unique l'ajoute au journal binaire projeté en mémoire ({@link ViewEventLog}).
+ * Périodiquement, l'agrégateur scelle le segment actif, regroupe les événements par propriété et par heure, et
+ * écrit les compteurs horaires en un seul lot ("INSERT ... ON DUPLICATE KEY UPDATE").
+ *
+ * Si la file est pleine, l'événement est abandonné plutôt que de ralentir la requête. Un segment n'est supprimé
+ * qu'après l'écriture de ses compteurs : en cas d'arrêt brutal entre les deux, ses événements peuvent être
+ * comptés deux fois, jamais perdus.
+ */
+@Service
+public class PropertyViewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyViewService.class);
+
+    private static final String UPSERT_COUNTER =
+            "INSERT INTO property_view_counters (property_id, hour_bucket, views) VALUES (?, ?, ?) "
+          + "ON DUPLICATE KEY UPDATE views = views + VALUES(views)";
+
+    private static final long HOURS_PER_WEEK = 7 * 24;
+    private static final long MILLIS_PER_HOUR = Duration.ofHours(1).toMillis();
+    // Attente après un échec d'écriture dans le journal, doublée à chaque échec consécutif.
+    private static final long MIN_WRITE_BACKOFF_MILLIS = 100;
+    private static final long MAX_WRITE_BACKOFF_MILLIS = Duration.ofSeconds(30).toMillis();
+
+    @Autowired
+    private PropertyViewCounterRepository propertyViewCounterRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${properties.views.log-dir:data/view-events}")
+    private String logDirectory;
+
+    @Value("${properties.views.segment-size:1048576}")
+    private int segmentSize;
+
+    @Value("${properties.views.queue-capacity:65536}")
+    private int queueCapacity;
+
+    private record ViewEvent(long propertyId, long epochMillis) {}
+
+    private record HourlyKey(long propertyId, long hourBucket) {}
+
+    private BlockingQueue<ViewEvent> queue;
+    private ViewEventLog eventLog;
+    private Thread writer;
+    private final LongAdder droppedEvents = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        eventLog = new ViewEventLog(Paths.get(logDirectory), segmentSize);
+        writer = new Thread(this::writeEvents, "view-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Enregistre une consultation de propriété, sans bloquer l'appelant.
+     *
+     * @param propertyId L'ID de la propriété consultée.
+     */
+    public void recordView(Long propertyId) {
+        if (!queue.offer(new ViewEvent(propertyId, System.currentTimeMillis()))) {
+            droppedEvents.increment();
+        }
+    }
+
+    /**
+     * Récupère le nombre total de consultations d'une propriété (hors événements pas encore agrégés).
+     *
+     * @param propertyId L'ID de la propriété.
+     * @return Le nombre de consultations.
+     */
+    public long getViewCount(Long propertyId) {
+        return propertyViewCounterRepository.sumViewsByPropertyId(propertyId);
+    }
+
+    /**
+     * Récupère les propriétés les plus consultées au cours des sept derniers jours.
+     *
+     * @param limit Le nombre maximal de propriétés à renvoyer.
+     * @return Les propriétés avec leur nombre de consultations, par nombre décroissant.
+     */
+    public List<PropertyViewsDTO> getMostViewedThisWeek(int limit) {
+        long fromHour = currentHour() - HOURS_PER_WEEK;
+        List<Object[]> rows = propertyViewCounterRepository.findMostViewedSince(fromHour, PageRequest.of(0, limit));
+
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+        Map<Long, Property> properties = propertyRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+
+        List<PropertyViewsDTO> result = new ArrayList<>();
+        for (Object[] row : rows) {
+            Property property = properties.get((Long) row[0]);
+            if (property != null) { // Propriété supprimée depuis.
+                result.add(new PropertyViewsDTO(property, ((Number) row[1]).longValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Supprime les compteurs d'une propriété (appelé lors de la suppression de la propriété).
+     *
+     * @param propertyId L'ID de la propriété supprimée.
+     */
+    public void removeProperty(Long propertyId) {
+        propertyViewCounterRepository.deleteByPropertyId(propertyId);
+    }
+
+    /**
+     * Agrège les segments scellés du journal en compteurs horaires et les écrit en base de données.
+     */
+    @Scheduled(fixedDelayString = "${properties.views.aggregate-interval-ms:60000}")
+    public synchronized void aggregateViews() {
+        List<Path> segments = eventLog.rotate();
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        Map<HourlyKey, Long> counters = new HashMap<>();
+        List<Path> processed = new ArrayList<>();
+        for (Path segment : segments) {
+            // Les compteurs d'un segment ne sont retenus que s'il a été lu en entier.
+            Map<HourlyKey, Long> segmentCounters = new HashMap<>();
+            try {
+                ViewEventLog.read(segment, (propertyId, epochMillis) ->
+                        segmentCounters.merge(new HourlyKey(propertyId, epochMillis / MILLIS_PER_HOUR), 1L, Long::sum));
+                segmentCounters.forEach((key, views) -> counters.merge(key, views, Long::sum));
+                processed.add(segment);
+            } catch (IOException e) {
+                logger.error("Lecture impossible du segment {}, il sera réessayé", segment, e);
+            }
+        }
+
+        if (!counters.isEmpty()) {
+            List<Object[]> batch = new ArrayList<>(counters.size());
+            counters.forEach((key, views) -> batch.add(new Object[] { key.propertyId(), key.hourBucket(), views }));
+            jdbcTemplate.batchUpdate(UPSERT_COUNTER, batch);
+        }
+
+        for (Path segment : processed) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                logger.error("Suppression impossible du segment agrégé {}", segment, e);
+            }
+        }
+
+        long dropped = droppedEvents.sumThenReset();
+        if (dropped > 0) {
+            logger.warn("{} consultations abandonnées (file d'attente pleine)", dropped);
+        }
+        logger.debug("{} segments agrégés en {} compteurs horaires", processed.size(), counters.size());
+    }
+
+    /**
+     * Arrête le thread d'écriture et écrit dans le journal les événements encore en file.
+     * Ils seront agrégés au prochain démarrage.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        ViewEvent event;
+        while ((event = queue.poll()) != null) {
+            eventLog.append(event.propertyId(), event.epochMillis());
+        }
+        eventLog.close();
+    }
+
+    private void writeEvents() {
+        List<ViewEvent> batch = new ArrayList<>();
+        long backoffMillis = MIN_WRITE_BACKOFF_MILLIS;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch);
+            int written = 0;
+            try {
+                for (ViewEvent event : batch) {
+                    eventLog.append(event.propertyId(), event.epochMillis());
+                    written++;
+                }
+                backoffMillis = MIN_WRITE_BACKOFF_MILLIS;
+            } catch (RuntimeException e) {
+                // Une erreur d'écriture (disque plein, segment illisible...) ne doit pas arrêter le thread :
+                // le reste du lot est perdu, et l'écriture reprend après une pause.
+                logger.error("Écriture impossible dans le journal des consultations, {} consultations perdues, "
+                             + "nouvel essai dans {} ms", batch.size() - written, backoffMillis, e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_WRITE_BACKOFF_MILLIS);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / MILLIS_PER_HOUR;
+    }
+}
@@ -0,0 +1,160 @@
+package com.qatorze.p2S_tde.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.exceptions.InvalidRefreshTokenException;
+import com.qatorze.p2S_tde.models.RefreshToken;
+import com.qatorze.p2S_tde.repositories.RefreshTokenRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Service qui gère les tokens de rafraîchissement.
+ *
+ * Les tokens d'accès JWT ont une durée de vie courte ; le client les renouvelle avec un token de
+ * rafraîchissement opaque (aléatoire, stocké uniquement sous forme d'empreinte), qui tourne à chaque usage :
+ * l'ancien token est marqué comme utilisé et un nouveau token de la même famille est émis. Si un token déjà
+ * utilisé est présenté, il a été copié : toute la famille est supprimée, ce qui déconnecte aussi bien le voleur
+ * que l'utilisateur légitime.
+ *
+ * Chaque token expire après la durée de vie d'un token, mais jamais après la durée de vie maximale de sa famille,
+ * comptée depuis la connexion : une famille utilisée sans interruption finit elle aussi par expirer, et
+ * l'utilisateur doit se reconnecter.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * Token de rafraîchissement émis, à envoyer au client.
+     *
+     * @param token           Le token en clair (jamais stocké).
+     * @param userId          L'ID de l'utilisateur.
+     * @param expiresAtMillis L'heure d'expiration, en millisecondes.
+     */
+    public record IssuedRefreshToken(String token, Long userId, long expiresAtMillis) {}
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-token.ttl-days:14}")
+    private long refreshTokenTtlDays;
+
+    @Value("${jwt.refresh-token.max-family-age-days:30}")
+    private long maxFamilyAgeDays;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Émet le premier token d'une nouvelle famille (à la connexion ou à l'enregistrement).
+     *
+     * @param userId L'ID de l'utilisateur.
+     */
+    @Transactional
+    public IssuedRefreshToken issue(Long userId) {
+        return create(userId, UUID.randomUUID().toString(), System.currentTimeMillis());
+    }
+
+    /**
+     * Échange un token contre un nouveau token de la même famille.
+     *
+     * @param token Le token présenté par le client.
+     * @return Le nouveau token.
+     * @throws InvalidRefreshTokenException Si le token est absent, inconnu, expiré ou déjà utilisé, ou si sa
+     *                                      famille a dépassé sa durée de vie maximale.
+     */
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public IssuedRefreshToken rotate(String token) {
+        if (token == null || token.isBlank()) {
+            throw new InvalidRefreshTokenException();
+        }
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hashOf(token))
+                .orElseThrow(InvalidRefreshTokenException::new);
+        long now = System.currentTimeMillis();
+        if (refreshToken.getExpiresAt() <= now) {
+            throw new InvalidRefreshTokenException();
+        }
+        if (refreshToken.getFamilyCreatedAt() + daysToMillis(maxFamilyAgeDays) <= now) {
+            refreshTokenRepository.deleteByFamilyId(refreshToken.getFamilyId());
+            throw new InvalidRefreshTokenException();
+        }
+        // La mise à jour conditionnelle garantit qu'un token n'est échangé qu'une fois, même en concurrence.
+        if (refreshTokenRepository.markUsed(refreshToken.getId()) == 0) {
+            refreshTokenRepository.deleteByFamilyId(refreshToken.getFamilyId());
+            logger.warn("Token de rafraîchissement réutilisé pour l'utilisateur {} : famille révoquée",
+                        refreshToken.getUserId());
+            throw new InvalidRefreshTokenException();
+        }
+        return create(refreshToken.getUserId(), refreshToken.getFamilyId(), refreshToken.getFamilyCreatedAt());
+    }
+
+    /**
+     * Révoque la famille d'un token (à la déconnexion).
+     *
+     * @param token Le token présenté par le client.
+     */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hashOf(token))
+                .ifPresent(refreshToken -> refreshTokenRepository.deleteByFamilyId(refreshToken.getFamilyId()));
+    }
+
+    /**
+     * Révoque tous les tokens d'un utilisateur (par exemple à la suppression de son compte).
+     *
+     * @param userId L'ID de l'utilisateur.
+     */
+    public void revokeUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Supprime les tokens expirés.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval-ms:3600000}",
+               initialDelayString = "${jwt.refresh-token.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(System.currentTimeMillis());
+        if (deleted > 0) {
+            logger.info("{} tokens de rafraîchissement expirés supprimés", deleted);
+        }
+    }
+
+    private IssuedRefreshToken create(Long userId, String familyId, long familyCreatedAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long expiresAt = Math.min(System.currentTimeMillis() + daysToMillis(refreshTokenTtlDays),
+                                  familyCreatedAt + daysToMillis(maxFamilyAgeDays));
+        refreshTokenRepository.save(new RefreshToken(hashOf(token), familyId, userId, familyCreatedAt, expiresAt));
+        return new IssuedRefreshToken(token, userId, expiresAt);
+    }
+
+    private static long daysToMillis(long days) {
+        return days * 24 * 60 * 60 * 1000;
+    }
+
+    private static String hashOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible.", e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.qatorze.p2S_tde.repositories.UserRepository;
+import com.qatorze.p2S_tde.utils.BloomFilter;
+
+/**
+ * Filtre des e-mails déjà enregistrés, pour répondre à "cet e-mail est-il libre ?" sans requête.
+ *
+ * Les e-mails des utilisateurs (en minuscules) sont dans un {@link BloomFilter} en mémoire : un e-mail absent du
+ * filtre est libre, sans accès à la base ; seule une réponse positive (e-mail pris ou faux positif) est confirmée
+ * par une requête exacte. Le filtre est chargé peu après le démarrage (d'ici là, chaque question va en base) et
+ * complété à chaque enregistrement ou changement d'e-mail.
+ *
+ * Un filtre ne permet pas de retirer des clés : les e-mails des comptes supprimés restent "peut-être pris" (une
+ * requête de plus) jusqu'à la reconstruction périodique du filtre. La réponse n'est qu'une indication :
+ * l'enregistrement reste garanti par la contrainte d'unicité de la colonne email.
+ */
+@Service
+public class RegisteredEmailFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.email-filter.rebuild-interval-minutes:60}")
+    private long rebuildIntervalMinutes;
+
+    private volatile BloomFilter filter; // null tant que le premier chargement n'est pas terminé.
+    private volatile BloomFilter rebuilding; // Filtre en cours de construction, qui reçoit aussi les ajouts.
+    private volatile long builtAtMillis;
+
+    /**
+     * Indique si un e-mail est libre.
+     *
+     * @param email L'e-mail à vérifier.
+     * @return true si aucun utilisateur n'a cet e-mail.
+     */
+    public boolean isAvailable(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(keyOf(email))) {
+            return true;
+        }
+        return !userRepository.existsByEmail(email);
+    }
+
+    /**
+     * Ajoute l'e-mail d'un utilisateur enregistré ou modifié.
+     *
+     * Dans une transaction, l'ajout est fait après le commit : une reconstruction qui lit la base entre l'ajout
+     * et le commit ne verrait pas encore l'utilisateur, et le filtre reconstruit perdrait son e-mail.
+     *
+     * @param email L'e-mail de l'utilisateur.
+     */
+    public void add(String email) {
+        String key = keyOf(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addKey(key);
+                }
+            });
+        } else {
+            addKey(key);
+        }
+    }
+
+    /**
+     * Reconstruit le filtre à partir de la base : au démarrage, puis périodiquement pour oublier les e-mails
+     * des comptes supprimés ou modifiés, ou plus tôt si le filtre a reçu plus d'e-mails que prévu.
+     */
+    @Scheduled(fixedDelayString = "${users.email-filter.check-interval-ms:60000}", initialDelay = 0)
+    public void refresh() {
+        BloomFilter current = filter;
+        if (current == null || current.isSaturated()
+                || System.currentTimeMillis() - builtAtMillis >= rebuildIntervalMinutes * 60 * 1000) {
+            rebuild();
+        }
+    }
+
+    private void addKey(String key) {
+        // Le filtre en construction d'abord : rebuild() publie le nouveau filtre avant de vider "rebuilding",
+        // donc si "rebuilding" est déjà vide, "filter" est déjà le nouveau filtre (ou la reconstruction n'a pas
+        // encore lu la base, et y trouvera l'e-mail).
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(key);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(key);
+        }
+    }
+
+    private synchronized void rebuild() {
+        long count = userRepository.count();
+        // Capacité doublée pour absorber les enregistrements jusqu'à la prochaine reconstruction.
+        BloomFilter next = new BloomFilter(Math.max(MIN_CAPACITY, count * 2), FALSE_POSITIVE_RATE);
+        // Les e-mails ajoutés pendant la lecture vont aussi dans le nouveau filtre.
+        rebuilding = next;
+        try {
+            int loaded = 0;
+            List<Object[]> page = userRepository.findEmailsAfterId(0L, PageRequest.of(0, LOAD_PAGE_SIZE));
+            while (!page.isEmpty()) {
+                for (Object[] row : page) {
+                    next.add(keyOf((String) row[1]));
+                }
+                loaded += page.size();
+                Long lastId = (Long) page.get(page.size() - 1)[0];
+                page = userRepository.findEmailsAfterId(lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            }
+            filter = next;
+            builtAtMillis = System.currentTimeMillis();
+            logger.info("Filtre des e-mails enregistrés : {} e-mails chargés", loaded);
+        } catch (RuntimeException e) {
+            logger.error("Échec du chargement du filtre des e-mails enregistrés", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private static String keyOf(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,453 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.repositories.ArticleRepository;
+import com.qatorze.p2S_tde.utils.FrenchAnalyzer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Recommandations d'articles similaires, précalculées.
+ *
+ * Chaque article est représenté par un vecteur TF-IDF normalisé de ses termes (analysés par {@link FrenchAnalyzer},
+ * les termes du titre comptant {@value #TITLE_BOOST} fois) ; la similarité entre deux articles est le cosinus de
+ * leurs vecteurs. Pour chaque article, les plus proches voisins sont calculés à l'avance et gardés dans une table :
+ * une recommandation est une simple lecture, sans calcul ni verrou.
+ *
+ * La construction complète analyse les articles et calcule les voisins en parallèle dans un {@link ForkJoinPool}.
+ * Elle a lieu au démarrage puis périodiquement, ce qui rafraîchit aussi les IDF. Entre deux constructions, une
+ * création ou une modification ne recalcule que les voisins de l'article concerné et des articles qui le
+ * recommandaient ou qui devraient désormais le recommander, avec les IDF courants.
+ */
+@Service
+public class RelatedArticlesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedArticlesService.class);
+
+    private static final float TITLE_BOOST = 3.0f;
+    // Similarité minimale pour qu'un article soit recommandé.
+    private static final double MIN_SIMILARITY = 0.05;
+    private static final int REBUILD_PAGE_SIZE = 200;
+    // Nombre d'articles en dessous duquel une tâche parallèle n'est plus découpée.
+    private static final int SEQUENTIAL_THRESHOLD = 32;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Value("${articles.related.neighbours:10}")
+    private int maxNeighbours;
+
+    @Value("${articles.related.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * Article recommandé et sa similarité (cosinus) avec l'article consulté.
+     */
+    public record Neighbour(long articleId, double similarity) {}
+
+    private static final Comparator<Neighbour> BY_SIMILARITY =
+            Comparator.comparingDouble(Neighbour::similarity).reversed().thenComparing(Neighbour::articleId, Comparator.reverseOrder());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Les structures suivantes sont modifiées sous le verrou d'écriture.
+    // Vecteurs TF-IDF normalisés : ID de l'article -> (terme -> poids).
+    private Map<Long, Map<String, Float>> vectors = new HashMap<>();
+    // Index inversé des vecteurs : terme -> (ID de l'article -> poids).
+    private Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private Map<String, Integer> documentFrequencies = new HashMap<>();
+    // Articles qui recommandent un article donné : ID recommandé -> IDs des articles qui le recommandent.
+    private Map<Long, Set<Long>> referencedBy = new HashMap<>();
+
+    // Voisins de chaque article, lus sans verrou (listes immuables).
+    private volatile Map<Long, List<Neighbour>> neighbours = new ConcurrentHashMap<>();
+
+    private volatile boolean rebuilding;
+    // Articles modifiés pendant une reconstruction, à réappliquer sur le nouveau résultat.
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void initPool() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Construit les recommandations en arrière-plan une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        Thread builder = new Thread(this::rebuild, "related-articles-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Récupère les articles recommandés pour un article, du plus similaire au moins similaire.
+     *
+     * @param articleId L'ID de l'article consulté.
+     * @return Les voisins précalculés, éventuellement vide.
+     */
+    public List<Neighbour> getRelated(Long articleId) {
+        return neighbours.getOrDefault(articleId, List.of());
+    }
+
+    /**
+     * Prend en compte un article créé ou modifié.
+     */
+    public void update(Article article) {
+        Map<String, Float> frequencies = termFrequencies(article);
+        // Noté avant l'écriture : une reconstruction en cours peut remplacer les structures juste après.
+        if (rebuilding) {
+            touchedDuringRebuild.add(article.getId());
+        }
+        lock.writeLock().lock();
+        try {
+            updateArticle(article.getId(), frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Prend en compte un article supprimé.
+     */
+    public void remove(Long articleId) {
+        if (rebuilding) {
+            touchedDuringRebuild.add(articleId);
+        }
+        lock.writeLock().lock();
+        try {
+            removeArticle(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstruit toutes les recommandations depuis la base de données, en parallèle.
+     * Les recommandations précédentes restent servies pendant le calcul.
+     */
+    @Scheduled(fixedDelayString = "${articles.related.rebuild-interval-ms:3600000}",
+               initialDelayString = "${articles.related.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        rebuilding = true;
+        touchedDuringRebuild.clear();
+        try {
+            // Analyse des articles, page par page, chaque page en parallèle.
+            List<Long> ids = new ArrayList<>();
+            List<Map<String, Float>> allFrequencies = new ArrayList<>();
+            List<Article> page = articleRepository.findWithBodyAfterId(0L, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            while (!page.isEmpty()) {
+                List<Article> articles = page;
+                List<Map<String, Float>> analyzed = presized(articles.size());
+                parallelFor(articles.size(), i -> analyzed.set(i, termFrequencies(articles.get(i))));
+                for (int i = 0; i < articles.size(); i++) {
+                    ids.add(articles.get(i).getId());
+                }
+                allFrequencies.addAll(analyzed);
+                Long lastId = page.get(page.size() - 1).getId();
+                page = articleRepository.findWithBodyAfterId(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            }
+
+            Map<String, Integer> newDocumentFrequencies = new HashMap<>();
+            for (Map<String, Float> frequencies : allFrequencies) {
+                frequencies.keySet().forEach(term -> newDocumentFrequencies.merge(term, 1, Integer::sum));
+            }
+
+            // Vecteurs TF-IDF en parallèle, puis index inversé.
+            int documentCount = ids.size();
+            List<Map<String, Float>> newVectors = presized(documentCount);
+            parallelFor(documentCount, i -> newVectors.set(i, weigh(allFrequencies.get(i), newDocumentFrequencies, documentCount)));
+            Map<Long, Map<String, Float>> vectorsById = new HashMap<>(documentCount * 2);
+            Map<String, Map<Long, Float>> newPostings = new HashMap<>();
+            for (int i = 0; i < documentCount; i++) {
+                Long articleId = ids.get(i);
+                vectorsById.put(articleId, newVectors.get(i));
+                newVectors.get(i).forEach((term, weight) ->
+                        newPostings.computeIfAbsent(term, t -> new HashMap<>()).put(articleId, weight));
+            }
+
+            // Plus proches voisins de chaque article en parallèle.
+            List<List<Neighbour>> newNeighbours = presized(documentCount);
+            parallelFor(documentCount, i -> newNeighbours.set(i, nearest(ids.get(i), newVectors.get(i), newPostings)));
+            Map<Long, List<Neighbour>> neighboursById = new ConcurrentHashMap<>(documentCount * 2);
+            Map<Long, Set<Long>> newReferencedBy = new HashMap<>();
+            for (int i = 0; i < documentCount; i++) {
+                Long articleId = ids.get(i);
+                neighboursById.put(articleId, newNeighbours.get(i));
+                for (Neighbour neighbour : newNeighbours.get(i)) {
+                    newReferencedBy.computeIfAbsent(neighbour.articleId(), id -> new HashSet<>()).add(articleId);
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                vectors = vectorsById;
+                postings = newPostings;
+                documentFrequencies = newDocumentFrequencies;
+                referencedBy = newReferencedBy;
+                neighbours = neighboursById;
+                rebuilding = false;
+                // Réapplique les écritures faites pendant le calcul, qui peuvent manquer dans le nouveau résultat.
+                for (Long articleId : touchedDuringRebuild) {
+                    removeArticle(articleId);
+                }
+                if (!touchedDuringRebuild.isEmpty()) {
+                    for (Article article : articleRepository.findWithBodyByIdIn(touchedDuringRebuild)) {
+                        updateArticle(article.getId(), termFrequencies(article));
+                    }
+                }
+                touchedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Recommandations d'articles construites ({} articles)", documentCount);
+        } catch (RuntimeException e) {
+            logger.error("Échec de la construction des recommandations d'articles", e);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    // Les méthodes suivantes doivent être appelées sous le verrou d'écriture.
+
+    private void updateArticle(Long articleId, Map<String, Float> frequencies) {
+        removeVector(articleId);
+        frequencies.keySet().forEach(term -> documentFrequencies.merge(term, 1, Integer::sum));
+        Map<String, Float> vector = weigh(frequencies, documentFrequencies, vectors.size() + 1);
+        vectors.put(articleId, vector);
+        vector.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(articleId, weight));
+
+        Map<Long, Double> similarities = similarities(articleId, vector, postings);
+        setNeighbours(articleId, top(similarities));
+
+        // Les articles qui recommandaient celui-ci sont recalculés (sa similarité a pu baisser) ; pour les autres,
+        // il suffit de l'ajouter à leurs voisins s'il est désormais assez proche.
+        Set<Long> stale = new HashSet<>(referencedBy.getOrDefault(articleId, Set.of()));
+        similarities.forEach((otherId, similarity) -> {
+            if (similarity >= MIN_SIMILARITY && !stale.contains(otherId)) {
+                offer(otherId, new Neighbour(articleId, similarity));
+            }
+        });
+        stale.forEach(this::recompute);
+    }
+
+    private void removeArticle(Long articleId) {
+        removeVector(articleId);
+        setNeighbours(articleId, List.of());
+        neighbours.remove(articleId);
+        Set<Long> stale = referencedBy.remove(articleId);
+        if (stale != null) {
+            stale.forEach(this::recompute);
+        }
+    }
+
+    private void removeVector(Long articleId) {
+        Map<String, Float> vector = vectors.remove(articleId);
+        if (vector == null) {
+            return;
+        }
+        for (String term : vector.keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(articleId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            documentFrequencies.computeIfPresent(term, (t, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void recompute(Long articleId) {
+        Map<String, Float> vector = vectors.get(articleId);
+        if (vector != null) {
+            setNeighbours(articleId, nearest(articleId, vector, postings));
+        }
+    }
+
+    /**
+     * Ajoute un voisin à un article s'il fait partie de ses plus proches.
+     */
+    private void offer(Long articleId, Neighbour candidate) {
+        List<Neighbour> current = neighbours.getOrDefault(articleId, List.of());
+        if (current.size() >= maxNeighbours
+                && BY_SIMILARITY.compare(candidate, current.get(current.size() - 1)) >= 0) {
+            return;
+        }
+        List<Neighbour> updated = new ArrayList<>(current.size() + 1);
+        for (Neighbour neighbour : current) {
+            if (neighbour.articleId() != candidate.articleId()) {
+                updated.add(neighbour);
+            }
+        }
+        updated.add(candidate);
+        updated.sort(BY_SIMILARITY);
+        setNeighbours(articleId, updated.size() > maxNeighbours ? updated.subList(0, maxNeighbours) : updated);
+    }
+
+    /**
+     * Remplace les voisins d'un article en tenant à jour l'index inverse {@link #referencedBy}.
+     */
+    private void setNeighbours(Long articleId, List<Neighbour> updated) {
+        List<Neighbour> previous = neighbours.put(articleId, List.copyOf(updated));
+        if (previous != null) {
+            for (Neighbour neighbour : previous) {
+                Set<Long> referrers = referencedBy.get(neighbour.articleId());
+                if (referrers != null) {
+                    referrers.remove(articleId);
+                    if (referrers.isEmpty()) {
+                        referencedBy.remove(neighbour.articleId());
+                    }
+                }
+            }
+        }
+        for (Neighbour neighbour : updated) {
+            referencedBy.computeIfAbsent(neighbour.articleId(), id -> new HashSet<>()).add(articleId);
+        }
+    }
+
+    // Calculs sans état, utilisables en parallèle.
+
+    private List<Neighbour> nearest(Long articleId, Map<String, Float> vector, Map<String, Map<Long, Float>> index) {
+        return top(similarities(articleId, vector, index));
+    }
+
+    /**
+     * Calcule la similarité d'un article avec tous les articles qui partagent au moins un terme avec lui.
+     */
+    private static Map<Long, Double> similarities(Long articleId, Map<String, Float> vector,
+                                                  Map<String, Map<Long, Float>> index) {
+        Map<Long, Double> similarities = new HashMap<>();
+        vector.forEach((term, weight) -> {
+            Map<Long, Float> posting = index.get(term);
+            if (posting != null) {
+                posting.forEach((otherId, otherWeight) -> {
+                    if (!otherId.equals(articleId)) {
+                        similarities.merge(otherId, (double) weight * otherWeight, Double::sum);
+                    }
+                });
+            }
+        });
+        return similarities;
+    }
+
+    private List<Neighbour> top(Map<Long, Double> similarities) {
+        List<Neighbour> candidates = new ArrayList<>();
+        similarities.forEach((otherId, similarity) -> {
+            if (similarity >= MIN_SIMILARITY) {
+                candidates.add(new Neighbour(otherId, similarity));
+            }
+        });
+        candidates.sort(BY_SIMILARITY);
+        return List.copyOf(candidates.size() > maxNeighbours ? candidates.subList(0, maxNeighbours) : candidates);
+    }
+
+    /**
+     * Calcule le vecteur TF-IDF normalisé d'un article : (1 + log tf) × log(1 + N / df).
+     */
+    private static Map<String, Float> weigh(Map<String, Float> frequencies, Map<String, Integer> documentFrequencies,
+                                            int documentCount) {
+        Map<String, Float> vector = new HashMap<>(frequencies.size() * 2);
+        double squaredNorm = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            int documentFrequency = Math.max(1, documentFrequencies.getOrDefault(entry.getKey(), 1));
+            double weight = (1 + Math.log(entry.getValue())) * Math.log(1 + (double) documentCount / documentFrequency);
+            vector.put(entry.getKey(), (float) weight);
+            squaredNorm += weight * weight;
+        }
+        if (squaredNorm > 0) {
+            float norm = (float) Math.sqrt(squaredNorm);
+            vector.replaceAll((term, weight) -> weight / norm);
+        }
+        return vector;
+    }
+
+    private static Map<String, Float> termFrequencies(Article article) {
+        Map<String, Float> frequencies = new HashMap<>();
+        for (String term : FrenchAnalyzer.analyze(article.getTitle())) {
+            frequencies.merge(term, TITLE_BOOST, Float::sum);
+        }
+        for (String term : FrenchAnalyzer.analyze(article.getContent())) {
+            frequencies.merge(term, 1f, Float::sum);
+        }
+        return frequencies;
+    }
+
+    /**
+     * Liste de {@code size} éléments null, que {@link #parallelFor(int, IntConsumer)} remplit indice par indice
+     * (des set() sur des indices distincts, sans changement de taille).
+     */
+    private static <T> List<T> presized(int size) {
+        return new ArrayList<>(Collections.nCopies(size, null));
+    }
+
+    private void parallelFor(int size, IntConsumer body) {
+        if (size > 0) {
+            pool.invoke(new RangeTask(0, size, body));
+        }
+    }
+
+    /**
+     * Tâche fork/join qui applique une opération à chaque indice d'un intervalle, en le découpant par moitiés.
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final transient IntConsumer body;
+
+        RangeTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, body), new RangeTask(middle, to, body));
+        }
+    }
+}
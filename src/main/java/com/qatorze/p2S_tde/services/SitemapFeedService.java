@@ -0,0 +1,376 @@
+package com.qatorze.p2S_tde.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.dtos.ArticleSummaryDTO;
+import com.qatorze.p2S_tde.repositories.ArticleRepository;
+import com.qatorze.p2S_tde.repositories.PropertyRepository;
+
+/**
+ * Génération sur disque du sitemap et du flux Atom des articles.
+ *
+ * Le sitemap est découpé en fichiers de {@value #URLS_PER_SHARD} URL au plus (limite du protocole Sitemaps) :
+ * le fichier n de chaque section (propriétés, articles) couvre un intervalle fixe d'IDs, et "sitemap.xml" est
+ * l'index de ces fichiers. Les créations, modifications et suppressions signalées par {@link PropertyService}
+ * et {@link ArticleService} marquent seulement le fichier concerné ; une tâche périodique régénère les fichiers
+ * marqués et le flux des derniers articles. Un fichier dont le contenu n'a pas changé n'est pas réécrit, sa date
+ * de modification reste donc celle de son dernier vrai changement.
+ *
+ * Les fichiers sont servis tels quels (voir {@link #find(String)}) : les robots et lecteurs de flux n'atteignent
+ * jamais la base de données. Tous les fichiers sont régénérés au démarrage.
+ */
+@Service
+public class SitemapFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SitemapFeedService.class);
+
+    /**
+     * Nombre maximal d'URL par fichier du sitemap.
+     */
+    public static final int URLS_PER_SHARD = 50_000;
+
+    public static final String SITEMAP_INDEX = "sitemap.xml";
+    public static final String SITEMAP_DIRECTORY = "sitemaps";
+    public static final String ARTICLES_FEED = "feeds/articles.atom";
+
+    private static final Pattern SHARD_FILE = Pattern.compile("(properties|articles)-\\d{1,9}\\.xml");
+    private static final DateTimeFormatter W3C_DATE = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Value("${site.base-url:http://localhost:4200}")
+    private String baseUrl;
+
+    @Value("${site.static-dir:data/site}")
+    private String staticDir;
+
+    @Value("${site.feed.title:Articles}")
+    private String feedTitle;
+
+    @Value("${site.feed.size:50}")
+    private int feedSize;
+
+    /**
+     * Fichier servi tel quel, avec ses métadonnées de validation HTTP.
+     *
+     * @param path         Le chemin du fichier sur disque.
+     * @param contentType  Le type MIME du fichier.
+     * @param etag         L'ETag (date de modification et taille, entre guillemets).
+     * @param lastModified La date de dernière modification, en millisecondes.
+     */
+    public record StaticFile(Path path, String contentType, String etag, long lastModified) {}
+
+    /**
+     * Section du sitemap : un type de contenu et le chemin de ses pages sur le site.
+     */
+    private enum Section {
+        PROPERTIES("properties", "/properties/"),
+        ARTICLES("articles", "/articles/");
+
+        final String name;
+        final String pagePath;
+
+        Section(String name, String pagePath) {
+            this.name = name;
+            this.pagePath = pagePath;
+        }
+    }
+
+    private record Shard(Section section, long index) {
+
+        String fileName() {
+            return section.name + "-" + index + ".xml";
+        }
+    }
+
+    private final Set<Shard> dirtyShards = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean feedDirty = new AtomicBoolean();
+
+    /**
+     * Signale la création, la modification ou la suppression d'une propriété.
+     */
+    public void propertyChanged(Long propertyId) {
+        dirtyShards.add(new Shard(Section.PROPERTIES, propertyId / URLS_PER_SHARD));
+    }
+
+    /**
+     * Signale la création, la modification ou la suppression d'un article.
+     */
+    public void articleChanged(Long articleId) {
+        dirtyShards.add(new Shard(Section.ARTICLES, articleId / URLS_PER_SHARD));
+        feedDirty.set(true);
+    }
+
+    /**
+     * Régénère tous les fichiers en arrière-plan une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateAtStartup() {
+        Thread generator = new Thread(() -> {
+            try {
+                markAll(Section.PROPERTIES, propertyRepository.findMaxId());
+                markAll(Section.ARTICLES, articleRepository.findMaxId());
+                feedDirty.set(true);
+                regenerate();
+            } catch (RuntimeException e) {
+                logger.error("Échec de la génération initiale du sitemap et du flux des articles", e);
+            }
+        }, "sitemap-generator");
+        generator.setDaemon(true);
+        generator.start();
+    }
+
+    private void markAll(Section section, Long maxId) {
+        long lastShard = maxId == null ? 0 : maxId / URLS_PER_SHARD;
+        for (long index = 0; index <= lastShard; index++) {
+            dirtyShards.add(new Shard(section, index));
+        }
+    }
+
+    /**
+     * Régénère les fichiers du sitemap marqués et, si un article a changé, le flux des articles.
+     * Les marques sont retirées avant la lecture en base : un changement pendant la génération sera repris au
+     * prochain passage. En cas d'échec, les fichiers restent marqués.
+     */
+    @Scheduled(fixedDelayString = "${site.regenerate-interval-ms:60000}")
+    public synchronized void regenerate() {
+        Set<Shard> shards = new HashSet<>(dirtyShards);
+        dirtyShards.removeAll(shards);
+        // Lecture et remise à zéro atomiques : un article modifié entre les deux n'est pas perdu.
+        boolean feed = feedDirty.getAndSet(false);
+
+        Path root = Paths.get(staticDir);
+        try {
+            boolean indexChanged = !Files.exists(root.resolve(SITEMAP_INDEX));
+            for (Shard shard : shards) {
+                indexChanged |= writeShard(root, shard);
+            }
+            if (indexChanged) {
+                writeIfChanged(root.resolve(SITEMAP_INDEX), buildIndex(root));
+            }
+            if (feed) {
+                writeIfChanged(root.resolve(ARTICLES_FEED), buildFeed());
+            }
+        } catch (IOException | RuntimeException e) {
+            dirtyShards.addAll(shards);
+            if (feed) {
+                feedDirty.set(true);
+            }
+            logger.error("Échec de la génération du sitemap ou du flux des articles, nouvel essai au prochain passage", e);
+        }
+    }
+
+    /**
+     * Récupère un fichier généré à servir.
+     *
+     * @param relativePath {@value #SITEMAP_INDEX}, {@value #ARTICLES_FEED} ou "sitemaps/&lt;section&gt;-&lt;n&gt;.xml".
+     * @return Le fichier et ses métadonnées, ou vide s'il n'existe pas (ou si le chemin n'est pas reconnu).
+     */
+    public Optional<StaticFile> find(String relativePath) {
+        String contentType;
+        if (relativePath.equals(SITEMAP_INDEX)) {
+            contentType = "application/xml";
+        } else if (relativePath.equals(ARTICLES_FEED)) {
+            contentType = "application/atom+xml";
+        } else if (relativePath.startsWith(SITEMAP_DIRECTORY + "/")
+                   && SHARD_FILE.matcher(relativePath.substring(SITEMAP_DIRECTORY.length() + 1)).matches()) {
+            contentType = "application/xml";
+        } else {
+            return Optional.empty();
+        }
+
+        Path path = Paths.get(staticDir).resolve(relativePath);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(attributes.size()) + "\"";
+            return Optional.of(new StaticFile(path, contentType, etag, lastModified));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            logger.warn("Lecture impossible du fichier généré {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Régénère un fichier du sitemap, ou le supprime si son intervalle ne contient plus aucun ID.
+     *
+     * @return true si le fichier a été écrit ou supprimé (l'index, qui porte sa date, doit alors être régénéré).
+     */
+    private boolean writeShard(Path root, Shard shard) throws IOException {
+        long fromId = shard.index() * URLS_PER_SHARD;
+        long toId = fromId + URLS_PER_SHARD - 1;
+        BiFunction<Long, Long, List<Long>> query = shard.section() == Section.PROPERTIES
+                ? propertyRepository::findIdsBetween
+                : articleRepository::findIdsBetween;
+        List<Long> ids = query.apply(fromId, toId);
+
+        Path file = root.resolve(SITEMAP_DIRECTORY).resolve(shard.fileName());
+        if (ids.isEmpty()) {
+            return Files.deleteIfExists(file);
+        }
+
+        StringBuilder xml = new StringBuilder(ids.size() * 64 + 128);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        for (Long id : ids) {
+            xml.append("  <url><loc>");
+            appendXml(xml, baseUrl + shard.section().pagePath + id);
+            xml.append("</loc></url>\n");
+        }
+        xml.append("</urlset>\n");
+        return writeIfChanged(file, xml.toString());
+    }
+
+    /**
+     * Construit l'index du sitemap à partir des fichiers présents sur disque.
+     */
+    private String buildIndex(Path root) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path directory = root.resolve(SITEMAP_DIRECTORY);
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.xml")) {
+                stream.forEach(files::add);
+            }
+        }
+        files.sort(null);
+
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        for (Path file : files) {
+            Instant lastModified = Files.getLastModifiedTime(file).toInstant().truncatedTo(ChronoUnit.SECONDS);
+            xml.append("  <sitemap><loc>");
+            appendXml(xml, baseUrl + "/" + SITEMAP_DIRECTORY + "/" + file.getFileName());
+            xml.append("</loc><lastmod>").append(W3C_DATE.format(lastModified.atOffset(ZoneOffset.UTC)))
+               .append("</lastmod></sitemap>\n");
+        }
+        xml.append("</sitemapindex>\n");
+        return xml.toString();
+    }
+
+    /**
+     * Construit le flux Atom des derniers articles (résumés, sans lire les contenus).
+     */
+    private String buildFeed() {
+        List<ArticleSummaryDTO> articles = articleRepository.findSummaries(null, PageRequest.of(0, feedSize));
+        String updated = articles.stream()
+                .map(ArticleSummaryDTO::getCreationDate)
+                .filter(date -> date != null)
+                .max(LocalDateTime::compareTo)
+                .map(SitemapFeedService::formatDate)
+                .orElse("1970-01-01T00:00:00Z");
+
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<feed xmlns=\"http://www.w3.org/2005/Atom\">\n")
+           .append("  <title>");
+        appendXml(xml, feedTitle);
+        xml.append("</title>\n  <id>");
+        appendXml(xml, baseUrl + "/articles");
+        xml.append("</id>\n  <link rel=\"alternate\" href=\"");
+        appendXml(xml, baseUrl + "/articles");
+        xml.append("\"/>\n  <updated>").append(updated).append("</updated>\n");
+
+        for (ArticleSummaryDTO article : articles) {
+            String url = baseUrl + Section.ARTICLES.pagePath + article.getId();
+            String date = article.getCreationDate() == null ? updated : formatDate(article.getCreationDate());
+            xml.append("  <entry>\n    <title>");
+            appendXml(xml, article.getTitle());
+            xml.append("</title>\n    <id>");
+            appendXml(xml, url);
+            xml.append("</id>\n    <link href=\"");
+            appendXml(xml, url);
+            xml.append("\"/>\n    <published>").append(date).append("</published>\n    <updated>").append(date)
+               .append("</updated>\n    <author><name>");
+            appendXml(xml, article.getAuthor());
+            xml.append("</name></author>\n    <summary>");
+            appendXml(xml, article.getExcerpt());
+            xml.append("</summary>\n  </entry>\n");
+        }
+        xml.append("</feed>\n");
+        return xml.toString();
+    }
+
+    /**
+     * Écrit un fichier de façon atomique, sauf si son contenu est identique.
+     *
+     * @return true si le fichier a été écrit.
+     */
+    private static boolean writeIfChanged(Path file, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (Files.exists(file) && Arrays.equals(Files.readAllBytes(file), bytes)) {
+            return false;
+        }
+        Files.createDirectories(file.getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, bytes);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    private static String formatDate(LocalDateTime date) {
+        return W3C_DATE.format(date.atZone(ZoneId.systemDefault()).toOffsetDateTime().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private static void appendXml(StringBuilder xml, String text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> xml.append("&lt;");
+                case '>' -> xml.append("&gt;");
+                case '&' -> xml.append("&amp;");
+                case '"' -> xml.append("&quot;");
+                case '\'' -> xml.append("&apos;");
+                default -> {
+                    // Les caractères de contrôle sont interdits en XML 1.0.
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        xml.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
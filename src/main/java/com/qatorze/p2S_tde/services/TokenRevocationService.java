@@ -0,0 +1,195 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.models.RevokedToken;
+import com.qatorze.p2S_tde.repositories.RevokedTokenRepository;
+import com.qatorze.p2S_tde.utils.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Ensemble des tokens d'accès révoqués, vérifié à chaque vérification de token.
+ *
+ * Les révocations sont enregistrées dans la table "revoked_tokens" et leurs clés dans un {@link BloomFilter}
+ * en mémoire : pour la quasi-totalité des tokens, qui ne sont pas révoqués, la vérification est une lecture du
+ * filtre, sans requête. Seule une réponse positive du filtre (révocation réelle ou faux positif) est confirmée
+ * par une requête exacte.
+ *
+ * Chaque nœud a son propre filtre : les révocations enregistrées par les autres nœuds sont relues toutes les
+ * quelques secondes et ajoutées au filtre local. Leurs tokens sont retirés du cache des tokens vérifiés et, pour
+ * une révocation d'utilisateur (changement de rôle ou de mot de passe), l'utilisateur est retiré du cache des
+ * utilisateurs, qui servirait sinon l'ancien rôle ou l'ancien mot de passe jusqu'à l'expiration de l'entrée.
+ *
+ * Un filtre ne permet pas de retirer des clés : les révocations dont tous les tokens ont expiré sont supprimées
+ * périodiquement, et le filtre est alors reconstruit à partir des révocations restantes.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final int MIN_CAPACITY = 1024;
+    private static final String USER_KEY_PREFIX = "user:";
+    // Les révocations sont relues avec cette marge, pour les décalages d'horloge et les transactions lentes.
+    private static final long POLL_OVERLAP_MILLIS = 60 * 1000;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Value("${jwt.access-token.ttl-minutes:10}")
+    private long accessTokenTtlMinutes;
+
+    private volatile BloomFilter filter;
+    private long lastPollMillis;
+    // Révocations (clé et heure) déjà prises en compte par ce nœud pendant la marge de relecture -> heure de prise
+    // en compte. L'heure distingue deux révocations successives du même utilisateur.
+    private final Map<String, Long> knownKeys = new HashMap<>();
+
+    /**
+     * Construit le filtre au démarrage, avant que la première requête ne soit vérifiée.
+     */
+    @PostConstruct
+    public void initFilter() {
+        lastPollMillis = System.currentTimeMillis();
+        rebuild();
+    }
+
+    /**
+     * Indique si un token d'accès est révoqué.
+     *
+     * Le claim iat est à la seconde près : une révocation d'utilisateur ne vise que les tokens émis dans une
+     * seconde antérieure à celle de la révocation. Un token émis dans la même seconde (par exemple le token
+     * obtenu juste après un changement de rôle) reste valide.
+     *
+     * @param jti            L'identifiant du token (peut être null).
+     * @param userId         L'ID de l'utilisateur du token (peut être null).
+     * @param issuedAtMillis L'heure d'émission du token (claim iat), en millisecondes.
+     */
+    public boolean isRevoked(String jti, Long userId, long issuedAtMillis) {
+        BloomFilter current = filter;
+        if (jti != null && current.mightContain(jti) && revokedTokenRepository.existsByTokenKey(jti)) {
+            return true;
+        }
+        String userKey = userKeyOf(userId);
+        if (userKey == null || !current.mightContain(userKey)) {
+            return false;
+        }
+        // Révoqué si iat (en secondes) < heure de révocation (en secondes), soit revokedAt >= début de la seconde
+        // qui suit l'émission.
+        long nextSecondMillis = (Math.floorDiv(issuedAtMillis, 1000) + 1) * 1000;
+        return revokedTokenRepository.existsByTokenKeyAndRevokedAtGreaterThanEqual(userKey, nextSecondMillis);
+    }
+
+    /**
+     * Révoque un token d'accès (par exemple à la déconnexion).
+     *
+     * @param jti             L'identifiant du token.
+     * @param expiresAtMillis L'heure d'expiration du token, en millisecondes.
+     */
+    public synchronized void revokeToken(String jti, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return; // Le token a déjà expiré.
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, now, expiresAtMillis));
+        filter.add(jti);
+        knownKeys.put(revocationOf(jti, now), now);
+    }
+
+    /**
+     * Révoque tous les tokens d'accès déjà émis pour un utilisateur (par exemple après un changement de rôle) ;
+     * ses tokens suivants, obtenus avec son token de rafraîchissement, restent valides.
+     *
+     * @param userId L'ID de l'utilisateur.
+     */
+    public synchronized void revokeUser(Long userId) {
+        long now = System.currentTimeMillis();
+        // Les tokens émis avant la révocation ont tous expiré après une durée de vie (plus une marge).
+        long expiresAt = now + (accessTokenTtlMinutes + 1) * 60 * 1000;
+        String userKey = userKeyOf(userId);
+        revokedTokenRepository.save(new RevokedToken(userKey, now, expiresAt));
+        filter.add(userKey);
+        knownKeys.put(revocationOf(userKey, now), now);
+        verifiedTokenCache.invalidateUser(userId);
+    }
+
+    /**
+     * Ajoute au filtre les révocations enregistrées depuis la dernière lecture, en particulier celles des autres
+     * nœuds, et retire leurs tokens du cache des tokens vérifiés (et leurs utilisateurs du cache des utilisateurs).
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.poll-interval-ms:5000}",
+               initialDelayString = "${auth.revocation.poll-interval-ms:5000}")
+    public synchronized void pollRevocations() {
+        long now = System.currentTimeMillis();
+        List<RevokedToken> revocations = revokedTokenRepository.findRevokedSince(lastPollMillis - POLL_OVERLAP_MILLIS);
+        Set<String> revokedTokenIds = new HashSet<>();
+        for (RevokedToken revocation : revocations) {
+            String key = revocation.getTokenKey();
+            if (knownKeys.putIfAbsent(revocationOf(key, revocation.getRevokedAt()), now) != null) {
+                continue; // Déjà prise en compte (révocation locale ou lecture précédente).
+            }
+            filter.add(key);
+            if (key.startsWith(USER_KEY_PREFIX)) {
+                Long userId = Long.valueOf(key.substring(USER_KEY_PREFIX.length()));
+                verifiedTokenCache.invalidateUser(userId);
+                userCache.invalidate(userId);
+            } else {
+                revokedTokenIds.add(key);
+            }
+        }
+        if (!revokedTokenIds.isEmpty()) {
+            verifiedTokenCache.invalidateTokenIds(revokedTokenIds);
+        }
+        lastPollMillis = now;
+        // Une clé plus ancienne que la marge de relecture ne peut plus être relue.
+        knownKeys.values().removeIf(seenAt -> seenAt < now - 2 * POLL_OVERLAP_MILLIS);
+    }
+
+    /**
+     * Supprime les révocations devenues inutiles et reconstruit le filtre, qui se remplit à chaque révocation.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval-ms:600000}",
+               initialDelayString = "${auth.revocation.purge-interval-ms:600000}")
+    public void purge() {
+        int deleted = revokedTokenRepository.deleteExpired(System.currentTimeMillis());
+        if (deleted > 0 || filter.isSaturated()) {
+            rebuild();
+            logger.info("Révocations de tokens : {} révocations expirées supprimées", deleted);
+        }
+    }
+
+    private synchronized void rebuild() {
+        List<String> keys = revokedTokenRepository.findActiveKeys(System.currentTimeMillis());
+        // Capacité doublée pour absorber les révocations jusqu'à la prochaine reconstruction.
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_CAPACITY, keys.size() * 2L), FALSE_POSITIVE_RATE);
+        keys.forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    private static String revocationOf(String key, long revokedAt) {
+        return key + '@' + revokedAt;
+    }
+
+    private static String userKeyOf(Long userId) {
+        return userId == null ? null : USER_KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,274 @@
+package com.qatorze.p2S_tde.services;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.enums.PropertyCategory;
+import com.qatorze.p2S_tde.enums.PropertyType;
+import com.qatorze.p2S_tde.utils.CountMinSketch;
+import com.qatorze.p2S_tde.utils.SpaceSavingTopK;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service qui suit les propriétés tendance, les recherches et les localisations les plus demandées.
+ *
+ * Chaque flux (consultations, recherches, localisations) est suivi par un Count-Min Sketch, qui estime la
+ * fréquence de n'importe quelle clé en mémoire fixe, et par un top-K Space-Saving, qui retient les clés les plus
+ * fréquentes. Toutes les heures, les compteurs sont multipliés par un facteur de décroissance calculé à partir
+ * de la demi-vie configurée : les tendances reflètent l'activité récente sans fenêtre exacte à maintenir.
+ *
+ * Les tops sont sauvegardés dans un fichier à l'arrêt de l'application et rechargés au démarrage, ce qui permet
+ * notamment de préchauffer le cache des recherches fréquentes (voir {@link PropertyService}).
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 2048;
+    private static final byte SNAPSHOT_VERSION = 1;
+
+    @Value("${properties.trending.top-k:100}")
+    private int topK;
+
+    @Value("${properties.trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${properties.trending.hot-query-min-count:5}")
+    private double hotQueryMinCount;
+
+    @Value("${properties.trending.snapshot-file:data/trending.snapshot}")
+    private String snapshotFile;
+
+    private Tracker views;
+    private Tracker queries;
+    private Tracker locations;
+
+    /**
+     * Recherche par critères, telle qu'envoyée au filtre des propriétés, avec une clé canonique
+     * (types triés, localisation en minuscules) pour compter ensemble les recherches équivalentes.
+     * La localisation n'est pas autrement modifiée : la recherche en base est insensible à la casse seulement.
+     */
+    public record SearchQuery(List<PropertyType> types, PropertyCategory category, String location) {
+
+        private static final String SEPARATOR = "|";
+
+        public static SearchQuery of(List<PropertyType> types, PropertyCategory category, String location) {
+            List<PropertyType> sortedTypes = types == null ? List.of() : types.stream().distinct().sorted().toList();
+            return new SearchQuery(sortedTypes, category, location == null ? "" : location.trim().toLowerCase(Locale.ROOT));
+        }
+
+        public String key() {
+            return category + SEPARATOR
+                 + types.stream().map(Enum::name).collect(Collectors.joining(",")) + SEPARATOR
+                 + location;
+        }
+
+        public static SearchQuery fromKey(String key) {
+            String[] parts = key.split("\\" + SEPARATOR, 3);
+            List<PropertyType> types = parts[1].isEmpty()
+                    ? List.of()
+                    : Arrays.stream(parts[1].split(",")).map(PropertyType::valueOf).toList();
+            return new SearchQuery(types, PropertyCategory.valueOf(parts[0]), parts[2]);
+        }
+    }
+
+    /**
+     * Estimation décroissante des fréquences d'un flux de clés.
+     *
+     * Le sketch est thread-safe sans verrou ; seul le top est protégé par le moniteur du tracker. Pour ne pas
+     * le prendre à chaque consultation ou recherche, l'ensemble des clés du top et son seuil d'entrée sont
+     * republiés (champs volatiles) après chaque modification : une clé déjà dans le top ou sous le seuil ne
+     * touche que le sketch. Les compteurs du top sont ensuite resynchronisés sur le sketch lorsqu'il est lu.
+     */
+    private static final class Tracker {
+        private final CountMinSketch sketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+        private final SpaceSavingTopK<String> top;
+        private volatile Set<String> members = Set.of();
+        private volatile double threshold;
+
+        Tracker(int capacity) {
+            this.top = new SpaceSavingTopK<>(capacity);
+        }
+
+        void add(String key, double count) {
+            double estimate = sketch.add(key, count);
+            if (members.contains(key) || estimate <= threshold) {
+                return;
+            }
+            synchronized (this) {
+                // Le seuil publié peut être en retard sur le sketch : compteurs à jour avant de comparer.
+                refresh();
+                top.offer(key, sketch.estimate(key));
+                publish();
+            }
+        }
+
+        double estimate(String key) {
+            return sketch.estimate(key);
+        }
+
+        boolean isTop(String key) {
+            return members.contains(key);
+        }
+
+        synchronized List<SpaceSavingTopK.Entry<String>> top(int limit) {
+            refresh();
+            publish();
+            return top.top(limit);
+        }
+
+        synchronized void decay(double factor) {
+            sketch.decay(factor);
+            top.decay(factor);
+            refresh();
+            publish();
+        }
+
+        private void refresh() {
+            for (String key : top.keys()) {
+                top.offer(key, sketch.estimate(key));
+            }
+        }
+
+        private void publish() {
+            members = top.keys();
+            threshold = top.threshold();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        views = new Tracker(topK);
+        queries = new Tracker(topK);
+        locations = new Tracker(topK);
+        loadSnapshot();
+    }
+
+    /**
+     * Enregistre la consultation d'une propriété.
+     */
+    public void recordView(Long propertyId) {
+        views.add(String.valueOf(propertyId), 1);
+    }
+
+    /**
+     * Enregistre une recherche par critères et, le cas échéant, sa localisation.
+     */
+    public void recordSearch(List<PropertyType> types, PropertyCategory category, String location) {
+        SearchQuery query = SearchQuery.of(types, category, location);
+        queries.add(query.key(), 1);
+        if (!query.location().isEmpty()) {
+            locations.add(query.location(), 1);
+        }
+    }
+
+    /**
+     * Récupère les IDs des propriétés les plus consultées récemment.
+     */
+    public List<Long> getTrendingPropertyIds(int limit) {
+        return views.top(limit).stream().map(entry -> Long.valueOf(entry.key())).toList();
+    }
+
+    /**
+     * Récupère les localisations (en minuscules) les plus recherchées récemment.
+     */
+    public List<String> getTopLocations(int limit) {
+        return locations.top(limit).stream().map(SpaceSavingTopK.Entry::key).toList();
+    }
+
+    /**
+     * Récupère les recherches les plus fréquentes récemment.
+     */
+    public List<SearchQuery> getTopQueries(int limit) {
+        return queries.top(limit).stream().map(entry -> SearchQuery.fromKey(entry.key())).toList();
+    }
+
+    /**
+     * Indique si une recherche est assez fréquente pour que son résultat soit mis en cache :
+     * elle doit faire partie du top et sa fréquence estimée doit atteindre le seuil configuré.
+     */
+    public boolean isHotQuery(SearchQuery query) {
+        String key = query.key();
+        return queries.isTop(key) && queries.estimate(key) >= hotQueryMinCount;
+    }
+
+    /**
+     * Applique la décroissance horaire à tous les compteurs.
+     */
+    @Scheduled(cron = "0 0 * * * *")
+    public void decay() {
+        double factor = Math.pow(0.5, 1.0 / halfLifeHours);
+        views.decay(factor);
+        queries.decay(factor);
+        locations.decay(factor);
+    }
+
+    /**
+     * Sauvegarde les tops à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void saveSnapshot() {
+        Path path = Paths.get(snapshotFile);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporary))) {
+                out.writeByte(SNAPSHOT_VERSION);
+                for (Tracker tracker : List.of(views, queries, locations)) {
+                    List<SpaceSavingTopK.Entry<String>> entries = tracker.top(topK);
+                    out.writeInt(entries.size());
+                    for (SpaceSavingTopK.Entry<String> entry : entries) {
+                        out.writeUTF(entry.key());
+                        out.writeDouble(entry.count());
+                    }
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Impossible de sauvegarder les tendances dans {}", path, e);
+        }
+    }
+
+    private void loadSnapshot() {
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            if (in.readByte() != SNAPSHOT_VERSION) {
+                logger.warn("Format de sauvegarde des tendances inconnu, fichier ignoré : {}", path);
+                return;
+            }
+            for (Tracker tracker : List.of(views, queries, locations)) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    tracker.add(in.readUTF(), in.readDouble());
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Impossible de recharger les tendances depuis {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.qatorze.p2S_tde.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.qatorze.p2S_tde.dtos.UserCacheMetricsDTO;
+import com.qatorze.p2S_tde.models.User;
+import com.qatorze.p2S_tde.repositories.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache en lecture des utilisateurs, par ID et par e-mail.
+ *
+ * La connexion, l'enregistrement, le rafraîchissement des tokens et la lecture d'un profil cherchent tous un
+ * utilisateur ; le cache garde une copie immuable de ses champs ({@link CachedUser}, sans l'historique des mots de
+ * passe ni le token de réinitialisation) pendant une durée limitée, dans un LRU borné par ID, avec un index
+ * e-mail -> ID. Les écritures, elles, relisent toujours l'entité en base.
+ *
+ * Les services qui modifient ou suppriment un utilisateur appellent {@link #invalidate(Long)} ; dans une
+ * transaction, l'entrée est invalidée à nouveau après la fin de la transaction, pour qu'une lecture concurrente
+ * ne remette pas en cache la ligne d'avant le commit. Comme dans {@link VerifiedTokenCache}, un compteur de
+ * génération empêche de mettre en cache une ligne lue avant une invalidation concurrente.
+ */
+@Service
+public class UserCache {
+
+    /**
+     * Copie des champs d'un utilisateur servie par le cache.
+     *
+     * @param passwordHash Le hachage BCrypt du mot de passe courant (pour la connexion).
+     */
+    public record CachedUser(Long id, String surname, String name, String role, String email, String imagePath,
+                             String passwordHash) {}
+
+    private record Entry(CachedUser user, long expiresAtMillis) {}
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${users.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Map<Long, Entry> cache;
+    // E-mail (en minuscules) -> ID ; vérifié à chaque lecture, une entrée périmée n'est qu'un défaut de cache.
+    private final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void initCache() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxEntries) {
+                    emailIndex.remove(emailKey(eldest.getValue().user().email()), eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Cherche un utilisateur par son ID, dans le cache puis en base.
+     */
+    public Optional<CachedUser> findById(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        CachedUser cached = lookup(userId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        return load(() -> userRepository.findById(userId));
+    }
+
+    /**
+     * Cherche un utilisateur par son e-mail, dans le cache puis en base.
+     */
+    public Optional<CachedUser> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Long userId = emailIndex.get(emailKey(email));
+        CachedUser cached = userId == null ? null : lookup(userId);
+        if (cached != null && cached.email().equalsIgnoreCase(email)) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        return load(() -> userRepository.findByEmail(email));
+    }
+
+    /**
+     * Retire un utilisateur du cache (appelé après sa modification ou sa suppression).
+     *
+     * @param userId L'ID de l'utilisateur.
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return Les compteurs de succès et de défauts du cache depuis le démarrage, et son occupation.
+     */
+    public UserCacheMetricsDTO getMetrics() {
+        UserCacheMetricsDTO metrics = new UserCacheMetricsDTO();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        metrics.setHits(hitCount);
+        metrics.setMisses(missCount);
+        metrics.setHitRatio(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        metrics.setSize(cache.size());
+        metrics.setMaxEntries(maxEntries);
+        metrics.setTtlSeconds(ttlSeconds);
+        return metrics;
+    }
+
+    private CachedUser lookup(Long userId) {
+        Entry entry = cache.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            cache.remove(userId, entry);
+            return null;
+        }
+        return entry.user();
+    }
+
+    private Optional<CachedUser> load(Supplier<Optional<User>> query) {
+        long generationBefore = generation.get();
+        Optional<CachedUser> loaded = query.get().map(UserCache::snapshotOf);
+        if (loaded.isPresent() && generation.get() == generationBefore) {
+            CachedUser user = loaded.get();
+            cache.put(user.id(), new Entry(user, System.currentTimeMillis() + ttlSeconds * 1000));
+            emailIndex.put(emailKey(user.email()), user.id());
+            // Une invalidation a pu commencer entre la vérification du compteur et l'ajout.
+            if (generation.get() != generationBefore) {
+                evict(user.id());
+            }
+        }
+        return loaded;
+    }
+
+    private void evict(Long userId) {
+        generation.incrementAndGet();
+        Entry removed = cache.remove(userId);
+        if (removed != null) {
+            emailIndex.remove(emailKey(removed.user().email()), userId);
+        }
+    }
+
+    private static CachedUser snapshotOf(User user) {
+        return new CachedUser(user.getId(), user.getSurname(), user.getName(), user.getRole(), user.getEmail(),
+                              user.getImagePath(), user.getPassword());
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
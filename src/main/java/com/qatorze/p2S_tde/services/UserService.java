@@ -1,25 +1,39 @@
 package com.qatorze.p2S_tde.services;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;  
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import com.qatorze.p2S_tde.dtos.UserPageDTO;
 import com.qatorze.p2S_tde.dtos.UserResponseDTO;
 import com.qatorze.p2S_tde.dtos.UserUpdateByAdminDTO;
 import com.qatorze.p2S_tde.dtos.UserUpdateBySelfDTO;
 import com.qatorze.p2S_tde.exceptions.UserByEmailNotFoundException;
 import com.qatorze.p2S_tde.exceptions.UserByIdNotFoundException;
 import com.qatorze.p2S_tde.exceptions.UserBySurnameNotFoundException;
+import com.qatorze.p2S_tde.enums.UserSortField;
 import com.qatorze.p2S_tde.mapper.UserConverter;
 import com.qatorze.p2S_tde.models.User;
 import com.qatorze.p2S_tde.repositories.UserRepository;
+import com.qatorze.p2S_tde.utils.EmailMasking;
 
 import jakarta.transaction.Transactional;
 
 @Service
 public class UserService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_BATCH_SIZE = 1000;
     
     @Autowired
     private UserRepository userRepository;
@@ -28,66 +42,109 @@ public class UserService {
     private UserConverter userConverter;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private GlobalSearchService globalSearchService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
     
     /**
-     * Récupère tous les utilisateurs depuis la base de données et les convertit en une liste de DTO (Data Transfer Objects).
-     * 
-     * Étapes du traitement :
-     * 1. Récupération des entités `User` depuis le dépôt avec `userRepository.findAll()`.
-     *    - Cette méthode retourne une liste d'objets `User` contenant toutes les informations de la base de données.
-     * 
-     * 2. Conversion des entités `User` en objets `UserResponseDTO` :
-     *    - Utilisation de l'API Stream pour traiter chaque élément de la liste de manière fonctionnelle.
-     *    - Transformation de chaque `User` en un `UserResponseDTO` grâce au convertisseur `userConverter`.
-     * 
-     * 3. Collecte des objets transformés :
-     *    - Après transformation, les éléments du flux (Stream) sont collectés dans une liste immuable 
-     *      à l'aide de la méthode `toList()`.
-     * 
-     * Explication détaillée des méthodes utilisées :
-     * - `stream()` : Crée un flux (`Stream<User>`) à partir de la liste originale `users`. 
-     *    Permet de traiter chaque élément séquentiellement ou parallèlement.
-     * 
-     * - `map()` : Applique une fonction de transformation à chaque élément du flux.
-     *    - Ici, chaque élément `User` est transformé en un `UserResponseDTO`.
-     *    - Fonction utilisée : `user -> userConverter.convertUserToUserResponseDTO(user)`.
+     * Récupère une page de la liste des utilisateurs pour la console d'administration.
+     * Une seule requête ne lit que les colonnes de `UserResponseDTO` ; le nombre total est compté à part.
      * 
-     * - `toList()` : Collecte tous les éléments du flux transformé dans une nouvelle liste immuable.
-     *    - Retourne une liste de type `List<UserResponseDTO>`.
-     * 
-     * Utilisation :
-     * Ce procédé est essentiel pour fournir uniquement les informations nécessaires via les DTO,
-     * tout en préservant la sécurité et en respectant le principe de séparation des responsabilités.
+     * @param page Le numéro de la page (à partir de 0).
+     * @param size Le nombre d'utilisateurs par page (borné entre 1 et {@value #MAX_PAGE_SIZE}).
+     * @param sortField La colonne de tri ; l'ID départage les égalités, pour des pages stables.
+     * @param direction Le sens du tri.
+     * @return La page d'utilisateurs (emails masqués) et le nombre total d'utilisateurs et de pages.
+     */
+    public UserPageDTO getUserPage(int page, int size, UserSortField sortField, Sort.Direction direction) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Sort sort = Sort.by(direction, sortField.getProperty());
+        if (sortField != UserSortField.ID) {
+            sort = sort.and(Sort.by(direction, UserSortField.ID.getProperty()));
+        }
+
+        Page<UserResponseDTO> users = userRepository.findResponses(PageRequest.of(Math.max(0, page), pageSize, sort));
+        users.forEach(user -> user.setEmail(EmailMasking.maskEmail(user.getEmail())));
+        return new UserPageDTO(users.getContent(), users.getNumber(), users.getSize(), users.getTotalElements(),
+                               users.getTotalPages());
+    }
+
+    /**
+     * Écrit la liste de tous les utilisateurs au format CSV (UTF-8, séparateur virgule, emails masqués).
+     * Les utilisateurs sont lus par lots de {@value #EXPORT_BATCH_SIZE}, dans l'ordre des IDs, et chaque lot est
+     * envoyé avant de lire le suivant : la mémoire utilisée ne dépend pas du nombre d'utilisateurs.
      * 
-     * @return Une liste de `UserResponseDTO` contenant les informations essentielles des utilisateurs.
-     * @throws RuntimeException Si une erreur survient pendant le traitement des utilisateurs.
+     * @param output Le flux de la réponse.
+     * @throws IOException Si l'écriture échoue (par exemple si le client a interrompu le téléchargement).
      */
-    public List<UserResponseDTO> getAllUsers() {
-        // Étape 1 : Récupérer tous les utilisateurs depuis le dépôt
-        // Cette ligne interroge la base de données pour obtenir une liste d'entités User
-        List<User> users = userRepository.findAll();
-
-        // Étape 2 : Convertir chaque utilisateur en DTO
-        // `stream()` transforme la liste d'origine en un flux
-        // `map()` applique la fonction de conversion pour chaque utilisateur
-        // `toList()` collecte le résultat dans une nouvelle liste immuable
-        List<UserResponseDTO> userResponseDTOs = users.stream()
-                                                      .map(user -> userConverter.convertUserToUserResponseDTO(user)) // Conversion
-                                                      .toList(); // Collecte en liste immuable
-
-        // Étape 3 : Retourner la liste des DTO
-        return userResponseDTOs;
+    public void exportUsersCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("id,surname,name,role,email,imagePath\r\n");
+
+        List<UserResponseDTO> batch = userRepository.findResponsesAfterId(0L, PageRequest.of(0, EXPORT_BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            for (UserResponseDTO user : batch) {
+                writer.write(user.getId().toString());
+                writer.write(',');
+                writer.write(csvField(user.getSurname()));
+                writer.write(',');
+                writer.write(csvField(user.getName()));
+                writer.write(',');
+                writer.write(csvField(user.getRole()));
+                writer.write(',');
+                writer.write(csvField(EmailMasking.maskEmail(user.getEmail())));
+                writer.write(',');
+                writer.write(csvField(user.getImagePath()));
+                writer.write("\r\n");
+            }
+            writer.flush();
+            Long lastId = batch.get(batch.size() - 1).getId();
+            batch = userRepository.findResponsesAfterId(lastId, PageRequest.of(0, EXPORT_BATCH_SIZE));
+        }
+        writer.flush();
     }
 
+    /**
+     * Met en forme un champ CSV : entre guillemets s'il contient un séparateur, un guillemet ou un retour à la ligne,
+     * et précédé d'une apostrophe s'il commence comme une formule (=, +, -, @), pour qu'un tableur ne l'exécute pas.
+     */
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
     
     // Methode pour récupérer les details du User à partir de son ID
     public UserResponseDTO getUserById(Long userId) {
-        Optional<User> optUser = userRepository.findById(userId);
+        Optional<UserCache.CachedUser> optUser = userCache.findById(userId);
         if (optUser.isEmpty()) {
             throw new UserByIdNotFoundException(userId);
         }
-        return userConverter.convertUserToUserResponseDTO(optUser.get());
+        return userConverter.convertCachedUserToUserResponseDTO(optUser.get());
     }
     
     // Methode pour récupérer les details du User à partir de son surname
@@ -101,11 +158,11 @@ public class UserService {
     
  // Methode pour récupérer les details du User à partir de son email
     public UserResponseDTO getUserByEmail(String email) {
-        Optional<User> optUser = userRepository.findByEmail(email);
+        Optional<UserCache.CachedUser> optUser = userCache.findByEmail(email);
         if (optUser.isEmpty()) {
             throw new UserByEmailNotFoundException(email);
         }
-        return userConverter.convertUserToUserResponseDTO(optUser.get());
+        return userConverter.convertCachedUserToUserResponseDTO(optUser.get());
     }
 
 
@@ -132,12 +189,19 @@ public class UserService {
 
         // Salvare e restituire il DTO aggiornato
         User updatedUser = userRepository.save(user);
+        globalSearchService.indexUser(updatedUser);
+        userCache.invalidate(updatedUser.getId());
+        registeredEmailFilter.add(updatedUser.getEmail());
+        // Les tokens déjà émis portent l'ancien rôle : ils sont révoqués et le prochain rafraîchissement prend le nouveau.
+        tokenRevocationService.revokeUser(updatedUser.getId());
         return userConverter.convertUserToUserResponseDTO(updatedUser);
     }
 
 
     /**
      * Permet à un utilisateur de mettre à jour ses propres informations.
+     * Le mot de passe étant changé, toutes les sessions de l'utilisateur sont révoquées (tokens de rafraîchissement
+     * et tokens d'accès déjà émis) ; le contrôleur rouvre celle de l'appelant.
      * @param userRequestDTO Les nouvelles informations de l'utilisateur.
      * @return Un `UserResponseDTO` contenant les informations mises à jour de l'utilisateur.
      * @throws UserByIdNotFoundException Si l'utilisateur avec l'ID spécifié n'existe pas.
@@ -153,11 +217,15 @@ public class UserService {
         // Aggiornare solo i campi permessi
         user.setSurname(userUpdateDTO.getSurname());
         user.setName(userUpdateDTO.getName());
-        user.setPassword(passwordEncoder.encode(userUpdateDTO.getPassword())); // Encrypt password
+        user.setPassword(passwordHashingService.encode(userUpdateDTO.getPassword())); // Encrypt password
         user.setImagePath(userUpdateDTO.getImagePath());
 
         // Salvare e restituire il DTO aggiornato
         User updatedUser = userRepository.save(user);
+        globalSearchService.indexUser(updatedUser);
+        userCache.invalidate(updatedUser.getId());
+        refreshTokenService.revokeUser(updatedUser.getId());
+        tokenRevocationService.revokeUser(updatedUser.getId());
         return userConverter.convertUserToUserResponseDTO(updatedUser);
     }
    
@@ -169,6 +237,11 @@ public class UserService {
             throw new UserByIdNotFoundException(userId);
         }
         userRepository.delete(optUser.get());
+        favoriteService.removeUser(userId);
+        globalSearchService.removeUser(userId);
+        userCache.invalidate(userId);
+        tokenRevocationService.revokeUser(userId);
+        refreshTokenService.revokeUser(userId);
     }
     
    
@@ -0,0 +1,154 @@
+package com.qatorze.p2S_tde.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.qatorze.p2S_tde.dtos.UserResponseDTO;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache des tokens JWT déjà vérifiés.
+ *
+ * Un même token est présenté à chaque requête pendant toute sa durée de vie ; le cache garde, sous l'empreinte
+ * SHA-256 du token (jamais le token lui-même), l'utilisateur décodé et l'heure d'expiration du token. Une requête
+ * dont le token est en cache ne refait ni la vérification de la signature ni le décodage des claims. Une entrée
+ * n'est plus servie après l'expiration du token.
+ *
+ * Le cache respecte les révocations : {@link #invalidateUser(Long)} (modification ou suppression d'un compte) et
+ * {@link #invalidate(String)} obligent à revérifier les tokens concernés. Comme dans {@link ArticleResponseCache},
+ * un compteur de génération empêche de mettre en cache un token vérifié avant une invalidation concurrente.
+ */
+@Service
+public class VerifiedTokenCache {
+
+    /**
+     * Résultat de la vérification d'un token.
+     *
+     * @param user            L'utilisateur décodé des claims.
+     * @param jti             L'identifiant du token (claim jti, peut être null).
+     * @param expiresAtMillis L'heure d'expiration du token (claim exp), en millisecondes.
+     */
+    public record VerifiedToken(UserResponseDTO user, String jti, long expiresAtMillis) {}
+
+    private record Entry(UserResponseDTO user, String jti, long expiresAtMillis, long userGeneration) {}
+
+    @Value("${auth.token-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private Map<String, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+    // Génération de chaque utilisateur invalidé : les entrées d'une génération antérieure sont ignorées.
+    private final Map<Long, Long> userGenerations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initCache() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Récupère l'utilisateur d'un token depuis le cache, ou vérifie le token s'il n'y est pas.
+     *
+     * @param token    Le token JWT.
+     * @param verifier Vérifie et décode le token (appelé seulement en cas d'absence du cache) ; ses exceptions
+     *                 sont propagées et rien n'est mis en cache.
+     * @return Une copie de l'utilisateur du token.
+     */
+    public UserResponseDTO get(String token, Function<String, VerifiedToken> verifier) {
+        String key = digestOf(token);
+        long now = System.currentTimeMillis();
+        Entry cached = cache.get(key);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now && cached.userGeneration() == userGeneration(cached.user().getId())) {
+                return copyOf(cached.user());
+            }
+            cache.remove(key);
+        }
+
+        long generationBefore = generation.get();
+        VerifiedToken verified = verifier.apply(token);
+        if (verified.expiresAtMillis() > now && generation.get() == generationBefore) {
+            cache.put(key, new Entry(copyOf(verified.user()), verified.jti(), verified.expiresAtMillis(),
+                                     userGeneration(verified.user().getId())));
+            // Une invalidation a pu commencer entre la vérification du compteur et l'ajout.
+            if (generation.get() != generationBefore) {
+                cache.remove(key);
+            }
+        }
+        return verified.user();
+    }
+
+    /**
+     * Oblige à revérifier tous les tokens d'un utilisateur (appelé après la modification ou la suppression
+     * de son compte).
+     *
+     * @param userId L'ID de l'utilisateur.
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        userGenerations.merge(userId, 1L, Long::sum);
+    }
+
+    /**
+     * Retire un token du cache (appelé quand le token est révoqué).
+     *
+     * @param token Le token JWT.
+     */
+    public void invalidate(String token) {
+        generation.incrementAndGet();
+        cache.remove(digestOf(token));
+    }
+
+    /**
+     * Retire du cache les tokens de certains identifiants (appelé quand un autre nœud les a révoqués : seul
+     * le jti est alors connu, pas le token).
+     *
+     * @param tokenIds Les identifiants (claim jti) des tokens révoqués.
+     */
+    public void invalidateTokenIds(Set<String> tokenIds) {
+        generation.incrementAndGet();
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.jti() != null && tokenIds.contains(entry.jti()));
+        }
+    }
+
+    private long userGeneration(Long userId) {
+        return userId == null ? 0 : userGenerations.getOrDefault(userId, 0L);
+    }
+
+    private static UserResponseDTO copyOf(UserResponseDTO user) {
+        return new UserResponseDTO(user.getId(), user.getSurname(), user.getName(), user.getRole(), user.getEmail(),
+                                   user.getImagePath());
+    }
+
+    private static String digestOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible.", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtre de Bloom : répond en temps constant, sans accès à la base, à la question "cette clé a-t-elle pu être
+ * ajoutée ?". Une réponse négative est sûre ; une réponse positive peut être un faux positif (avec la
+ * probabilité choisie à la construction, tant que le nombre de clés prévu n'est pas dépassé) et doit être
+ * confirmée par une vérification exacte.
+ *
+ * Les clés ne peuvent pas être retirées : pour oublier des clés, on construit un nouveau filtre.
+ *
+ * Les bits sont dans un {@link AtomicLongArray} : les ajouts et les lectures peuvent être concurrents, et une clé
+ * ajoutée est visible par les lectures qui suivent l'ajout.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions   Le nombre de clés prévu.
+     * @param falsePositiveRate    La probabilité de faux positif visée à ce nombre de clés (entre 0 et 1).
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Le nombre de clés et la probabilité de faux positif sont invalides.");
+        }
+        // Taille et nombre de fonctions de hachage optimaux : m = -n ln p / (ln 2)², k = m/n ln 2.
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (bits + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.words = new AtomicLongArray((int) (bitCount / 64));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Ajoute une clé.
+     */
+    public void add(String key) {
+        long hash = hashOf(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+        insertions.increment();
+    }
+
+    /**
+     * Indique si une clé a pu être ajoutée (false : elle ne l'a certainement pas été).
+     */
+    public boolean mightContain(String key) {
+        long hash = hashOf(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indique si plus de clés que prévu ont été ajoutées (le taux de faux positifs n'est alors plus garanti).
+     */
+    public boolean isSaturated() {
+        return insertions.sum() > expectedInsertions;
+    }
+
+    /**
+     * FNV-1a 64 bits suivi d'un mélange final (murmur3), puis double hachage (h1 + i * h2) dans les appelants.
+     */
+    private static long hashOf(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
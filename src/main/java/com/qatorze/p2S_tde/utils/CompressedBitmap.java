@@ -0,0 +1,419 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Ensemble d'identifiants entiers positifs stocké sous forme de bitmap compressé (principe des "Roaring bitmaps").
+ *
+ * Les identifiants sont regroupés par blocs de 65 536 valeurs (16 bits de poids fort). Chaque bloc est stocké
+ * soit sous forme de tableau trié (jusqu'à 4 096 valeurs, 2 octets par valeur), soit sous forme de bitmap de
+ * 8 Ko lorsqu'il est plus dense. Un utilisateur avec quelques favoris occupe donc quelques octets seulement,
+ * et l'intersection de deux ensembles se fait bloc par bloc.
+ *
+ * Cette classe n'est pas thread-safe : les appelants doivent synchroniser les accès concurrents.
+ */
+public class CompressedBitmap {
+
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte ARRAY_CONTAINER = 0;
+    private static final byte BITMAP_CONTAINER = 1;
+
+    // Blocs indexés par les 16 bits de poids fort de l'identifiant.
+    private final TreeMap<Integer, Container> containers = new TreeMap<>();
+
+    /**
+     * Ajoute un identifiant.
+     *
+     * @throws IllegalArgumentException Si l'identifiant est hors de l'intervalle [0, Integer.MAX_VALUE].
+     */
+    public void add(long value) {
+        int id = checkRange(value);
+        Container container = containers.get(id >>> 16);
+        if (container == null) {
+            container = new ArrayContainer();
+        }
+        containers.put(id >>> 16, container.add((char) id));
+    }
+
+    /**
+     * Retire un identifiant.
+     */
+    public void remove(long value) {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            return;
+        }
+        int id = (int) value;
+        Container container = containers.get(id >>> 16);
+        if (container == null) {
+            return;
+        }
+        Container updated = container.remove((char) id);
+        if (updated.cardinality() == 0) {
+            containers.remove(id >>> 16);
+        } else {
+            containers.put(id >>> 16, updated);
+        }
+    }
+
+    public boolean contains(long value) {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            return false;
+        }
+        int id = (int) value;
+        Container container = containers.get(id >>> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (Container container : containers.values()) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return containers.isEmpty();
+    }
+
+    /**
+     * Calcule l'intersection avec un autre bitmap, sans modifier les deux opérandes.
+     *
+     * @return Un nouveau bitmap contenant les identifiants présents dans les deux ensembles.
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+            Container otherContainer = other.containers.get(entry.getKey());
+            if (otherContainer == null) {
+                continue;
+            }
+            Container intersection = entry.getValue().and(otherContainer);
+            if (intersection.cardinality() > 0) {
+                result.containers.put(entry.getKey(), intersection);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parcourt les identifiants dans l'ordre croissant.
+     */
+    public void forEach(LongConsumer action) {
+        for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+            long high = (long) entry.getKey() << 16;
+            entry.getValue().forEach(low -> action.accept(high | low));
+        }
+    }
+
+    /**
+     * Retourne les identifiants dans l'ordre croissant.
+     */
+    public long[] toArray() {
+        long[] values = new long[cardinality()];
+        int[] index = { 0 };
+        forEach(value -> values[index[0]++] = value);
+        return values;
+    }
+
+    /**
+     * Sérialise le bitmap dans un format binaire compact.
+     */
+    public byte[] serialize() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(containers.size());
+            for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+                out.writeChar(entry.getKey());
+                entry.getValue().write(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reconstruit un bitmap à partir de sa forme sérialisée.
+     *
+     * @param data Les octets produits par {@link #serialize()} (null ou vide pour un bitmap vide).
+     */
+    public static CompressedBitmap deserialize(byte[] data) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        if (data == null || data.length == 0) {
+            return bitmap;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Format de bitmap inconnu : " + version);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int key = in.readChar();
+                byte type = in.readByte();
+                bitmap.containers.put(key, type == BITMAP_CONTAINER ? BitmapContainer.read(in) : ArrayContainer.read(in));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bitmap;
+    }
+
+    private static int checkRange(long value) {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Identifiant hors limites pour un bitmap : " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Bloc de 65 536 valeurs possibles, identifiées par leurs 16 bits de poids faible.
+     */
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract void forEach(LongConsumer action);
+
+        abstract void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Bloc peu dense : tableau trié de valeurs.
+     */
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int size;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (size >= ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            int insertion = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, values.length * 2));
+            }
+            System.arraycopy(values, insertion, values, insertion + 1, size - insertion);
+            values[insertion] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[size];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                // Fusion de deux tableaux triés.
+                int i = 0;
+                int j = 0;
+                while (i < size && j < array.size) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        void forEach(LongConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(values[i]);
+            }
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(ARRAY_CONTAINER);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeChar(values[i]);
+            }
+        }
+
+        static ArrayContainer read(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            char[] values = new char[Math.max(4, size)];
+            for (int i = 0; i < size; i++) {
+                values[i] = in.readChar();
+            }
+            return new ArrayContainer(values, size);
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Bloc dense : bitmap de 65 536 bits.
+     */
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) == 0) {
+                words[value >>> 6] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) != 0) {
+                words[value >>> 6] &= ~mask;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX_SIZE ? toArrayContainer() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                long[] result = new long[BITMAP_WORDS];
+                int count = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] = words[i] & bitmap.words[i];
+                    count += Long.bitCount(result[i]);
+                }
+                BitmapContainer intersection = new BitmapContainer(result, count);
+                return count <= ARRAY_MAX_SIZE ? intersection.toArrayContainer() : intersection;
+            }
+            return other.and(this);
+        }
+
+        @Override
+        void forEach(LongConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(BITMAP_CONTAINER);
+            out.writeInt(cardinality);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        static BitmapContainer read(DataInputStream in) throws IOException {
+            int cardinality = in.readInt();
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] = in.readLong();
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        private ArrayContainer toArrayContainer() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int[] index = { 0 };
+            forEach(value -> values[index[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch : estime la fréquence de n'importe quelle clé dans une mémoire fixe, quel que soit le nombre
+ * de clés distinctes observées.
+ *
+ * Le sketch est une matrice de compteurs (profondeur x largeur) ; chaque ligne utilise sa propre fonction de
+ * hachage. L'estimation est le minimum des compteurs de la clé : elle ne sous-estime jamais, et surestime
+ * d'au plus e/largeur fois le total des occurrences avec une probabilité 1 - e^-profondeur.
+ *
+ * Les compteurs sont des réels pour permettre une décroissance exponentielle ({@link #decay(double)}) : les
+ * occurrences anciennes pèsent de moins en moins, ce qui donne une fenêtre glissante approximative.
+ *
+ * Cette classe est thread-safe sans verrou : chaque ligne est un {@link AtomicLongArray} (bits des réels) et
+ * chaque compteur est mis à jour par compare-and-set, si bien que deux ajouts concurrents ne se bloquent que
+ * s'ils touchent le même compteur. La mise à jour n'est pas "conservatrice" (augmenter seulement les compteurs
+ * minimaux) : entre deux threads, elle pourrait perdre des occurrences et sous-estimer. Une décroissance
+ * concurrente d'un ajout peut s'appliquer avant ou après celui-ci.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray[] rows;
+
+    /**
+     * @param depth Le nombre de fonctions de hachage (lignes).
+     * @param width Le nombre de compteurs par ligne.
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("La profondeur et la largeur du sketch doivent être positives.");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.rows = new AtomicLongArray[depth];
+        for (int row = 0; row < depth; row++) {
+            rows[row] = new AtomicLongArray(width); // 0L : bits de 0.0
+        }
+    }
+
+    /**
+     * Ajoute des occurrences d'une clé.
+     *
+     * @return La nouvelle estimation de la fréquence de la clé.
+     */
+    public double add(String key, double count) {
+        int[] columns = columnsOf(key);
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long updated = rows[row].updateAndGet(columns[row], bits -> toBits(toDouble(bits) + count));
+            estimate = Math.min(estimate, toDouble(updated));
+        }
+        return estimate;
+    }
+
+    /**
+     * Estime la fréquence d'une clé (jamais inférieure à la fréquence réelle, décroissance comprise).
+     */
+    public double estimate(String key) {
+        int[] columns = columnsOf(key);
+        double min = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, toDouble(rows[row].get(columns[row])));
+        }
+        return min;
+    }
+
+    /**
+     * Multiplie tous les compteurs par un facteur compris entre 0 et 1.
+     */
+    public void decay(double factor) {
+        for (AtomicLongArray row : rows) {
+            for (int column = 0; column < width; column++) {
+                row.updateAndGet(column, bits -> toBits(toDouble(bits) * factor));
+            }
+        }
+    }
+
+    private static double toDouble(long bits) {
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static long toBits(double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * Calcule la colonne de la clé pour chaque ligne par double hachage (h1 + i * h2) à partir d'un FNV-1a 64 bits.
+     */
+    private int[] columnsOf(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int[] columns = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            columns[row] = Math.floorMod(h1 + row * h2, width);
+        }
+        return columns;
+    }
+}
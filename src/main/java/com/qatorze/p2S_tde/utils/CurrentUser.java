@@ -0,0 +1,68 @@
+package com.qatorze.p2S_tde.utils;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.qatorze.p2S_tde.dtos.UserResponseDTO;
+
+/**
+ * Accès à l'utilisateur authentifié de la requête en cours (placé dans le contexte de sécurité par JwtCsrfFilter).
+ *
+ * Les exceptions levées sont celles de Spring Security : une requête anonyme reçoit une réponse 401, un
+ * utilisateur qui n'a pas le droit d'agir sur la ressource une réponse 403.
+ */
+public final class CurrentUser {
+
+    private static final String ADMIN_ROLE = "admin";
+
+    private CurrentUser() {
+    }
+
+    /**
+     * @return L'utilisateur authentifié, ou null si la requête est anonyme.
+     */
+    public static UserResponseDTO get() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserResponseDTO user) {
+            return user;
+        }
+        return null;
+    }
+
+    /**
+     * @return L'utilisateur authentifié.
+     * @throws AuthenticationCredentialsNotFoundException Si la requête est anonyme (401).
+     */
+    public static UserResponseDTO require() {
+        UserResponseDTO user = get();
+        if (user == null) {
+            throw new AuthenticationCredentialsNotFoundException("Authentification requise.");
+        }
+        return user;
+    }
+
+    /**
+     * Vérifie que l'utilisateur authentifié est l'utilisateur donné, ou un administrateur.
+     *
+     * @param userId L'ID de l'utilisateur propriétaire de la ressource.
+     * @return L'utilisateur authentifié.
+     * @throws AuthenticationCredentialsNotFoundException Si la requête est anonyme (401).
+     * @throws AccessDeniedException Si l'utilisateur n'est ni le propriétaire ni un administrateur (403).
+     */
+    public static UserResponseDTO requireSelfOrAdmin(Long userId) {
+        UserResponseDTO user = require();
+        if (!isAdmin(user) && (userId == null || !userId.equals(user.getId()))) {
+            throw new AccessDeniedException("Accès refusé.");
+        }
+        return user;
+    }
+
+    /**
+     * @return true si l'utilisateur a le rôle administrateur.
+     */
+    public static boolean isAdmin(UserResponseDTO user) {
+        return user != null && ADMIN_ROLE.equals(user.getRole());
+    }
+}
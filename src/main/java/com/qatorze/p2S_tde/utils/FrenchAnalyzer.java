@@ -0,0 +1,101 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Analyseur de texte français pour la recherche plein texte.
+ *
+ * Le texte est normalisé par {@link TextNormalizer} (minuscules, accents et ponctuation supprimés, ce qui
+ * sépare aussi les élisions : "l'appartement" donne "l" et "appartement"). Les mots vides et les lettres
+ * isolées sont ignorés, puis chaque mot est réduit à une racine par une racinisation légère (pluriels,
+ * féminins et quelques suffixes courants). La même analyse étant appliquée aux documents et aux requêtes,
+ * "maisons" trouve "maison" et "économique" trouve "economiques".
+ */
+public final class FrenchAnalyzer {
+
+    // Mots vides, sans accents (le texte est normalisé avant le filtrage).
+    private static final Set<String> STOP_WORDS = Set.of(
+            "au", "aux", "avec", "ce", "ces", "cet", "cette", "dans", "de", "des", "du", "elle", "elles", "en",
+            "et", "eux", "il", "ils", "je", "la", "le", "les", "leur", "leurs", "lui", "ma", "mais", "me", "meme",
+            "mes", "moi", "mon", "ne", "nos", "notre", "nous", "on", "ou", "par", "pas", "pour", "qu", "que", "qui",
+            "sa", "se", "ses", "son", "sur", "ta", "te", "tes", "toi", "ton", "tu", "un", "une", "vos", "votre",
+            "vous", "est", "sont", "ete", "etre", "avoir", "a", "ont", "y", "plus", "tres", "tout", "tous", "toute",
+            "toutes", "si", "sans", "sous", "entre", "comme", "aussi", "donc", "car", "ni", "or");
+
+    private FrenchAnalyzer() {}
+
+    /**
+     * Analyse un texte en une liste de termes (racines), dans l'ordre du texte.
+     *
+     * @param text Le texte à analyser (peut être null).
+     * @return Les termes du texte, éventuellement vide.
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : TextNormalizer.tokenize(text)) {
+            String term = analyzeToken(token);
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Analyse un mot déjà normalisé.
+     *
+     * @return La racine du mot, ou null si le mot est ignoré (mot vide ou lettre isolée).
+     */
+    public static String analyzeToken(String token) {
+        if (token.length() < 2 || STOP_WORDS.contains(token)) {
+            return null;
+        }
+        return stem(token);
+    }
+
+    /**
+     * Racinisation légère d'un mot normalisé (sans accents).
+     */
+    static String stem(String word) {
+        if (word.length() < 4 || Character.isDigit(word.charAt(0))) {
+            return word;
+        }
+        String stem = word;
+
+        // Pluriels
+        if (stem.endsWith("eaux")) {
+            stem = stem.substring(0, stem.length() - 1);
+        } else if (stem.endsWith("aux")) {
+            stem = stem.substring(0, stem.length() - 3) + "al";
+        } else if (stem.endsWith("s") || stem.endsWith("x")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        // Suffixes courants (adverbes, noms d'action, adjectifs)
+        stem = removeSuffix(stem, "issement", 5);
+        stem = removeSuffix(stem, "ement", 4);
+        stem = removeSuffix(stem, "ation", 4);
+        stem = removeSuffix(stem, "ique", 4);
+        stem = removeSuffix(stem, "euse", 4);
+        stem = removeSuffix(stem, "eux", 4);
+
+        // Féminins et doubles consonnes finales ("belle", "ancienne")
+        if (stem.length() > 4 && stem.endsWith("e")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        if (stem.length() > 4 && stem.charAt(stem.length() - 1) == stem.charAt(stem.length() - 2)
+                && Character.isLetter(stem.charAt(stem.length() - 1))) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static String removeSuffix(String word, String suffix, int minRemaining) {
+        if (word.endsWith(suffix) && word.length() - suffix.length() >= minRemaining) {
+            return word.substring(0, word.length() - suffix.length());
+        }
+        return word;
+    }
+}
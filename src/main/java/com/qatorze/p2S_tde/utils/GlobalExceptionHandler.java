@@ -1,14 +1,30 @@
 package com.qatorze.p2S_tde.utils;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus; 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.qatorze.p2S_tde.exceptions.BookingConflictException;
+import com.qatorze.p2S_tde.exceptions.InvalidBookingException;
 import com.qatorze.p2S_tde.exceptions.InvalidCredentialsException;
+import com.qatorze.p2S_tde.exceptions.InvalidRefreshTokenException;
+import com.qatorze.p2S_tde.exceptions.PasswordHashingBusyException;
 import com.qatorze.p2S_tde.exceptions.PropertiesNotFoundException;
+import com.qatorze.p2S_tde.exceptions.RateLimitExceededException;
 import com.qatorze.p2S_tde.exceptions.UserByIdNotFoundException;
 import com.qatorze.p2S_tde.exceptions.UserEmailAlreadyInUseException;
 
+/**
+ * Gestionnaires d'exceptions communs à toute l'application.
+ *
+ * En tant que {@link RestControllerAdvice}, ils s'appliquent à tous les contrôleurs REST, et pas seulement aux
+ * endpoints de réservation : une exception listée ici qui n'est pas interceptée par son contrôleur donne le
+ * statut indiqué (404, 401, 409, 429...) au lieu d'une erreur 500. Un contrôleur qui intercepte lui-même
+ * l'exception garde sa propre réponse.
+ */
+@RestControllerAdvice
 public class GlobalExceptionHandler {
 
 	/*
@@ -57,4 +73,56 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleNoPropertiesFoundException(PropertiesNotFoundException e) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
+    
+    /**
+     * Gère l'exception `BookingConflictException` pour retourner une erreur 409.
+     * @param e L'exception levée.
+     * @return Réponse avec le statut 409 et le message d'erreur.
+     */
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<String> handleBookingConflictException(BookingConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+    
+    /**
+     * Gère l'exception `InvalidBookingException` pour retourner une erreur 400.
+     * @param e L'exception levée.
+     * @return Réponse avec le statut 400 et le message d'erreur.
+     */
+    @ExceptionHandler(InvalidBookingException.class)
+    public ResponseEntity<String> handleInvalidBookingException(InvalidBookingException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+    
+    /**
+     * Gère l'exception `InvalidRefreshTokenException` pour retourner une erreur 401.
+     * @param e L'exception levée.
+     * @return Réponse avec le statut 401 et le message d'erreur.
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<String> handleInvalidRefreshTokenException(InvalidRefreshTokenException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+    }
+    
+    /**
+     * Gère l'exception `PasswordHashingBusyException` pour retourner une erreur 429.
+     * @param e L'exception levée.
+     * @return Réponse avec le statut 429, l'en-tête Retry-After et le message d'erreur.
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handlePasswordHashingBusyException(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(e.getMessage());
+    }
+    
+    /**
+     * Gère l'exception `RateLimitExceededException` pour retourner une erreur 429.
+     * @param e L'exception levée.
+     * @return Réponse avec le statut 429, l'en-tête Retry-After et le message d'erreur.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceededException(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
 }
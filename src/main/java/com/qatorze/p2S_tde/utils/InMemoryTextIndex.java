@@ -0,0 +1,190 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de recherche en mémoire pour une zone de recherche (recherche au fil de la saisie).
+ *
+ * Chaque document a quelques champs courts (titre, nom, e-mail…) avec un poids par champ, et une charge utile
+ * renvoyée avec les résultats (ce qu'il faut afficher, sans relire la base). Les champs sont découpés en mots par
+ * {@link TextNormalizer} ; un mot de la requête trouve les mots qui commencent par lui ("dup" trouve "dupont").
+ * Tous les mots de la requête doivent être trouvés.
+ *
+ * Le score est compris entre 0 et 1 et ne dépend que du document et de la requête (pas de la taille de l'index),
+ * ce qui permet de fusionner les résultats de plusieurs index : pour chaque mot de la requête, la meilleure
+ * correspondance vaut le poids relatif du champ, multiplié par 1 pour un mot exact et par 0,5 à 1 pour un préfixe
+ * selon la part du mot couverte ; le score est la moyenne sur les mots de la requête.
+ *
+ * @param <T> Le type de la charge utile des documents.
+ */
+public final class InMemoryTextIndex<T> {
+
+    // Nombre maximal de mots de l'index essayés pour un préfixe (un préfixe d'une lettre en trouverait trop).
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    /**
+     * Document trouvé, avec sa charge utile et son score (entre 0 et 1).
+     */
+    public record Hit<T>(long id, T payload, double score) {}
+
+    private record Document<T>(T payload, Set<String> terms) {}
+
+    private final float[] fieldWeights;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Mot -> (ID du document -> meilleur poids relatif des champs qui contiennent ce mot).
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Document<T>> documents = new HashMap<>();
+
+    /**
+     * @param fieldWeights Le poids de chaque champ, dans l'ordre des champs passés à {@link #put}.
+     */
+    public InMemoryTextIndex(float... fieldWeights) {
+        float max = 0;
+        for (float weight : fieldWeights) {
+            max = Math.max(max, weight);
+        }
+        this.fieldWeights = new float[fieldWeights.length];
+        for (int i = 0; i < fieldWeights.length; i++) {
+            this.fieldWeights[i] = max > 0 ? fieldWeights[i] / max : 0;
+        }
+    }
+
+    /**
+     * Ajoute ou remplace un document.
+     *
+     * @param id      L'ID du document.
+     * @param payload La charge utile renvoyée avec les résultats.
+     * @param fields  Le texte de chaque champ (peut être null), dans l'ordre des poids.
+     */
+    public void put(long id, T payload, String... fields) {
+        Map<String, Float> weights = new HashMap<>();
+        for (int i = 0; i < fields.length && i < fieldWeights.length; i++) {
+            for (String term : TextNormalizer.tokenize(fields[i])) {
+                weights.merge(term, fieldWeights[i], Math::max);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            documents.put(id, new Document<>(payload, weights.keySet()));
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un document.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Le nombre de documents indexés.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche les documents qui contiennent tous les mots (ou préfixes) de la requête.
+     *
+     * @param query La requête en texte libre.
+     * @param limit Le nombre maximal de résultats.
+     * @return Les meilleurs documents, du score le plus élevé au plus faible.
+     */
+    public List<Hit<T>> search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(TextNormalizer.tokenize(query));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<Hit<T>> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> matches = match(token);
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    Map<Long, Double> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : matches.entrySet()) {
+                        Double score = previous.get(entry.getKey());
+                        if (score != null) {
+                            scores.put(entry.getKey(), score + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                hits.add(new Hit<>(entry.getKey(), documents.get(entry.getKey()).payload(), entry.getValue() / tokens.size()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble((Hit<T> hit) -> hit.score()).reversed()
+                            .thenComparing(Hit::id, Comparator.reverseOrder()));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Meilleure correspondance de chaque document pour un mot de la requête (à appeler sous le verrou de lecture).
+     */
+    private Map<Long, Double> match(String token) {
+        Map<Long, Double> matches = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> entry
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            String term = entry.getKey();
+            double quality = term.length() == token.length() ? 1.0 : 0.5 + 0.5 * token.length() / term.length();
+            entry.getValue().forEach((id, weight) -> matches.merge(id, quality * weight, Math::max));
+            if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private void removeDocument(long id) {
+        Document<T> document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
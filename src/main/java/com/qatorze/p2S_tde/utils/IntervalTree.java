@@ -0,0 +1,205 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Arbre d'intervalles semi-ouverts [début, fin[ (bornes entières, par exemple des jours depuis l'époque).
+ *
+ * Implémenté comme un treap (arbre binaire de recherche équilibré par priorités aléatoires) trié sur
+ * (début, id), dont chaque nœud mémorise la plus grande fin de son sous-arbre. Cela permet de savoir en
+ * O(log n) en moyenne si une période chevauche un intervalle existant.
+ *
+ * Cette classe n'est pas thread-safe : les appelants doivent synchroniser les accès.
+ */
+public class IntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long id;
+        final int priority;
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long start, long end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Ajoute un intervalle [start, end[ identifié par {@code id}.
+     *
+     * @throws IllegalArgumentException Si l'intervalle est vide ou inversé.
+     */
+    public void insert(long start, long end, long id) {
+        if (end <= start) {
+            throw new IllegalArgumentException("La fin de l'intervalle doit être postérieure à son début.");
+        }
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Retire l'intervalle commençant à {@code start} et identifié par {@code id}.
+     *
+     * @return true si l'intervalle a été trouvé et retiré.
+     */
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Indique si la période [start, end[ chevauche au moins un intervalle de l'arbre.
+     */
+    public boolean overlaps(long start, long end) {
+        return overlaps(root, start, end);
+    }
+
+    /**
+     * Retire tous les intervalles terminés au plus tard à {@code limit} (fin &lt;= limit).
+     *
+     * @return Le nombre d'intervalles retirés.
+     */
+    public int removeEndingBefore(long limit) {
+        int before = size;
+        root = prune(root, limit);
+        return before - size;
+    }
+
+    private Node insert(Node node, Node created) {
+        if (node == null) {
+            return created;
+        }
+        if (compare(created.start, created.id, node) < 0) {
+            node.left = insert(node.left, created);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, created);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, id, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node prune(Node node, long limit) {
+        if (node == null) {
+            return null;
+        }
+        node.left = prune(node.left, limit);
+        node.right = prune(node.right, limit);
+        if (node.end <= limit) {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private boolean overlaps(Node node, long start, long end) {
+        if (node == null || node.maxEnd <= start) {
+            return false;
+        }
+        if (node.start < end && node.end > start) {
+            return true;
+        }
+        if (overlaps(node.left, start, end)) {
+            return true;
+        }
+        // Les intervalles du sous-arbre droit commencent après node.start : inutile de les parcourir
+        // si node.start est déjà au-delà de la fin de la période recherchée.
+        return node.start < end && overlaps(node.right, start, end);
+    }
+
+    /**
+     * Fusionne deux sous-arbres dont toutes les clés de gauche sont inférieures à celles de droite.
+     */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(id, node.id);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd > maxEnd) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > maxEnd) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+}
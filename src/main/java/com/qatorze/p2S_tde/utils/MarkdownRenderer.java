@@ -0,0 +1,592 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classe utilitaire qui convertit le contenu Markdown d'un article en HTML sûr.
+ *
+ * Seul un sous-ensemble courant de Markdown est reconnu : titres (#), paragraphes, sauts de ligne (deux espaces
+ * ou \ en fin de ligne), citations (>), listes à puces et numérotées, blocs de code (```), lignes horizontales,
+ * et dans le texte : gras, italique, barré, code, liens, images et liens automatiques (&lt;https://…&gt;).
+ *
+ * Le HTML est assaini par construction : tout le texte de l'auteur est échappé (le HTML brut n'est jamais
+ * recopié), seules les balises ci-dessus sont produites, et les URL des liens et images n'acceptent que les
+ * schémas http, https et mailto (ou une URL relative). Le résultat peut donc être inséré tel quel dans une page.
+ * Les délimiteurs sans fermeture sont affichés tels quels ; le temps de rendu reste linéaire quelle que soit
+ * l'entrée.
+ */
+public final class MarkdownRenderer {
+
+    /**
+     * Version du rendu, à incrémenter à chaque changement du HTML produit (elle fait partie des clés de cache).
+     */
+    public static final int VERSION = 2;
+
+    // Profondeur maximale des citations imbriquées ; au-delà, les ">" restent du texte.
+    private static final int MAX_QUOTE_DEPTH = 8;
+    // Profondeur maximale des mises en forme et liens imbriqués.
+    private static final int MAX_INLINE_DEPTH = 16;
+    // Longueur maximale de la destination d'un lien (URL et titre).
+    private static final int MAX_DESTINATION_LENGTH = 2048;
+
+    private static final Pattern HEADING = Pattern.compile("^ {0,3}(#{1,6})(?:[ \\t]+(.*?))?(?:[ \\t]+#+)?[ \\t]*$");
+    private static final Pattern RULE = Pattern.compile("^ {0,3}(?:(?:\\*[ \\t]*){3,}|(?:-[ \\t]*){3,}|(?:_[ \\t]*){3,})$");
+    private static final Pattern FENCE = Pattern.compile("^ {0,3}(```+|~~~+)[ \\t]*([A-Za-z0-9_+#.-]*).*$");
+    private static final Pattern QUOTE = Pattern.compile("^ {0,3}> ?(.*)$");
+    private static final Pattern BULLET = Pattern.compile("^ {0,3}[-*+][ \\t]+(.*)$");
+    private static final Pattern ORDERED = Pattern.compile("^ {0,3}(\\d{1,9})[.)][ \\t]+(.*)$");
+    private static final Pattern SCHEME = Pattern.compile("^([A-Za-z][A-Za-z0-9+.-]*):");
+    private static final String PUNCTUATION = "\\`*_{}[]()#+-.!>~|<\"'";
+
+    private MarkdownRenderer() {}
+
+    /**
+     * Convertit un texte Markdown en HTML.
+     *
+     * @param markdown Le texte Markdown (peut être null).
+     * @return Le HTML assaini, vide si le texte est null ou vide.
+     */
+    public static String render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        StringBuilder html = new StringBuilder(markdown.length() + markdown.length() / 4);
+        String[] lines = markdown.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1);
+        renderBlocks(List.of(lines), html, 0);
+        return html.toString();
+    }
+
+    // ------------------------------------------------------------------ Blocs
+
+    private static void renderBlocks(List<String> lines, StringBuilder html, int quoteDepth) {
+        int i = 0;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                i++;
+                continue;
+            }
+
+            Matcher fence = FENCE.matcher(line);
+            if (fence.matches()) {
+                i = renderCodeBlock(lines, i, fence.group(1), fence.group(2), html);
+                continue;
+            }
+
+            Matcher heading = HEADING.matcher(line);
+            if (heading.matches()) {
+                int level = heading.group(1).length();
+                html.append("<h").append(level).append('>');
+                renderInline(heading.group(2) == null ? "" : heading.group(2), html);
+                html.append("</h").append(level).append(">\n");
+                i++;
+                continue;
+            }
+
+            if (RULE.matcher(line).matches()) {
+                html.append("<hr>\n");
+                i++;
+                continue;
+            }
+
+            if (quoteDepth < MAX_QUOTE_DEPTH && QUOTE.matcher(line).matches()) {
+                List<String> quoted = new ArrayList<>();
+                Matcher quote;
+                while (i < lines.size() && (quote = QUOTE.matcher(lines.get(i))).matches()) {
+                    quoted.add(quote.group(1));
+                    i++;
+                }
+                html.append("<blockquote>\n");
+                renderBlocks(quoted, html, quoteDepth + 1);
+                html.append("</blockquote>\n");
+                continue;
+            }
+
+            if (BULLET.matcher(line).matches() || ORDERED.matcher(line).matches()) {
+                i = renderList(lines, i, html);
+                continue;
+            }
+
+            i = renderParagraph(lines, i, html, quoteDepth);
+        }
+    }
+
+    private static int renderCodeBlock(List<String> lines, int start, String marker, String language, StringBuilder html) {
+        html.append("<pre><code");
+        if (!language.isEmpty()) {
+            html.append(" class=\"language-");
+            appendEscaped(html, language, 0, language.length());
+            html.append('"');
+        }
+        html.append('>');
+        int i = start + 1;
+        while (i < lines.size() && !isClosingFence(lines.get(i), marker)) {
+            appendEscaped(html, lines.get(i), 0, lines.get(i).length());
+            html.append('\n');
+            i++;
+        }
+        html.append("</code></pre>\n");
+        return Math.min(i + 1, lines.size());
+    }
+
+    private static boolean isClosingFence(String line, String marker) {
+        String trimmed = line.strip();
+        return trimmed.length() >= marker.length() && trimmed.chars().allMatch(c -> c == marker.charAt(0));
+    }
+
+    private static int renderList(List<String> lines, int start, StringBuilder html) {
+        boolean ordered = ORDERED.matcher(lines.get(start)).matches();
+        Matcher first = ORDERED.matcher(lines.get(start));
+        if (ordered && first.matches() && !first.group(1).equals("1")) {
+            html.append("<ol start=\"").append(Integer.parseInt(first.group(1))).append("\">\n");
+        } else {
+            html.append(ordered ? "<ol>\n" : "<ul>\n");
+        }
+
+        List<StringBuilder> items = new ArrayList<>();
+        int i = start;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            Matcher item = (ordered ? ORDERED : BULLET).matcher(line);
+            if (item.matches()) {
+                items.add(new StringBuilder(item.group(ordered ? 2 : 1)));
+            } else if (!line.isBlank() && (line.startsWith("  ") || line.startsWith("\t"))
+                       && !RULE.matcher(line).matches()) {
+                // Ligne de continuation de l'élément courant (les sous-listes sont aplaties).
+                items.get(items.size() - 1).append('\n').append(line.strip());
+            } else {
+                break;
+            }
+            i++;
+        }
+
+        for (StringBuilder item : items) {
+            html.append("<li>");
+            renderInlineLines(item.toString(), html);
+            html.append("</li>\n");
+        }
+        html.append(ordered ? "</ol>\n" : "</ul>\n");
+        return i;
+    }
+
+    private static int renderParagraph(List<String> lines, int start, StringBuilder html, int quoteDepth) {
+        StringBuilder text = new StringBuilder();
+        int i = start;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                break;
+            }
+            if (i > start && startsBlock(line, quoteDepth)) {
+                break;
+            }
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(line);
+            i++;
+        }
+        html.append("<p>");
+        renderInlineLines(text.toString(), html);
+        html.append("</p>\n");
+        return i;
+    }
+
+    private static boolean startsBlock(String line, int quoteDepth) {
+        return FENCE.matcher(line).matches() || HEADING.matcher(line).matches() || RULE.matcher(line).matches()
+            || (quoteDepth < MAX_QUOTE_DEPTH && QUOTE.matcher(line).matches())
+            || BULLET.matcher(line).matches() || ORDERED.matcher(line).matches();
+    }
+
+    /**
+     * Rend un texte de plusieurs lignes : une ligne terminée par deux espaces ou par \ produit un saut de ligne.
+     */
+    private static void renderInlineLines(String text, StringBuilder html) {
+        String[] lines = text.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            boolean lastLine = i == lines.length - 1;
+            boolean hardBreak = !lastLine && (line.endsWith("  ") || line.endsWith("\\"));
+            String content = line.endsWith("\\") && !lastLine ? line.substring(0, line.length() - 1) : line;
+            renderInline(content.strip(), html);
+            if (!lastLine) {
+                html.append(hardBreak ? "<br>\n" : "\n");
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ Texte
+
+    /**
+     * Rend le texte d'une ligne (mise en forme, code, liens, images), en échappant tout le reste.
+     */
+    private static void renderInline(String text, StringBuilder html) {
+        new InlineRenderer(text, matchBrackets(text), html, 0).render(0, text.length());
+    }
+
+    /**
+     * Associe chaque crochet ouvrant à son crochet fermant (ou -1), en une seule passe.
+     */
+    private static int[] matchBrackets(String text) {
+        int[] matches = new int[text.length()];
+        int[] stack = new int[text.length()];
+        int depth = 0;
+        for (int i = 0; i < text.length(); i++) {
+            matches[i] = -1;
+            char c = text.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < text.length()) {
+                    matches[++i] = -1;
+                }
+            } else if (c == '[') {
+                stack[depth++] = i;
+            } else if (c == ']' && depth > 0) {
+                matches[stack[--depth]] = i;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Rendu du texte d'une ligne sur un intervalle donné ; le contenu d'une mise en forme ou d'un lien est rendu
+     * par un nouveau rendu (au plus {@value #MAX_INLINE_DEPTH} niveaux, au-delà le texte est échappé tel quel).
+     *
+     * Pour chaque délimiteur, l'absence de fermeture après une position est mémorisée : elle vaut aussi pour les
+     * positions suivantes, ce qui évite de rechercher à nouveau une fermeture à chaque ouverture (coût quadratique
+     * sur des entrées comme "**a **a **a …").
+     */
+    private static final class InlineRenderer {
+
+        private final String text;
+        private final int[] brackets;
+        private final StringBuilder html;
+        private final int depth;
+        // Délimiteur -> position à partir de laquelle on sait qu'il n'a plus de fermeture dans l'intervalle.
+        private final Map<String, Integer> noClosingFrom = new HashMap<>();
+
+        InlineRenderer(String text, int[] brackets, StringBuilder html, int depth) {
+            this.text = text;
+            this.brackets = brackets;
+            this.html = html;
+            this.depth = depth;
+        }
+
+        void render(int from, int to) {
+            int i = from;
+            while (i < to) {
+                char c = text.charAt(i);
+                int next = -1;
+                if (c == '\\' && i + 1 < to && PUNCTUATION.indexOf(text.charAt(i + 1)) >= 0) {
+                    appendEscaped(html, text, i + 1, i + 2);
+                    next = i + 2;
+                } else if (c == '`') {
+                    next = code(i, to);
+                } else if (c == '!' && i + 1 < to && text.charAt(i + 1) == '[') {
+                    next = linkOrImage(i + 1, to, true);
+                } else if (c == '[') {
+                    next = linkOrImage(i, to, false);
+                } else if (c == '<') {
+                    next = autolink(i, to);
+                } else if ((c == '*' || c == '_') && i + 1 < to && text.charAt(i + 1) == c) {
+                    next = delimited(i, to, text.substring(i, i + 2), "strong");
+                } else if (c == '*' || c == '_') {
+                    next = delimited(i, to, String.valueOf(c), "em");
+                } else if (c == '~' && i + 1 < to && text.charAt(i + 1) == '~') {
+                    next = delimited(i, to, "~~", "del");
+                }
+                if (next < 0) {
+                    appendEscaped(html, text, i, i + 1);
+                    next = i + 1;
+                }
+                i = next;
+            }
+        }
+
+        private void renderNested(int from, int to) {
+            if (depth >= MAX_INLINE_DEPTH) {
+                appendEscaped(html, text, from, to);
+            } else {
+                new InlineRenderer(text, brackets, html, depth + 1).render(from, to);
+            }
+        }
+
+        private boolean knownUnclosed(String marker, int position) {
+            return position >= noClosingFrom.getOrDefault(marker, Integer.MAX_VALUE);
+        }
+
+        private void markUnclosed(String marker, int position) {
+            noClosingFrom.merge(marker, position, Math::min);
+        }
+
+        private int code(int start, int to) {
+            int run = 0;
+            while (start + run < to && text.charAt(start + run) == '`') {
+                run++;
+            }
+            String marker = "`".repeat(run);
+            int close = knownUnclosed(marker, start) ? -1 : findCodeClosing(start + run, to, run);
+            if (close < 0) {
+                // Pas de fermeture de cette longueur : les accents graves sont affichés tels quels.
+                markUnclosed(marker, start);
+                appendEscaped(html, text, start, start + run);
+                return start + run;
+            }
+            html.append("<code>");
+            String content = text.substring(start + run, close);
+            if (content.length() > 1 && content.startsWith(" ") && content.endsWith(" ") && !content.isBlank()) {
+                content = content.substring(1, content.length() - 1);
+            }
+            appendEscaped(html, content, 0, content.length());
+            html.append("</code>");
+            return close + run;
+        }
+
+        /**
+         * Cherche une suite d'exactement {@code run} accents graves.
+         */
+        private int findCodeClosing(int from, int to, int run) {
+            int i = from;
+            while (i < to) {
+                if (text.charAt(i) != '`') {
+                    i++;
+                    continue;
+                }
+                int end = i;
+                while (end < to && text.charAt(end) == '`') {
+                    end++;
+                }
+                if (end - i == run) {
+                    return i;
+                }
+                i = end;
+            }
+            return -1;
+        }
+
+        private int delimited(int start, int to, String marker, String tag) {
+            int contentStart = start + marker.length();
+            if (knownUnclosed(marker, start) || contentStart >= to || Character.isWhitespace(text.charAt(contentStart))) {
+                return -1;
+            }
+            if (marker.charAt(0) == '_' && start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+                return -1; // "_" à l'intérieur d'un mot (snake_case) : pas de mise en forme.
+            }
+
+            int close = findClosing(contentStart + 1, to, marker);
+            if (close < 0) {
+                markUnclosed(marker, start);
+                return -1;
+            }
+            html.append('<').append(tag).append('>');
+            renderNested(contentStart, close);
+            html.append("</").append(tag).append('>');
+            return close + marker.length();
+        }
+
+        /**
+         * Cherche une fermeture : le délimiteur précédé d'un caractère non blanc (et, pour "_", non suivi d'une
+         * lettre). Un "*" simple ne ferme pas sur un "**".
+         */
+        private int findClosing(int from, int to, String marker) {
+            int close = text.indexOf(marker, from);
+            while (close >= 0 && close + marker.length() <= to) {
+                int after = close + marker.length();
+                if (marker.length() == 1 && after < to && text.charAt(after) == marker.charAt(0)) {
+                    close = text.indexOf(marker, after + 1); // Paire "**" dans un italique : ignorée.
+                    continue;
+                }
+                boolean valid = !Character.isWhitespace(text.charAt(close - 1)) && text.charAt(close - 1) != '\\';
+                if (marker.charAt(0) == '_' && after < to && Character.isLetterOrDigit(text.charAt(after))) {
+                    valid = false;
+                }
+                if (valid) {
+                    return close;
+                }
+                close = text.indexOf(marker, close + 1);
+            }
+            return -1;
+        }
+
+        /**
+         * Rend un lien [texte](url "titre") ou une image ![texte](url "titre") commençant au crochet ouvrant.
+         */
+        private int linkOrImage(int bracket, int to, boolean image) {
+            int labelEnd = brackets[bracket];
+            if (labelEnd < 0 || labelEnd + 1 >= to || text.charAt(labelEnd + 1) != '(') {
+                return -1;
+            }
+            int close = closingParenthesis(labelEnd + 2, to);
+            if (close < 0) {
+                return -1;
+            }
+            String target = text.substring(labelEnd + 2, close).strip();
+            String title = null;
+            int space = target.indexOf(' ');
+            if (space > 0) {
+                String rest = target.substring(space).strip();
+                if (rest.length() >= 2 && (rest.charAt(0) == '"' || rest.charAt(0) == '\'')
+                        && rest.charAt(rest.length() - 1) == rest.charAt(0)) {
+                    title = rest.substring(1, rest.length() - 1);
+                }
+                target = target.substring(0, space);
+            }
+            if (target.startsWith("<") && target.endsWith(">")) {
+                target = target.substring(1, target.length() - 1);
+            }
+
+            String url = safeUrl(target);
+            if (image) {
+                if (url == null) {
+                    // Image refusée : seul son texte alternatif est affiché.
+                    appendEscaped(html, text, bracket + 1, labelEnd);
+                    return close + 1;
+                }
+                html.append("<img src=\"");
+                appendEscaped(html, url, 0, url.length());
+                html.append("\" alt=\"");
+                appendEscaped(html, text, bracket + 1, labelEnd);
+                html.append('"');
+                appendTitle(title);
+                html.append(" loading=\"lazy\">");
+                return close + 1;
+            }
+
+            if (url == null) {
+                renderNested(bracket + 1, labelEnd);
+                return close + 1;
+            }
+            html.append("<a href=\"");
+            appendEscaped(html, url, 0, url.length());
+            html.append('"');
+            appendTitle(title);
+            html.append(" rel=\"nofollow noopener noreferrer\">");
+            renderNested(bracket + 1, labelEnd);
+            html.append("</a>");
+            return close + 1;
+        }
+
+        /**
+         * Cherche la parenthèse fermante de la destination d'un lien, en tenant compte des parenthèses
+         * équilibrées de l'URL ; la recherche est bornée à {@value #MAX_DESTINATION_LENGTH} caractères.
+         */
+        private int closingParenthesis(int from, int to) {
+            int end = Math.min(to, from + MAX_DESTINATION_LENGTH);
+            int depth = 0;
+            for (int i = from; i < end; i++) {
+                char c = text.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')' && depth-- == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void appendTitle(String title) {
+            if (title != null) {
+                html.append(" title=\"");
+                appendEscaped(html, title, 0, title.length());
+                html.append('"');
+            }
+        }
+
+        /**
+         * Rend un lien automatique &lt;https://…&gt; ou &lt;mailto:…&gt; (sans blanc ni "&lt;" avant le "&gt;").
+         */
+        private int autolink(int start, int to) {
+            int close = start + 1;
+            while (close < to && text.charAt(close) != '>') {
+                char c = text.charAt(close);
+                if (c == '<' || Character.isWhitespace(c)) {
+                    return -1;
+                }
+                close++;
+            }
+            if (close >= to) {
+                return -1;
+            }
+            String target = text.substring(start + 1, close);
+            if (!SCHEME.matcher(target).find()) {
+                return -1;
+            }
+            String url = safeUrl(target);
+            if (url == null) {
+                return -1;
+            }
+            html.append("<a href=\"");
+            appendEscaped(html, url, 0, url.length());
+            html.append("\" rel=\"nofollow noopener noreferrer\">");
+            appendEscaped(html, target, 0, target.length());
+            html.append("</a>");
+            return close + 1;
+        }
+    }
+
+    /**
+     * Vérifie l'URL d'un lien ou d'une image : schémas http, https et mailto, ou URL relative.
+     *
+     * @return L'URL acceptée, ou null si elle est refusée (javascript:, data:, schéma déguisé par une référence de
+     *         caractère comme "javascript&amp;#58;", etc.).
+     */
+    static String safeUrl(String url) {
+        // Les caractères de contrôle et les blancs sont ignorés par les navigateurs dans le schéma.
+        String cleaned = url.strip().replaceAll("[\\x00-\\x20\\x7F]", "");
+        if (cleaned.isEmpty()) {
+            return null;
+        }
+        Matcher scheme = SCHEME.matcher(cleaned);
+        if (scheme.find()) {
+            String name = scheme.group(1).toLowerCase(Locale.ROOT);
+            return name.equals("http") || name.equals("https") || name.equals("mailto") ? cleaned : null;
+        }
+        // Sans schéma explicite, un "&" avant le chemin ne peut servir qu'à déguiser un schéma (&#58;, &colon;…).
+        int ampersand = cleaned.indexOf('&');
+        if (ampersand >= 0) {
+            int pathStart = firstIndexOf(cleaned, "/?");
+            if (pathStart < 0 || ampersand < pathStart) {
+                return null;
+            }
+        }
+        // Un ":" avant "/", "?" ou "#" pourrait être interprété comme un schéma.
+        int colon = cleaned.indexOf(':');
+        if (colon >= 0) {
+            int firstSeparator = firstIndexOf(cleaned, "/?#");
+            if (firstSeparator < 0 || colon < firstSeparator) {
+                return null;
+            }
+        }
+        return cleaned;
+    }
+
+    private static int firstIndexOf(String text, String characters) {
+        for (int i = 0; i < text.length(); i++) {
+            if (characters.indexOf(text.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendEscaped(StringBuilder html, CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '&' -> html.append("&amp;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+    }
+}
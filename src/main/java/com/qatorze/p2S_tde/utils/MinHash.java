@@ -0,0 +1,146 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Calcul de signatures MinHash et de clés de bandes LSH (Locality Sensitive Hashing).
+ *
+ * Une signature MinHash résume un ensemble de "shingles" (ici des séquences de 3 mots consécutifs)
+ * en un tableau d'entiers de taille fixe. La proportion de positions identiques entre deux signatures
+ * est une estimation de la similarité de Jaccard entre les deux textes.
+ *
+ * La signature est découpée en {@code bands} bandes de {@code rows} lignes : deux textes sont candidats
+ * au doublon s'ils partagent au moins une bande identique, ce qui évite de comparer toutes les paires.
+ * Avec 16 bandes de 8 lignes, le seuil de probabilité de collision se situe autour de 0,7 de similarité.
+ */
+public final class MinHash {
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    /**
+     * @param bands Le nombre de bandes LSH.
+     * @param rows  Le nombre de lignes (fonctions de hachage) par bande.
+     */
+    public MinHash(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Le nombre de bandes et de lignes doit être positif.");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = mix64((i + 1) * GOLDEN_GAMMA);
+        }
+    }
+
+    public int getBands() {
+        return bands;
+    }
+
+    /**
+     * Calcule la signature MinHash d'un texte.
+     *
+     * @param text Le texte (titre, description, localisation concaténés).
+     * @return La signature, ou null si le texte ne contient aucun mot exploitable.
+     */
+    public int[] signature(String text) {
+        Set<Long> shingles = shingles(TextNormalizer.tokenize(text));
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) mix64(shingle ^ seeds[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Calcule la clé de hachage d'une bande de la signature.
+     * L'index de la bande est inclus dans la clé pour que deux bandes différentes ne se confondent pas.
+     *
+     * @param signature La signature MinHash.
+     * @param band      L'index de la bande (de 0 à bands - 1).
+     * @return La clé de la bande.
+     */
+    public long bandKey(int[] signature, int band) {
+        long key = mix64(band + 1L);
+        int start = band * rows;
+        for (int i = start; i < start + rows; i++) {
+            key = mix64(key ^ (signature[i] & 0xFFFFFFFFL));
+        }
+        return key;
+    }
+
+    /**
+     * Estime la similarité de Jaccard entre deux signatures.
+     *
+     * @return Une valeur entre 0 (textes différents) et 1 (textes identiques).
+     */
+    public static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / first.length;
+    }
+
+    /**
+     * Construit l'ensemble des shingles (empreintes de 3 mots consécutifs).
+     * Les textes trop courts utilisent directement leurs mots.
+     */
+    private static Set<Long> shingles(List<String> tokens) {
+        Set<Long> shingles = new HashSet<>();
+        if (tokens.size() < SHINGLE_SIZE) {
+            for (String token : tokens) {
+                shingles.add(hash64(token));
+            }
+            return shingles;
+        }
+        for (int i = 0; i + SHINGLE_SIZE <= tokens.size(); i++) {
+            long hash = 0;
+            for (int j = i; j < i + SHINGLE_SIZE; j++) {
+                hash = mix64(hash ^ hash64(tokens.get(j)));
+            }
+            shingles.add(hash);
+        }
+        return shingles;
+    }
+
+    /**
+     * Hachage FNV-1a 64 bits d'une chaîne.
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Fonction de mélange de bits (finaliseur SplitMix64).
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,104 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classe utilitaire qui construit un extrait HTML d'un texte autour des termes recherchés.
+ *
+ * L'extrait est la fenêtre de mots contenant le plus de termes recherchés. Les mots dont la racine
+ * ({@link FrenchAnalyzer}) fait partie de la requête sont entourés de {@code <mark>} ; tout le reste du texte
+ * est échappé, l'extrait peut donc être inséré tel quel dans une page.
+ */
+public final class SnippetHighlighter {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private SnippetHighlighter() {}
+
+    /**
+     * Construit l'extrait surligné d'un texte.
+     *
+     * @param text        Le texte d'origine (peut être null).
+     * @param queryTerms  Les termes analysés de la requête.
+     * @param windowWords Le nombre de mots de l'extrait.
+     * @return L'extrait HTML, précédé et/ou suivi de "…" s'il est tronqué.
+     */
+    public static String highlight(String text, Set<String> queryTerms, int windowWords) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        List<int[]> words = new ArrayList<>(); // [début, fin] de chaque mot
+        List<Boolean> matches = new ArrayList<>();
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            words.add(new int[] { matcher.start(), matcher.end() });
+            String term = FrenchAnalyzer.analyzeToken(TextNormalizer.normalize(matcher.group()));
+            matches.add(term != null && queryTerms.contains(term));
+        }
+        if (words.isEmpty()) {
+            return escape(text.substring(0, Math.min(text.length(), 200)));
+        }
+
+        // Fenêtre glissante : premier mot de la fenêtre qui contient le plus de correspondances.
+        int window = Math.min(windowWords, words.size());
+        int hits = 0;
+        for (int i = 0; i < window; i++) {
+            hits += matches.get(i) ? 1 : 0;
+        }
+        int bestStart = 0;
+        int bestHits = hits;
+        for (int start = 1; start + window <= words.size(); start++) {
+            hits += (matches.get(start + window - 1) ? 1 : 0) - (matches.get(start - 1) ? 1 : 0);
+            if (hits > bestHits) {
+                bestHits = hits;
+                bestStart = start;
+            }
+        }
+
+        int lastWord = bestStart + window - 1;
+        int from = bestStart == 0 ? 0 : words.get(bestStart)[0];
+        int to = lastWord == words.size() - 1 ? text.length() : words.get(lastWord)[1];
+
+        StringBuilder snippet = new StringBuilder();
+        if (from > 0) {
+            snippet.append("… ");
+        }
+        int position = from;
+        for (int i = bestStart; i <= lastWord; i++) {
+            int[] word = words.get(i);
+            if (matches.get(i)) {
+                snippet.append(escape(text.substring(position, word[0])))
+                       .append("<mark>").append(escape(text.substring(word[0], word[1]))).append("</mark>");
+                position = word[1];
+            }
+        }
+        snippet.append(escape(text.substring(position, to)));
+        if (to < text.length()) {
+            snippet.append(" …");
+        }
+        return snippet.toString();
+    }
+
+    /**
+     * Échappe les caractères spéciaux HTML.
+     */
+    public static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Variante de l'algorithme Space-Saving : suit les k clés les plus fréquentes d'un flux avec exactement k
+ * compteurs, guidée par une estimation externe de la fréquence (par exemple un {@link CountMinSketch}).
+ *
+ * Le compteur d'une clé suivie prend la valeur de l'estimation. Lorsque les k compteurs sont occupés, une
+ * nouvelle clé ne remplace la clé de plus petit compteur que si son estimation le dépasse : sur une longue
+ * traîne de clés rares, le top n'est pas renouvelé à chaque nouvelle clé.
+ *
+ * La recherche du minimum est linéaire : k reste petit (quelques centaines au plus). Les compteurs supportent
+ * la même décroissance exponentielle que {@link CountMinSketch}.
+ *
+ * Cette classe n'est pas thread-safe : les appelants doivent synchroniser les accès.
+ *
+ * @param <K> Le type des clés suivies.
+ */
+public class SpaceSavingTopK<K> {
+
+    /**
+     * Clé suivie, avec son compteur.
+     */
+    public record Entry<K>(K key, double count) {}
+
+    private static final class Counter {
+        double count;
+
+        Counter(double count) {
+            this.count = count;
+        }
+    }
+
+    // En dessous de ce seuil après décroissance, un compteur est libéré.
+    private static final double MIN_COUNT = 0.01;
+
+    private final int capacity;
+    private final Map<K, Counter> counters = new HashMap<>();
+
+    /**
+     * @param capacity Le nombre de clés suivies (k).
+     */
+    public SpaceSavingTopK(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacité du top-K doit être positive.");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Propose une clé avec l'estimation de sa fréquence : le compteur d'une clé suivie prend la valeur de
+     * l'estimation si elle est plus grande, une nouvelle clé entre dans le top si elle dépasse {@link #threshold()}.
+     */
+    public void offer(K key, double estimate) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count = Math.max(counter.count, estimate);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(estimate));
+            return;
+        }
+        Map.Entry<K, Counter> min = minEntry();
+        if (estimate > min.getValue().count) {
+            counters.remove(min.getKey());
+            counters.put(key, new Counter(estimate));
+        }
+    }
+
+    /**
+     * Estimation qu'une nouvelle clé doit dépasser pour entrer dans le top : le plus petit compteur, ou 0 tant
+     * que des compteurs sont libres.
+     */
+    public double threshold() {
+        return counters.size() < capacity ? 0 : minEntry().getValue().count;
+    }
+
+    /**
+     * Indique si une clé fait partie des clés suivies.
+     */
+    public boolean contains(K key) {
+        return counters.containsKey(key);
+    }
+
+    /**
+     * Retourne une copie des clés suivies.
+     */
+    public Set<K> keys() {
+        return Set.copyOf(counters.keySet());
+    }
+
+    /**
+     * Retourne les clés suivies les plus fréquentes, par compteur décroissant.
+     *
+     * @param limit Le nombre maximal de clés.
+     */
+    public List<Entry<K>> top(int limit) {
+        List<Entry<K>> entries = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> entries.add(new Entry<>(key, counter.count)));
+        entries.sort(Comparator.comparingDouble((Entry<K> entry) -> entry.count()).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * Multiplie tous les compteurs par un facteur compris entre 0 et 1 et libère ceux devenus négligeables.
+     */
+    public void decay(double factor) {
+        Iterator<Counter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            Counter counter = iterator.next();
+            counter.count *= factor;
+            if (counter.count < MIN_COUNT) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    private Map.Entry<K, Counter> minEntry() {
+        Map.Entry<K, Counter> min = null;
+        for (Map.Entry<K, Counter> entry : counters.entrySet()) {
+            if (min == null || entry.getValue().count < min.getValue().count) {
+                min = entry;
+            }
+        }
+        return min;
+    }
+}
@@ -0,0 +1,72 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Classe utilitaire pour compresser du texte avec Deflate (java.util.zip, sans dépendance externe).
+ * Le texte est encodé en UTF-8 avant compression ; la taille décompressée est connue de l'appelant,
+ * ce qui permet d'allouer le tampon de sortie en une fois.
+ */
+public final class TextCompressor {
+
+    private TextCompressor() {}
+
+    /**
+     * Compresse un texte.
+     *
+     * @param text Le texte à compresser (non null).
+     * @return Les octets compressés.
+     */
+    public static byte[] compress(String text) {
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Décompresse un texte.
+     *
+     * @param compressed     Les octets produits par {@link #compress(String)}.
+     * @param originalLength La taille en octets du texte encodé en UTF-8.
+     * @return Le texte d'origine.
+     * @throws IllegalStateException Si les données sont corrompues.
+     */
+    public static String decompress(byte[] compressed, int originalLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] output = new byte[originalLength];
+            int length = 0;
+            while (length < originalLength && !inflater.finished()) {
+                int inflated = inflater.inflate(output, length, originalLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != originalLength) {
+                throw new IllegalStateException("Texte compressé tronqué : " + length + "/" + originalLength + " octets.");
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Texte compressé corrompu.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
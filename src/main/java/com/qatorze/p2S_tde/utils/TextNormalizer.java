@@ -0,0 +1,55 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Classe utilitaire pour normaliser du texte libre avant comparaison ou indexation :
+ * passage en minuscules, suppression des accents et de la ponctuation.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private TextNormalizer() {}
+
+    /**
+     * Normalise un texte : minuscules, sans accents, ponctuation remplacée par des espaces.
+     * Exemple : "Villa à Douala-Bonapriso !" devient "villa a douala bonapriso".
+     *
+     * @param text Le texte à normaliser (peut être null).
+     * @return Le texte normalisé, ou une chaîne vide si le texte est null.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String withoutAccents = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Découpe un texte normalisé en mots.
+     *
+     * @param text Le texte à découper (peut être null).
+     * @return La liste des mots, éventuellement vide.
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return tokens;
+        }
+        for (String token : normalized.split(" ")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,75 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limiteur de débit à seaux de jetons, un seau par clé (adresse IP, e-mail…).
+ *
+ * Chaque seau contient au plus {@code capacity} jetons et se remplit d'un jeton tous les {@code refillInterval}.
+ * Le seau n'est pas stocké sous forme de compteur + date : on ne garde que "l'heure à laquelle le seau sera de
+ * nouveau plein" (algorithme GCRA, équivalent au seau de jetons). Une requête est donc une seule lecture et une
+ * seule écriture atomique (compare-and-set) sur un {@link AtomicLong}, sans verrou : des requêtes concurrentes sur
+ * des clés différentes ne se gênent pas, et sur la même clé elles se départagent par une nouvelle tentative.
+ *
+ * Un seau dont l'heure est passée est plein, donc identique à un seau absent : {@link #evictIdle(long)} le
+ * supprime sans rien perdre.
+ */
+public class TokenBucketLimiter {
+
+    private final long refillIntervalNanos;
+    private final long toleranceNanos;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity            Le nombre maximal de jetons (rafale autorisée).
+     * @param refillIntervalNanos Le délai de remplissage d'un jeton, en nanosecondes.
+     */
+    public TokenBucketLimiter(int capacity, long refillIntervalNanos) {
+        if (capacity <= 0 || refillIntervalNanos <= 0) {
+            throw new IllegalArgumentException("La capacité et le délai de remplissage doivent être positifs.");
+        }
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.toleranceNanos = refillIntervalNanos * (capacity - 1);
+    }
+
+    /**
+     * Prend un jeton dans le seau d'une clé.
+     *
+     * @param key      La clé du seau.
+     * @param nowNanos L'heure actuelle ({@link System#nanoTime()}).
+     * @return 0 si un jeton a été pris, sinon le délai avant qu'un jeton soit disponible, en nanosecondes.
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        while (true) {
+            long fullAt = bucket.get();
+            // Heure théorique de la prochaine requête conforme : le seau ne se remplit pas au-delà de sa capacité.
+            long theoreticalArrival = fullAt - nowNanos > 0 ? fullAt : nowNanos;
+            long wait = theoreticalArrival - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, theoreticalArrival + refillIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Supprime les seaux pleins (aucune requête récente).
+     *
+     * @param nowNanos L'heure actuelle ({@link System#nanoTime()}).
+     */
+    public void evictIdle(long nowNanos) {
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - nowNanos <= 0);
+    }
+
+    /**
+     * @return Le nombre de seaux en mémoire.
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,176 @@
+package com.qatorze.p2S_tde.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Journal binaire en ajout seul (append-only) d'événements de consultation, découpé en segments de taille fixe
+ * projetés en mémoire (memory-mapped).
+ *
+ * Chaque événement occupe 16 octets : l'ID de la propriété puis l'horodatage en millisecondes. Un segment est
+ * pré-alloué et rempli de zéros : le premier enregistrement dont l'ID vaut 0 marque la fin des données, ce qui
+ * permet de relire un segment interrompu par un arrêt brutal. Les écritures vont dans le cache de pages du
+ * système, elles survivent donc à un arrêt de la JVM ; {@link #rotate()} force leur écriture sur disque.
+ *
+ * Les segments sont nommés "views-&lt;numéro&gt;.log". Un seul segment est actif à la fois ; les autres sont
+ * scellés et attendent d'être agrégés puis supprimés.
+ */
+public class ViewEventLog implements AutoCloseable {
+
+    public static final int RECORD_SIZE = 16;
+
+    private static final String PREFIX = "views-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private Path activeSegment;
+    private long nextSequence;
+
+    /**
+     * Ouvre le journal dans un répertoire. Les segments déjà présents (y compris un segment actif lors d'un arrêt
+     * précédent) sont considérés comme scellés ; un nouveau segment actif est créé.
+     *
+     * @param directory   Le répertoire des segments (créé si nécessaire).
+     * @param segmentSize La taille d'un segment en octets (arrondie à un multiple de 16).
+     */
+    public ViewEventLog(Path directory, int segmentSize) {
+        if (segmentSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("La taille d'un segment doit être d'au moins " + RECORD_SIZE + " octets.");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        try {
+            Files.createDirectories(directory);
+            List<Path> existing = listSegments();
+            nextSequence = existing.isEmpty() ? 0 : sequenceOf(existing.get(existing.size() - 1)) + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        openNewSegment();
+    }
+
+    /**
+     * Ajoute un événement au segment actif, en changeant de segment s'il est plein.
+     *
+     * @param propertyId  L'ID de la propriété consultée (strictement positif).
+     * @param epochMillis L'horodatage de la consultation.
+     */
+    public synchronized void append(long propertyId, long epochMillis) {
+        if (propertyId <= 0) {
+            throw new IllegalArgumentException("L'ID de la propriété doit être strictement positif.");
+        }
+        if (activeBuffer.remaining() < RECORD_SIZE) {
+            sealActive();
+            openNewSegment();
+        }
+        activeBuffer.putLong(propertyId);
+        activeBuffer.putLong(epochMillis);
+    }
+
+    /**
+     * Scelle le segment actif s'il contient des événements et en ouvre un nouveau.
+     *
+     * @return La liste triée de tous les segments scellés, prêts à être agrégés.
+     */
+    public synchronized List<Path> rotate() {
+        if (activeBuffer.position() > 0) {
+            sealActive();
+            openNewSegment();
+        }
+        try {
+            List<Path> sealed = listSegments();
+            sealed.remove(activeSegment);
+            return sealed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Relit les événements d'un segment scellé.
+     *
+     * @param segment Le fichier du segment.
+     * @param visitor Appelé pour chaque événement, dans l'ordre d'écriture.
+     */
+    public static void read(Path segment, EventVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size() - channel.size() % RECORD_SIZE;
+            if (size == 0) {
+                return;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while (buffer.remaining() >= RECORD_SIZE) {
+                long propertyId = buffer.getLong();
+                long epochMillis = buffer.getLong();
+                if (propertyId == 0) {
+                    break; // Zone pré-allouée jamais écrite : fin des données.
+                }
+                visitor.visit(propertyId, epochMillis);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        sealActive();
+    }
+
+    private void openNewSegment() {
+        activeSegment = directory.resolve(PREFIX + String.format("%012d", nextSequence++) + SUFFIX);
+        try {
+            activeChannel = FileChannel.open(activeSegment,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sealActive() {
+        if (activeChannel == null) {
+            return;
+        }
+        try {
+            activeBuffer.force();
+            activeChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            activeChannel = null;
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList());
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Reçoit les événements lus dans un segment.
+     */
+    @FunctionalInterface
+    public interface EventVisitor {
+        void visit(long propertyId, long epochMillis);
+    }
+}
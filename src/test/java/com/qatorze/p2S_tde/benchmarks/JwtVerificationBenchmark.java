@@ -0,0 +1,98 @@
+package com.qatorze.p2S_tde.benchmarks;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+
+/**
+ * Compare la vérification d'un token d'accès ES256 avec un vérificateur construit à chaque appel (l'ancien
+ * chemin) et avec le vérificateur déjà construit de la clé (le chemin de JwtKeyRing et JwtService : décodage une
+ * seule fois, vérificateur pris dans la table de la clé).
+ *
+ * Lancement : mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *             -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtVerificationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String ACCESS_TOKEN_TYPE = "access";
+    private static final String KID = "benchmark-key";
+
+    private Algorithm verification;
+    private String token;
+    private final Map<String, JWTVerifier> verifiers = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        Algorithm signing = Algorithm.ECDSA256((ECPublicKey) keyPair.getPublic(), (ECPrivateKey) keyPair.getPrivate());
+        verification = Algorithm.ECDSA256((ECPublicKey) keyPair.getPublic(), null);
+
+        // Même forme qu'un token d'accès émis par JwtService.
+        token = JWT.create()
+                .withKeyId(KID)
+                .withJWTId(UUID.randomUUID().toString())
+                .withClaim("typ", ACCESS_TOKEN_TYPE)
+                .withClaim("id", 42L)
+                .withClaim("surname", "Dupont")
+                .withClaim("name", "Marie")
+                .withClaim("role", "user")
+                .withClaim("email", "marie.dupont@example.com")
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .sign(signing);
+    }
+
+    /**
+     * Vérificateur construit à chaque appel, token décodé deux fois (pour le kid, puis par verify).
+     */
+    @Benchmark
+    public DecodedJWT perCallVerifier() {
+        String kid = JWT.decode(token).getKeyId();
+        if (!KID.equals(kid)) {
+            throw new IllegalStateException(kid);
+        }
+        return JWT.require(verification).withClaim("typ", ACCESS_TOKEN_TYPE).build().verify(token);
+    }
+
+    /**
+     * Vérificateur construit une fois par clé, token décodé une seule fois.
+     */
+    @Benchmark
+    public DecodedJWT prebuiltVerifier() {
+        DecodedJWT decodedJWT = JWT.decode(token);
+        return verifiers.computeIfAbsent(decodedJWT.getKeyId(),
+                                         kid -> JWT.require(verification).withClaim("typ", ACCESS_TOKEN_TYPE).build())
+                        .verify(decodedJWT);
+    }
+}
@@ -0,0 +1,102 @@
+package com.qatorze.p2S_tde.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qatorze.p2S_tde.services.AuthRateLimiter;
+import com.qatorze.p2S_tde.utils.TokenBucketLimiter;
+
+/**
+ * Mesure le coût d'une tentative dans {@link TokenBucketLimiter#tryAcquire(String, long)} et dans
+ * {@link AuthRateLimiter#check(String, String, String)}, avec plusieurs threads :
+ * - sans contention : chaque thread a sa propre adresse IP et son propre e-mail (des seaux différents) ;
+ * - avec contention : tous les threads prennent leurs jetons dans les mêmes seaux (compare-and-set disputé).
+ *
+ * Les seaux sont assez grands pour que les tentatives soient acceptées : c'est le chemin mesuré (un refus ne
+ * fait qu'une lecture et lève une exception).
+ *
+ * Lancement : mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *             -Dexec.args="-cp %classpath org.openjdk.jmh.Main RateLimiterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final String SHARED_KEY = "login|203.0.113.7";
+    private static final String SHARED_IP = "203.0.113.7";
+    private static final String SHARED_EMAIL = "marie.dupont@example.com";
+
+    private TokenBucketLimiter limiter;
+    private AuthRateLimiter authRateLimiter;
+
+    /**
+     * Clés propres à chaque thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+
+        private static final AtomicInteger nextThread = new AtomicInteger();
+
+        String key;
+        String ipAddress;
+        String email;
+
+        @Setup
+        public void setUp() {
+            int thread = nextThread.incrementAndGet();
+            ipAddress = "198.51.100." + thread;
+            key = "login|" + ipAddress;
+            email = "user" + thread + "@example.com";
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        limiter = new TokenBucketLimiter(Integer.MAX_VALUE, 1);
+
+        authRateLimiter = new AuthRateLimiter();
+        ReflectionTestUtils.setField(authRateLimiter, "ipCapacity", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(authRateLimiter, "ipRefillPerMinute", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(authRateLimiter, "emailCapacity", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(authRateLimiter, "emailRefillPerMinute", Integer.MAX_VALUE);
+        authRateLimiter.init();
+    }
+
+    @Benchmark
+    public long tryAcquireUncontended(ThreadKeys keys) {
+        return limiter.tryAcquire(keys.key, System.nanoTime());
+    }
+
+    @Benchmark
+    public long tryAcquireContended() {
+        return limiter.tryAcquire(SHARED_KEY, System.nanoTime());
+    }
+
+    @Benchmark
+    public void checkUncontended(ThreadKeys keys) {
+        authRateLimiter.check(AuthRateLimiter.LOGIN, keys.ipAddress, keys.email);
+    }
+
+    @Benchmark
+    public void checkContended() {
+        authRateLimiter.check(AuthRateLimiter.LOGIN, SHARED_IP, SHARED_EMAIL);
+    }
+}
@@ -0,0 +1,163 @@
+package com.qatorze.p2S_tde.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qatorze.p2S_tde.models.Article;
+import com.qatorze.p2S_tde.repositories.ArticleRepository;
+
+class ArticleSearchIndexTest {
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2026, 10, 1, 9, 30, 0, 125_000_000);
+
+    @TempDir
+    Path directory;
+
+    // Table "articles" simulée, par ID.
+    private final Map<Long, Article> table = new TreeMap<>();
+    private ArticleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ArticleRepository.class);
+        lenient().when(repository.count()).thenAnswer(invocation -> (long) table.size());
+        lenient().when(repository.findMaxId()).thenAnswer(invocation ->
+                table.isEmpty() ? null : ((TreeMap<Long, Article>) table).lastKey());
+        lenient().when(repository.findMaxModificationDate()).thenAnswer(invocation -> table.values().stream()
+                .map(Article::getModificationDate).filter(date -> date != null)
+                .max(LocalDateTime::compareTo).orElse(null));
+        lenient().when(repository.findWithBodyAfterId(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            return new ArrayList<>(table.values().stream().filter(article -> article.getId() > afterId).toList());
+        });
+        lenient().when(repository.findWithBodyByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return table.values().stream().filter(article -> ids.contains(article.getId())).toList();
+        });
+
+        save(new Article(1L, "Rénovation énergétique", "Isolation des combles", List.of(), MODIFIED, "Marie"));
+        save(new Article(2L, "Marché immobilier", "Les prix des appartements", List.of(), MODIFIED, "Paul"));
+    }
+
+    @Test
+    void reloadsAnUpToDateIndexWithoutRebuilding() throws Exception {
+        ArticleSearchIndex first = startIndex();
+        first.persist();
+
+        ArticleSearchIndex second = startIndex();
+
+        assertThat(hitIds(second, "isolation")).containsExactly(1L);
+        // Seul le premier index a lu la table ; le second n'a lu que le fichier.
+        verify(repository, times(1)).findWithBodyAfterId(eq(0L), any());
+    }
+
+    @Test
+    void rebuildsWhenAnArticleWasModifiedAfterTheLastSave() throws Exception {
+        ArticleSearchIndex first = startIndex();
+        first.persist();
+
+        // Modification enregistrée (ici ou sur un autre nœud) mais absente du fichier : même nombre d'articles.
+        Article edited = new Article(2L, "Marché immobilier", "Les prix des maisons", List.of(), MODIFIED, "Paul");
+        edited.setModificationDate(MODIFIED.plusMinutes(1));
+        save(edited);
+
+        ArticleSearchIndex second = startIndex();
+
+        assertThat(hitIds(second, "maisons")).containsExactly(2L);
+        assertThat(hitIds(second, "appartements")).isEmpty();
+    }
+
+    @Test
+    void rebuildsWhenAnArticleWasReplacedAfterTheLastSave() throws Exception {
+        ArticleSearchIndex first = startIndex();
+        first.persist();
+
+        table.remove(1L);
+        save(new Article(3L, "Jardin", "Potager en ville", List.of(), MODIFIED, "Marie"));
+
+        ArticleSearchIndex second = startIndex();
+
+        assertThat(hitIds(second, "potager")).containsExactly(3L);
+        assertThat(hitIds(second, "isolation")).isEmpty();
+    }
+
+    @Test
+    void keepsWritesMadeWhileTheSavedIndexIsLoading() throws Exception {
+        ArticleSearchIndex first = startIndex();
+        first.persist();
+
+        ArticleSearchIndex second = newIndex();
+        // Chargement déclaré (comme au démarrage) : une écriture arrive avant que le fichier soit mis en place.
+        ReflectionTestUtils.setField(second, "rebuilding", true);
+        Article edited = table.get(1L);
+        edited.setContent("Isolation des murs");
+        second.index(edited);
+        ReflectionTestUtils.invokeMethod(second, "install",
+                (Object) ReflectionTestUtils.invokeMethod(second, "load"));
+
+        assertThat(hitIds(second, "murs")).containsExactly(1L);
+        assertThat(hitIds(second, "combles")).isEmpty();
+    }
+
+    @Test
+    void returnsAnEmptyPageBeyondTheLastHit() throws Exception {
+        ArticleSearchIndex index = startIndex();
+
+        ArticleSearchIndex.SearchResult result = index.search("isolation", Integer.MAX_VALUE, 100);
+
+        assertThat(result.hits()).isEmpty();
+        assertThat(result.totalHits()).isEqualTo(1);
+    }
+
+    private ArticleSearchIndex startIndex() throws InterruptedException {
+        ArticleSearchIndex index = newIndex();
+        index.loadAtStartup();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        // Le thread de chargement a fini quand l'index est en place et sauvegardé.
+        while (((boolean) ReflectionTestUtils.getField(index, "rebuilding")
+                || (boolean) ReflectionTestUtils.getField(index, "dirty")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return index;
+    }
+
+    private ArticleSearchIndex newIndex() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        ReflectionTestUtils.setField(index, "articleRepository", repository);
+        ReflectionTestUtils.setField(index, "indexFile", directory.resolve("article-search.idx").toString());
+        return index;
+    }
+
+    private void save(Article article) {
+        if (article.getModificationDate() == null) {
+            article.setModificationDate(MODIFIED);
+        }
+        table.put(article.getId(), article);
+    }
+
+    private static List<Long> hitIds(ArticleSearchIndex index, String query) {
+        return index.search(query, 0, 10).hits().stream().map(ArticleSearchIndex.Hit::articleId).toList();
+    }
+}
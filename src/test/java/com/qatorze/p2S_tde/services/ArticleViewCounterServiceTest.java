@@ -0,0 +1,55 @@
+package com.qatorze.p2S_tde.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.qatorze.p2S_tde.repositories.ArticleViewsRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleViewCounterServiceTest {
+
+    @Mock
+    private ArticleViewsRepository articleViewsRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ArticleViewCounterService articleViewCounterService;
+
+    @Test
+    void flushesAccumulatedViews() {
+        articleViewCounterService.increment(1L);
+        articleViewCounterService.increment(1L);
+        articleViewCounterService.increment(2L);
+
+        articleViewCounterService.flush();
+
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(anyString(), arguments.capture());
+        assertThat(arguments.getValue()).containsExactlyInAnyOrder(1L, 2L, 2L, 1L);
+    }
+
+    @Test
+    void doesNotWriteViewsOfADeletedArticle() {
+        articleViewCounterService.increment(1L);
+        articleViewCounterService.remove(1L);
+        // Lecture commencée avant la suppression et terminée après.
+        articleViewCounterService.increment(1L);
+
+        articleViewCounterService.flush();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,140 @@
+package com.qatorze.p2S_tde.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.qatorze.p2S_tde.dtos.UserResponseDTO;
+import com.qatorze.p2S_tde.enums.PropertyCategory;
+import com.qatorze.p2S_tde.exceptions.BookingConflictException;
+import com.qatorze.p2S_tde.exceptions.InvalidBookingException;
+import com.qatorze.p2S_tde.models.Booking;
+import com.qatorze.p2S_tde.models.Property;
+import com.qatorze.p2S_tde.repositories.BookingRepository;
+import com.qatorze.p2S_tde.repositories.PropertyRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    private static final Long PROPERTY_ID = 7L;
+    private static final Long OWNER_ID = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private final AtomicLong nextBookingId = new AtomicLong(100);
+    private LocalDate arrival;
+
+    @BeforeEach
+    void setUp() {
+        arrival = LocalDate.now().plusDays(10);
+        Property property = new Property();
+        property.setId(PROPERTY_ID);
+        property.setCategory(PropertyCategory.LOUER);
+        // Stubs partagés : les tests de validation échouent avant de lire la propriété.
+        lenient().when(propertyRepository.findById(PROPERTY_ID)).thenReturn(Optional.of(property));
+        lenient().when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(nextBookingId.getAndIncrement());
+            return booking;
+        });
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void booksFreePeriodsAndRecordsTheOwner() {
+        Booking first = availabilityService.book(PROPERTY_ID, OWNER_ID, arrival, arrival.plusDays(3));
+        // Arrivée le jour du départ précédent : pas de chevauchement.
+        Booking second = availabilityService.book(PROPERTY_ID, 2L, arrival.plusDays(3), arrival.plusDays(5));
+
+        assertThat(first.getUserId()).isEqualTo(OWNER_ID);
+        assertThat(second.getUserId()).isEqualTo(2L);
+        assertThat(availabilityService.isAvailable(PROPERTY_ID, arrival, arrival.plusDays(1))).isFalse();
+        assertThat(availabilityService.isAvailable(PROPERTY_ID, arrival.plusDays(5), arrival.plusDays(6))).isTrue();
+    }
+
+    @Test
+    void rejectsOverlappingBookingWithoutSavingIt() {
+        availabilityService.book(PROPERTY_ID, OWNER_ID, arrival, arrival.plusDays(3));
+
+        assertThatThrownBy(() -> availabilityService.book(PROPERTY_ID, 2L, arrival.plusDays(2), arrival.plusDays(4)))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessageContaining(String.valueOf(PROPERTY_ID));
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    void cancelledPeriodCanBeBookedAgain() {
+        Booking booking = availabilityService.book(PROPERTY_ID, OWNER_ID, arrival, arrival.plusDays(3));
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        authenticate(OWNER_ID, "user");
+
+        availabilityService.cancel(booking.getId());
+
+        verify(bookingRepository).delete(booking);
+        assertThat(availabilityService.book(PROPERTY_ID, 2L, arrival, arrival.plusDays(3))).isNotNull();
+    }
+
+    @Test
+    void onlyTheOwnerOrAnAdminCanCancel() {
+        Booking booking = availabilityService.book(PROPERTY_ID, OWNER_ID, arrival, arrival.plusDays(3));
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        authenticate(2L, "user");
+        assertThatThrownBy(() -> availabilityService.cancel(booking.getId())).isInstanceOf(AccessDeniedException.class);
+        verify(bookingRepository, never()).delete(any(Booking.class));
+        assertThat(availabilityService.isAvailable(PROPERTY_ID, arrival, arrival.plusDays(3))).isFalse();
+
+        authenticate(3L, "admin");
+        availabilityService.cancel(booking.getId());
+        verify(bookingRepository).delete(booking);
+    }
+
+    @Test
+    void rejectsInvalidPeriods() {
+        assertThatThrownBy(() -> availabilityService.book(PROPERTY_ID, OWNER_ID, arrival, arrival))
+                .isInstanceOf(InvalidBookingException.class);
+        assertThatThrownBy(() -> availabilityService.book(PROPERTY_ID, OWNER_ID, LocalDate.now().minusDays(1),
+                                                          arrival))
+                .isInstanceOf(InvalidBookingException.class);
+    }
+
+    private static void authenticate(Long userId, String role) {
+        UserResponseDTO user = new UserResponseDTO(userId, "Nom", "Prénom", role, "user" + userId + "@example.com",
+                                                   null);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+}
@@ -0,0 +1,130 @@
+package com.qatorze.p2S_tde.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qatorze.p2S_tde.models.UserFavorites;
+import com.qatorze.p2S_tde.repositories.PropertyRepository;
+import com.qatorze.p2S_tde.repositories.UserFavoritesRepository;
+import com.qatorze.p2S_tde.repositories.UserRepository;
+import com.qatorze.p2S_tde.utils.CompressedBitmap;
+
+@ExtendWith(MockitoExtension.class)
+class FavoriteServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private UserFavoritesRepository userFavoritesRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @InjectMocks
+    private FavoriteService favoriteService;
+
+    // Ligne "user_favorites" simulée (copie à chaque lecture, comme une entité détachée).
+    private final AtomicReference<UserFavorites> row = new AtomicReference<>();
+    // Écriture d'un autre nœud, faite juste avant la prochaine écriture de ce nœud.
+    private Runnable concurrentWrite;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(favoriteService, "maxCachedUsers", 100);
+        favoriteService.initCache();
+        lenient().when(userRepository.existsById(USER_ID)).thenReturn(true);
+        lenient().when(propertyRepository.existsById(anyLong())).thenReturn(true);
+        lenient().when(userFavoritesRepository.findById(USER_ID)).thenAnswer(invocation -> Optional.ofNullable(row.get())
+                .map(stored -> copy(stored, stored.getBitmap(), stored.getVersion())));
+        lenient().when(userFavoritesRepository.saveAndFlush(any(UserFavorites.class))).thenAnswer(invocation -> {
+            if (concurrentWrite != null) {
+                Runnable write = concurrentWrite;
+                concurrentWrite = null;
+                write.run();
+            }
+            UserFavorites written = invocation.getArgument(0);
+            UserFavorites stored = row.get();
+            Long storedVersion = stored == null ? null : stored.getVersion();
+            if (!Objects.equals(written.getVersion(), storedVersion)) {
+                throw new ObjectOptimisticLockingFailureException(UserFavorites.class, USER_ID);
+            }
+            UserFavorites saved = copy(written, written.getBitmap(), storedVersion == null ? 0L : storedVersion + 1);
+            row.set(saved);
+            return copy(saved, saved.getBitmap(), saved.getVersion());
+        });
+    }
+
+    @Test
+    void addsAndRemovesFavorites() {
+        favoriteService.addFavorite(USER_ID, 3L);
+        favoriteService.addFavorite(USER_ID, 5L);
+        favoriteService.removeFavorite(USER_ID, 3L);
+
+        assertThat(stored()).containsExactly(5L);
+        assertThat(row.get().getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void retriesOnAConcurrentWriteInsteadOfOverwritingIt() {
+        favoriteService.addFavorite(USER_ID, 3L);
+        // Un autre nœud ajoute la propriété 9 pendant que ce nœud ajoute la propriété 5.
+        concurrentWrite = () -> {
+            CompressedBitmap other = CompressedBitmap.deserialize(row.get().getBitmap());
+            other.add(9L);
+            row.set(copy(row.get(), other.serialize(), row.get().getVersion() + 1));
+        };
+
+        favoriteService.addFavorite(USER_ID, 5L);
+
+        assertThat(stored()).containsExactly(3L, 5L, 9L);
+    }
+
+    @Test
+    void readsDoNotSeeAFailedWrite() {
+        favoriteService.addFavorite(USER_ID, 3L);
+        when(userFavoritesRepository.saveAndFlush(any(UserFavorites.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(UserFavorites.class, USER_ID));
+
+        assertThatThrownBy(() -> favoriteService.addFavorite(USER_ID, 5L))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        // Le bitmap en cache n'a pas été modifié par l'écriture abandonnée.
+        when(propertyRepository.findAllById(any())).thenAnswer(invocation -> {
+            assertThat(invocation.<Iterable<Long>>getArgument(0)).containsExactly(3L);
+            return List.of();
+        });
+        favoriteService.getFavoriteProperties(USER_ID);
+    }
+
+    private long[] stored() {
+        return CompressedBitmap.deserialize(row.get().getBitmap()).toArray();
+    }
+
+    private static UserFavorites copy(UserFavorites source, byte[] bitmap, Long version) {
+        UserFavorites copy = new UserFavorites(source.getUserId(), bitmap.clone(), LocalDateTime.now());
+        copy.setVersion(version);
+        return copy;
+    }
+}
@@ -0,0 +1,150 @@
+package com.qatorze.p2S_tde.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qatorze.p2S_tde.exceptions.InvalidRefreshTokenException;
+import com.qatorze.p2S_tde.models.RefreshToken;
+import com.qatorze.p2S_tde.repositories.RefreshTokenRepository;
+import com.qatorze.p2S_tde.services.RefreshTokenService.IssuedRefreshToken;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final Long USER_ID = 42L;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    // Table "refresh_tokens" simulée : empreinte -> token.
+    private final Map<String, RefreshToken> table = new HashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenTtlDays", 14L);
+        ReflectionTestUtils.setField(refreshTokenService, "maxFamilyAgeDays", 30L);
+        lenient().when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId(nextId.getAndIncrement());
+            table.put(token.getTokenHash(), token);
+            return token;
+        });
+        lenient().when(refreshTokenRepository.findByTokenHash(anyString()))
+                 .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        lenient().when(refreshTokenRepository.markUsed(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            for (RefreshToken token : table.values()) {
+                if (token.getId().equals(id) && !token.isUsed()) {
+                    token.setUsed(true);
+                    return 1;
+                }
+            }
+            return 0;
+        });
+        lenient().when(refreshTokenRepository.deleteByFamilyId(anyString())).thenAnswer(invocation -> {
+            String familyId = invocation.getArgument(0);
+            int before = table.size();
+            table.values().removeIf(token -> token.getFamilyId().equals(familyId));
+            return before - table.size();
+        });
+    }
+
+    @Test
+    void rotatesWithinTheSameFamily() {
+        IssuedRefreshToken issued = refreshTokenService.issue(USER_ID);
+
+        IssuedRefreshToken rotated = refreshTokenService.rotate(issued.token());
+
+        assertThat(rotated.token()).isNotEqualTo(issued.token());
+        assertThat(rotated.userId()).isEqualTo(USER_ID);
+        assertThat(table.values()).extracting(RefreshToken::getFamilyId).containsOnly(
+                table.values().iterator().next().getFamilyId());
+        // Les tokens ne sont stockés que sous forme d'empreinte.
+        assertThat(table).doesNotContainKeys(issued.token(), rotated.token());
+    }
+
+    @Test
+    void reuseOfARotatedTokenRevokesTheWholeFamily() {
+        IssuedRefreshToken stolen = refreshTokenService.issue(USER_ID);
+        IssuedRefreshToken legitimate = refreshTokenService.rotate(stolen.token());
+        IssuedRefreshToken otherSession = refreshTokenService.issue(USER_ID);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(stolen.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        // Le token le plus récent de la famille est aussi révoqué ; les autres connexions ne sont pas touchées.
+        assertThatThrownBy(() -> refreshTokenService.rotate(legitimate.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(refreshTokenService.rotate(otherSession.token()).userId()).isEqualTo(USER_ID);
+    }
+
+    @Test
+    void rejectsUnknownBlankAndExpiredTokens() {
+        assertThatThrownBy(() -> refreshTokenService.rotate(null)).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(" ")).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate("inconnu"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        IssuedRefreshToken issued = refreshTokenService.issue(USER_ID);
+        table.values().forEach(token -> token.setExpiresAt(System.currentTimeMillis() - 1));
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void revokeDeletesTheFamily() {
+        IssuedRefreshToken issued = refreshTokenService.issue(USER_ID);
+        IssuedRefreshToken rotated = refreshTokenService.rotate(issued.token());
+
+        refreshTokenService.revoke(rotated.token());
+
+        assertThat(table).isEmpty();
+        assertThatThrownBy(() -> refreshTokenService.rotate(rotated.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void rotationNeverExtendsAFamilyBeyondItsMaximumAge() {
+        IssuedRefreshToken issued = refreshTokenService.issue(USER_ID);
+        // Connexion il y a 20 jours : le token suivant expire à la fin des 30 jours, pas 14 jours plus tard.
+        long familyCreatedAt = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(20);
+        table.values().forEach(token -> token.setFamilyCreatedAt(familyCreatedAt));
+
+        IssuedRefreshToken rotated = refreshTokenService.rotate(issued.token());
+
+        assertThat(rotated.expiresAtMillis()).isEqualTo(familyCreatedAt + TimeUnit.DAYS.toMillis(30));
+    }
+
+    @Test
+    void rejectsAndDeletesAFamilyOlderThanItsMaximumAge() {
+        IssuedRefreshToken issued = refreshTokenService.issue(USER_ID);
+        table.values().forEach(token -> token.setFamilyCreatedAt(
+                System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30)));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(table).isEmpty();
+    }
+}
@@ -0,0 +1,146 @@
+package com.qatorze.p2S_tde.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qatorze.p2S_tde.models.RevokedToken;
+import com.qatorze.p2S_tde.repositories.RevokedTokenRepository;
+
+class TokenRevocationServiceTest {
+
+    // Table "revoked_tokens" partagée par les deux nœuds simulés.
+    private final List<RevokedToken> table = new ArrayList<>();
+    private RevokedTokenRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        lenient().when(repository.save(any(RevokedToken.class))).thenAnswer(invocation -> {
+            table.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        lenient().when(repository.findActiveKeys(anyLong())).thenAnswer(invocation -> table.stream()
+                .filter(token -> token.getExpiresAt() > invocation.<Long>getArgument(0))
+                .map(RevokedToken::getTokenKey).toList());
+        lenient().when(repository.findRevokedSince(anyLong())).thenAnswer(invocation -> table.stream()
+                .filter(token -> token.getRevokedAt() >= invocation.<Long>getArgument(0)).toList());
+        lenient().when(repository.existsByTokenKey(anyString())).thenAnswer(invocation -> table.stream()
+                .anyMatch(token -> token.getTokenKey().equals(invocation.getArgument(0))));
+        lenient().when(repository.existsByTokenKeyAndRevokedAtGreaterThanEqual(anyString(), anyLong()))
+                 .thenAnswer(invocation -> table.stream()
+                         .anyMatch(token -> token.getTokenKey().equals(invocation.getArgument(0))
+                                            && token.getRevokedAt() >= invocation.<Long>getArgument(1)));
+    }
+
+    @Test
+    void userRevocationAppliesToTokensIssuedInEarlierSecondsOnly() {
+        TokenRevocationService node = newNode(mock(VerifiedTokenCache.class), mock(UserCache.class));
+
+        node.revokeUser(7L);
+
+        long revokedAt = table.get(0).getRevokedAt();
+        long revokedSecond = revokedAt / 1000 * 1000;
+        assertThat(node.isRevoked(null, 7L, revokedSecond - 1000)).isTrue();
+        assertThat(node.isRevoked(null, 7L, revokedSecond - 1)).isTrue();
+        // iat est tronqué à la seconde : un token émis dans la seconde de la révocation reste valide.
+        assertThat(node.isRevoked(null, 7L, revokedSecond)).isFalse();
+        assertThat(node.isRevoked(null, 7L, revokedSecond + 1000)).isFalse();
+        assertThat(node.isRevoked(null, 8L, revokedSecond - 1000)).isFalse();
+    }
+
+    @Test
+    void tokenRevocationAppliesWhateverTheIssueTime() {
+        TokenRevocationService node = newNode(mock(VerifiedTokenCache.class), mock(UserCache.class));
+
+        node.revokeToken("jti-1", System.currentTimeMillis() + 60_000);
+
+        assertThat(node.isRevoked("jti-1", 7L, System.currentTimeMillis())).isTrue();
+        assertThat(node.isRevoked("jti-2", 7L, System.currentTimeMillis())).isFalse();
+    }
+
+    @Test
+    void expiredTokensAreNotRecorded() {
+        TokenRevocationService node = newNode(mock(VerifiedTokenCache.class), mock(UserCache.class));
+
+        node.revokeToken("jti-1", System.currentTimeMillis() - 1);
+
+        assertThat(table).isEmpty();
+    }
+
+    @Test
+    void otherNodesSeeRevocationsAfterPolling() {
+        VerifiedTokenCache remoteCache = mock(VerifiedTokenCache.class);
+        UserCache remoteUserCache = mock(UserCache.class);
+        TokenRevocationService local = newNode(mock(VerifiedTokenCache.class), mock(UserCache.class));
+        TokenRevocationService remote = newNode(remoteCache, remoteUserCache);
+
+        local.revokeUser(7L);
+        local.revokeToken("jti-1", System.currentTimeMillis() + 60_000);
+        long issuedBefore = table.get(0).getRevokedAt() / 1000 * 1000 - 1000;
+
+        // Le filtre du nœud distant ne connaît pas encore ces clés : pas de requête, pas de révocation.
+        assertThat(remote.isRevoked("jti-1", 7L, issuedBefore)).isFalse();
+
+        remote.pollRevocations();
+
+        assertThat(remote.isRevoked(null, 7L, issuedBefore)).isTrue();
+        assertThat(remote.isRevoked("jti-1", null, System.currentTimeMillis())).isTrue();
+        verify(remoteCache).invalidateUser(7L);
+        verify(remoteUserCache).invalidate(7L);
+        verify(remoteCache).invalidateTokenIds(Set.of("jti-1"));
+    }
+
+    @Test
+    void pollingSeesASecondRevocationOfTheSameUser() {
+        UserCache remoteUserCache = mock(UserCache.class);
+        TokenRevocationService local = newNode(mock(VerifiedTokenCache.class), mock(UserCache.class));
+        TokenRevocationService remote = newNode(mock(VerifiedTokenCache.class), remoteUserCache);
+        local.revokeUser(7L);
+        remote.pollRevocations();
+
+        // Deuxième révocation (par exemple une réinitialisation du mot de passe après un changement de rôle).
+        table.add(new RevokedToken("user:7", table.get(0).getRevokedAt() + 1, table.get(0).getExpiresAt() + 1));
+        remote.pollRevocations();
+
+        verify(remoteUserCache, times(2)).invalidate(7L);
+    }
+
+    @Test
+    void pollingSkipsKeysAlreadyKnown() {
+        VerifiedTokenCache cache = mock(VerifiedTokenCache.class);
+        TokenRevocationService node = newNode(cache, mock(UserCache.class));
+        node.revokeUser(7L);
+
+        node.pollRevocations();
+        node.pollRevocations();
+
+        // Seule l'invalidation faite par revokeUser : la relecture ne la répète pas.
+        verify(cache).invalidateUser(7L);
+        verify(cache, never()).invalidateTokenIds(any());
+    }
+
+    private TokenRevocationService newNode(VerifiedTokenCache cache, UserCache userCache) {
+        TokenRevocationService node = new TokenRevocationService();
+        ReflectionTestUtils.setField(node, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(node, "verifiedTokenCache", cache);
+        ReflectionTestUtils.setField(node, "userCache", userCache);
+        ReflectionTestUtils.setField(node, "accessTokenTtlMinutes", 10L);
+        node.initFilter();
+        return node;
+    }
+}
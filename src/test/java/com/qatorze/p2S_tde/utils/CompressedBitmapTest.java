@@ -0,0 +1,142 @@
+package com.qatorze.p2S_tde.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedBitmapTest {
+
+    // Au-delà de 4 096 valeurs, un bloc passe du tableau trié au bitmap.
+    private static final int DENSE_BLOCK_SIZE = 5000;
+
+    @Test
+    void addsRemovesAndContains() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(3);
+        bitmap.add(70_000);
+        bitmap.add(3);
+
+        assertThat(bitmap.contains(3)).isTrue();
+        assertThat(bitmap.contains(70_000)).isTrue();
+        assertThat(bitmap.contains(4)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(2);
+
+        bitmap.remove(3);
+        bitmap.remove(12345);
+        assertThat(bitmap.contains(3)).isFalse();
+        assertThat(bitmap.toArray()).containsExactly(70_000);
+
+        bitmap.remove(70_000);
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void handlesRangeLimits() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(0);
+        bitmap.add(Integer.MAX_VALUE);
+
+        assertThat(bitmap.toArray()).containsExactly(0, Integer.MAX_VALUE);
+        assertThat(bitmap.contains(-1)).isFalse();
+        assertThat(bitmap.contains(Integer.MAX_VALUE + 1L)).isFalse();
+        assertThatThrownBy(() -> bitmap.add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bitmap.add(Integer.MAX_VALUE + 1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void switchesBetweenArrayAndBitmapBlocks() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < DENSE_BLOCK_SIZE; i++) {
+            bitmap.add(i * 2L);
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(DENSE_BLOCK_SIZE);
+        assertThat(bitmap.contains(9998)).isTrue();
+        assertThat(bitmap.contains(9997)).isFalse();
+
+        for (int i = 0; i < DENSE_BLOCK_SIZE - 10; i++) {
+            bitmap.remove(i * 2L);
+        }
+        assertThat(bitmap.toArray()).containsExactly(9980, 9982, 9984, 9986, 9988, 9990, 9992, 9994, 9996, 9998);
+    }
+
+    @Test
+    void intersectsWithoutModifyingOperands() {
+        CompressedBitmap sparse = new CompressedBitmap();
+        CompressedBitmap dense = new CompressedBitmap();
+        sparse.add(5);
+        sparse.add(100_000);
+        sparse.add(200_000);
+        for (int i = 0; i < DENSE_BLOCK_SIZE; i++) {
+            dense.add(i);
+        }
+        dense.add(100_000);
+
+        CompressedBitmap intersection = sparse.and(dense);
+
+        assertThat(intersection.toArray()).containsExactly(5, 100_000);
+        assertThat(sparse.cardinality()).isEqualTo(3);
+        assertThat(dense.cardinality()).isEqualTo(DENSE_BLOCK_SIZE + 1);
+        assertThat(sparse.and(new CompressedBitmap()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void serializesAndDeserializes() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(1);
+        bitmap.add(65_536);
+        for (int i = 0; i < DENSE_BLOCK_SIZE; i++) {
+            bitmap.add(1_000_000L + i);
+        }
+
+        CompressedBitmap copy = CompressedBitmap.deserialize(bitmap.serialize());
+
+        assertThat(copy.toArray()).isEqualTo(bitmap.toArray());
+        assertThat(CompressedBitmap.deserialize(null).isEmpty()).isTrue();
+        assertThat(CompressedBitmap.deserialize(new byte[0]).isEmpty()).isTrue();
+        assertThat(CompressedBitmap.deserialize(new CompressedBitmap().serialize()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        byte[] data = new CompressedBitmap().serialize();
+        data[0] = 99;
+
+        assertThatThrownBy(() -> CompressedBitmap.deserialize(data)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesTreeSetOnRandomOperations() {
+        Random random = new Random(7);
+        CompressedBitmap bitmap = new CompressedBitmap();
+        CompressedBitmap other = new CompressedBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+        TreeSet<Long> expectedOther = new TreeSet<>();
+
+        for (int operation = 0; operation < 50_000; operation++) {
+            // Valeurs concentrées sur quelques blocs, pour passer par les deux représentations.
+            long value = random.nextInt(3) * 65_536L + random.nextInt(12_000);
+            if (random.nextInt(3) == 0) {
+                bitmap.remove(value);
+                expected.remove(value);
+            } else {
+                bitmap.add(value);
+                expected.add(value);
+            }
+            if (random.nextBoolean()) {
+                other.add(value + 1);
+                expectedOther.add(value + 1);
+            }
+        }
+
+        assertThat(bitmap.toArray()).isEqualTo(expected.stream().mapToLong(Long::longValue).toArray());
+        TreeSet<Long> expectedIntersection = new TreeSet<>(expected);
+        expectedIntersection.retainAll(expectedOther);
+        assertThat(bitmap.and(other).toArray())
+                .isEqualTo(expectedIntersection.stream().mapToLong(Long::longValue).toArray());
+        assertThat(CompressedBitmap.deserialize(bitmap.serialize()).toArray()).isEqualTo(bitmap.toArray());
+    }
+}
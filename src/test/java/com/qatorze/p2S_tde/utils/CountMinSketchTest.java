@@ -0,0 +1,93 @@
+package com.qatorze.p2S_tde.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+    @Test
+    void neverUnderestimatesAndStaysWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(4, 512);
+        Random random = new Random(42);
+        int keys = 5_000;
+        long[] counts = new long[keys];
+        long total = 0;
+        for (int i = 0; i < keys; i++) {
+            counts[i] = 1 + random.nextInt(20);
+            sketch.add("key-" + i, counts[i]);
+            total += counts[i];
+        }
+
+        // Surestimation d'au plus e/largeur x total avec une probabilité 1 - e^-4 (environ 98 %).
+        double bound = Math.E / 512 * total;
+        int outOfBound = 0;
+        for (int i = 0; i < keys; i++) {
+            double estimate = sketch.estimate("key-" + i);
+            assertThat(estimate).as("key-%d", i).isGreaterThanOrEqualTo(counts[i]);
+            if (estimate - counts[i] > bound) {
+                outOfBound++;
+            }
+        }
+        assertThat((double) outOfBound / keys).isLessThan(0.05);
+    }
+
+    @Test
+    void decayScalesEstimates() {
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        sketch.add("paris", 100);
+        sketch.add("lyon", 10);
+
+        sketch.decay(0.5);
+        sketch.decay(0.5);
+
+        assertThat(sketch.estimate("paris")).isCloseTo(25, within(1e-9));
+        assertThat(sketch.estimate("lyon")).isCloseTo(2.5, within(1e-9));
+        // Les occurrences ajoutées après la décroissance comptent pleinement.
+        assertThat(sketch.add("lyon", 1)).isCloseTo(3.5, within(1e-9));
+    }
+
+    @Test
+    void losesNoConcurrentAddition() throws InterruptedException {
+        int threads = 8;
+        int perThread = 10_000;
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    sketch.add("42", 1);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Une seule clé : pas de collision, l'estimation est exacte.
+        assertThat(sketch.estimate("42")).isEqualTo((double) threads * perThread);
+    }
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThatThrownBy(() -> new CountMinSketch(0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CountMinSketch(4, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.qatorze.p2S_tde.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+    @Test
+    void detectsOverlapsOfHalfOpenIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+
+        assertThat(tree.overlaps(10, 20)).isTrue();
+        assertThat(tree.overlaps(5, 11)).isTrue();
+        assertThat(tree.overlaps(19, 25)).isTrue();
+        assertThat(tree.overlaps(12, 15)).isTrue();
+        assertThat(tree.overlaps(0, 100)).isTrue();
+        // Départ le jour d'une arrivée, arrivée le jour d'un départ : pas de chevauchement.
+        assertThat(tree.overlaps(5, 10)).isFalse();
+        assertThat(tree.overlaps(20, 25)).isFalse();
+    }
+
+    @Test
+    void emptyTreeOverlapsNothing() {
+        IntervalTree tree = new IntervalTree();
+
+        assertThat(tree.isEmpty()).isTrue();
+        assertThat(tree.overlaps(Long.MIN_VALUE, Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void rejectsEmptyOrReversedIntervals() {
+        IntervalTree tree = new IntervalTree();
+
+        assertThatThrownBy(() -> tree.insert(10, 10, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tree.insert(10, 5, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(tree.size()).isZero();
+    }
+
+    @Test
+    void removesByStartAndId() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+        tree.insert(10, 15, 2);
+
+        assertThat(tree.remove(10, 3)).isFalse();
+        assertThat(tree.remove(11, 1)).isFalse();
+        assertThat(tree.remove(10, 1)).isTrue();
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlaps(16, 20)).isFalse();
+        assertThat(tree.overlaps(14, 16)).isTrue();
+    }
+
+    @Test
+    void removesIntervalsEndingBeforeLimit() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1, 5, 1);
+        tree.insert(3, 10, 2);
+        tree.insert(10, 12, 3);
+
+        assertThat(tree.removeEndingBefore(10)).isEqualTo(2);
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlaps(0, 10)).isFalse();
+        assertThat(tree.overlaps(11, 12)).isTrue();
+    }
+
+    @Test
+    void matchesBruteForceOnRandomOperations() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>(); // {début, fin, id}
+
+        for (int operation = 0; operation < 20_000; operation++) {
+            int kind = random.nextInt(10);
+            if (kind < 4) {
+                long start = random.nextInt(1000);
+                long[] interval = {start, start + 1 + random.nextInt(30), operation};
+                tree.insert(interval[0], interval[1], interval[2]);
+                intervals.add(interval);
+            } else if (kind < 6 && !intervals.isEmpty()) {
+                long[] interval = intervals.remove(random.nextInt(intervals.size()));
+                assertThat(tree.remove(interval[0], interval[2])).isTrue();
+            } else if (kind == 6) {
+                long limit = random.nextInt(1000);
+                int expected = (int) intervals.stream().filter(interval -> interval[1] <= limit).count();
+                intervals.removeIf(interval -> interval[1] <= limit);
+                assertThat(tree.removeEndingBefore(limit)).isEqualTo(expected);
+            } else {
+                long start = random.nextInt(1050);
+                long end = start + 1 + random.nextInt(30);
+                boolean expected = intervals.stream().anyMatch(interval -> interval[0] < end && start < interval[1]);
+                assertThat(tree.overlaps(start, end)).as("overlaps(%d, %d)", start, end).isEqualTo(expected);
+            }
+            assertThat(tree.size()).isEqualTo(intervals.size());
+        }
+    }
+}
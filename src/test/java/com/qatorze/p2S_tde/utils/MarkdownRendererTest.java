@@ -0,0 +1,175 @@
+package com.qatorze.p2S_tde.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MarkdownRendererTest {
+
+    // Une entrée de cette taille prendrait des minutes avec un rendu quadratique.
+    private static final int PATHOLOGICAL_LENGTH = 200_000;
+    private static final Duration LINEAR_TIME_BUDGET = Duration.ofSeconds(5);
+
+    @Test
+    void rendersBasicMarkdown() {
+        assertThat(MarkdownRenderer.render("# Titre\n\nDu **gras**, de l'*italique* et du `code`."))
+                .isEqualTo("<h1>Titre</h1>\n<p>Du <strong>gras</strong>, de l&#39;<em>italique</em> et du "
+                           + "<code>code</code>.</p>\n");
+    }
+
+    @Test
+    void escapesRawHtml() {
+        String html = MarkdownRenderer.render("<script>alert(1)</script>\n\n<img src=x onerror=alert(1)>");
+
+        assertThat(html).doesNotContain("<script").doesNotContain("<img")
+                        .contains("&lt;script&gt;alert(1)&lt;/script&gt;")
+                        .contains("&lt;img src=x onerror=alert(1)&gt;");
+    }
+
+    @Test
+    void escapesHtmlInCodeAndHeadings() {
+        assertThat(MarkdownRenderer.render("```\n<b>&</b>\n```")).contains("&lt;b&gt;&amp;&lt;/b&gt;");
+        assertThat(MarkdownRenderer.render("## <i>titre</i>")).isEqualTo("<h2>&lt;i&gt;titre&lt;/i&gt;</h2>\n");
+    }
+
+    @Test
+    void acceptsSafeLinks() {
+        assertThat(MarkdownRenderer.render("[site](https://example.com/a?b=1&c=2)"))
+                .isEqualTo("<p><a href=\"https://example.com/a?b=1&amp;c=2\" rel=\"nofollow noopener noreferrer\">"
+                           + "site</a></p>\n");
+        assertThat(MarkdownRenderer.render("[page](/articles/12)")).contains("href=\"/articles/12\"");
+        assertThat(MarkdownRenderer.render("[écrire](mailto:contact@example.com)"))
+                .contains("href=\"mailto:contact@example.com\"");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "javascript:alert(1)",
+        "JavaScript:alert(1)",
+        "data:text/html;base64,PHNjcmlwdD5hbGVydCgxKTwvc2NyaXB0Pg==",
+        "vbscript:msgbox(1)",
+        " javascript:alert(1)",
+        "java\tscript:alert(1)",
+        "java\u0000script:alert(1)",
+        "java\u001Fscript:alert(1)",
+        "javascript\u007F:alert(1)"
+    })
+    void rejectsDangerousSchemesInLinks(String url) {
+        String html = MarkdownRenderer.render("[clic](" + url + ")");
+
+        assertThat(html).doesNotContain("<a").contains("clic");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "javascript:alert(1)",
+        "data:image/svg+xml;base64,PHN2Zz48L3N2Zz4=",
+        "java\nscript:alert(1)"
+    })
+    void rejectsDangerousSchemesInImages(String url) {
+        String html = MarkdownRenderer.render("![texte](" + url + ")");
+
+        assertThat(html).doesNotContain("<img").contains("texte");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"<javascript:alert(1)>", "<data:text/html,hi>", "<JAVASCRIPT:alert(1)>"})
+    void rejectsDangerousSchemesInAutolinks(String autolink) {
+        String html = MarkdownRenderer.render(autolink);
+
+        assertThat(html).doesNotContain("<a").doesNotContain("href").contains("&lt;");
+    }
+
+    @Test
+    void acceptsSafeAutolinks() {
+        assertThat(MarkdownRenderer.render("<https://example.com>"))
+                .isEqualTo("<p><a href=\"https://example.com\" rel=\"nofollow noopener noreferrer\">"
+                           + "https://example.com</a></p>\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"javascript&#58;alert(1)", "&#106;avascript:alert(1)", "javascript&colon;alert(1)",
+                            "jav&#x09;ascript:alert(1)"})
+    void rejectsEntityObfuscatedSchemes(String url) {
+        assertThat(MarkdownRenderer.render("[clic](" + url + ")")).doesNotContain("<a").contains("clic");
+        assertThat(MarkdownRenderer.render("![clic](" + url + ")")).doesNotContain("<img");
+    }
+
+    @Test
+    void keepsAmpersandsInQueryStrings() {
+        assertThat(MarkdownRenderer.render("[recherche](/articles?q=a&page=2)"))
+                .contains("href=\"/articles?q=a&amp;page=2\"");
+    }
+
+    @Test
+    void quotesAttributes() {
+        String html = MarkdownRenderer.render("[a](/x \"titre \\\" onmouseover=alert(1)\")");
+        assertThat(html).doesNotContain("\" onmouseover").contains("title=\"");
+
+        assertThat(MarkdownRenderer.render("![x\" onerror=\"alert(1)](/img.png 'l\\'image')"))
+                .contains("alt=\"x&quot; onerror=&quot;alert(1)\"")
+                .doesNotContain("alt=\"x\"");
+
+        assertThat(MarkdownRenderer.render("[lien](/a\"onclick=alert(1))"))
+                .contains("href=\"/a&quot;onclick=alert(1)\"");
+
+        assertThat(MarkdownRenderer.render("[t](/a 'un \"titre\"')"))
+                .contains("title=\"un &quot;titre&quot;\"");
+    }
+
+    @Test
+    void rendersUnclosedDelimitersAsText() {
+        assertThat(MarkdownRenderer.render("**gras sans fin et [lien sans fin"))
+                .isEqualTo("<p>**gras sans fin et [lien sans fin</p>\n");
+    }
+
+    @Test
+    void staysLinearOnRepeatedStrongDelimiters() {
+        String markdown = "**a ".repeat(PATHOLOGICAL_LENGTH / 4);
+
+        String html = assertTimeoutPreemptively(LINEAR_TIME_BUDGET, () -> MarkdownRenderer.render(markdown));
+
+        assertThat(html).startsWith("<p>");
+    }
+
+    @Test
+    void staysLinearOnOpeningBrackets() {
+        String markdown = "[".repeat(PATHOLOGICAL_LENGTH);
+
+        String html = assertTimeoutPreemptively(LINEAR_TIME_BUDGET, () -> MarkdownRenderer.render(markdown));
+
+        assertThat(html).isEqualTo("<p>" + markdown + "</p>\n");
+    }
+
+    @Test
+    void staysLinearOnUnclosedLinkDestinations() {
+        String markdown = "[a](".repeat(PATHOLOGICAL_LENGTH / 4);
+
+        String html = assertTimeoutPreemptively(LINEAR_TIME_BUDGET, () -> MarkdownRenderer.render(markdown));
+
+        assertThat(html).isEqualTo("<p>" + markdown + "</p>\n");
+    }
+
+    @Test
+    void staysLinearOnMixedDelimiters() {
+        String markdown = "*_~~`[!<".repeat(PATHOLOGICAL_LENGTH / 8);
+
+        String html = assertTimeoutPreemptively(LINEAR_TIME_BUDGET, () -> MarkdownRenderer.render(markdown));
+
+        assertThat(html).startsWith("<p>");
+    }
+
+    @Test
+    void boundsNestingDepth() {
+        String markdown = ">".repeat(10_000) + " texte\n\n" + "*a ".repeat(10_000) + "b" + "*".repeat(10_000);
+
+        String html = assertTimeoutPreemptively(LINEAR_TIME_BUDGET, () -> MarkdownRenderer.render(markdown));
+
+        assertThat(html).contains("texte");
+    }
+}
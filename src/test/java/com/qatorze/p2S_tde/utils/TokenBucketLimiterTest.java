@@ -0,0 +1,124 @@
+package com.qatorze.p2S_tde.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    // Heure de départ arbitraire (System.nanoTime() peut être négatif).
+    private static final long START = -5 * SECOND;
+
+    @Test
+    void allowsBurstUpToCapacityThenRefusesWithWaitTime() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, SECOND);
+
+        assertThat(limiter.tryAcquire("ip", START)).isZero();
+        assertThat(limiter.tryAcquire("ip", START)).isZero();
+        assertThat(limiter.tryAcquire("ip", START)).isZero();
+        assertThat(limiter.tryAcquire("ip", START)).isEqualTo(SECOND);
+        assertThat(limiter.tryAcquire("ip", START + SECOND / 4)).isEqualTo(SECOND * 3 / 4);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, SECOND);
+        limiter.tryAcquire("ip", START);
+        limiter.tryAcquire("ip", START);
+
+        assertThat(limiter.tryAcquire("ip", START + SECOND - 1)).isEqualTo(1);
+        assertThat(limiter.tryAcquire("ip", START + SECOND)).isZero();
+        assertThat(limiter.tryAcquire("ip", START + SECOND)).isPositive();
+    }
+
+    @Test
+    void neverStoresMoreThanCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, SECOND);
+        limiter.tryAcquire("ip", START);
+
+        // Après une longue inactivité, la rafale reste bornée à la capacité.
+        long later = START + 1000 * SECOND;
+        assertThat(limiter.tryAcquire("ip", later)).isZero();
+        assertThat(limiter.tryAcquire("ip", later)).isZero();
+        assertThat(limiter.tryAcquire("ip", later)).isPositive();
+    }
+
+    @Test
+    void refusedAttemptsDoNotConsumeTokens() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, SECOND);
+        limiter.tryAcquire("ip", START);
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire("ip", START + i)).isPositive();
+        }
+
+        assertThat(limiter.tryAcquire("ip", START + SECOND)).isZero();
+    }
+
+    @Test
+    void keepsKeysIndependent() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, SECOND);
+
+        assertThat(limiter.tryAcquire("login|1.2.3.4", START)).isZero();
+        assertThat(limiter.tryAcquire("login|1.2.3.4", START)).isPositive();
+        assertThat(limiter.tryAcquire("login|5.6.7.8", START)).isZero();
+        assertThat(limiter.tryAcquire("register|1.2.3.4", START)).isZero();
+    }
+
+    @Test
+    void evictsOnlyFullBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, SECOND);
+        limiter.tryAcquire("idle", START);
+        limiter.tryAcquire("busy", START + 10 * SECOND);
+        limiter.tryAcquire("busy", START + 10 * SECOND);
+
+        limiter.evictIdle(START + 10 * SECOND);
+
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("busy", START + 10 * SECOND)).isPositive();
+    }
+
+    @Test
+    void grantsExactlyCapacityUnderContention() throws InterruptedException {
+        int capacity = 1000;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(capacity, Long.MAX_VALUE / 4 / capacity);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < capacity; i++) {
+                    if (limiter.tryAcquire("shared", START) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(granted.get()).isEqualTo(capacity);
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThatThrownBy(() -> new TokenBucketLimiter(0, SECOND)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketLimiter(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}